@@ -0,0 +1,256 @@
+package uz.qarzdorlar_ai.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import uz.qarzdorlar_ai.config.PartialIndexInitializer;
+import uz.qarzdorlar_ai.config.ProductSearchInitializer;
+import uz.qarzdorlar_ai.config.properties.ProductSearchIndexProperties;
+import uz.qarzdorlar_ai.mapper.ProductMapperImpl;
+import uz.qarzdorlar_ai.model.Brand;
+import uz.qarzdorlar_ai.model.Category;
+import uz.qarzdorlar_ai.model.Product;
+import uz.qarzdorlar_ai.payload.PageDTO;
+import uz.qarzdorlar_ai.payload.ProductDTO;
+import uz.qarzdorlar_ai.payload.ProductFilterDTO;
+import uz.qarzdorlar_ai.repository.ProductRepository;
+import uz.qarzdorlar_ai.service.ProductSearchIndexService;
+import uz.qarzdorlar_ai.service.ProductSearchIndexServiceImpl;
+import uz.qarzdorlar_ai.service.ProductService;
+import uz.qarzdorlar_ai.service.ProductServiceImpl;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Katalog qidiruvi: {@link ProductSearchIndexServiceImpl} (in-memory) va Specification yo'li -
+ * {@link ProductService#getSearchProducts} ning o'zi (Hibernate, ProductSpecification, mapper, PostgreSQL da).
+ * <p>
+ * Ikkala tomon bitta sintetik katalogdan: indeks shu ro'yxatdan quriladi, baza esa alohida schema ga
+ * ({@value #SCHEMA}) xuddi shu qatorlar bilan to'ldiriladi (search_text trigger, GIN va partial indekslar
+ * initializerlardan). Specification benchmarklari TEST_DB_URL, TEST_DB_USERNAME, TEST_DB_PASSWORD ni talab qiladi
+ * (bo'lmasa setup xato beradi va faqat shu benchmarklar yiqiladi).
+ * <p>
+ * Ishga tushirish: {@code mvn -Pbenchmark test-compile exec:exec -Djmh.args="ProductSearchBenchmark"}
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductSearchBenchmark {
+
+    private static final String[] BRANDS = {"HP", "Lenovo", "Acer", "Dell", "Asus", "Apple", "MSI"};
+    private static final String[] CATEGORIES = {"Laptop", "AIO", "Monitor", "Printer"};
+    private static final String[] SERIES = {"OmniStudio", "ThinkPad", "Aspire", "Latitude", "Vivobook", "MacBook", "Katana"};
+    private static final String[] CPUS = {"Intel Core i5-1335U", "Intel Core i7-13700H", "Intel Core Ultra7 155H",
+            "AMD Ryzen 7 7735HS", "Apple M3"};
+    private static final String[] RAMS = {"8GB DDR4", "16GB DDR5", "32GB DDR5"};
+    private static final String[] STORAGES = {"256GB SSD", "512GB SSD M.2", "1TB SSD", "1TB HDD"};
+    private static final String[] GPUS = {"Intel Iris Xe", "RTX 4050 6GB", "RTX 4060 8GB", "MX 350"};
+
+    private static final int PAGE_SIZE = 10;
+    private static final String SCHEMA = "product_search_bench";
+    private static final long CREATED_AT_BASE = Timestamp.valueOf("2024-01-01 00:00:00").getTime();
+
+    @State(Scope.Benchmark)
+    public static class QueryState {
+
+        @Param({"hp", "lenovo thinkpad", "i7 16gb ssd"})
+        String query;
+
+        ProductFilterDTO filter;
+
+        @Setup
+        public void setUp() {
+            filter = new ProductFilterDTO();
+            filter.setFilter(query);
+        }
+    }
+
+    // Ikkala tomon uchun bitta katalog
+    @State(Scope.Benchmark)
+    public static class CatalogState {
+
+        @Param({"1000", "20000"})
+        int catalogSize;
+
+        List<Product> products;
+
+        @Setup
+        public void setUp() {
+            products = catalog(catalogSize);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class IndexState {
+
+        ProductSearchIndexServiceImpl index;
+
+        @Setup
+        public void setUp(CatalogState catalog) {
+            index = new ProductSearchIndexServiceImpl(unused(ProductRepository.class), new ProductMapperImpl(),
+                    new ProductSearchIndexProperties());
+            index.rebuild(catalog.products);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class DatabaseState {
+
+        ConfigurableApplicationContext context;
+        ProductService productService;
+
+        @Setup
+        public void setUp(CatalogState catalog) {
+            String url = System.getenv("TEST_DB_URL");
+            if (url == null || url.isBlank()) {
+                throw new IllegalStateException("TEST_DB_URL is not set, Specification benchmarks need PostgreSQL");
+            }
+
+            // Command line argumentlar application-*.yaml dan ustun; jadvallar har safar SCHEMA da qaytadan yaratiladi
+            context = new SpringApplicationBuilder(SearchContext.class)
+                    .web(WebApplicationType.NONE)
+                    .run("--spring.datasource.url=" + url + (url.contains("?") ? "&" : "?") + "currentSchema=" + SCHEMA + ",public",
+                            "--spring.datasource.username=" + System.getenv("TEST_DB_USERNAME"),
+                            "--spring.datasource.password=" + System.getenv("TEST_DB_PASSWORD"),
+                            "--spring.jpa.hibernate.ddl-auto=create",
+                            "--spring.jpa.properties.hibernate.default_schema=" + SCHEMA,
+                            "--spring.jpa.properties.hibernate.hbm2ddl.create_namespaces=true");
+
+            JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+            new ProductSearchInitializer(jdbcTemplate).run();
+            seed(jdbcTemplate, catalog.products);
+            new PartialIndexInitializer(jdbcTemplate).run();
+            jdbcTemplate.execute("ANALYZE product");
+
+            productService = context.getBean(ProductService.class);
+        }
+
+        @TearDown
+        public void tearDown() {
+            if (context != null) {
+                context.getBean(JdbcTemplate.class).execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+                context.close();
+            }
+        }
+    }
+
+    /**
+     * Faqat JPA (barcha entity va repositorylar), ProductServiceImpl va mapper - scheduler, web va
+     * boshqa servislarsiz. Indeks servisi ishlatilmaydi: benchmark getSearchProducts ni to'g'ridan-to'g'ri chaqiradi.
+     */
+    @SpringBootConfiguration
+    @ImportAutoConfiguration({DataSourceAutoConfiguration.class, HibernateJpaAutoConfiguration.class,
+            JdbcTemplateAutoConfiguration.class, TransactionAutoConfiguration.class})
+    @EntityScan(basePackageClasses = Product.class)
+    @EnableJpaRepositories(basePackageClasses = ProductRepository.class)
+    @Import({ProductServiceImpl.class, ProductMapperImpl.class})
+    static class SearchContext {
+
+        @Bean
+        ProductSearchIndexService productSearchIndexService() {
+            return unused(ProductSearchIndexService.class);
+        }
+    }
+
+    @Benchmark
+    public PageDTO<ProductDTO> inMemoryIndex(IndexState state, QueryState query) {
+        return state.index.search(query.filter, 0, PAGE_SIZE, false);
+    }
+
+    @Benchmark
+    public PageDTO<ProductDTO> specification(DatabaseState state, QueryState query) {
+        return state.productService.getSearchProducts(query.filter, 0, PAGE_SIZE, false);
+    }
+
+    // Katalog qatorlari o'z id lari bilan; created_at id tartibida - indeksdagi "yangisi birinchi" bilan bir xil
+    private static void seed(JdbcTemplate jdbcTemplate, List<Product> products) {
+        List<Brand> brands = products.stream().map(Product::getBrand).distinct().toList();
+        List<Category> categories = products.stream().map(Product::getCategory).distinct().toList();
+
+        jdbcTemplate.batchUpdate("INSERT INTO brand (id, name, deleted) VALUES (?, ?, false)",
+                brands.stream().map(brand -> new Object[]{brand.getId(), brand.getName()}).toList());
+        jdbcTemplate.batchUpdate("INSERT INTO category (id, name, deleted) VALUES (?, ?, false)",
+                categories.stream().map(category -> new Object[]{category.getId(), category.getName()}).toList());
+        jdbcTemplate.batchUpdate("""
+                        INSERT INTO product (id, name, brand_id, category_id, cpu, ram, storage, gpu, model_code, price_usd,
+                                             touch_screen, backlit, raw_data, created_at, deleted)
+                        VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, false)
+                        """,
+                products.stream().map(product -> new Object[]{
+                        product.getId(), product.getName(), product.getBrand().getId(), product.getCategory().getId(),
+                        product.getCpu(), product.getRam(), product.getStorage(), product.getGpu(), product.getModelCode(),
+                        product.getPriceUsd(), product.getTouchScreen(), product.getBacklit(), product.getRawData(),
+                        new Timestamp(CREATED_AT_BASE + product.getId() * 1000)
+                }).toList());
+    }
+
+    private static List<Product> catalog(int size) {
+        Random random = new Random(42);
+        List<Brand> brands = new ArrayList<>();
+        for (int i = 0; i < BRANDS.length; i++) {
+            Brand brand = new Brand(BRANDS[i]);
+            brand.setId((long) i + 1);
+            brands.add(brand);
+        }
+        List<Category> categories = new ArrayList<>();
+        for (int i = 0; i < CATEGORIES.length; i++) {
+            Category category = new Category(CATEGORIES[i]);
+            category.setId((long) i + 1);
+            categories.add(category);
+        }
+
+        List<Product> products = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            int brandIndex = random.nextInt(BRANDS.length);
+            Product product = new Product();
+            product.setId(id);
+            product.setBrand(brands.get(brandIndex));
+            product.setCategory(categories.get(random.nextInt(CATEGORIES.length)));
+            product.setName(BRANDS[brandIndex] + " " + SERIES[brandIndex] + " " + (10 + random.nextInt(90)));
+            product.setCpu(CPUS[random.nextInt(CPUS.length)]);
+            product.setRam(RAMS[random.nextInt(RAMS.length)]);
+            product.setStorage(STORAGES[random.nextInt(STORAGES.length)]);
+            product.setGpu(GPUS[random.nextInt(GPUS.length)]);
+            product.setModelCode(Integer.toString(1_000_000 + random.nextInt(9_000_000), 36).toUpperCase());
+            product.setPriceUsd(BigDecimal.valueOf(30000 + random.nextInt(300000), 2));
+            product.setRawData("benchmark-" + id);
+            products.add(product);
+        }
+        return products;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T unused(Class<T> type) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                return switch (method.getName()) {
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> type.getSimpleName() + " stub";
+                };
+            }
+            throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName()
+                    + " must not be called from the search benchmark");
+        });
+    }
+}
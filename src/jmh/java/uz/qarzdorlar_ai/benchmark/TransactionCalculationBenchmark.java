@@ -0,0 +1,194 @@
+package uz.qarzdorlar_ai.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import uz.qarzdorlar_ai.enums.CurrencyCode;
+import uz.qarzdorlar_ai.enums.TransactionType;
+import uz.qarzdorlar_ai.model.Client;
+import uz.qarzdorlar_ai.model.Product;
+import uz.qarzdorlar_ai.model.Transaction;
+import uz.qarzdorlar_ai.payload.TransactionCreateDTO;
+import uz.qarzdorlar_ai.payload.TransactionItemCreateDTO;
+import uz.qarzdorlar_ai.repository.ClientRepository;
+import uz.qarzdorlar_ai.repository.ProductRepository;
+import uz.qarzdorlar_ai.service.ExchangeRateService;
+import uz.qarzdorlar_ai.service.transactions.TransactionCalculationServiceImpl;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link TransactionCalculationServiceImpl} ning har bir tranzaksiya turi bo'yicha o'lchovi.
+ * Product va clientlar batch importdagidek oldindan yuklangan map orqali beriladi,
+ * kurslar DTO da keladi - shuning uchun repository va kurslar servisi chaqirilmasligi kerak
+ * (chaqirilsa stub xato tashlaydi va benchmark yiqiladi).
+ * <p>
+ * Ishga tushirish: {@code mvn -Pbenchmark test-compile exec:exec}
+ * (throughput, sample time va {@code -prof gc} bilan allocation rate).
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransactionCalculationBenchmark {
+
+    private static final BigDecimal UZS_RATE = new BigDecimal("12650.50");
+    private static final BigDecimal AED_RATE = new BigDecimal("3.6725");
+
+    @State(Scope.Thread)
+    public static class EngineState {
+
+        TransactionCalculationServiceImpl engine;
+        Client client;      // UZS da hisob yuritadi
+        Client receiver;    // AED da hisob yuritadi
+        Map<Long, Client> clients;
+
+        @Setup
+        public void setUp() {
+            engine = new TransactionCalculationServiceImpl(
+                    unused(ProductRepository.class),
+                    unused(ClientRepository.class),
+                    unused(ExchangeRateService.class)
+            );
+
+            client = client(1L, CurrencyCode.UZS);
+            receiver = client(2L, CurrencyCode.AED);
+
+            clients = new HashMap<>();
+            clients.put(client.getId(), client);
+            clients.put(receiver.getId(), receiver);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class SaleState {
+
+        @Param({"1", "10", "100"})
+        int itemCount;
+
+        // 12650.50 - long yo'l; 12650.501234 (scale 6) - BigDecimal yo'l
+        @Param({"12650.50", "12650.501234"})
+        String rate;
+
+        TransactionCreateDTO dto;
+        Map<Long, Product> products;
+
+        @Setup
+        public void setUp() {
+            products = new HashMap<>();
+            List<TransactionItemCreateDTO> items = new ArrayList<>();
+            for (long id = 1; id <= itemCount; id++) {
+                Product product = new Product();
+                product.setId(id);
+                product.setPriceUsd(BigDecimal.valueOf(250 + id * 7, 2));
+                products.put(id, product);
+
+                // unitPrice yo'q - narx priceUsd * rateToUsd bilan hisoblanadi
+                items.add(new TransactionItemCreateDTO(id, (int) (id % 5) + 1, null));
+            }
+
+            dto = new TransactionCreateDTO();
+            dto.setType(TransactionType.SALE);
+            dto.setTransactionCurrency(CurrencyCode.UZS);
+            dto.setRateToUsd(new BigDecimal(rate));
+            dto.setClientRateToUsd(new BigDecimal(rate));
+            dto.setItems(items);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class CashState {
+
+        TransactionCreateDTO cashIn;
+        TransactionCreateDTO cashOut;
+        TransactionCreateDTO transfer;
+
+        @Setup
+        public void setUp() {
+            cashIn = cashDto(TransactionType.CASH_IN);
+
+            cashOut = cashDto(TransactionType.CASH_OUT);
+            cashOut.setFeeAmount(new BigDecimal("1.25"));
+
+            transfer = cashDto(TransactionType.TRANSFER);
+            transfer.setReceiverClientId(2L);
+            transfer.setReceiverRateToUsd(AED_RATE);
+        }
+
+        private static TransactionCreateDTO cashDto(TransactionType type) {
+            TransactionCreateDTO dto = new TransactionCreateDTO();
+            dto.setType(type);
+            dto.setTransactionCurrency(CurrencyCode.UZS);
+            dto.setRateToUsd(UZS_RATE);
+            dto.setClientRateToUsd(UZS_RATE);
+            dto.setAmount(new BigDecimal("1500000.00"));
+            return dto;
+        }
+    }
+
+    @Benchmark
+    public Transaction sale(EngineState state, SaleState sale) {
+        Transaction transaction = newTransaction(state.client, sale.dto);
+        state.engine.calculateTransaction(sale.dto, transaction, state.client, state.clients, sale.products);
+        return transaction;
+    }
+
+    @Benchmark
+    public Transaction cashIn(EngineState state, CashState cash) {
+        Transaction transaction = newTransaction(state.client, cash.cashIn);
+        state.engine.calculateTransaction(cash.cashIn, transaction, state.client, state.clients, null);
+        return transaction;
+    }
+
+    @Benchmark
+    public Transaction cashOut(EngineState state, CashState cash) {
+        Transaction transaction = newTransaction(state.client, cash.cashOut);
+        state.engine.calculateTransaction(cash.cashOut, transaction, state.client, state.clients, null);
+        return transaction;
+    }
+
+    @Benchmark
+    public Transaction transfer(EngineState state, CashState cash) {
+        Transaction transaction = newTransaction(state.client, cash.transfer);
+        state.engine.calculateTransaction(cash.transfer, transaction, state.client, state.clients, null);
+        return transaction;
+    }
+
+    private static Transaction newTransaction(Client client, TransactionCreateDTO dto) {
+        Transaction transaction = new Transaction();
+        transaction.setClient(client);
+        transaction.setType(dto.getType());
+        transaction.setTransactionCurrency(dto.getTransactionCurrency());
+        return transaction;
+    }
+
+    private static Client client(Long id, CurrencyCode currencyCode) {
+        Client client = new Client();
+        client.setId(id);
+        client.setCurrencyCode(currencyCode);
+        return client;
+    }
+
+    /**
+     * O'lchanayotgan yo'lda chaqirilmasligi kerak bo'lgan bog'liqliklar uchun stub.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T unused(Class<T> type) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                return switch (method.getName()) {
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> type.getSimpleName() + " stub";
+                };
+            }
+            throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName()
+                    + " must not be called from the calculation benchmark");
+        });
+    }
+}
@@ -0,0 +1,209 @@
+package uz.qarzdorlar_ai.benchmark;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+import uz.qarzdorlar_ai.enums.ClientType;
+import uz.qarzdorlar_ai.enums.CurrencyCode;
+import uz.qarzdorlar_ai.enums.TransactionType;
+import uz.qarzdorlar_ai.model.Client;
+import uz.qarzdorlar_ai.model.Product;
+import uz.qarzdorlar_ai.model.Transaction;
+import uz.qarzdorlar_ai.model.TransactionItem;
+import uz.qarzdorlar_ai.model.User;
+import uz.qarzdorlar_ai.model.embedded.AbsPooledLongEntity;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 10k Transaction + 10k TransactionItem insert: IDENTITY (oldingi {@code AbsLongEntity}) va pooled sequence
+ * ({@link AbsPooledLongEntity}, hozirgi). IDENTITY varianti uchun {@code benchmark/identity-orm.xml}
+ * AbsPooledLongEntity id sini IDENTITY ga almashtiradi - entitylar, ilova sozlamalari (jdbc.batch_size,
+ * order_inserts) va yozish yo'li ikkala tomonda bir xil. Insertlar batch importdagidek bitta tranzaksiyada,
+ * har {@value #FLUSH_EVERY} ta tranzaksiyada flush + clear bilan.
+ * <p>
+ * Jadvallar alohida schema da ({@value #SCHEMA}) ddl-auto=create bilan yaratiladi; TEST_DB_URL, TEST_DB_USERNAME,
+ * TEST_DB_PASSWORD kerak. Id strategiyasi setup da bazadan tekshiriladi - override ishlamasa benchmark yiqiladi.
+ * <p>
+ * Ishga tushirish: {@code mvn -Pbenchmark test-compile exec:exec -Djmh.args="TransactionInsertBenchmark"}
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TransactionInsertBenchmark {
+
+    private static final int TRANSACTIONS = 10_000;
+    private static final int FLUSH_EVERY = 1_000;
+    private static final String SCHEMA = "id_generation_bench";
+
+    @Param({"IDENTITY", "SEQUENCE"})
+    String idGeneration;
+
+    private ConfigurableApplicationContext context;
+    private JdbcTemplate jdbcTemplate;
+    private EntityManagerFactory entityManagerFactory;
+    private TransactionTemplate transactionTemplate;
+    private Long clientId;
+    private Long userId;
+    private Long productId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String url = System.getenv("TEST_DB_URL");
+        if (url == null || url.isBlank()) {
+            throw new IllegalStateException("TEST_DB_URL is not set, insert benchmarks need PostgreSQL");
+        }
+
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.datasource.url=" + url + (url.contains("?") ? "&" : "?") + "currentSchema=" + SCHEMA + ",public",
+                "--spring.datasource.username=" + System.getenv("TEST_DB_USERNAME"),
+                "--spring.datasource.password=" + System.getenv("TEST_DB_PASSWORD"),
+                "--spring.jpa.hibernate.ddl-auto=create",
+                "--spring.jpa.properties.hibernate.default_schema=" + SCHEMA,
+                "--spring.jpa.properties.hibernate.hbm2ddl.create_namespaces=true"));
+        if ("IDENTITY".equals(idGeneration)) {
+            args.add("--spring.jpa.mapping-resources=benchmark/identity-orm.xml");
+        }
+        context = new SpringApplicationBuilder(InsertContext.class)
+                .web(WebApplicationType.NONE)
+                .run(args.toArray(String[]::new));
+
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        entityManagerFactory = context.getBean(EntityManagerFactory.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        verifyIdGeneration();
+        seed();
+    }
+
+    @Setup(Level.Invocation)
+    public void truncate() {
+        jdbcTemplate.execute("TRUNCATE transaction_item, transaction");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (context != null) {
+            jdbcTemplate.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+            context.close();
+        }
+    }
+
+    @Benchmark
+    public int insertTransactionsWithItems() {
+        return transactionTemplate.execute(status -> {
+            EntityManager entityManager = EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory);
+            Client client = entityManager.getReference(Client.class, clientId);
+            User user = entityManager.getReference(User.class, userId);
+            Product product = entityManager.getReference(Product.class, productId);
+
+            for (int i = 1; i <= TRANSACTIONS; i++) {
+                entityManager.persist(transaction(client, user, product, i));
+                if (i % FLUSH_EVERY == 0) {
+                    entityManager.flush();
+                    entityManager.clear();
+                    client = entityManager.getReference(Client.class, clientId);
+                    user = entityManager.getReference(User.class, userId);
+                    product = entityManager.getReference(Product.class, productId);
+                }
+            }
+            return TRANSACTIONS;
+        });
+    }
+
+    private static Transaction transaction(Client client, User user, Product product, int i) {
+        BigDecimal unitPrice = BigDecimal.valueOf(100_000 + i, 2);
+
+        Transaction transaction = new Transaction();
+        transaction.setClient(client);
+        transaction.setCreatedBy(user);
+        transaction.setType(TransactionType.SALE);
+        transaction.setTransactionCurrency(CurrencyCode.USD);
+        transaction.setAmount(unitPrice);
+        transaction.setRateToUsd(BigDecimal.ONE);
+        transaction.setUsdAmount(unitPrice);
+        transaction.setClientRateSnapshot(BigDecimal.ONE);
+        transaction.setBalanceEffect(unitPrice.negate());
+        transaction.setDescription("benchmark " + i);
+
+        TransactionItem item = new TransactionItem();
+        item.setTransaction(transaction);
+        item.setProduct(product);
+        item.setQuantity(1);
+        item.setUnitPrice(unitPrice);
+        item.setTotalPrice(unitPrice);
+        transaction.setItems(new ArrayList<>(List.of(item)));
+        return transaction;
+    }
+
+    // orm.xml override jim e'tiborsiz qolsa ikkala natija bir xil strategiyani o'lchagan bo'lardi
+    private void verifyIdGeneration() {
+        Boolean identity = jdbcTemplate.queryForObject("""
+                SELECT is_identity = 'YES' FROM information_schema.columns
+                WHERE table_schema = ? AND table_name = 'transaction' AND column_name = 'id'
+                """, Boolean.class, SCHEMA);
+        Boolean sequence = jdbcTemplate.queryForObject(
+                "SELECT to_regclass(?) IS NOT NULL", Boolean.class, SCHEMA + ".transaction_seq");
+        boolean expectIdentity = "IDENTITY".equals(idGeneration);
+        if (!Boolean.valueOf(expectIdentity).equals(identity) || Boolean.valueOf(expectIdentity).equals(sequence)) {
+            throw new IllegalStateException("transaction.id is not generated by " + idGeneration
+                    + " (identity column: " + identity + ", transaction_seq: " + sequence + ")");
+        }
+    }
+
+    private void seed() {
+        transactionTemplate.executeWithoutResult(status -> {
+            EntityManager entityManager = EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory);
+
+            Client client = new Client();
+            client.setFullName("Benchmark client");
+            client.setPhoneNumber("+998000000000");
+            client.setType(ClientType.CLIENT);
+            client.setInitialBalance(BigDecimal.ZERO);
+            client.setCurrentBalance(BigDecimal.ZERO);
+            entityManager.persist(client);
+
+            User user = new User();
+            user.setUsername("benchmark");
+            entityManager.persist(user);
+
+            Product product = new Product();
+            product.setName("Benchmark product");
+            product.setRawData("benchmark-product");
+            entityManager.persist(product);
+
+            entityManager.flush();
+            clientId = client.getId();
+            userId = user.getId();
+            productId = product.getId();
+        });
+    }
+
+    /**
+     * Faqat JPA va tranzaksiyalar - repository, servis va scheduler larsiz.
+     */
+    @SpringBootConfiguration
+    @ImportAutoConfiguration({DataSourceAutoConfiguration.class, HibernateJpaAutoConfiguration.class,
+            JdbcTemplateAutoConfiguration.class, TransactionAutoConfiguration.class})
+    @EntityScan(basePackageClasses = Transaction.class)
+    static class InsertContext {
+    }
+}
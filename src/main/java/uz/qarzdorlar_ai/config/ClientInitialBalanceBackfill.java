@@ -0,0 +1,91 @@
+package uz.qarzdorlar_ai.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+/**
+ * {@code initial_balance} saqlanmagan (NULL) eski clientlar uchun bir martalik migratsiya:
+ * {@code initial_balance = effektiv balans - SUM(tirik tranzaksiyalar ta'siri)}. Effektiv balans -
+ * {@code current_balance + SUM(client_balance_delta)}, reconciliation dagi "actual" bilan bir xil.
+ * Shundan keyin bu clientlar har runda drift bo'lib chiqmaydi, statement dagi running balance to'g'ri boshlanadi
+ * va {@code archivePartition} ta'sirni 0 ga emas, haqiqiy boshlang'ich nuqtaga qo'shadi.
+ * <p>
+ * UPDATE va {@code schema_migration} belgisi bitta tranzaksiyada - keyingi ishga tushirishlarda client jadvali
+ * o'qilmaydi. EntityManagerFactory shu bean ga bog'liq: backfill web server va scheduled joblardan oldin,
+ * balansni o'zgartiruvchi yozuvlarsiz bajariladi. Xato bo'lsa ilova ko'tarilmaydi.
+ */
+@Slf4j
+@Component
+public class ClientInitialBalanceBackfill implements InitializingBean {
+
+    static final String MIGRATION = "client_initial_balance_backfill";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public ClientInitialBalanceBackfill(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        try {
+            Boolean tableExists = jdbcTemplate.queryForObject("SELECT to_regclass('client') IS NOT NULL", Boolean.class);
+            if (!Boolean.TRUE.equals(tableExists)) {
+                // yangi baza - eski client yo'q; belgi keyingi ishga tushirishda (0 qator bilan) qo'yiladi
+                return;
+            }
+            jdbcTemplate.execute(
+                    "CREATE TABLE IF NOT EXISTS schema_migration (name varchar(100) PRIMARY KEY, applied_at timestamp NOT NULL DEFAULT now())");
+            Boolean applied = jdbcTemplate.queryForObject(
+                    "SELECT EXISTS (SELECT 1 FROM schema_migration WHERE name = ?)", Boolean.class, MIGRATION);
+            if (Boolean.TRUE.equals(applied)) {
+                return;
+            }
+
+            // delta jadvalini ddl-auto yaratadi - bu versiyaga birinchi o'tishda u hali yo'q (va bo'sh)
+            Boolean deltasExist = jdbcTemplate.queryForObject(
+                    "SELECT to_regclass('client_balance_delta') IS NOT NULL", Boolean.class);
+            String deltas = Boolean.TRUE.equals(deltasExist)
+                    ? "COALESCE((SELECT SUM(d.amount) FROM client_balance_delta d WHERE d.client_id = c.id), 0)"
+                    : "0";
+
+            Integer updated = transactionTemplate.execute(status -> {
+                int rows = jdbcTemplate.update("""
+                        UPDATE client c
+                        SET initial_balance = COALESCE(c.current_balance, 0)
+                            + %s
+                            - COALESCE((SELECT SUM(t.balance_effect) FROM transaction t
+                                        WHERE t.client_id = c.id AND t.deleted = false), 0)
+                            - COALESCE((SELECT SUM(t.receiver_balance_effect) FROM transaction t
+                                        WHERE t.receiver_client_id = c.id AND t.deleted = false), 0)
+                        WHERE c.initial_balance IS NULL
+                        """.formatted(deltas));
+                jdbcTemplate.update("INSERT INTO schema_migration (name) VALUES (?) ON CONFLICT (name) DO NOTHING", MIGRATION);
+                return rows;
+            });
+            log.info("Client initial_balance backfilled for {} clients", updated);
+        } catch (RuntimeException e) {
+            throw new IllegalStateException("FAILED to backfill client initial_balance", e);
+        }
+    }
+
+    /**
+     * Backfill Hibernate (va web server) ishga tushishidan oldin tugaydi.
+     */
+    @Component
+    static class EntityManagerFactoryDependsOnBackfill extends EntityManagerFactoryDependsOnPostProcessor {
+
+        EntityManagerFactoryDependsOnBackfill() {
+            super(ClientInitialBalanceBackfill.class);
+        }
+    }
+}
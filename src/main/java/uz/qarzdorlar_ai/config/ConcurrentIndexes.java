@@ -0,0 +1,76 @@
+package uz.qarzdorlar_ai.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Ishlab turgan bazada indeks yaratish / o'chirish: {@code CREATE INDEX CONCURRENTLY IF NOT EXISTS} va
+ * {@code DROP INDEX CONCURRENTLY IF EXISTS} jadvalga yozuvlarni bloklamaydi. CONCURRENTLY tranzaksiya ichida
+ * ishlamaydi - JdbcTemplate autocommit connection bilan (Spring tranzaksiyasisiz) chaqirilishi kerak.
+ * <p>
+ * Uzilib qolgan CONCURRENTLY build indeksni INVALID holda qoldiradi, {@code IF NOT EXISTS} esa uni o'tkazib yuboradi -
+ * shuning uchun bunday indeks o'chirilib qayta quriladi. Partitioned jadvalda CONCURRENTLY qo'llab-quvvatlanmaydi,
+ * u yerda oddiy CREATE / DROP bajariladi. Har qanday xato {@link IllegalStateException} - ilova ko'tarilmaydi.
+ */
+@Slf4j
+final class ConcurrentIndexes {
+
+    private static final Pattern CREATE_INDEX =
+            Pattern.compile("(?is)\\s*CREATE INDEX CONCURRENTLY IF NOT EXISTS (\\w+) ON (\\w+)\\b.*");
+    private static final Pattern DROP_INDEX =
+            Pattern.compile("(?is)\\s*DROP INDEX CONCURRENTLY IF EXISTS (\\w+)\\s*");
+
+    private ConcurrentIndexes() {
+    }
+
+    static void apply(JdbcTemplate jdbcTemplate, String statement) {
+        try {
+            Matcher create = CREATE_INDEX.matcher(statement);
+            Matcher drop = DROP_INDEX.matcher(statement);
+            if (create.matches()) {
+                create(jdbcTemplate, statement, create.group(1), create.group(2));
+            } else if (drop.matches()) {
+                drop(jdbcTemplate, drop.group(1));
+            } else {
+                throw new IllegalArgumentException("Expected CREATE INDEX CONCURRENTLY IF NOT EXISTS or DROP INDEX CONCURRENTLY IF EXISTS");
+            }
+        } catch (RuntimeException e) {
+            throw new IllegalStateException("FAILED to apply index statement '" + statement + "'", e);
+        }
+    }
+
+    private static void create(JdbcTemplate jdbcTemplate, String statement, String index, String table) {
+        Boolean valid = jdbcTemplate.queryForObject(
+                "SELECT (SELECT i.indisvalid FROM pg_index i WHERE i.indexrelid = to_regclass(?))", Boolean.class, index);
+        if (Boolean.TRUE.equals(valid)) {
+            return;
+        }
+        if (Boolean.FALSE.equals(valid)) {
+            log.warn("Index '{}' is INVALID (interrupted concurrent build), rebuilding", index);
+            drop(jdbcTemplate, index);
+        }
+
+        long startTime = System.currentTimeMillis();
+        jdbcTemplate.execute(isPartitioned(jdbcTemplate, table) ? statement.replaceFirst("(?i) CONCURRENTLY", "") : statement);
+        log.info("Index '{}' built in {} ms", index, System.currentTimeMillis() - startTime);
+    }
+
+    private static void drop(JdbcTemplate jdbcTemplate, String index) {
+        String table = jdbcTemplate.queryForObject(
+                "SELECT (SELECT i.indrelid::regclass::text FROM pg_index i WHERE i.indexrelid = to_regclass(?))", String.class, index);
+        if (table == null) {
+            return;
+        }
+        String concurrently = isPartitioned(jdbcTemplate, table) ? "" : "CONCURRENTLY ";
+        jdbcTemplate.execute("DROP INDEX " + concurrently + "IF EXISTS " + index);
+        log.info("Index '{}' dropped", index);
+    }
+
+    private static boolean isPartitioned(JdbcTemplate jdbcTemplate, String table) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM pg_partitioned_table WHERE partrelid = to_regclass(?))", Boolean.class, table));
+    }
+}
@@ -0,0 +1,107 @@
+package uz.qarzdorlar_ai.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * {@code @SQLRestriction("deleted = false")} bilan ishlaydigan so'rovlar uchun partial indekslar.
+ * JPA {@code @Index} WHERE / INCLUDE / expression ni ifodalay olmaydi, shuning uchun ular shu yerda
+ * yaratiladi va ular almashtirgan to'liq indekslar o'chiriladi. Barcha statementlar idempotent.
+ * <p>
+ * Indekslar {@link ConcurrentIndexes} orqali CONCURRENTLY quriladi (ishlab turgan bazada yozuvlar bloklanmaydi),
+ * xato bo'lsa ilova ko'tarilmaydi - indekssiz ishlab, sekin so'rovlar bilan kech bilinishidan yaxshiroq.
+ * <p>
+ * FK tekshiruvlari uchun kerak bo'ladigan bitta ustunli to'liq indekslar (idx_transection_clinets,
+ * idx_transection_staff_users, idx_transaction_receiver) va o'chirilganlarni ham o'qiydigan idx_transaction_updated_at qoldiriladi.
+ * Unique constraintlar (username, full_name, phone_number, brand.name) ddl-auto tomonidan boshqariladi.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@RequiredArgsConstructor
+public class PartialIndexInitializer implements CommandLineRunner {
+
+    // gin_trgm_ops uchun; ProductSearchInitializer dan oldin ishlaydi - huquq bo'lmasa extension ni DBA yaratadi
+    private static final String TRIGRAM_EXTENSION = "CREATE EXTENSION IF NOT EXISTS pg_trgm";
+
+    public static final List<String> STATEMENTS = List.of(
+            // transaction: client / receiver sahifalari, keyset cursor, statement eksporti.
+            // INCLUDE - balance reconciliation SUM lari index-only o'qiladi
+            "CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_transaction_live_client ON transaction (client_id, created_at, id) " +
+                    "INCLUDE (balance_effect) WHERE deleted = false",
+            "CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_transaction_live_receiver ON transaction (receiver_client_id, created_at, id) " +
+                    "INCLUDE (receiver_balance_effect) WHERE deleted = false AND receiver_client_id IS NOT NULL",
+            "CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_transaction_live_created ON transaction (created_at, id) WHERE deleted = false",
+            // transaction/search
+            "CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_transaction_live_type ON transaction (type, transaction_currency, created_at, id) " +
+                    "WHERE deleted = false",
+            "CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_transaction_live_currency ON transaction (transaction_currency, created_at, id) " +
+                    "WHERE deleted = false",
+            "CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_transaction_live_creator ON transaction (created_by_id, created_at, id) " +
+                    "WHERE deleted = false",
+            "CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_transaction_live_usd_amount ON transaction (usd_amount) WHERE deleted = false",
+            "CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_transaction_live_amount ON transaction (amount) WHERE deleted = false",
+            // description bo'yicha lower(description) LIKE '%x%'
+            "CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_transaction_live_description_trgm ON transaction " +
+                    "USING gin (lower(description) gin_trgm_ops) WHERE deleted = false",
+            "DROP INDEX CONCURRENTLY IF EXISTS idx_transaction_created_id",
+            "DROP INDEX CONCURRENTLY IF EXISTS idx_transaction_client_created_id",
+            "DROP INDEX CONCURRENTLY IF EXISTS idx_transaction_receiver_created_id",
+            "DROP INDEX CONCURRENTLY IF EXISTS idx_transaction_type_created_id",
+            "DROP INDEX CONCURRENTLY IF EXISTS idx_transaction_currency_created_id",
+            "DROP INDEX CONCURRENTLY IF EXISTS idx_transaction_creator_created_id",
+            "DROP INDEX CONCURRENTLY IF EXISTS idx_transaction_type_currency_created_id",
+            "DROP INDEX CONCURRENTLY IF EXISTS idx_transaction_usd_amount",
+
+            // transaction_item: sahifa itemlari (transaction_id IN ... ORDER BY id) va items collection
+            "CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_transaction_item_live_transaction ON transaction_item (transaction_id, id) " +
+                    "WHERE deleted = false",
+            // SoftDeleteArchiveService: retention dan o'tgan o'chirilgan qatorlar (deleted_at IS NULL backfill ham shu indeksdan)
+            "CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_transaction_item_dead_deleted_at ON transaction_item (deleted_at) WHERE deleted = true",
+            "CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_transaction_dead_deleted_at ON transaction (deleted_at) WHERE deleted = true",
+            "CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_product_dead_deleted_at ON product (deleted_at) WHERE deleted = true",
+            "CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_client_dead_deleted_at ON client (deleted_at) WHERE deleted = true",
+            "DROP INDEX CONCURRENTLY IF EXISTS idx_transaction_item_dead_updated",
+
+            // client: findAllActiveIds (index-only, id tartibida)
+            "CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_client_live_id ON client (id) WHERE deleted = false",
+
+            // product: rawData tekshiruvi (md5 - TEXT ustun o'rniga 32 belgili kalit), brand / category filtrlari,
+            // qidiruv sortirovkasi
+            "CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_product_live_raw_data_md5 ON product (md5(raw_data)) WHERE deleted = false",
+            "CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_product_live_brand ON product (brand_id, created_at) WHERE deleted = false",
+            "CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_product_live_category ON product (category_id, created_at) WHERE deleted = false",
+            "CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_product_live_created ON product (created_at) WHERE deleted = false",
+            "DROP INDEX CONCURRENTLY IF EXISTS idx_product_brand",
+            "DROP INDEX CONCURRENTLY IF EXISTS idx_product_category",
+
+            // category: findByName (unique constraint yo'q)
+            "CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_category_live_name ON category (name) WHERE deleted = false",
+
+            // users: findByUsername / findAllowedUserByUsername (login va servislardagi current user)
+            "CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_live_username ON users (username) WHERE deleted = false",
+            "DROP INDEX CONCURRENTLY IF EXISTS idx_users_username"
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(String... args) {
+        try {
+            jdbcTemplate.execute(TRIGRAM_EXTENSION);
+        } catch (RuntimeException e) {
+            throw new IllegalStateException("FAILED to apply '" + TRIGRAM_EXTENSION + "'", e);
+        }
+        for (String statement : STATEMENTS) {
+            ConcurrentIndexes.apply(jdbcTemplate, statement);
+        }
+        log.info("Partial soft-delete indexes applied ({} statements)", STATEMENTS.size());
+    }
+}
@@ -0,0 +1,114 @@
+package uz.qarzdorlar_ai.config;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.type.filter.AssignableTypeFilter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+import uz.qarzdorlar_ai.model.embedded.AbsPooledLongEntity;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * IDENTITY dan sequence ga o'tgan jadvallar uchun migratsiya.
+ * ddl-auto sequence ni 1 dan boshlab yaratadi, bu esa mavjud id lar bilan to'qnashadi.
+ * Har startda sequence {@code MAX(id) + ALLOCATION_SIZE} dan kam bo'lmasligini ta'minlaymiz
+ * (pooled optimizer {@code nextval - ALLOCATION_SIZE + 1 .. nextval} oralig'ini ishlatadi).
+ * Sequence hech qachon orqaga surilmaydi, shuning uchun qayta ishga tushirish xavfsiz.
+ * <p>
+ * EntityManagerFactory shu bean ga bog'liq: tekislash Hibernate (va web server) ishga tushishidan oldin bajariladi,
+ * xato bo'lsa ilova ko'tarilmaydi. Sequence hali yo'q bo'lsa shu yerda Hibernate kutgan increment bilan yaratiladi,
+ * jadvali yo'q (yangi baza) entitylar o'tkazib yuboriladi - ularni ddl-auto 1 dan yaratadi.
+ */
+@Slf4j
+@Component
+public class PooledSequenceInitializer implements InitializingBean {
+
+    private static final String ENTITY_PACKAGE = "uz.qarzdorlar_ai.model";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public PooledSequenceInitializer(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        for (Class<?> entityClass : pooledEntities()) {
+            String tableName = tableName(entityClass);
+            String sequenceName = toSnakeCase(entityName(entityClass)) + "_seq";
+            try {
+                Boolean tableExists = jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL",
+                        Boolean.class, "\"" + tableName + "\"");
+                if (!Boolean.TRUE.equals(tableExists)) {
+                    log.info("Table '{}' does not exist yet, sequence '{}' is left to ddl-auto", tableName, sequenceName);
+                    continue;
+                }
+
+                jdbcTemplate.execute("CREATE SEQUENCE IF NOT EXISTS " + sequenceName
+                        + " START WITH 1 INCREMENT BY " + AbsPooledLongEntity.ALLOCATION_SIZE);
+                Long value = jdbcTemplate.queryForObject(
+                        "SELECT setval('" + sequenceName + "', GREATEST(" +
+                                "(SELECT COALESCE(MAX(id), 0) FROM \"" + tableName + "\") + " + AbsPooledLongEntity.ALLOCATION_SIZE + ", " +
+                                "nextval('" + sequenceName + "')), false)",
+                        Long.class
+                );
+                log.info("Sequence '{}' aligned with table '{}', next value: {}", sequenceName, tableName, value);
+            } catch (RuntimeException e) {
+                throw new IllegalStateException("FAILED to align sequence '" + sequenceName + "' for table '" + tableName + "'", e);
+            }
+        }
+    }
+
+    // Metamodel hali yo'q (EntityManagerFactory dan oldin) - entitylar classpath dan topiladi
+    private List<Class<?>> pooledEntities() {
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+        scanner.addIncludeFilter(new AssignableTypeFilter(AbsPooledLongEntity.class));
+
+        List<Class<?>> entities = new ArrayList<>();
+        for (BeanDefinition candidate : scanner.findCandidateComponents(ENTITY_PACKAGE)) {
+            Class<?> type = ClassUtils.resolveClassName(candidate.getBeanClassName(), getClass().getClassLoader());
+            if (type.isAnnotationPresent(Entity.class)) {
+                entities.add(type);
+            }
+        }
+        return entities;
+    }
+
+    private String entityName(Class<?> entityClass) {
+        String name = entityClass.getAnnotation(Entity.class).name();
+        return name.isBlank() ? entityClass.getSimpleName() : name;
+    }
+
+    private String tableName(Class<?> entityClass) {
+        Table table = entityClass.getAnnotation(Table.class);
+        if (table != null && !table.name().isBlank()) {
+            return table.name();
+        }
+        return toSnakeCase(entityName(entityClass));
+    }
+
+    // Spring Boot CamelCaseToUnderscoresNamingStrategy bilan bir xil: TransactionItem -> transaction_item
+    private String toSnakeCase(String name) {
+        return name.replaceAll("([a-z0-9])([A-Z])", "$1_$2").toLowerCase();
+    }
+
+    /**
+     * Hibernate sxemani yangilashi va id olishi tekislangan sequence dan keyin boshlanadi.
+     */
+    @Component
+    static class EntityManagerFactoryDependsOnSequences extends EntityManagerFactoryDependsOnPostProcessor {
+
+        EntityManagerFactoryDependsOnSequences() {
+            super(PooledSequenceInitializer.class);
+        }
+    }
+}
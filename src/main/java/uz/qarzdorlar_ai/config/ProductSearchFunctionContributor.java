@@ -0,0 +1,30 @@
+package uz.qarzdorlar_ai.config;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.type.BasicType;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * Criteria / HQL da PostgreSQL full-text va trigram operatorlari. Ifodalar ProductSearchInitializer dagi
+ * indeks ifodalari bilan aynan bir xil - aks holda planner indeksni ishlatmaydi.
+ * META-INF/services/org.hibernate.boot.model.FunctionContributor orqali ro'yxatdan o'tadi.
+ */
+public class ProductSearchFunctionContributor implements FunctionContributor {
+
+    private static final String TS_VECTOR = "to_tsvector('simple', coalesce(?1, ''))";
+    private static final String TS_QUERY = "websearch_to_tsquery('simple', ?2)";
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        BasicType<Boolean> booleanType = functionContributions.getTypeConfiguration()
+                .getBasicTypeRegistry().resolve(StandardBasicTypes.BOOLEAN);
+        BasicType<Float> floatType = functionContributions.getTypeConfiguration()
+                .getBasicTypeRegistry().resolve(StandardBasicTypes.FLOAT);
+
+        functionContributions.getFunctionRegistry()
+                .registerPattern("fts_match", "(" + TS_VECTOR + " @@ " + TS_QUERY + ")", booleanType);
+        functionContributions.getFunctionRegistry()
+                .registerPattern("fts_rank", "ts_rank(" + TS_VECTOR + ", " + TS_QUERY + ")", floatType);
+    }
+}
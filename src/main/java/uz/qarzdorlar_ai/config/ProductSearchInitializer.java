@@ -0,0 +1,153 @@
+package uz.qarzdorlar_ai.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Product erkin matn qidiruvi uchun {@code product.search_text} ustuni (name, cpu, gpu, ram, storage, model_code,
+ * brand va category nomlari, lower case) va unga GIN indekslar.
+ * <p>
+ * Brand / category nomi boshqa jadvalda bo'lgani uchun GENERATED ustun bo'lolmaydi - trigger to'ldiradi,
+ * brand / category nomi o'zgarsa tegishli productlar qayta hisoblanadi. Full-text indeks ifoda ustida
+ * (ProductSearchFunctionContributor dagi {@code fts_match} bilan bir xil ifoda), trigram indeks esa
+ * {@code LIKE '%x%'} ni ham indeks orqali bajaradi. Barcha statementlar idempotent; triggerlar faqat yo'q bo'lsa
+ * yaratiladi (DROP + CREATE oralig'ida yozilgan product search_text siz qolmasligi uchun).
+ * <p>
+ * Trigger dan oldingi qatorlarni to'ldirish bir marta, id bo'yicha batchlarda bajariladi va
+ * {@code schema_migration} jadvalida belgilanadi - keyingi ishga tushirishlarda product jadvali o'qilmaydi.
+ * GIN indekslar {@link ConcurrentIndexes} orqali CONCURRENTLY quriladi. Har qanday xato ilovani to'xtatadi:
+ * trigger yoki indekssiz qidiruv jim sekinlashgani / noto'g'ri natija bergani yaxshiroq emas.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+@RequiredArgsConstructor
+public class ProductSearchInitializer implements CommandLineRunner {
+
+    static final String BACKFILL_MIGRATION = "product_search_text_backfill";
+    private static final int BACKFILL_BATCH_SIZE = 1000;
+
+    public static final List<String> STATEMENTS = List.of(
+            // trigram indeks uchun - huquq bo'lmasa extension ni DBA oldindan yaratishi kerak
+            "CREATE EXTENSION IF NOT EXISTS pg_trgm",
+            "ALTER TABLE product ADD COLUMN IF NOT EXISTS search_text TEXT",
+
+            """
+                    CREATE OR REPLACE FUNCTION product_search_text_refresh() RETURNS trigger AS $$
+                    BEGIN
+                        NEW.search_text := lower(concat_ws(' ', NEW.name, NEW.cpu, NEW.gpu, NEW.ram, NEW.storage, NEW.model_code,
+                                (SELECT b.name FROM brand b WHERE b.id = NEW.brand_id),
+                                (SELECT c.name FROM category c WHERE c.id = NEW.category_id)));
+                        RETURN NEW;
+                    END
+                    $$ LANGUAGE plpgsql
+                    """,
+            createTriggerIfMissing("trg_product_search_text", "product",
+                    "BEFORE INSERT OR UPDATE OF name, cpu, gpu, ram, storage, model_code, brand_id, category_id ON product " +
+                            "FOR EACH ROW EXECUTE FUNCTION product_search_text_refresh()"),
+
+            // Brand / category nomi o'zgarsa: productni "tegib" o'tamiz, yuqoridagi trigger search_text ni yangilaydi
+            """
+                    CREATE OR REPLACE FUNCTION product_search_text_touch_brand() RETURNS trigger AS $$
+                    BEGIN
+                        UPDATE product SET brand_id = brand_id WHERE brand_id = NEW.id;
+                        RETURN NULL;
+                    END
+                    $$ LANGUAGE plpgsql
+                    """,
+            createTriggerIfMissing("trg_brand_product_search_text", "brand",
+                    "AFTER UPDATE OF name ON brand FOR EACH ROW WHEN (OLD.name IS DISTINCT FROM NEW.name) " +
+                            "EXECUTE FUNCTION product_search_text_touch_brand()"),
+            """
+                    CREATE OR REPLACE FUNCTION product_search_text_touch_category() RETURNS trigger AS $$
+                    BEGIN
+                        UPDATE product SET category_id = category_id WHERE category_id = NEW.id;
+                        RETURN NULL;
+                    END
+                    $$ LANGUAGE plpgsql
+                    """,
+            createTriggerIfMissing("trg_category_product_search_text", "category",
+                    "AFTER UPDATE OF name ON category FOR EACH ROW WHEN (OLD.name IS DISTINCT FROM NEW.name) " +
+                            "EXECUTE FUNCTION product_search_text_touch_category()"),
+
+            "CREATE TABLE IF NOT EXISTS schema_migration (name varchar(100) PRIMARY KEY, applied_at timestamp NOT NULL DEFAULT now())"
+    );
+
+    public static final List<String> INDEXES = List.of(
+            "CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_product_live_search_fts ON product " +
+                    "USING gin (to_tsvector('simple', coalesce(search_text, ''))) WHERE deleted = false",
+            "CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_product_live_search_trgm ON product " +
+                    "USING gin (search_text gin_trgm_ops) WHERE deleted = false"
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(String... args) {
+        for (String statement : STATEMENTS) {
+            try {
+                jdbcTemplate.execute(statement);
+            } catch (RuntimeException e) {
+                throw new IllegalStateException("FAILED to apply product search statement '" + statement + "'", e);
+            }
+        }
+        backfillSearchTextOnce();
+        for (String statement : INDEXES) {
+            ConcurrentIndexes.apply(jdbcTemplate, statement);
+        }
+        log.info("Product search column, triggers and indexes applied ({} statements)", STATEMENTS.size() + INDEXES.size());
+    }
+
+    /**
+     * Trigger dan oldin yozilgan qatorlar: {@code name = name} trigger ni ishga tushiradi. Har batch alohida
+     * (autocommit) UPDATE - qatorlar uzoq lock qilinmaydi, uzilib qolsa keyingi ishga tushirishda davom etadi.
+     */
+    private void backfillSearchTextOnce() {
+        Boolean applied = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM schema_migration WHERE name = ?)", Boolean.class, BACKFILL_MIGRATION);
+        if (Boolean.TRUE.equals(applied)) {
+            return;
+        }
+
+        try {
+            long startTime = System.currentTimeMillis();
+            long lastId = 0;
+            int updated = 0;
+            while (true) {
+                Long batchEnd = jdbcTemplate.queryForObject(
+                        "SELECT max(id) FROM (SELECT id FROM product WHERE id > ? ORDER BY id LIMIT ?) batch",
+                        Long.class, lastId, BACKFILL_BATCH_SIZE);
+                if (batchEnd == null) {
+                    break;
+                }
+                updated += jdbcTemplate.update(
+                        "UPDATE product SET name = name WHERE id > ? AND id <= ? AND search_text IS NULL", lastId, batchEnd);
+                lastId = batchEnd;
+            }
+            jdbcTemplate.update("INSERT INTO schema_migration (name) VALUES (?) ON CONFLICT (name) DO NOTHING", BACKFILL_MIGRATION);
+            log.info("Product search_text backfilled for {} rows in {} ms", updated, System.currentTimeMillis() - startTime);
+        } catch (RuntimeException e) {
+            throw new IllegalStateException("FAILED to backfill product search_text", e);
+        }
+    }
+
+    // CREATE OR REPLACE TRIGGER faqat PostgreSQL 14 dan - mavjud trigger tegilmaydi
+    private static String createTriggerIfMissing(String name, String table, String definition) {
+        return """
+                DO $$
+                BEGIN
+                    IF NOT EXISTS (SELECT 1 FROM pg_trigger WHERE tgname = '%1$s' AND tgrelid = '%2$s'::regclass) THEN
+                        CREATE TRIGGER %1$s %3$s;
+                    END IF;
+                END
+                $$
+                """.formatted(name, table, definition);
+    }
+}
@@ -0,0 +1,48 @@
+package uz.qarzdorlar_ai.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import uz.qarzdorlar_ai.config.properties.TransactionPartitionProperties;
+import uz.qarzdorlar_ai.service.transactions.embedded.TransactionPartitionService;
+
+/**
+ * {@code transaction} / {@code transaction_item} ni partitioned ga o'tkazuvchi bir martalik migratsiya.
+ * Faqat {@code application.transaction-partition.migrate=true} bilan, texnik oynada ishga tushiriladi.
+ * <p>
+ * Barcha singletonlar yaratilgandan keyin, lekin web server port ochishidan va @Scheduled joblar
+ * boshlanishidan oldin bajariladi - migratsiya paytida tranzaksiya yozilmaydi. Xato bo'lsa DDL rollback
+ * bo'ladi va ilova ko'tarilmaydi.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TransactionPartitionMigration implements SmartInitializingSingleton {
+
+    private final TransactionPartitionService transactionPartitionService;
+    private final TransactionPartitionProperties properties;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!properties.isMigrate()) {
+            if (properties.isEnabled() && !transactionPartitionService.isPartitioned()) {
+                log.warn("Transaction partitioning is enabled but the tables are not partitioned; "
+                        + "run once with application.transaction-partition.migrate=true");
+            }
+            return;
+        }
+        if (transactionPartitionService.isPartitioned()) {
+            log.info("Transaction tables are already partitioned, migration skipped");
+            return;
+        }
+
+        long startTime = System.currentTimeMillis();
+        try {
+            transactionPartitionService.convertToPartitioned();
+        } catch (RuntimeException e) {
+            throw new IllegalStateException("Transaction partitioning migration FAILED, startup aborted", e);
+        }
+        log.info("Transaction tables partitioned in {} ms", System.currentTimeMillis() - startTime);
+    }
+}
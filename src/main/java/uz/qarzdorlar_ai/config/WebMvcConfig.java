@@ -1,16 +1,24 @@
 package uz.qarzdorlar_ai.config;
 
+import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import uz.qarzdorlar_ai.config.security.CurrentUserArgumentResolver;
+
+import java.util.List;
 
 @Configuration
 @ComponentScan("uz.qarzdorlar_ai")
+@RequiredArgsConstructor
 public class WebMvcConfig implements WebMvcConfigurer {
 
+    private final CurrentUserArgumentResolver currentUserArgumentResolver;
+
     @Bean
     public RestTemplate restTemplate(){
         return new RestTemplate();
@@ -25,4 +33,9 @@ public class WebMvcConfig implements WebMvcConfigurer {
                 .allowCredentials(true); // Cookie yoki Tokenlar bilan ishlash uchun
     }
 
+    @Override
+    public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
+        resolvers.add(currentUserArgumentResolver); // @CurrentUser User
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,15 @@
+package uz.qarzdorlar_ai.config.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "application.balance-ledger")
+public class BalanceLedgerProperties {
+    private boolean enabled = true;              // false bo'lsa eski UPDATE client yo'li ishlaydi
+    private int compactionBatchSize = 1000;      // bitta compaction statementdagi deltalar soni
+    private int maxBatchesPerRun = 50;           // bitta scheduler chaqiruvida nechta batch
+    private long compactionDelayMs = 5000;       // ClientBalanceCompactor @Scheduled da ishlatiladi
+}
@@ -0,0 +1,21 @@
+package uz.qarzdorlar_ai.config.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "application.balance-reconciliation")
+public class BalanceReconciliationProperties {
+    private boolean enabled = true;
+    private int workerThreads = 4;                            // parallel tekshiruvchi threadlar
+    private int partitionSize = 500;                          // bitta SQL so'rovdagi clientlar soni
+    private BigDecimal tolerance = new BigDecimal("0.01");    // yaxlitlash farqi drift hisoblanmaydi
+    private long incrementalDelayMs = 600_000;                // BalanceReconciliationJob @Scheduled da ishlatiladi
+    private String fullCron = "0 0 4 * * *";                  // to'liq tekshiruv (high-water mark siz)
+    private long watermarkOverlapMs = 300_000;                // commit kechikishi uchun zaxira
+    private int reportLimit = 20;                             // health botga yuboriladigan clientlar soni
+}
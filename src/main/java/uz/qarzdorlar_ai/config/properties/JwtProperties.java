@@ -13,4 +13,6 @@ public class JwtProperties {
     private String secret;
     private Duration accessTokenExpiration;
     private Duration refreshTokenExpiration;
+    // TokenVersionCache ni bazadan qayta yuklash oralig'i (boshqa instance lardagi revoke shu vaqt ichida yetib keladi)
+    private Duration tokenVersionRefresh = Duration.ofMinutes(1);
 }
\ No newline at end of file
@@ -0,0 +1,14 @@
+package uz.qarzdorlar_ai.config.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "application.product-search-index")
+public class ProductSearchIndexProperties {
+    private boolean enabled = true;               // false bo'lsa quick-search Specification yo'li bilan ishlaydi
+    private int maxPrefixLength = 20;             // token prefikslari shu uzunlikkacha indekslanadi
+    private String rebuildCron = "0 0 * * * *";   // to'liq qayta qurish: o'chirilgan doclar tozalanadi, brand/category nomlari yangilanadi
+}
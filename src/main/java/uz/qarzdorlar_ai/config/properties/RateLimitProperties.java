@@ -0,0 +1,29 @@
+package uz.qarzdorlar_ai.config.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "application.rate-limit")
+public class RateLimitProperties {
+    private boolean enabled = true;
+    private Duration idleTimeout = Duration.ofMinutes(10); // shuncha ishlatilmagan bucket xotiradan o'chiriladi
+    private long evictionIntervalMs = 60000;               // RateLimitFilter.evictIdleBuckets @Scheduled da ishlatiladi
+    private int maxBuckets = 100_000;                      // oshsa eng uzoq ishlatilmaganlari 90% igacha chiqariladi
+    private List<Group> groups = new ArrayList<>();        // birinchi mos kelgan guruh ishlatiladi
+
+    @Data
+    public static class Group {
+        private String name;
+        private List<String> patterns = new ArrayList<>(); // Ant pattern: /api/auth/**
+        private long capacity = 10;                        // burst: ketma-ket ruxsat etilgan so'rovlar
+        private long refillTokens = 10;                    // har refillPeriod da qo'shiladigan token
+        private Duration refillPeriod = Duration.ofMinutes(1);
+    }
+}
@@ -0,0 +1,20 @@
+package uz.qarzdorlar_ai.config.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "application.soft-delete-archive")
+public class SoftDeleteArchiveProperties {
+    private boolean enabled = true;
+    private int retentionDays = 90;           // shundan oldin o'chirilgan qatorlar arxivga ko'chiriladi
+    private int batchSize = 500;              // bitta DELETE ... RETURNING statementdagi qatorlar
+    private int maxBatchesPerRun = 200;       // bitta run da jadval boshiga
+    private long pauseBetweenBatchesMs = 200; // batchlar orasida - autovacuum va replikatsiyaga vaqt
+    private int windowStartHour = 1;          // faqat shu oraliqda ishlaydi (server vaqti, [start, end))
+    private int windowEndHour = 6;
+    private String cron = "0 0 1 * * *";      // SoftDeleteArchiveJob @Scheduled da ishlatiladi
+    private String archiveSchema = "archive";
+}
@@ -0,0 +1,17 @@
+package uz.qarzdorlar_ai.config.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "application.transaction-partition")
+public class TransactionPartitionProperties {
+    private boolean enabled = false;                  // partitionlarga xizmat (oldindan yaratish) yoqilgan
+    private boolean migrate = false;                  // true bo'lsa startda (port ochilishidan oldin) jadvallar partitioned ga o'tkaziladi
+    private int monthsAhead = 3;                      // oldindan yaratiladigan oylik partitionlar soni
+    private int hotMonths = 24;                       // shundan yangi oylar arxivlanmaydi
+    private String maintenanceCron = "0 30 2 * * *";  // TransactionPartitionJob @Scheduled da ishlatiladi
+    private String archiveSchema = "archive";         // detach qilingan partitionlar ko'chiriladigan schema
+}
@@ -0,0 +1,17 @@
+package uz.qarzdorlar_ai.config.security;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Controller parametri: joriy foydalanuvchining bazadan o'qilgan (managed) {@link uz.qarzdorlar_ai.model.User} i.
+ * So'rov davomida bir martadan ko'p yuklanmaydi, autentifikatsiya bo'lmasa null.
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface CurrentUser {
+}
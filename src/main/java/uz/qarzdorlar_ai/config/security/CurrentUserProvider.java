@@ -0,0 +1,45 @@
+package uz.qarzdorlar_ai.config.security;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.annotation.RequestScope;
+import uz.qarzdorlar_ai.exception.EntityNotFoundException;
+import uz.qarzdorlar_ai.model.User;
+import uz.qarzdorlar_ai.repository.UserRepository;
+
+/**
+ * So'rov doirasidagi joriy foydalanuvchi. JWT principal detached (claimlardan yasalgan), shu yerda u
+ * id bo'yicha bir marta yuklanadi va so'rov oxirigacha qayta ishlatiladi. Open-in-view tufayli
+ * servis tranzaksiyalarida ham managed bo'lib qoladi.
+ */
+@Component
+@RequestScope
+@RequiredArgsConstructor
+public class CurrentUserProvider {
+
+    private final UserRepository userRepository;
+    private User user;
+
+    /**
+     * @return managed User yoki autentifikatsiya bo'lmasa null
+     */
+    public User getUser() {
+        if (user != null) {
+            return user;
+        }
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof User principal)) {
+            return null;
+        }
+
+        user = principal.getId() != null
+                ? userRepository.findById(principal.getId())
+                .orElseThrow(() -> new EntityNotFoundException("User not found with id: " + principal.getId()))
+                : userRepository.findByUsername(principal.getUsername()) // httpBasic: principal allaqachon bazadan
+                .orElseThrow(() -> new EntityNotFoundException("User not found with username: " + principal.getUsername()));
+        return user;
+    }
+}
@@ -1,5 +1,6 @@
 package uz.qarzdorlar_ai.config.security;
 
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -13,7 +14,7 @@ import org.springframework.security.web.authentication.WebAuthenticationDetailsS
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 import org.springframework.web.servlet.HandlerExceptionResolver;
-import uz.qarzdorlar_ai.service.UserService;
+import uz.qarzdorlar_ai.model.User;
 
 import java.io.IOException;
 
@@ -21,12 +22,12 @@ import java.io.IOException;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
-    private final UserService userService;
+    private final TokenVersionCache tokenVersionCache;
     private final HandlerExceptionResolver handlerExceptionResolver;
 
-    public JwtAuthenticationFilter(@Lazy JwtService jwtService, @Lazy UserService userService, HandlerExceptionResolver handlerExceptionResolver) {
+    public JwtAuthenticationFilter(@Lazy JwtService jwtService, @Lazy TokenVersionCache tokenVersionCache, HandlerExceptionResolver handlerExceptionResolver) {
         this.jwtService = jwtService;
-        this.userService = userService;
+        this.tokenVersionCache = tokenVersionCache;
         this.handlerExceptionResolver = handlerExceptionResolver;
     }
 
@@ -46,13 +47,15 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
 
             String jwt = authHeader.substring(7);
-            String username = jwtService.extractUsername(jwt);
+            // Bitta parse (imzo + muddat), principal claimlardan - so'rov yo'lida bazaga murojaat yo'q
+            Claims claims = jwtService.parseClaims(jwt);
+            User principal = jwtService.toPrincipal(claims);
 
-            if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                var userDetails = userService.loadUserByUsername(username);
-                if (jwtService.isTokenValid(jwt, userDetails)) {
+            if (principal != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+                // Revoke qilingan (tokenVersion oshirilgan) yoki o'chirilgan user tokeni autentifikatsiya qilinmaydi
+                if (tokenVersionCache.isCurrent(principal.getId(), principal.getTokenVersion())) {
                     var authToken = new UsernamePasswordAuthenticationToken(
-                            userDetails, null, userDetails.getAuthorities()
+                            principal, null, principal.getAuthorities()
                     );
                     authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                     SecurityContextHolder.getContext().setAuthentication(authToken);
@@ -11,14 +11,15 @@ import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 import uz.qarzdorlar_ai.config.properties.JwtProperties;
+import uz.qarzdorlar_ai.enums.Role;
 import uz.qarzdorlar_ai.model.User;
 
 import java.security.Key;
 import java.time.Duration;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.function.Function;
 
 @Service
 @RequiredArgsConstructor
@@ -47,6 +48,7 @@ public class JwtService {
 
         if (userDetails instanceof User user) {
             extraClaims.put("userId", user.getId());
+            extraClaims.put("tokenVersion", user.getTokenVersion());
 //            extraClaims.put("profileId",user.getProfile().getId()); // todo this is incorrected
         }
 
@@ -80,16 +82,10 @@ public class JwtService {
 
 
 
-    public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
-    }
-
-    public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
-    }
-
-    private Claims extractAllClaims(String token) {
+    /**
+     * Tokenni bir marta parse qiladi: imzo va muddat (ExpiredJwtException) shu yerda tekshiriladi.
+     */
+    public Claims parseClaims(String token) {
         return Jwts.parserBuilder()
                 .setSigningKey(signingKey)
                 .build()
@@ -97,25 +93,32 @@ public class JwtService {
                 .getBody();
     }
 
-
-
     /**
-     * Tokenning yaroqliligini (validligini) tekshiradi.
-     * Username to'g'ri kelishi va tokenning muddati o'tmagan bo'lishi kerak.
+     * Access token claimlaridan bazaga murojaat qilmasdan principal yasaydi (id, username, role, tokenVersion).
+     * Natija detached User - saqlash kerak bo'lsa bazadan qayta o'qilishi kerak.
+     * Refresh tokenda userId yo'q, u holda null qaytadi.
      */
-    public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
-    }
+    public User toPrincipal(Claims claims) {
+        Object userId = claims.get("userId");
+        if (!(userId instanceof Number id)) {
+            return null;
+        }
 
-    /**
-     * Tokenning yashash muddati o'tgan yoki o'tmaganligini tekshiradi.
-     */
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+        User user = new User();
+        user.setId(id.longValue());
+        user.setUsername(claims.getSubject());
+        user.setRole(extractRole(claims));
+
+        Object tokenVersion = claims.get("tokenVersion");
+        user.setTokenVersion(tokenVersion instanceof Number version ? version.longValue() : 0L);
+        return user;
     }
 
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    private Role extractRole(Claims claims) {
+        Object roles = claims.get("roles");
+        if (roles instanceof List<?> list && !list.isEmpty()) {
+            return Role.valueOf(String.valueOf(list.get(0)).replaceFirst("^ROLE_", ""));
+        }
+        return Role.USER;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,209 @@
+package uz.qarzdorlar_ai.config.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.jspecify.annotations.NonNull;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+import uz.qarzdorlar_ai.config.properties.RateLimitProperties;
+import uz.qarzdorlar_ai.exception.TooManyRequestsException;
+import uz.qarzdorlar_ai.model.User;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * application.rate-limit.groups dagi endpoint guruhlari uchun in-memory token bucket.
+ * Kalit - guruh + user id (autentifikatsiya bo'lsa) yoki IP. Umumiy lock yo'q: bucket lar ConcurrentHashMap da,
+ * bucket ichidagi hisob CAS bilan.
+ * <p>
+ * Map hajmi ikki yo'l bilan chegaralanadi: {@link #evictIdleBuckets()} idleTimeout dan beri ishlatilmagan
+ * bucket larni o'chiradi, yangi kalit maxBuckets dan oshirsa esa eng uzoq ishlatilmagan bucket lar
+ * ({@code lastAccess} bo'yicha) maxBuckets ning 90% igacha chiqariladi. Bu saralash bitta thread da
+ * (qolganlari kutmaydi) va har ~maxBuckets/10 yangi kalitda bir marta bajariladi.
+ * <p>
+ * Servlet filter sifatida Spring Security zanjiridan keyin ishlaydi, shuning uchun JWT principal tayyor bo'ladi.
+ * Limitdan oshsa {@link TooManyRequestsException} GlobalExceptionHandler orqali 429 qaytaradi.
+ * IP - {@code getRemoteAddr()}: proxy ortida server.forward-headers-strategy=native (Tomcat RemoteIpValve) uni
+ * X-Forwarded-For dan oladi, header esa faqat ichki (internal-proxies) manzildan kelganda ishoniladi.
+ */
+@Slf4j
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final RateLimitProperties properties;
+    private final HandlerExceptionResolver handlerExceptionResolver;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final ConcurrentHashMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final AtomicBoolean trimming = new AtomicBoolean();
+
+    public RateLimitFilter(RateLimitProperties properties, HandlerExceptionResolver handlerExceptionResolver) {
+        this.properties = properties;
+        this.handlerExceptionResolver = handlerExceptionResolver;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !properties.isEnabled() || properties.getGroups().isEmpty();
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain)
+            throws ServletException, IOException {
+
+        RateLimitProperties.Group group = findGroup(request.getServletPath());
+        if (group == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long now = System.nanoTime();
+        String key = group.getName() + ":" + clientKey(request);
+        TokenBucket bucket = buckets.get(key);
+        if (bucket == null) {
+            bucket = buckets.computeIfAbsent(key, k -> new TokenBucket(group.getCapacity(), now));
+            if (buckets.size() > properties.getMaxBuckets()) {
+                trimToMaxBuckets();
+            }
+        }
+        Probe probe = bucket.tryConsume(group, now);
+
+        response.setHeader("X-RateLimit-Limit", String.valueOf(group.getCapacity()));
+        response.setHeader("X-RateLimit-Remaining", String.valueOf(probe.remaining()));
+        response.setHeader("X-RateLimit-Reset", String.valueOf(toSeconds(probe.nanosToFull())));
+
+        if (!probe.consumed()) {
+            long retryAfter = toSeconds(probe.nanosToWait());
+            response.setHeader("Retry-After", String.valueOf(retryAfter));
+            log.debug("Rate limit exceeded: key={}, retryAfter={}s", key, retryAfter);
+            handlerExceptionResolver.resolveException(request, response, null,
+                    new TooManyRequestsException("Too many requests. Retry after " + retryAfter + " seconds"));
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    @Scheduled(fixedDelayString = "${application.rate-limit.eviction-interval-ms:60000}")
+    public void evictIdleBuckets() {
+        long now = System.nanoTime();
+        long idleNanos = properties.getIdleTimeout().toNanos();
+        int before = buckets.size();
+        buckets.values().removeIf(bucket -> now - bucket.lastAccess > idleNanos);
+        int evicted = before - buckets.size();
+        if (evicted > 0) {
+            log.debug("Rate limit buckets evicted: {}", evicted);
+        }
+    }
+
+    /**
+     * Eng uzoq ishlatilmagan bucket larni chiqarib, map ni maxBuckets ning 90% iga tushiradi.
+     * Bir vaqtda bitta thread saralaydi; boshqa thread lar kutmasdan o'z so'rovini davom ettiradi.
+     */
+    private void trimToMaxBuckets() {
+        if (!trimming.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            int maxBuckets = properties.getMaxBuckets();
+            int target = maxBuckets - maxBuckets / 10;
+            List<Map.Entry<String, TokenBucket>> entries = new ArrayList<>(buckets.entrySet());
+            int excess = entries.size() - target;
+            if (excess <= 0) {
+                return;
+            }
+            entries.sort(Comparator.comparingLong(entry -> entry.getValue().lastAccess));
+            for (int i = 0; i < excess; i++) {
+                // remove(key, value): shu orada almashtirilgan bucket tegilmaydi
+                buckets.remove(entries.get(i).getKey(), entries.get(i).getValue());
+            }
+            log.debug("Rate limit buckets over maxBuckets, least recently used evicted: {}", excess);
+        } finally {
+            trimming.set(false);
+        }
+    }
+
+    private RateLimitProperties.Group findGroup(String path) {
+        for (RateLimitProperties.Group group : properties.getGroups()) {
+            for (String pattern : group.getPatterns()) {
+                if (pathMatcher.match(pattern, path)) {
+                    return group;
+                }
+            }
+        }
+        return null;
+    }
+
+    private String clientKey(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof User user && user.getId() != null) {
+            return "user:" + user.getId();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private static long toSeconds(long nanos) {
+        return (nanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1);
+    }
+
+    record Probe(boolean consumed, long remaining, long nanosToWait, long nanosToFull) {
+    }
+
+    /**
+     * Holat (token soni + oxirgi to'ldirilgan vaqt) bitta immutable obyekt - compareAndSet bilan almashtiriladi.
+     * To'ldirish alohida thread talab qilmaydi: har bir so'rovda o'tgan vaqtga qarab hisoblanadi.
+     */
+    static final class TokenBucket {
+
+        private final AtomicReference<State> state;
+        private volatile long lastAccess;
+
+        TokenBucket(long capacity, long now) {
+            this.state = new AtomicReference<>(new State(capacity, now));
+            this.lastAccess = now;
+        }
+
+        Probe tryConsume(RateLimitProperties.Group group, long now) {
+            lastAccess = now;
+            double nanosPerToken = (double) group.getRefillPeriod().toNanos() / group.getRefillTokens();
+
+            while (true) {
+                State current = state.get();
+                long elapsed = Math.max(0, now - current.refilledAt());
+                double tokens = Math.min(group.getCapacity(), current.tokens() + elapsed / nanosPerToken);
+
+                if (tokens < 1) {
+                    return new Probe(false, 0,
+                            (long) Math.ceil((1 - tokens) * nanosPerToken),
+                            (long) Math.ceil((group.getCapacity() - tokens) * nanosPerToken));
+                }
+
+                State next = new State(tokens - 1, Math.max(now, current.refilledAt()));
+                if (state.compareAndSet(current, next)) {
+                    return new Probe(true, (long) next.tokens(), 0,
+                            (long) Math.ceil((group.getCapacity() - next.tokens()) * nanosPerToken));
+                }
+            }
+        }
+
+        private record State(double tokens, long refilledAt) {
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package uz.qarzdorlar_ai.config.security;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import uz.qarzdorlar_ai.repository.UserRepository;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * userId -> tokenVersion. JwtAuthenticationFilter har bir so'rovda shu map ni o'qiydi - bazaga faqat cache da
+ * yo'q user uchun (boshqa instance da yaratilgan, hali reload bo'lmagan) bir marta murojaat qilinadi.
+ * <p>
+ * Shu instance dagi revoke / delete commit dan keyin darhol ko'rinadi; boshqa instance lardagisi keyingi
+ * {@link #reload()} da (application.jwt.token-version-refresh). Bazada yo'q (o'chirilgan) user {@link #ABSENT} bilan
+ * eslab qolinadi - uning tokeni har so'rovda bazaga bormasdan rad etiladi.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TokenVersionCache {
+
+    static final long ABSENT = -1L;
+
+    private final UserRepository userRepository;
+    private volatile Map<Long, Long> versions = new ConcurrentHashMap<>();
+
+    // Tomcat so'rov qabul qilishidan oldin to'ldiriladi
+    @PostConstruct
+    public void init() {
+        reload();
+    }
+
+    /**
+     * Bazadagi holatni to'liq qayta o'qiydi va map ni bitta reference almashtirish bilan yangilaydi.
+     * Versiya faqat o'sadi: yuklash paytida shu instance da qilingan revoke yo'qolmasligi uchun max olinadi.
+     */
+    @Scheduled(initialDelayString = "${application.jwt.token-version-refresh:60s}",
+            fixedDelayString = "${application.jwt.token-version-refresh:60s}")
+    public void reload() {
+        Map<Long, Long> current = versions;
+        Map<Long, Long> fresh = new ConcurrentHashMap<>();
+        for (Object[] row : userRepository.findAllTokenVersions()) {
+            Long userId = ((Number) row[0]).longValue();
+            long version = ((Number) row[1]).longValue();
+            fresh.put(userId, Math.max(version, current.getOrDefault(userId, version)));
+        }
+        versions = fresh;
+        log.debug("Token versions reloaded for {} users", fresh.size());
+    }
+
+    public boolean isCurrent(Long userId, long tokenVersion) {
+        Long version = versions.get(userId);
+        if (version == null) {
+            version = load(userId);
+        }
+        if (version == ABSENT) {
+            return false;
+        }
+        // Token imzolangan, demak kattaroq versiya boshqa instance dagi revoke dan keyin berilgan - qabul qilib eslab qolamiz
+        if (tokenVersion > version) {
+            versions.merge(userId, tokenVersion, Math::max);
+            return true;
+        }
+        return version == tokenVersion;
+    }
+
+    /**
+     * Login / register / revoke da chaqiriladi - reload gacha kutmasdan yangi versiya ishlashi uchun.
+     * Tranzaksiya ichida chaqirilsa commit dan keyin qo'llanadi: rollback bo'lgan revoke cache da qolib,
+     * bazadagi (eski) versiyali tokenlarni rad etmasligi kerak.
+     */
+    public void register(Long userId, long tokenVersion) {
+        afterCommit(() -> versions.merge(userId, tokenVersion, (cached, registered) ->
+                cached == ABSENT ? registered : Math.max(cached, registered)));
+    }
+
+    /**
+     * User o'chirilganda - uning tokenlari keyingi reload ni kutmasdan rad etiladi.
+     */
+    public void evict(Long userId) {
+        afterCommit(() -> versions.put(userId, ABSENT));
+    }
+
+    private long load(Long userId) {
+        long version = userRepository.findTokenVersionById(userId).orElse(ABSENT);
+        Long previous = versions.putIfAbsent(userId, version);
+        return previous != null ? previous : version;
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -3,8 +3,8 @@ package uz.qarzdorlar_ai.controller;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import uz.qarzdorlar_ai.config.security.CurrentUser;
 import uz.qarzdorlar_ai.model.User;
 import uz.qarzdorlar_ai.payload.AddressCreateDTO;
 import uz.qarzdorlar_ai.payload.AddressDTO;
@@ -22,7 +22,7 @@ public class AddressController {
 
     @PostMapping
     public ResponseEntity<ResponseDTO<AddressDTO>> createAddress(@RequestBody @Valid AddressCreateDTO addressCreateDTO,
-                                                                 @AuthenticationPrincipal User user) {
+                                                                 @CurrentUser User user) {
 
         AddressDTO addressDTO = addressService.createAddress(addressCreateDTO, user);
 
@@ -31,7 +31,7 @@ public class AddressController {
 
     @GetMapping("/{id}")
     public ResponseEntity<ResponseDTO<AddressDTO>> getByIdAddress(@PathVariable Long id,
-                                                                  @AuthenticationPrincipal User user) {
+                                                                  @CurrentUser User user) {
 
         AddressDTO addressDTO = addressService.getByIdAddress(id, user);
 
@@ -41,7 +41,7 @@ public class AddressController {
     @GetMapping("/all")
     public ResponseEntity<ResponseDTO<PageDTO<AddressDTO>>> getAllAddress(@RequestParam(defaultValue = "0") Integer page,
                                                                           @RequestParam(defaultValue = "10") Integer size,
-                                                                          @AuthenticationPrincipal User user) {
+                                                                          @CurrentUser User user) {
 
         PageDTO<AddressDTO> addressDTO = addressService.getAllAddress(page, size, user);
 
@@ -52,7 +52,7 @@ public class AddressController {
     @PutMapping("/{id}")
     public ResponseEntity<ResponseDTO<AddressDTO>> getAllAddress(@PathVariable Long id,
                                                                  @RequestBody @Valid AddressUpdateDTO addressUpdateDTO,
-                                                                 @AuthenticationPrincipal User user) {
+                                                                 @CurrentUser User user) {
 
         AddressDTO addressDTO = addressService.updateAddress(id,addressUpdateDTO, user);
 
@@ -61,7 +61,7 @@ public class AddressController {
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<ResponseDTO<String>> deleteAddress(Long id, @AuthenticationPrincipal User user) {
+    public ResponseEntity<ResponseDTO<String>> deleteAddress(Long id, @CurrentUser User user) {
 
         addressService.deleteAddress(id, user);
 
@@ -0,0 +1,40 @@
+package uz.qarzdorlar_ai.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import uz.qarzdorlar_ai.payload.DashboardDTO;
+import uz.qarzdorlar_ai.payload.response.ResponseDTO;
+import uz.qarzdorlar_ai.service.DashboardService;
+
+@RestController
+@RequestMapping("/api/v1/dashboard")
+@RequiredArgsConstructor
+public class DashboardController {
+
+    private final DashboardService dashboardService;
+
+    @GetMapping
+    @PreAuthorize("hasAnyRole('DEVELOPER','ADMIN','STAFF_PLUS')")
+    public ResponseEntity<ResponseDTO<DashboardDTO>> getDashboard() {
+
+        DashboardDTO dashboardDTO = dashboardService.getDashboard();
+
+        return ResponseEntity.ok(ResponseDTO.success(dashboardDTO));
+
+    }
+
+    @PostMapping("/rebuild")
+    @PreAuthorize("hasAnyRole('DEVELOPER','ADMIN')")
+    public ResponseEntity<ResponseDTO<DashboardDTO>> rebuild() {
+
+        DashboardDTO dashboardDTO = dashboardService.rebuild();
+
+        return ResponseEntity.ok(ResponseDTO.success(dashboardDTO));
+
+    }
+}
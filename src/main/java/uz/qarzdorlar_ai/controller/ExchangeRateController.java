@@ -0,0 +1,44 @@
+package uz.qarzdorlar_ai.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import uz.qarzdorlar_ai.enums.CurrencyCode;
+import uz.qarzdorlar_ai.payload.ExchangeRateBulkResultDTO;
+import uz.qarzdorlar_ai.payload.ExchangeRateDTO;
+import uz.qarzdorlar_ai.payload.response.ResponseDTO;
+import uz.qarzdorlar_ai.service.ExchangeRateService;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/exchange-rate")
+@RequiredArgsConstructor
+public class ExchangeRateController {
+
+    private final ExchangeRateService exchangeRateService;
+
+    @PostMapping("/bulk")
+    @PreAuthorize("hasAnyRole('DEVELOPER','ADMIN')")
+    public ResponseEntity<ResponseDTO<ExchangeRateBulkResultDTO>> loadRates(@RequestBody List<ExchangeRateDTO> rates) {
+
+        ExchangeRateBulkResultDTO result = exchangeRateService.loadRates(rates);
+
+        return ResponseEntity.ok(ResponseDTO.success(result));
+
+    }
+
+    @GetMapping("/effective")
+    public ResponseEntity<ResponseDTO<ExchangeRateDTO>> getEffectiveRate(@RequestParam CurrencyCode currency,
+                                                                         @RequestParam(required = false)
+                                                                         @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+
+        ExchangeRateDTO rate = exchangeRateService.getEffectiveRate(currency, date != null ? date : LocalDate.now());
+
+        return ResponseEntity.ok(ResponseDTO.success(rate));
+
+    }
+}
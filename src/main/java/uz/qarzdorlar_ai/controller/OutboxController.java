@@ -0,0 +1,29 @@
+package uz.qarzdorlar_ai.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import uz.qarzdorlar_ai.payload.OutboxStatsDTO;
+import uz.qarzdorlar_ai.payload.response.ResponseDTO;
+import uz.qarzdorlar_ai.service.outbox.OutboxService;
+
+@RestController
+@RequestMapping("/api/v1/outbox")
+@RequiredArgsConstructor
+public class OutboxController {
+
+    private final OutboxService outboxService;
+
+    @GetMapping("/stats")
+    @PreAuthorize("hasAnyRole('DEVELOPER','ADMIN')")
+    public ResponseEntity<ResponseDTO<OutboxStatsDTO>> getStats() {
+
+        OutboxStatsDTO stats = outboxService.getStats();
+
+        return ResponseEntity.ok(ResponseDTO.success(stats));
+
+    }
+}
@@ -66,9 +66,21 @@ public class ProductController {
     @GetMapping("/search")
     public ResponseEntity<ResponseDTO<PageDTO<ProductDTO>>> getSearchProducts(ProductFilterDTO productFilterDTO,
                                                                               @RequestParam(defaultValue = "0") Integer page,
-                                                                              @RequestParam(defaultValue = "10") Integer size) {
+                                                                              @RequestParam(defaultValue = "10") Integer size,
+                                                                              @RequestParam(defaultValue = "false") boolean facets) {
 
-        PageDTO<ProductDTO> products = productService.getSearchProducts(productFilterDTO,page,size);
+        PageDTO<ProductDTO> products = productService.getSearchProducts(productFilterDTO,page,size,facets);
+
+        return ResponseEntity.ok(ResponseDTO.success(products));
+    }
+
+    @GetMapping("/quick-search")
+    public ResponseEntity<ResponseDTO<PageDTO<ProductDTO>>> quickSearch(ProductFilterDTO productFilterDTO,
+                                                                        @RequestParam(defaultValue = "0") Integer page,
+                                                                        @RequestParam(defaultValue = "10") Integer size,
+                                                                        @RequestParam(defaultValue = "false") boolean facets) {
+
+        PageDTO<ProductDTO> products = productService.quickSearch(productFilterDTO, page, size, facets);
 
         return ResponseEntity.ok(ResponseDTO.success(products));
     }
@@ -3,8 +3,8 @@ package uz.qarzdorlar_ai.controller;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import uz.qarzdorlar_ai.config.security.CurrentUser;
 import uz.qarzdorlar_ai.model.User;
 import uz.qarzdorlar_ai.payload.TransactionCreateDTO;
 import uz.qarzdorlar_ai.payload.TransactionDTO;
@@ -29,7 +29,7 @@ public class SheetController {
 
     @PostMapping("/import")
     public ResponseEntity<Map<String, Object>> importTransactions(@RequestBody List<TransactionCreateDTO> aiBatch,
-                                                                  @AuthenticationPrincipal User user) {
+                                                                  @CurrentUser User user) {
         long startTime = System.currentTimeMillis();
         log.info("================================================================");
         log.info("🚀 IMPORT JARAYONI BOSHLANDI | Jami: {} ta tranzaksiya", aiBatch.size());
@@ -105,7 +105,7 @@ public class SheetController {
     }
 
     @GetMapping("/tr/import")
-    public Map<String, Object> importTx(@AuthenticationPrincipal User user) {
+    public Map<String, Object> importTx(@CurrentUser User user) {
         // 1. Google Sheets'dan ma'lumotlarni o'qib olish
         List<TransactionCreateDTO> transactionCreateDTOS = transactionImportService.importTrDTO();
 
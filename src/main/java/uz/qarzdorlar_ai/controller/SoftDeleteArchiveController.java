@@ -0,0 +1,44 @@
+package uz.qarzdorlar_ai.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import uz.qarzdorlar_ai.enums.ArchivedEntity;
+import uz.qarzdorlar_ai.payload.response.ResponseDTO;
+import uz.qarzdorlar_ai.service.SoftDeleteArchiveService;
+
+@RestController
+@RequestMapping("/api/v1/archive")
+@RequiredArgsConstructor
+public class SoftDeleteArchiveController {
+
+    private final SoftDeleteArchiveService softDeleteArchiveService;
+
+    // entity: TRANSACTION (itemlari bilan), TRANSACTION_ITEM, PRODUCT, CLIENT
+    @PostMapping("/{entity}/{id}/restore")
+    @PreAuthorize("hasAnyRole('DEVELOPER','ADMIN')")
+    public ResponseEntity<ResponseDTO<String>> restore(@PathVariable ArchivedEntity entity,
+                                                       @PathVariable Long id) {
+
+        String result = softDeleteArchiveService.restore(entity, id);
+
+        return ResponseEntity.ok(ResponseDTO.success(result));
+
+    }
+
+    // entity: TRANSACTION (birga o'chirilgan itemlari va balans ta'siri bilan), PRODUCT, CLIENT
+    @PostMapping("/{entity}/{id}/undelete")
+    @PreAuthorize("hasAnyRole('DEVELOPER','ADMIN')")
+    public ResponseEntity<ResponseDTO<String>> undelete(@PathVariable ArchivedEntity entity,
+                                                        @PathVariable Long id) {
+
+        String result = softDeleteArchiveService.undelete(entity, id);
+
+        return ResponseEntity.ok(ResponseDTO.success(result));
+
+    }
+}
@@ -1,17 +1,27 @@
 package uz.qarzdorlar_ai.controller;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import uz.qarzdorlar_ai.config.security.CurrentUser;
+import uz.qarzdorlar_ai.enums.StatementExportFormat;
 import uz.qarzdorlar_ai.model.User;
+import uz.qarzdorlar_ai.payload.CursorPageDTO;
 import uz.qarzdorlar_ai.payload.PageDTO;
+import uz.qarzdorlar_ai.payload.TransactionBatchResultDTO;
 import uz.qarzdorlar_ai.payload.TransactionCreateDTO;
 import uz.qarzdorlar_ai.payload.TransactionDTO;
+import uz.qarzdorlar_ai.payload.TransactionFilterDTO;
 import uz.qarzdorlar_ai.payload.TransactionUpdateDTO;
 import uz.qarzdorlar_ai.payload.response.ResponseDTO;
 import uz.qarzdorlar_ai.service.transactions.embedded.TransactionService;
+import uz.qarzdorlar_ai.service.transactions.embedded.TransactionStatementService;
+
+import java.io.IOException;
+import java.util.List;
 
 //@CrossOrigin(origins = "*", allowedHeaders = "*")
 @RestController
@@ -20,10 +30,16 @@ import uz.qarzdorlar_ai.service.transactions.embedded.TransactionService;
 public class TransactionController {
 
     private final TransactionService transactionService;
+    private final TransactionStatementService transactionStatementService;
 
     @PostMapping
     public ResponseEntity<ResponseDTO<?>> createTransaction(@Valid @RequestBody TransactionCreateDTO dto,
-                                                            @AuthenticationPrincipal User staffUser) {
+                                                            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+                                                            @CurrentUser User staffUser) {
+
+        if (idempotencyKey != null) {
+            dto.setIdempotencyKey(idempotencyKey);
+        }
 
         TransactionDTO transactionDTO = transactionService.createTransaction(dto, staffUser);
 
@@ -31,6 +47,16 @@ public class TransactionController {
 
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<ResponseDTO<TransactionBatchResultDTO>> createTransactionBatch(@RequestBody List<TransactionCreateDTO> dtos,
+                                                                                         @CurrentUser User staffUser) {
+
+        TransactionBatchResultDTO result = transactionService.createTransactionBatch(dtos, staffUser);
+
+        return ResponseEntity.ok(ResponseDTO.success(result));
+
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<ResponseDTO<TransactionDTO>> getByIdTransaction(@PathVariable Long id) {
 
@@ -51,10 +77,21 @@ public class TransactionController {
     }
 
 
+    @GetMapping("/search")
+    public ResponseEntity<ResponseDTO<PageDTO<TransactionDTO>>> searchTransactions(TransactionFilterDTO filter,
+                                                                                   @RequestParam(defaultValue = "0") Integer page,
+                                                                                   @RequestParam(defaultValue = "10") Integer size) {
+
+        PageDTO<TransactionDTO> transactions = transactionService.searchTransactions(filter, page, size);
+
+        return ResponseEntity.ok(ResponseDTO.success(transactions));
+
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<ResponseDTO<TransactionDTO>> updateTransaction(@PathVariable Long id,
                                                                          @Valid @RequestBody TransactionUpdateDTO dto,
-                                                                         @AuthenticationPrincipal User staffUser) {
+                                                                         @CurrentUser User staffUser) {
 
         TransactionDTO transactionDTO = transactionService.updateTransaction(id, dto, staffUser);
 
@@ -63,7 +100,7 @@ public class TransactionController {
 
     @DeleteMapping("/{id}")
     public ResponseEntity<ResponseDTO<String>> deleteTransaction(@PathVariable Long id,
-                                                                 @AuthenticationPrincipal User staffUser) {
+                                                                 @CurrentUser User staffUser) {
 
         transactionService.deleteTransaction(id, staffUser);
 
@@ -80,4 +117,39 @@ public class TransactionController {
         return ResponseEntity.ok(ResponseDTO.success(transactionDTO));
     }
 
+    @GetMapping("/cursor")
+    public ResponseEntity<ResponseDTO<CursorPageDTO<TransactionDTO>>> getTransactionsAfter(@RequestParam(required = false) String cursor,
+                                                                                         @RequestParam(defaultValue = "10") Integer size) {
+
+        CursorPageDTO<TransactionDTO> transactionDTO = transactionService.getTransactionsAfter(cursor, size);
+
+        return ResponseEntity.ok(ResponseDTO.success(transactionDTO));
+    }
+
+    @GetMapping("/by-client/{clientId}/cursor")
+    public ResponseEntity<ResponseDTO<CursorPageDTO<TransactionDTO>>> getTransactionsByClientIdAfter(@PathVariable Long clientId,
+                                                                                                   @RequestParam(required = false) String cursor,
+                                                                                                   @RequestParam(defaultValue = "10") Integer size) {
+
+        CursorPageDTO<TransactionDTO> transactionDTO = transactionService.getTransactionsByClientIdAfter(clientId, cursor, size);
+
+        return ResponseEntity.ok(ResponseDTO.success(transactionDTO));
+    }
+
+    @GetMapping("/by-client/{clientId}/export")
+    public void exportClientStatement(@PathVariable Long clientId,
+                                      @RequestParam(defaultValue = "csv") String format,
+                                      HttpServletResponse response) throws IOException {
+
+        // Format va client tekshirilmaguncha header qo'yilmaydi: xato bo'lsa oddiy JSON javob qaytadi
+        StatementExportFormat exportFormat = StatementExportFormat.from(format);
+
+        transactionStatementService.exportClientStatement(clientId, exportFormat, response.getOutputStream(), () -> {
+            response.setCharacterEncoding("UTF-8");
+            response.setContentType(exportFormat.getContentType());
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                    "attachment; filename=\"client-" + clientId + "-statement." + exportFormat.getExtension() + "\"");
+        });
+    }
+
 }
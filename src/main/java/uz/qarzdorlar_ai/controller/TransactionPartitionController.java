@@ -0,0 +1,40 @@
+package uz.qarzdorlar_ai.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import uz.qarzdorlar_ai.payload.TransactionPartitionDTO;
+import uz.qarzdorlar_ai.payload.response.ResponseDTO;
+import uz.qarzdorlar_ai.service.transactions.embedded.TransactionPartitionService;
+
+import java.time.YearMonth;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/transaction/partition")
+@RequiredArgsConstructor
+@PreAuthorize("hasAnyRole('DEVELOPER','ADMIN')")
+public class TransactionPartitionController {
+
+    private final TransactionPartitionService transactionPartitionService;
+
+    @GetMapping
+    public ResponseEntity<ResponseDTO<List<TransactionPartitionDTO>>> getPartitions() {
+
+        List<TransactionPartitionDTO> partitions = transactionPartitionService.getPartitions();
+
+        return ResponseEntity.ok(ResponseDTO.success(partitions));
+
+    }
+
+    // month: 2024-01
+    @PostMapping("/archive")
+    public ResponseEntity<ResponseDTO<String>> archivePartition(@RequestParam YearMonth month) {
+
+        String result = transactionPartitionService.archivePartition(month);
+
+        return ResponseEntity.ok(ResponseDTO.success(result));
+
+    }
+}
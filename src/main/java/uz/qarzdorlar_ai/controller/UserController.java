@@ -4,8 +4,8 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import uz.qarzdorlar_ai.config.security.CurrentUser;
 import uz.qarzdorlar_ai.payload.ProfileUpdateDTO;
 import uz.qarzdorlar_ai.model.User;
 import uz.qarzdorlar_ai.payload.PageDTO;
@@ -22,14 +22,14 @@ public class UserController {
     private final UserService userService;
 
     @GetMapping("/me")
-    public ResponseEntity<ResponseDTO<?>> getMe(@AuthenticationPrincipal User user) {
+    public ResponseEntity<ResponseDTO<?>> getMe(@CurrentUser User user) {
         UserDTO userDTO = userService.getMe(user);
         return ResponseEntity.ok(ResponseDTO.success(userDTO));
     }
 
     @PutMapping("/me")
     public ResponseEntity<ResponseDTO<UserDTO>> updateUser(@RequestBody @Valid ProfileUpdateDTO dto,
-                                                           @AuthenticationPrincipal User user) {
+                                                           @CurrentUser User user) {
 
         UserDTO userDTO = userService.updateDTO(user, dto);
 
@@ -49,13 +49,21 @@ public class UserController {
 
     @DeleteMapping("/{id}")
     public ResponseEntity<ResponseDTO<String>> deleteUser(@PathVariable Long id,
-                                                          @AuthenticationPrincipal User user) {
+                                                          @CurrentUser User user) {
 
         userService.deleteUser(id, user);
         return ResponseEntity.ok(ResponseDTO.success("User deleted successfully"));
 
     }
 
+    @PostMapping("/{id}/revoke-tokens")
+    @PreAuthorize("hasAnyRole('DEVELOPER','ADMIN')")
+    public ResponseEntity<ResponseDTO<String>> revokeTokens(@PathVariable Long id) {
+
+        userService.revokeTokens(id);
+        return ResponseEntity.ok(ResponseDTO.success("User tokens revoked successfully"));
+    }
+
     @GetMapping("/search")
     public ResponseEntity<ResponseDTO<PageDTO<UserDTO>>> getSearchUser(UserFilterDTO userFilterDTO,
                                                                        @RequestParam(defaultValue = "0") Integer page,
@@ -0,0 +1,12 @@
+package uz.qarzdorlar_ai.enums;
+
+public enum ArchivedEntity {
+
+    TRANSACTION_ITEM,
+    TRANSACTION,
+    PRODUCT,
+    CLIENT,
+
+    ;
+
+}
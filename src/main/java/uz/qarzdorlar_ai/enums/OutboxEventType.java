@@ -0,0 +1,10 @@
+package uz.qarzdorlar_ai.enums;
+
+public enum OutboxEventType {
+    TRANSACTION_CREATED,
+    TRANSACTION_UPDATED,
+    TRANSACTION_DELETED,
+    CLIENT_CREATED,
+    CLIENT_UPDATED,
+    CLIENT_DELETED
+}
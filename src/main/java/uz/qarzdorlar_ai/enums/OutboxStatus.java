@@ -0,0 +1,7 @@
+package uz.qarzdorlar_ai.enums;
+
+public enum OutboxStatus {
+    PENDING,    // yuborilishi kutilmoqda (yoki retry navbatida)
+    SENT,       // barcha consumerlar muvaffaqiyatli qabul qildi
+    FAILED      // maksimal urinishlar tugadi, qo'lda ko'rib chiqish kerak
+}
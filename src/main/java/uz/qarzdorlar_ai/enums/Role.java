@@ -1,5 +1,8 @@
 package uz.qarzdorlar_ai.enums;
 
+import java.util.EnumSet;
+import java.util.Set;
+
 public enum Role {
 
     ADMIN,
@@ -11,4 +14,17 @@ public enum Role {
     ANONYMOUS,
 
     ;
+
+    // Tranzaksiya va addresslar bilan to'liq ishlay oladigan xodimlar (qolganlar faqat o'zinikini ko'radi)
+    private static final Set<Role> STAFF_ROLES = EnumSet.of(ADMIN, DEVELOPER, STAFF, STAFF_PLUS);
+    // Boshqa foydalanuvchilarni boshqara oladiganlar
+    private static final Set<Role> USER_MANAGER_ROLES = EnumSet.of(ADMIN, DEVELOPER, STAFF_PLUS);
+
+    public boolean isStaff() {
+        return STAFF_ROLES.contains(this);
+    }
+
+    public boolean canManageUsers() {
+        return USER_MANAGER_ROLES.contains(this);
+    }
 }
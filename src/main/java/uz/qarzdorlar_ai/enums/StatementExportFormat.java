@@ -0,0 +1,37 @@
+package uz.qarzdorlar_ai.enums;
+
+import uz.qarzdorlar_ai.exception.BadRequestException;
+
+/**
+ * Client statement eksport formatlari. So'rovdagi qiymat faqat shu yerda tekshiriladi.
+ */
+public enum StatementExportFormat {
+
+    CSV("text/csv", "csv"),
+    NDJSON("application/x-ndjson", "ndjson");
+
+    private final String contentType;
+    private final String extension;
+
+    StatementExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public static StatementExportFormat from(String format) {
+        for (StatementExportFormat value : values()) {
+            if (value.extension.equalsIgnoreCase(format)) {
+                return value;
+            }
+        }
+        throw new BadRequestException("Unsupported export format: " + format);
+    }
+}
@@ -14,6 +14,7 @@ import uz.qarzdorlar_ai.payload.ProductParseDTO;
 import uz.qarzdorlar_ai.repository.BrandRepository;
 import uz.qarzdorlar_ai.repository.CategoryRepository;
 import uz.qarzdorlar_ai.repository.ProductRepository;
+import uz.qarzdorlar_ai.service.ProductSearchIndexService;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -26,6 +27,7 @@ public class ProductsInsertListener {
     private final BrandRepository brandRepository;
     private final ProductRepository productRepository;
     private final CategoryRepository categoryRepository;
+    private final ProductSearchIndexService productSearchIndexService;
 
     @Async
     @EventListener
@@ -70,6 +72,7 @@ public class ProductsInsertListener {
                 product.setRawData(dto.getRawData().trim()); // Yoki original text
 
                 productRepository.save(product);
+                productSearchIndexService.index(product);
             } catch (Exception e) {
                 log.error("Error saving product: {}", dto.getName(), e);
             }
@@ -2,8 +2,17 @@ package uz.qarzdorlar_ai.mapper;
 
 import uz.qarzdorlar_ai.model.Transaction;
 import uz.qarzdorlar_ai.payload.TransactionDTO;
+import uz.qarzdorlar_ai.payload.projection.TransactionHeaderView;
+import uz.qarzdorlar_ai.payload.projection.TransactionItemView;
+
+import java.util.List;
 
 public interface TransactionMapper {
     TransactionDTO toDTO(Transaction savedTransaction);
 
+    /**
+     * Ro'yxat endpointlari uchun: lazy associationlarga tegmaydi, hammasi projectionlardan olinadi.
+     */
+    TransactionDTO toDTO(Transaction tx, TransactionHeaderView header, List<TransactionItemView> items);
+
 }
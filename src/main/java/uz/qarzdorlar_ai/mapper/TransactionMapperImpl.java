@@ -1,12 +1,13 @@
 package uz.qarzdorlar_ai.mapper;
 
 import lombok.RequiredArgsConstructor;
-import org.jspecify.annotations.NonNull;
 import org.springframework.stereotype.Component;
 import uz.qarzdorlar_ai.model.Transaction;
 import uz.qarzdorlar_ai.model.TransactionItem;
 import uz.qarzdorlar_ai.payload.TransactionDTO;
 import uz.qarzdorlar_ai.payload.TransactionItemDTO;
+import uz.qarzdorlar_ai.payload.projection.TransactionHeaderView;
+import uz.qarzdorlar_ai.payload.projection.TransactionItemView;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -22,13 +23,7 @@ public class TransactionMapperImpl implements TransactionMapper {
             return null;
         }
 
-        TransactionDTO dto = new TransactionDTO();
-
-        dto.setId(tx.getId());
-        dto.setCreatedAt(tx.getCreatedAt());
-        dto.setType(tx.getType());
-        dto.setStatus(tx.getStatus());
-        dto.setDescription(tx.getDescription());
+        TransactionDTO dto = toBaseDTO(tx);
 
         if (tx.getClient() != null) {
             dto.setClientId(tx.getClient().getId());
@@ -39,8 +34,74 @@ public class TransactionMapperImpl implements TransactionMapper {
         if (tx.getReceiverClient() != null) {
             dto.setReceiverId(tx.getReceiverClient().getId());
             dto.setReceiverFullName(tx.getReceiverClient().getFullName());
-            dto.setReceiverMainCurrency(tx.getClient().getCurrencyCode());
+            dto.setReceiverMainCurrency(tx.getReceiverClient().getCurrencyCode());
+        }
+
+        if (tx.getCreatedBy() != null && tx.getCreatedBy().getUserProfile() != null) {
+            dto.setCreatedByName(
+                    tx.getCreatedBy().getUserProfile().getFirstName() + " " +
+                            tx.getCreatedBy().getUserProfile().getLastName()
+            );
+        }
+
+        List<TransactionItemDTO> itemDTOS = getTransactionItemDTOS(tx);
+
+        dto.setItems(itemDTOS);
+
+        return dto;
+    }
+
+    @Override
+    public TransactionDTO toDTO(Transaction tx, TransactionHeaderView header, List<TransactionItemView> items) {
+        if (tx == null) {
+            return null;
+        }
+
+        TransactionDTO dto = toBaseDTO(tx);
+
+        if (header != null) {
+            dto.setClientId(header.getClientId());
+            dto.setClientFullName(header.getClientFullName());
+            dto.setClientMainCurrency(header.getClientCurrency());
+
+            dto.setReceiverId(header.getReceiverId());
+            dto.setReceiverFullName(header.getReceiverFullName());
+            dto.setReceiverMainCurrency(header.getReceiverCurrency());
+
+            if (header.getCreatedByFirstName() != null) {
+                dto.setCreatedByName(header.getCreatedByFirstName() + " " + header.getCreatedByLastName());
+            }
+        }
+
+        List<TransactionItemDTO> itemDTOS = new ArrayList<>();
+        if (items != null) {
+            for (TransactionItemView item : items) {
+
+                TransactionItemDTO txItemDTO = new TransactionItemDTO();
+                txItemDTO.setProductId(item.getProductId());
+                txItemDTO.setProductName(item.getProductName());
+                txItemDTO.setQuantity(item.getQuantity());
+                txItemDTO.setUnitPrice(item.getUnitPrice());
+                txItemDTO.setTotalPrice(item.getTotalPrice());
+
+                itemDTOS.add(txItemDTO);
+            }
         }
+        dto.setItems(itemDTOS);
+
+        return dto;
+    }
+
+    // Faqat Transaction ning o'z ustunlari - hech qanday association yuklanmaydi
+    private static TransactionDTO toBaseDTO(Transaction tx) {
+
+        TransactionDTO dto = new TransactionDTO();
+
+        dto.setId(tx.getId());
+        dto.setCreatedAt(tx.getCreatedAt());
+        dto.setType(tx.getType());
+        dto.setStatus(tx.getStatus());
+        dto.setDescription(tx.getDescription());
 
         dto.setTransactionCurrency(tx.getTransactionCurrency());
         dto.setAmount(tx.getAmount());
@@ -50,18 +111,10 @@ public class TransactionMapperImpl implements TransactionMapper {
         dto.setBalanceEffect(tx.getBalanceEffect());
         dto.setClientRateSnapshot(tx.getClientRateSnapshot());
 
-        dto.setReceiverBalanceEffect(dto.getReceiverBalanceEffect());
-        dto.setReceiverRateSnapshot(dto.getReceiverRateSnapshot());
+        dto.setReceiverBalanceEffect(tx.getReceiverBalanceEffect());
+        dto.setReceiverRateSnapshot(tx.getReceiverRateSnapshot());
 
         dto.setFeeAmount(tx.getFeeAmount());
-        dto.setCreatedByName(
-                tx.getCreatedBy().getUserProfile().getFirstName() + " " +
-                        tx.getCreatedBy().getUserProfile().getFirstName()
-        );
-
-        List<TransactionItemDTO> itemDTOS = getTransactionItemDTOS(tx);
-
-        dto.setItems(itemDTOS);
 
         return dto;
     }
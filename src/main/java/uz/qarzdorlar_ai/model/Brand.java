@@ -18,7 +18,7 @@ import uz.qarzdorlar_ai.model.embedded.AbsLongEntity;
 @Entity
 @NoArgsConstructor
 @AllArgsConstructor
-@SQLDelete(sql = "UPDATE brand SET deleted = true WHERE id = ?")
+@SQLDelete(sql = "UPDATE brand SET deleted = true, deleted_at = now() WHERE id = ?")
 @SQLRestriction("deleted = false")
 public class Brand extends AbsLongEntity {
 
@@ -16,7 +16,7 @@ import uz.qarzdorlar_ai.model.embedded.AbsLongEntity;
 @Entity
 @NoArgsConstructor
 @AllArgsConstructor
-@SQLDelete(sql = "UPDATE category SET deleted = true WHERE id = ?")
+@SQLDelete(sql = "UPDATE category SET deleted = true, deleted_at = now() WHERE id = ?")
 @SQLRestriction("deleted = false")
 public class Category extends AbsLongEntity {
 
@@ -20,7 +20,7 @@ import java.math.BigDecimal;
 @Entity
 @NoArgsConstructor
 @AllArgsConstructor
-@SQLDelete(sql = "UPDATE client SET deleted = true WHERE id = ?")
+@SQLDelete(sql = "UPDATE client SET deleted = true, deleted_at = now(), updated_at = now() WHERE id = ?")
 @SQLRestriction("deleted = false")
 public class Client extends AbsLongEntity {
 
@@ -40,6 +40,8 @@ public class Client extends AbsLongEntity {
     @Column(precision = 19, scale = 4)
     private BigDecimal initialBalance; // Initial debt/credit from Google Sheets
 
+    // Faqat SQL (ledger / compactor) orqali o'zgaradi: entity UPDATE eski qiymatni qayta yozib yubormasligi uchun
+    @Column(updatable = false)
     private BigDecimal currentBalance; //
 
     private String address;
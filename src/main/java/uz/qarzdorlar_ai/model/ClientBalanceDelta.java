@@ -0,0 +1,35 @@
+package uz.qarzdorlar_ai.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.FieldNameConstants;
+import uz.qarzdorlar_ai.model.embedded.AbsPooledLongEntity;
+
+import java.math.BigDecimal;
+
+/**
+ * Client balansiga hali qo'shilmagan (compact qilinmagan) o'zgarish.
+ * Faqat INSERT qilinadi, shuning uchun bir clientga parallel postinglar bitta
+ * {@code client} qatori lockida navbat kutmaydi. {@code ClientBalanceCompactor}
+ * bu qatorlarni {@link Client#getCurrentBalance()} ga qo'shib, o'chirib tashlaydi.
+ */
+@Getter
+@Setter
+@FieldNameConstants
+@Entity
+@Table(name = "client_balance_delta", indexes = {
+        @Index(name = "idx_client_balance_delta_client", columnList = "client_id")
+})
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClientBalanceDelta extends AbsPooledLongEntity {
+
+    @Column(name = "client_id", nullable = false)
+    private Long clientId;
+
+    @Column(nullable = false, precision = 19, scale = 4)
+    private BigDecimal amount; // client balansiga ta'sir (+/-), client valyutasida
+}
@@ -0,0 +1,52 @@
+package uz.qarzdorlar_ai.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.FieldNameConstants;
+import uz.qarzdorlar_ai.enums.ClientType;
+import uz.qarzdorlar_ai.enums.CurrencyCode;
+
+import java.math.BigDecimal;
+
+/**
+ * (valyuta, client turi) bo'yicha jami debitorlik va kreditorlik. Qatorlar soni
+ * {@code CurrencyCode} x {@code ClientType} dan oshmaydi, shuning uchun dashboard doimiy vaqtda o'qiladi.
+ */
+@Getter
+@Setter
+@FieldNameConstants
+@Entity
+@Table(name = "dashboard_aggregate", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_dashboard_aggregate_bucket", columnNames = {"currency_code", "client_type"})
+})
+@NoArgsConstructor
+@AllArgsConstructor
+public class DashboardAggregate {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "currency_code", nullable = false, length = 8)
+    private CurrencyCode currencyCode;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "client_type", nullable = false, length = 16)
+    private ClientType clientType;
+
+    @Column(nullable = false, precision = 19, scale = 4)
+    private BigDecimal receivables; // clientlar bizdan qarzi (manfiy balanslar moduli)
+
+    @Column(nullable = false, precision = 19, scale = 4)
+    private BigDecimal payables; // biz clientlardan qarzimiz (musbat balanslar)
+
+    @Column(name = "debtor_count", nullable = false)
+    private long debtorCount;
+
+    @Column(name = "creditor_count", nullable = false)
+    private long creditorCount;
+}
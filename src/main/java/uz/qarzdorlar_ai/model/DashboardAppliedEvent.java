@@ -0,0 +1,31 @@
+package uz.qarzdorlar_ai.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.sql.Timestamp;
+
+/**
+ * Dashboard ga qo'llangan outbox eventlari. Outbox at-least-once yetkazadi,
+ * bu jadval esa bitta deltaning ikki marta qo'shilishiga yo'l qo'ymaydi.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "dashboard_applied_event", indexes = {
+        @Index(name = "idx_dashboard_applied_event_applied_at", columnList = "applied_at")
+})
+@NoArgsConstructor
+@AllArgsConstructor
+public class DashboardAppliedEvent {
+
+    @Id
+    @Column(name = "event_id")
+    private Long eventId;
+
+    @Column(name = "applied_at", nullable = false)
+    private Timestamp appliedAt;
+}
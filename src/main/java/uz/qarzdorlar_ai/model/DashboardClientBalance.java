@@ -0,0 +1,47 @@
+package uz.qarzdorlar_ai.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.FieldNameConstants;
+import uz.qarzdorlar_ai.enums.ClientType;
+import uz.qarzdorlar_ai.enums.CurrencyCode;
+
+import java.math.BigDecimal;
+
+/**
+ * Dashboard uchun clientning balansi va qaysi bo'limga (valyuta, client turi) tushishi.
+ * Outbox eventlari orqali faqat delta bilan yangilanadi; {@link DashboardAggregate} ni
+ * to'g'ri o'zgartirish uchun eski balans shu yerdan olinadi.
+ */
+@Getter
+@Setter
+@FieldNameConstants
+@Entity
+@Table(name = "dashboard_client_balance", indexes = {
+        @Index(name = "idx_dashboard_client_balance_currency_balance", columnList = "currency_code, balance")
+})
+@NoArgsConstructor
+@AllArgsConstructor
+public class DashboardClientBalance {
+
+    @Id
+    @Column(name = "client_id")
+    private Long clientId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "currency_code", nullable = false, length = 8)
+    private CurrencyCode currencyCode;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "client_type", nullable = false, length = 16)
+    private ClientType clientType;
+
+    @Column(nullable = false, precision = 19, scale = 4)
+    private BigDecimal balance; // client valyutasida, manfiy - client bizdan qarzdor
+
+    @Column(nullable = false)
+    private boolean active; // o'chirilgan client aggregate ga kirmaydi
+}
@@ -0,0 +1,40 @@
+package uz.qarzdorlar_ai.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.FieldNameConstants;
+import uz.qarzdorlar_ai.enums.CurrencyCode;
+import uz.qarzdorlar_ai.model.embedded.AbsLongEntity;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Valyutaning sanadagi kursi: 1 USD = {@code rateToUsd} birlik valyuta
+ * (tranzaksiyadagi {@code rateToUsd} bilan bir xil ma'noda).
+ * Sanaga kurs bo'lmasa, undan oldingi eng yaqin kurs amal qiladi.
+ */
+@Getter
+@Setter
+@FieldNameConstants
+@Entity
+@Table(name = "exchange_rate", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_exchange_rate_currency_date", columnNames = {"currency_code", "rate_date"})
+})
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExchangeRate extends AbsLongEntity {
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "currency_code", nullable = false, length = 8)
+    private CurrencyCode currencyCode;
+
+    @Column(name = "rate_date", nullable = false)
+    private LocalDate rateDate;
+
+    @Column(nullable = false, precision = 19, scale = 6)
+    private BigDecimal rateToUsd;
+}
@@ -0,0 +1,35 @@
+package uz.qarzdorlar_ai.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.FieldNameConstants;
+import uz.qarzdorlar_ai.model.embedded.AbsPooledLongEntity;
+
+/**
+ * Outbox event ni muayyan consumer muvaffaqiyatli qayta ishlagani haqida belgi.
+ * Qayta urinishda event faqat hali belgi qo'ymagan consumerlarga yuboriladi.
+ * Faqat INSERT - bir eventning consumerlari parallel tugasa ham bir-birining yozuvini bosib ketmaydi.
+ */
+@Getter
+@Setter
+@FieldNameConstants
+@Entity
+@Table(name = "outbox_delivery", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_outbox_delivery_event_consumer", columnNames = {"event_id", "consumer"})
+})
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxDelivery extends AbsPooledLongEntity {
+
+    @Column(name = "event_id", nullable = false)
+    private Long eventId;
+
+    @Column(nullable = false, length = 128)
+    private String consumer; // OutboxEventConsumer#name()
+}
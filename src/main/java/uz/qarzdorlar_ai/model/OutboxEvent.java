@@ -0,0 +1,51 @@
+package uz.qarzdorlar_ai.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.FieldNameConstants;
+import uz.qarzdorlar_ai.enums.OutboxEventType;
+import uz.qarzdorlar_ai.enums.OutboxStatus;
+import uz.qarzdorlar_ai.model.embedded.AbsPooledLongEntity;
+
+import java.sql.Timestamp;
+
+/**
+ * Transactional outbox: tranzaksiya bilan bitta DB tranzaksiyada yoziladi,
+ * {@code OutboxRelay} esa commitdan keyin consumerlarga yetkazadi (at-least-once).
+ */
+@Getter
+@Setter
+@FieldNameConstants
+@Entity
+@Table(name = "outbox_event", indexes = {
+        @Index(name = "idx_outbox_event_status_next", columnList = "status, next_attempt_at, id")
+})
+@NoArgsConstructor
+public class OutboxEvent extends AbsPooledLongEntity {
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 64)
+    private OutboxEventType eventType;
+
+    @Column(nullable = false)
+    private Long aggregateId; // masalan transaction id
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload; // JSON
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private OutboxStatus status = OutboxStatus.PENDING;
+
+    private int attempts = 0;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private Timestamp nextAttemptAt;
+
+    private Timestamp processedAt;
+
+    @Column(columnDefinition = "TEXT")
+    private String lastError;
+}
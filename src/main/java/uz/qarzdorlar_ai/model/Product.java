@@ -8,7 +8,7 @@ import lombok.Setter;
 import lombok.experimental.FieldNameConstants;
 import org.hibernate.annotations.SQLDelete;
 import org.hibernate.annotations.SQLRestriction;
-import uz.qarzdorlar_ai.model.embedded.AbsLongEntity;
+import uz.qarzdorlar_ai.model.embedded.AbsPooledLongEntity;
 
 import java.math.BigDecimal;
 
@@ -18,13 +18,10 @@ import java.math.BigDecimal;
 @Getter
 @Setter
 @Entity
-@Table(name = "product", indexes = {
-        @Index(name = "idx_product_brand", columnList = "brand_id"),
-        @Index(name = "idx_product_category", columnList = "category_id")
-})
-@SQLDelete(sql = "UPDATE product SET deleted = true WHERE id = ?")
+@Table(name = "product") // partial indekslar: PartialIndexInitializer
+@SQLDelete(sql = "UPDATE product SET deleted = true, deleted_at = now(), updated_at = now() WHERE id = ?")
 @SQLRestriction("deleted = false")
-public class Product extends AbsLongEntity {
+public class Product extends AbsPooledLongEntity {
 
     @Column(nullable = false)
     private String name; // To'liq nomi: "HP OmniStudio X 32"
@@ -67,4 +64,8 @@ public class Product extends AbsLongEntity {
 
     @Column(name = "raw_data",nullable = false, columnDefinition = "TEXT",unique = true)
     private String rawData; // Audit data from Google Sheets
+
+    // Erkin matn qidiruvi uchun, DB trigger to'ldiradi (ProductSearchInitializer)
+    @Column(name = "search_text", columnDefinition = "TEXT", insertable = false, updatable = false)
+    private String searchText;
 }
\ No newline at end of file
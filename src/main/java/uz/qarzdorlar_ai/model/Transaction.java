@@ -11,7 +11,7 @@ import org.hibernate.annotations.SQLRestriction;
 import uz.qarzdorlar_ai.enums.CurrencyCode;
 import uz.qarzdorlar_ai.enums.TransactionStatus;
 import uz.qarzdorlar_ai.enums.TransactionType;
-import uz.qarzdorlar_ai.model.embedded.AbsLongEntity;
+import uz.qarzdorlar_ai.model.embedded.AbsPooledLongEntity;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -22,13 +22,17 @@ import java.util.List;
 @Entity
 @Table(indexes = {
         @Index(name = "idx_transection_clinets", columnList = "Client_id"),
-        @Index(name = "idx_transection_staff_users", columnList = "created_by_id")
+        @Index(name = "idx_transection_staff_users", columnList = "created_by_id"),
+        @Index(name = "idx_transaction_receiver", columnList = "receiver_client_id"),
+        // balance reconciliation: oxirgi tekshiruvdan keyin o'zgargan tranzaksiyalar (o'chirilganlari ham)
+        @Index(name = "idx_transaction_updated_at", columnList = "updated_at")
+        // deleted = false so'rovlari uchun partial indekslar: PartialIndexInitializer
 })
 @NoArgsConstructor
 @AllArgsConstructor
-@SQLDelete(sql = "UPDATE transaction SET deleted = true WHERE id = ? AND version = ?")
+@SQLDelete(sql = "UPDATE transaction SET deleted = true, deleted_at = now(), updated_at = now() WHERE id = ? AND version = ?")
 @SQLRestriction("deleted = false")
-public class Transaction extends AbsLongEntity {
+public class Transaction extends AbsPooledLongEntity {
 
     @Version
     private Long version;
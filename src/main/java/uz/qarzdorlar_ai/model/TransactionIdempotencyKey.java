@@ -0,0 +1,41 @@
+package uz.qarzdorlar_ai.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.FieldNameConstants;
+import uz.qarzdorlar_ai.model.embedded.AbsPooledLongEntity;
+
+/**
+ * Bir marta ishlatilgan Idempotency-Key va u yaratgan tranzaksiya.
+ * Unique index bir xil kalit bilan parallel kelgan so'rovlardan faqat bittasini o'tkazadi.
+ * {@code requestHash} - birinchi so'rov mazmunining hashi: shu kalit boshqa mazmun bilan kelsa rad etiladi.
+ */
+@Getter
+@Setter
+@FieldNameConstants
+@Entity
+@Table(name = "transaction_idempotency_key", uniqueConstraints = {
+        @UniqueConstraint(name = TransactionIdempotencyKey.UNIQUE_CONSTRAINT, columnNames = "idempotency_key")
+})
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionIdempotencyKey extends AbsPooledLongEntity {
+
+    public static final int MAX_KEY_LENGTH = 128;
+    public static final String UNIQUE_CONSTRAINT = "uk_transaction_idempotency_key";
+
+    @Column(name = "idempotency_key", nullable = false, length = MAX_KEY_LENGTH)
+    private String idempotencyKey;
+
+    @Column(name = "transaction_id", nullable = false)
+    private Long transactionId;
+
+    @Column(name = "request_hash", length = 64)
+    private String requestHash; // SHA-256 hex; eski qatorlarda null - ular uchun mazmun tekshirilmaydi
+}
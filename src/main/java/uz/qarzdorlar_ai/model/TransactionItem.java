@@ -1,9 +1,15 @@
 package uz.qarzdorlar_ai.model;
 
 import jakarta.persistence.Column;
+import jakarta.persistence.ConstraintMode;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
+import jakarta.persistence.ForeignKey;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -11,23 +17,36 @@ import lombok.Setter;
 import lombok.experimental.FieldNameConstants;
 import org.hibernate.annotations.SQLDelete;
 import org.hibernate.annotations.SQLRestriction;
-import uz.qarzdorlar_ai.model.embedded.AbsLongEntity;
+import uz.qarzdorlar_ai.model.embedded.AbsPooledLongEntity;
 
 import java.math.BigDecimal;
+import java.sql.Timestamp;
 
 @Getter
 @Setter
 @FieldNameConstants
 @Entity
+@Table(indexes = {
+        // SoftDeleteArchiveService: tranzaksiya / product hali itemlarda ishlatilayotganini tekshirish
+        @Index(name = "idx_transaction_item_transaction", columnList = "transaction_id"),
+        @Index(name = "idx_transaction_item_product", columnList = "product_id")
+})
 @NoArgsConstructor
 @AllArgsConstructor
-@SQLDelete(sql = "UPDATE transaction_item SET deleted = true WHERE id = ?")
+@SQLDelete(sql = "UPDATE transaction_item SET deleted = true, deleted_at = now(), updated_at = now() WHERE id = ?")
 @SQLRestriction("deleted = false")
-public class TransactionItem extends AbsLongEntity {
+public class TransactionItem extends AbsPooledLongEntity {
 
+    // Partitioned transaction jadvalida PK (id, created_at), shuning uchun faqat id ga FK qo'yib bo'lmaydi.
+    // FK (transaction_id, transaction_created_at) ni TransactionPartitionService migratsiyasi qo'yadi
     @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     private Transaction transaction;
 
+    // Tranzaksiyaning created_at i - item partition kaliti (item o'z tranzaksiyasi bilan bir oyda turadi)
+    @Column(updatable = false)
+    private Timestamp transactionCreatedAt;
+
     @ManyToOne(fetch = FetchType.LAZY)
     private Product product;
 
@@ -38,4 +57,14 @@ public class TransactionItem extends AbsLongEntity {
 
     @Column(precision = 19, scale = 4)
     private BigDecimal totalPrice; // quantity * unitPriceUsd
+
+    // AbsDateEntity.onCreate dan keyin chaqiriladi; tranzaksiya cascade da itemlardan oldin persist bo'ladi
+    @PrePersist
+    protected void copyTransactionCreatedAt() {
+        if (this.transactionCreatedAt == null) {
+            this.transactionCreatedAt = transaction != null && transaction.getCreatedAt() != null
+                    ? transaction.getCreatedAt()
+                    : getCreatedAt();
+        }
+    }
 }
\ No newline at end of file
@@ -8,6 +8,7 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.experimental.FieldNameConstants;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.SQLDelete;
 import org.hibernate.annotations.SQLRestriction;
 import org.springframework.security.core.GrantedAuthority;
@@ -24,10 +25,8 @@ import java.util.List;
 @Getter
 @Setter
 @Entity
-@Table(name = "users", indexes = {
-        @Index(name = "idx_users_username", columnList = "username")
-})
-@SQLDelete(sql = "UPDATE users SET deleted = true WHERE id = ?")
+@Table(name = "users") // partial indekslar: PartialIndexInitializer
+@SQLDelete(sql = "UPDATE users SET deleted = true, deleted_at = now() WHERE id = ?")
 @SQLRestriction(value = "deleted=false")
 @FieldNameConstants
 public class User extends AbsLongEntity implements UserDetails {
@@ -40,6 +39,11 @@ public class User extends AbsLongEntity implements UserDetails {
     @Enumerated(EnumType.STRING)
     private Role role = Role.USER;
 
+    // Access tokenga yoziladi; oshirilsa shu userning barcha avvalgi tokenlari bekor bo'ladi
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private long tokenVersion;
+
     @OneToOne(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true)
     @JsonManagedReference
     private TelegramUser telegramUser;
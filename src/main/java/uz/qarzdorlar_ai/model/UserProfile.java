@@ -12,7 +12,7 @@ import uz.qarzdorlar_ai.model.embedded.AbsLongEntity;
 @Getter
 @Setter
 @Entity(name = "user_profiles")
-@SQLDelete(sql = "UPDATE user_profiles SET deleted = true WHERE id = ?")
+@SQLDelete(sql = "UPDATE user_profiles SET deleted = true, deleted_at = now() WHERE id = ?")
 @SQLRestriction(value = "deleted=false")
 @FieldNameConstants
 public class UserProfile extends AbsLongEntity {
@@ -24,6 +24,10 @@ public abstract class AbsDateEntity {
 
     private boolean deleted = false;
 
+    // @SQLDelete to'ldiradi (updated_at keyingi tahrirlarda o'zgaradi) - SoftDeleteArchiveService retention i shundan
+    @Column(insertable = false, updatable = false)
+    private Timestamp deletedAt;
+
     @PrePersist
     protected void onCreate() {
         if (this.createdAt == null) { // Agar qo'lda berilmagan bo'lsa
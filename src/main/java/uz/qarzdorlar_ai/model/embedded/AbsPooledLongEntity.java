@@ -0,0 +1,30 @@
+package uz.qarzdorlar_ai.model.embedded;
+
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.MappedSuperclass;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.FieldNameConstants;
+
+/**
+ * {@link AbsLongEntity} ning sequence varianti.
+ * IDENTITY Hibernate insert batching ni o'chirib qo'yadi, shuning uchun ko'p yoziladigan
+ * entitylar shu klassdan meros oladi. Har bir entity o'zining {@code <table>_seq} sequence iga ega,
+ * Hibernate pooled optimizer bilan bir {@code nextval} da {@link #ALLOCATION_SIZE} ta id oladi.
+ * Mavjud jadvallar uchun sequence {@code PooledSequenceInitializer} da MAX(id) ga tenglashtiriladi.
+ */
+@Getter
+@Setter
+@MappedSuperclass
+@FieldNameConstants
+public abstract class AbsPooledLongEntity extends AbsDateEntity {
+
+    public static final int ALLOCATION_SIZE = 50; // Hibernate implicit sequence increment
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE)
+    private Long id;
+
+}
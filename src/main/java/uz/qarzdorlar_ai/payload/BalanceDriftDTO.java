@@ -0,0 +1,19 @@
+package uz.qarzdorlar_ai.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BalanceDriftDTO {
+
+    private Long clientId;
+    private String fullName;
+    private BigDecimal expectedBalance; // initialBalance + tranzaksiyalar ta'siri
+    private BigDecimal actualBalance;   // current_balance + kutilayotgan deltalar
+    private BigDecimal drift;           // actual - expected
+}
@@ -0,0 +1,21 @@
+package uz.qarzdorlar_ai.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BalanceReconciliationReportDTO {
+
+    private boolean full;                 // false - faqat high-water mark dan keyin o'zgarganlar
+    private Timestamp since;              // incremental run uchun high-water mark
+    private int checkedClients;
+    private int partitions;
+    private long durationMs;
+    private List<BalanceDriftDTO> drifts; // |drift| bo'yicha kamayish tartibida
+}
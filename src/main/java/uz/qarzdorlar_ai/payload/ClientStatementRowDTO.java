@@ -0,0 +1,28 @@
+package uz.qarzdorlar_ai.payload;
+
+import lombok.Data;
+import uz.qarzdorlar_ai.enums.CurrencyCode;
+import uz.qarzdorlar_ai.enums.TransactionStatus;
+import uz.qarzdorlar_ai.enums.TransactionType;
+
+import java.math.BigDecimal;
+
+/**
+ * Client statement eksportidagi bitta qator (CSV / NDJSON)
+ */
+@Data
+public class ClientStatementRowDTO {
+
+    private Long transactionId;
+    private String createdAt;            // ISO-8601 UTC, CSV va NDJSON da bir xil
+    private TransactionType type;
+    private TransactionStatus status;
+    private CurrencyCode transactionCurrency;
+    private BigDecimal amount;
+    private BigDecimal rateToUsd;
+    private BigDecimal usdAmount;
+    private BigDecimal feeAmount;
+    private BigDecimal balanceEffect;    // shu clientning balansiga ta'siri (client valyutasida)
+    private BigDecimal runningBalance;   // shu qatordan keyingi balans
+    private String description;
+}
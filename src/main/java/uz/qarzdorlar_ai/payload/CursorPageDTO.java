@@ -0,0 +1,23 @@
+package uz.qarzdorlar_ai.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Keyset (cursor) pagination javobi. {@link PageDTO} dan farqi - count so'rovi yo'q,
+ * keyingi sahifa {@code nextCursor} orqali olinadi (oxirgi sahifada null).
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageDTO<T> {
+    private List<T> content;
+    private int size;
+    private String nextCursor;
+    private boolean hasNext;
+}
@@ -0,0 +1,22 @@
+package uz.qarzdorlar_ai.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import uz.qarzdorlar_ai.enums.ClientType;
+import uz.qarzdorlar_ai.enums.CurrencyCode;
+
+import java.math.BigDecimal;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class DashboardBucketDTO {
+
+    private CurrencyCode currencyCode;
+    private ClientType clientType; // null - valyuta bo'yicha jami
+    private BigDecimal receivables;
+    private BigDecimal payables;
+    private long debtorCount;
+    private long creditorCount;
+}
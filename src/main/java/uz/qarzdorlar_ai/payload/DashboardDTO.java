@@ -0,0 +1,19 @@
+package uz.qarzdorlar_ai.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import uz.qarzdorlar_ai.enums.CurrencyCode;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class DashboardDTO {
+
+    private List<DashboardBucketDTO> byCurrencyAndType;
+    private List<DashboardBucketDTO> byCurrency;
+    private Map<CurrencyCode, List<DashboardDebtorDTO>> topDebtors; // balanslar valyutalar aro solishtirilmaydi
+}
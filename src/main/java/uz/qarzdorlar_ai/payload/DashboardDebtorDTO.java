@@ -0,0 +1,21 @@
+package uz.qarzdorlar_ai.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import uz.qarzdorlar_ai.enums.ClientType;
+import uz.qarzdorlar_ai.enums.CurrencyCode;
+
+import java.math.BigDecimal;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class DashboardDebtorDTO {
+
+    private Long clientId;
+    private String fullName;
+    private CurrencyCode currencyCode;
+    private ClientType clientType;
+    private BigDecimal balance;
+}
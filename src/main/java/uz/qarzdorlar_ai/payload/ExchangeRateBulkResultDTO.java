@@ -0,0 +1,9 @@
+package uz.qarzdorlar_ai.payload;
+
+import java.io.Serializable;
+
+public record ExchangeRateBulkResultDTO(
+        int inserted,
+        int updated
+) implements Serializable {
+}
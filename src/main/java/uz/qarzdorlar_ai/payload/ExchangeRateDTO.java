@@ -0,0 +1,19 @@
+package uz.qarzdorlar_ai.payload;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import uz.qarzdorlar_ai.enums.CurrencyCode;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * DTO for {@link uz.qarzdorlar_ai.model.ExchangeRate}
+ */
+public record ExchangeRateDTO(
+        @NotNull CurrencyCode currencyCode,
+        @NotNull LocalDate rateDate,
+        @NotNull @Positive BigDecimal rateToUsd
+) implements Serializable {
+}
@@ -0,0 +1,17 @@
+package uz.qarzdorlar_ai.payload;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class FacetCountDTO {
+
+    private Long id;      // brand / category uchun, qolganlarida null
+    private String value; // "HP", "16GB DDR5", "true"
+    private long count;
+}
@@ -0,0 +1,20 @@
+package uz.qarzdorlar_ai.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.sql.Timestamp;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class OutboxStatsDTO {
+
+    private long pendingCount;
+    private long failedCount;
+    private Timestamp oldestPendingCreatedAt;
+    private long lagSeconds;              // eng eski yuborilmagan event qancha kutayapti
+    private long dispatchedSinceStart;
+    private long failedAttemptsSinceStart;
+}
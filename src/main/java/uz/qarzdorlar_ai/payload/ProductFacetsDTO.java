@@ -0,0 +1,23 @@
+package uz.qarzdorlar_ai.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Joriy filtr bo'yicha topilgan productlarning taqsimoti (har bir ro'yxat count bo'yicha kamayish tartibida).
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductFacetsDTO {
+
+    private List<FacetCountDTO> brands;
+    private List<FacetCountDTO> categories;
+    private List<FacetCountDTO> rams;
+    private List<FacetCountDTO> storages;
+    private List<FacetCountDTO> touchScreen;
+    private List<FacetCountDTO> backlit;
+}
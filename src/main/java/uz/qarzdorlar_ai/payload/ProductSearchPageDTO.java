@@ -0,0 +1,24 @@
+package uz.qarzdorlar_ai.payload;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+
+/**
+ * Product qidiruvi sahifasi, so'ralganda facet countlar bilan.
+ */
+@Getter
+@Setter
+public class ProductSearchPageDTO extends PageDTO<ProductDTO> {
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private ProductFacetsDTO facets;
+
+    public ProductSearchPageDTO(List<ProductDTO> contentDTO, Page<?> page, ProductFacetsDTO facets) {
+        super(contentDTO, page);
+        this.facets = facets;
+    }
+}
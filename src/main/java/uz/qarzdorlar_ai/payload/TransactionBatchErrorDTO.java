@@ -0,0 +1,20 @@
+package uz.qarzdorlar_ai.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import uz.qarzdorlar_ai.enums.TransactionType;
+
+/**
+ * Batch importda saqlanmagan bitta qator haqida ma'lumot
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TransactionBatchErrorDTO {
+
+    private int row;              // batch ichidagi qator raqami (1 dan boshlanadi)
+    private Long clientId;
+    private TransactionType type;
+    private String reason;        // xato sababi
+}
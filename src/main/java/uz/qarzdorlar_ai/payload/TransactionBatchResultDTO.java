@@ -0,0 +1,23 @@
+package uz.qarzdorlar_ai.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * {@code POST /api/v1/transaction/batch} natijasi
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TransactionBatchResultDTO {
+
+    private int total;
+    private int successCount;
+    private int failCount;
+    private int duplicateCount;   // Idempotency-Key oldin ishlatilgani uchun qayta yozilmagan qatorlar
+    private long durationMs;
+    private List<TransactionBatchErrorDTO> errors;
+}
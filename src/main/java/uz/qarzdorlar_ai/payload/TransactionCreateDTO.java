@@ -3,6 +3,7 @@ package uz.qarzdorlar_ai.payload;
 import com.fasterxml.jackson.annotation.JsonFormat;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -66,4 +67,9 @@ public class TransactionCreateDTO implements Serializable {
     @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss.SSSXXX")
     private Timestamp createdAt;
 
+    // 8. TAKRORLANISHDAN HIMOYA
+    @Size(max = 128)
+    private String idempotencyKey;   // Bir xil kalit bilan qayta kelgan so'rov asl tranzaksiyani qaytaradi.
+                                     // REST da "Idempotency-Key" header orqali ham beriladi.
+
 }
\ No newline at end of file
@@ -0,0 +1,31 @@
+package uz.qarzdorlar_ai.payload;
+
+import lombok.Data;
+import uz.qarzdorlar_ai.enums.CurrencyCode;
+import uz.qarzdorlar_ai.enums.TransactionType;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+
+/**
+ * Outbox eventidagi tranzaksiya ma'lumoti (JSON).
+ * UPDATE da previous* maydonlar eski ta'sirni saqlaydi - consumer faqat farqni qo'llashi mumkin.
+ */
+@Data
+public class TransactionEventPayload {
+
+    private Long transactionId;
+    private TransactionType type;
+    private CurrencyCode transactionCurrency;
+    private BigDecimal amount;
+    private BigDecimal usdAmount;
+    private Timestamp createdAt;
+
+    private Long clientId;
+    private BigDecimal balanceEffect;
+    private BigDecimal previousBalanceEffect;
+
+    private Long receiverClientId;
+    private BigDecimal receiverBalanceEffect;
+    private BigDecimal previousReceiverBalanceEffect;
+}
@@ -0,0 +1,42 @@
+package uz.qarzdorlar_ai.payload;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.format.annotation.DateTimeFormat;
+import uz.qarzdorlar_ai.enums.CurrencyCode;
+import uz.qarzdorlar_ai.enums.TransactionStatus;
+import uz.qarzdorlar_ai.enums.TransactionType;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Getter
+@Setter
+public class TransactionFilterDTO {
+
+    // Enum filters
+    private TransactionType type;
+    private TransactionStatus status;
+    private CurrencyCode transactionCurrency;
+
+    // Relations
+    private Long clientId;         // client yoki receiverClient sifatida qatnashgan
+    private Long createdById;      // tranzaksiyani kiritgan xodim
+
+    // Date range (ikkala chegara ham kiradi)
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate fromDate;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate toDate;
+
+    // Amount range (tranzaksiya valyutasida)
+    private BigDecimal minAmount;
+    private BigDecimal maxAmount;
+
+    // Amount range (USD)
+    private BigDecimal minUsdAmount;
+    private BigDecimal maxUsdAmount;
+
+    // Text search
+    private String description;
+}
@@ -0,0 +1,16 @@
+package uz.qarzdorlar_ai.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TransactionPartitionDTO {
+
+    private String parentTable;    // transaction yoki transaction_item
+    private String partitionName;  // transaction_p2025_01
+    private String bounds;         // FOR VALUES FROM (...) TO (...) yoki DEFAULT
+    private Long estimatedRows;    // pg_class.reltuples (ANALYZE dan keyin aniq)
+}
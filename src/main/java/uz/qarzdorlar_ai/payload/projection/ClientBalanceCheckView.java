@@ -0,0 +1,19 @@
+package uz.qarzdorlar_ai.payload.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Reconciliation uchun bitta client: kutilgan balans qismlari va hozirgi (effektiv) balans.
+ */
+public interface ClientBalanceCheckView {
+
+    Long getClientId();
+
+    String getFullName();
+
+    BigDecimal getInitialBalance(); // null (eski clientlar) 0 deb olinadi
+
+    BigDecimal getTransactionTotal(); // o'chirilmagan tranzaksiyalar ta'siri yig'indisi
+
+    BigDecimal getActualBalance(); // current_balance + kutilayotgan deltalar
+}
@@ -0,0 +1,17 @@
+package uz.qarzdorlar_ai.payload.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Dashboard ga yangi kirayotgan clientning holati (o'chirilgan bo'lsa ham o'qiladi).
+ */
+public interface DashboardClientSeedView {
+
+    String getCurrencyCode();
+
+    String getClientType();
+
+    BigDecimal getInitialBalance();
+
+    Boolean getDeleted();
+}
@@ -0,0 +1,28 @@
+package uz.qarzdorlar_ai.payload.projection;
+
+import uz.qarzdorlar_ai.enums.CurrencyCode;
+
+/**
+ * Ro'yxat endpointlari uchun tranzaksiya ishtirokchilari (client, receiver, xodim) -
+ * lazy associationlarni bittalab yuklamaslik uchun bitta so'rovda olinadi.
+ */
+public interface TransactionHeaderView {
+
+    Long getTransactionId();
+
+    Long getClientId();
+
+    String getClientFullName();
+
+    CurrencyCode getClientCurrency();
+
+    Long getReceiverId();
+
+    String getReceiverFullName();
+
+    CurrencyCode getReceiverCurrency();
+
+    String getCreatedByFirstName();
+
+    String getCreatedByLastName();
+}
@@ -0,0 +1,21 @@
+package uz.qarzdorlar_ai.payload.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Ro'yxat endpointlari uchun item + product nomi, bir sahifadagi barcha tranzaksiyalar uchun bitta so'rovda.
+ */
+public interface TransactionItemView {
+
+    Long getTransactionId();
+
+    Long getProductId();
+
+    String getProductName();
+
+    Integer getQuantity();
+
+    BigDecimal getUnitPrice();
+
+    BigDecimal getTotalPrice();
+}
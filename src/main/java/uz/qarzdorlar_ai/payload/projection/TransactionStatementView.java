@@ -0,0 +1,42 @@
+package uz.qarzdorlar_ai.payload.projection;
+
+import uz.qarzdorlar_ai.enums.CurrencyCode;
+import uz.qarzdorlar_ai.enums.TransactionStatus;
+import uz.qarzdorlar_ai.enums.TransactionType;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+
+/**
+ * Client statement eksporti uchun bitta qator. Entity emas - persistence contextda to'planib qolmaydi.
+ */
+public interface TransactionStatementView {
+
+    Long getId();
+
+    Timestamp getCreatedAt();
+
+    TransactionType getType();
+
+    TransactionStatus getStatus();
+
+    CurrencyCode getTransactionCurrency();
+
+    BigDecimal getAmount();
+
+    BigDecimal getRateToUsd();
+
+    BigDecimal getUsdAmount();
+
+    BigDecimal getFeeAmount();
+
+    Long getClientId();
+
+    BigDecimal getBalanceEffect();
+
+    Long getReceiverId();
+
+    BigDecimal getReceiverBalanceEffect();
+
+    String getDescription();
+}
@@ -0,0 +1,71 @@
+package uz.qarzdorlar_ai.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import uz.qarzdorlar_ai.model.ClientBalanceDelta;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+
+public interface ClientBalanceDeltaRepository extends JpaRepository<ClientBalanceDelta, Long> {
+
+    /**
+     * Compact qilingan balans + kutilayotgan deltalar, bitta statement (bitta snapshot) ichida.
+     * Shu sabab compactor ishlayotgan paytda ham natija aniq chiqadi.
+     */
+    @Query(value = """
+                SELECT COALESCE(c.current_balance, 0)
+                       + COALESCE((SELECT SUM(d.amount) FROM client_balance_delta d WHERE d.client_id = c.id), 0)
+                FROM client c
+                WHERE c.id = :clientId
+            """, nativeQuery = true)
+    BigDecimal findEffectiveBalance(@Param("clientId") Long clientId);
+
+    /**
+     * @return [clientId, effectiveBalance] juftliklari
+     */
+    @Query(value = """
+                SELECT c.id, COALESCE(c.current_balance, 0) + COALESCE(SUM(d.amount), 0)
+                FROM client c
+                LEFT JOIN client_balance_delta d ON d.client_id = c.id
+                WHERE c.id IN (:clientIds)
+                GROUP BY c.id, c.current_balance
+            """, nativeQuery = true)
+    List<Object[]> findEffectiveBalances(@Param("clientIds") Collection<Long> clientIds);
+
+    /**
+     * Eng eski {@code batchSize} ta deltani o'chirib, ularning yig'indisini client balansiga qo'shadi.
+     * DELETE va UPDATE bitta statementda, shuning uchun delta yo yo'qoladi yo ikki marta qo'shiladi degan holat yo'q.
+     * SKIP LOCKED bir nechta instance parallel compact qilganda bir-birini kutmasligi uchun.
+     *
+     * @return yangilangan clientlar soni
+     */
+    @Modifying
+    @Query(value = """
+                WITH moved AS (
+                    DELETE FROM client_balance_delta
+                    WHERE id IN (
+                        SELECT id FROM client_balance_delta
+                        ORDER BY id
+                        LIMIT :batchSize
+                        FOR UPDATE SKIP LOCKED
+                    )
+                    RETURNING client_id, amount
+                ), totals AS (
+                    SELECT client_id, SUM(amount) AS amount
+                    FROM moved
+                    GROUP BY client_id
+                )
+                UPDATE client c
+                SET current_balance = COALESCE(c.current_balance, 0) + t.amount
+                FROM totals t
+                WHERE c.id = t.client_id
+            """, nativeQuery = true)
+    int compactOldest(@Param("batchSize") int batchSize);
+
+    @Query(value = "SELECT COUNT(*) FROM client_balance_delta", nativeQuery = true)
+    long countPending();
+}
@@ -7,8 +7,12 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import uz.qarzdorlar_ai.model.Client;
+import uz.qarzdorlar_ai.payload.projection.ClientBalanceCheckView;
 
 import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.List;
 
 public interface ClientRepository extends JpaRepository<Client, Long> {
 
@@ -36,7 +40,63 @@ public interface ClientRepository extends JpaRepository<Client, Long> {
 //    @Query("UPDATE Client c SET c.currentBalance = COALESCE(c.currentBalance, 0) + :amount WHERE c.id = :clientId")
 //    void updateBalance(@Param("clientId") Long clientId, @Param("amount") BigDecimal amount);
 
+    /**
+     * Bir nechta client qatorini id tartibida lock qiladi (LockRows Sort dan keyin ishlaydi).
+     * Hamma yozuvchilar bir xil tartibda lock olgani uchun qarama-qarshi transferlar deadlock bermaydi.
+     */
+    @Query(value = "SELECT c.id FROM client c WHERE c.id IN (:ids) ORDER BY c.id FOR UPDATE", nativeQuery = true)
+    List<Long> lockForBalanceUpdate(@Param("ids") Collection<Long> ids);
+
+    /**
+     * TRANSFER: ikkala client balansi bitta statementda. Chaqirishdan oldin {@link #lockForBalanceUpdate} kerak.
+     */
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query(value = """
+                UPDATE client
+                SET current_balance = COALESCE(current_balance, 0)
+                    + CASE WHEN id = :firstId THEN CAST(:firstAmount AS numeric) ELSE CAST(:secondAmount AS numeric) END
+                WHERE id IN (:firstId, :secondId)
+            """, nativeQuery = true)
+    void updateBalancePair(@Param("firstId") Long firstId, @Param("firstAmount") BigDecimal firstAmount,
+                           @Param("secondId") Long secondId, @Param("secondAmount") BigDecimal secondAmount);
+
     @Modifying(clearAutomatically = true, flushAutomatically = true)
     @Query("UPDATE Client c SET c.currentBalance = COALESCE(c.currentBalance, 0) + :amount WHERE c.id = :clientId")
     void updateBalance(@Param("clientId") Long clientId, @Param("amount") BigDecimal amount);
+
+    @Query(value = "SELECT c.id FROM client c WHERE c.deleted = false ORDER BY c.id", nativeQuery = true)
+    List<Long> findAllActiveIds();
+
+    /**
+     * {@code since} dan keyin tranzaksiyasi (o'chirilgani ham) yoki o'zi o'zgargan clientlar.
+     */
+    @Query(value = """
+                SELECT t.client_id FROM transaction t WHERE t.updated_at > :since
+                UNION
+                SELECT t.receiver_client_id FROM transaction t
+                WHERE t.updated_at > :since AND t.receiver_client_id IS NOT NULL
+                UNION
+                SELECT c.id FROM client c WHERE c.updated_at > :since
+            """, nativeQuery = true)
+    List<Long> findClientIdsChangedSince(@Param("since") Timestamp since);
+
+    /**
+     * Kutilgan va haqiqiy balans bitta statementda (bitta snapshot) olinadi,
+     * shuning uchun parallel yozilayotgan tranzaksiya yolg'on drift bermaydi.
+     */
+    @Query(value = """
+                SELECT c.id AS clientId,
+                       c.full_name AS fullName,
+                       COALESCE(c.initial_balance, 0) AS initialBalance,
+                       COALESCE((SELECT SUM(t.balance_effect) FROM transaction t
+                                 WHERE t.client_id = c.id AND t.deleted = false), 0)
+                       + COALESCE((SELECT SUM(t.receiver_balance_effect) FROM transaction t
+                                   WHERE t.receiver_client_id = c.id AND t.deleted = false), 0) AS transactionTotal,
+                       COALESCE(c.current_balance, 0)
+                       + COALESCE((SELECT SUM(d.amount) FROM client_balance_delta d
+                                   WHERE d.client_id = c.id), 0) AS actualBalance
+                FROM client c
+                WHERE c.id IN (:clientIds) AND c.deleted = false
+            """, nativeQuery = true)
+    List<ClientBalanceCheckView> findBalanceChecks(@Param("clientIds") Collection<Long> clientIds);
 }
\ No newline at end of file
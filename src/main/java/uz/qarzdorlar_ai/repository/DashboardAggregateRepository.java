@@ -0,0 +1,50 @@
+package uz.qarzdorlar_ai.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import uz.qarzdorlar_ai.model.DashboardAggregate;
+
+import java.math.BigDecimal;
+
+public interface DashboardAggregateRepository extends JpaRepository<DashboardAggregate, Long> {
+
+    /**
+     * Bo'lim qiymatlariga delta qo'shadi, bo'lim hali yo'q bo'lsa yaratadi.
+     */
+    @Modifying
+    @Query(value = """
+                INSERT INTO dashboard_aggregate (currency_code, client_type, receivables, payables, debtor_count, creditor_count)
+                VALUES (:currencyCode, :clientType, :receivables, :payables, :debtors, :creditors)
+                ON CONFLICT (currency_code, client_type) DO UPDATE SET
+                    receivables = dashboard_aggregate.receivables + EXCLUDED.receivables,
+                    payables = dashboard_aggregate.payables + EXCLUDED.payables,
+                    debtor_count = dashboard_aggregate.debtor_count + EXCLUDED.debtor_count,
+                    creditor_count = dashboard_aggregate.creditor_count + EXCLUDED.creditor_count
+            """, nativeQuery = true)
+    int addContribution(@Param("currencyCode") String currencyCode,
+                        @Param("clientType") String clientType,
+                        @Param("receivables") BigDecimal receivables,
+                        @Param("payables") BigDecimal payables,
+                        @Param("debtors") long debtors,
+                        @Param("creditors") long creditors);
+
+    @Modifying
+    @Query(value = "DELETE FROM dashboard_aggregate", nativeQuery = true)
+    int deleteAllRows();
+
+    @Modifying
+    @Query(value = """
+                INSERT INTO dashboard_aggregate (currency_code, client_type, receivables, payables, debtor_count, creditor_count)
+                SELECT b.currency_code, b.client_type,
+                       SUM(GREATEST(-b.balance, 0)),
+                       SUM(GREATEST(b.balance, 0)),
+                       COUNT(*) FILTER (WHERE b.balance < 0),
+                       COUNT(*) FILTER (WHERE b.balance > 0)
+                FROM dashboard_client_balance b
+                WHERE b.active
+                GROUP BY b.currency_code, b.client_type
+            """, nativeQuery = true)
+    int insertFromClientBalances();
+}
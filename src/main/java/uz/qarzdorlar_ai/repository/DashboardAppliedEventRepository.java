@@ -0,0 +1,40 @@
+package uz.qarzdorlar_ai.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import uz.qarzdorlar_ai.model.DashboardAppliedEvent;
+
+import java.sql.Timestamp;
+
+public interface DashboardAppliedEventRepository extends JpaRepository<DashboardAppliedEvent, Long> {
+
+    /**
+     * @return 1 - event birinchi marta qo'llanmoqda, 0 - oldin qo'llangan
+     */
+    @Modifying
+    @Query(value = """
+                INSERT INTO dashboard_applied_event (event_id, applied_at)
+                VALUES (:eventId, now())
+                ON CONFLICT (event_id) DO NOTHING
+            """, nativeQuery = true)
+    int markApplied(@Param("eventId") Long eventId);
+
+    /**
+     * Rebuild snapshotiga ta'siri kirib bo'lgan, lekin hali yetkazilmagan tranzaksiya eventlari.
+     */
+    @Modifying
+    @Query(value = """
+                INSERT INTO dashboard_applied_event (event_id, applied_at)
+                SELECT e.id, now() FROM outbox_event e
+                WHERE e.status <> 'SENT'
+                  AND e.event_type IN ('TRANSACTION_CREATED', 'TRANSACTION_UPDATED', 'TRANSACTION_DELETED')
+                ON CONFLICT (event_id) DO NOTHING
+            """, nativeQuery = true)
+    int markUndeliveredTransactionEventsApplied();
+
+    @Modifying
+    @Query("DELETE FROM DashboardAppliedEvent e WHERE e.appliedAt < :before")
+    int deleteAppliedBefore(@Param("before") Timestamp before);
+}
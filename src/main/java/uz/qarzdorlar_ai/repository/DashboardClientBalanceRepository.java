@@ -0,0 +1,70 @@
+package uz.qarzdorlar_ai.repository;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import uz.qarzdorlar_ai.enums.CurrencyCode;
+import uz.qarzdorlar_ai.model.DashboardClientBalance;
+import uz.qarzdorlar_ai.payload.DashboardDebtorDTO;
+import uz.qarzdorlar_ai.payload.projection.DashboardClientSeedView;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface DashboardClientBalanceRepository extends JpaRepository<DashboardClientBalance, Long> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM DashboardClientBalance b WHERE b.clientId = :clientId")
+    Optional<DashboardClientBalance> findByIdForUpdate(@Param("clientId") Long clientId);
+
+    @Query(value = """
+                SELECT c.currency_code AS currencyCode,
+                       c.type AS clientType,
+                       c.initial_balance AS initialBalance,
+                       c.deleted AS deleted
+                FROM client c
+                WHERE c.id = :clientId
+            """, nativeQuery = true)
+    Optional<DashboardClientSeedView> findSeed(@Param("clientId") Long clientId);
+
+    /**
+     * idx_dashboard_client_balance_currency_balance bo'yicha faqat birinchi {@code pageable.size} qator o'qiladi.
+     */
+    @Query("""
+                SELECT new uz.qarzdorlar_ai.payload.DashboardDebtorDTO(b.clientId, c.fullName, b.currencyCode, b.clientType, b.balance)
+                FROM DashboardClientBalance b, Client c
+                WHERE c.id = b.clientId AND b.currencyCode = :currencyCode AND b.active = true AND b.balance < 0
+                ORDER BY b.balance ASC
+            """)
+    List<DashboardDebtorDTO> findTopDebtors(@Param("currencyCode") CurrencyCode currencyCode, Pageable pageable);
+
+    /**
+     * Rebuild paytida eventlar qo'llanishini to'xtatib turadi. REPEATABLE READ tranzaksiyaning
+     * birinchi statementi bo'lishi kerak - snapshot lock olingandan keyin olinadi.
+     */
+    @Modifying
+    @Query(value = "LOCK TABLE dashboard_client_balance, dashboard_aggregate IN EXCLUSIVE MODE", nativeQuery = true)
+    void lockForRebuild();
+
+    @Modifying
+    @Query(value = "DELETE FROM dashboard_client_balance", nativeQuery = true)
+    int deleteAllRows();
+
+    /**
+     * Effektiv balans (current_balance + kutilayotgan deltalar) bo'yicha qayta to'ldirish.
+     */
+    @Modifying
+    @Query(value = """
+                INSERT INTO dashboard_client_balance (client_id, currency_code, client_type, balance, active)
+                SELECT c.id, COALESCE(c.currency_code, 'USD'), COALESCE(c.type, 'CLIENT'),
+                       COALESCE(c.current_balance, 0)
+                       + COALESCE((SELECT SUM(d.amount) FROM client_balance_delta d WHERE d.client_id = c.id), 0),
+                       NOT c.deleted
+                FROM client c
+            """, nativeQuery = true)
+    int insertFromClients();
+}
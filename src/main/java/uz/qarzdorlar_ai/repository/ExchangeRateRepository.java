@@ -0,0 +1,23 @@
+package uz.qarzdorlar_ai.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import uz.qarzdorlar_ai.enums.CurrencyCode;
+import uz.qarzdorlar_ai.model.ExchangeRate;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface ExchangeRateRepository extends JpaRepository<ExchangeRate, Long> {
+
+    /**
+     * Sanada amal qiladigan kurs: shu sana yoki undan oldingi eng oxirgi kurs.
+     * uk_exchange_rate_currency_date indexi bo'yicha bitta qator o'qiladi.
+     */
+    Optional<ExchangeRate> findFirstByCurrencyCodeAndRateDateLessThanEqualOrderByRateDateDesc(CurrencyCode currencyCode,
+                                                                                              LocalDate rateDate);
+
+    List<ExchangeRate> findAllByCurrencyCodeInAndRateDateBetween(Collection<CurrencyCode> currencyCodes,
+                                                                 LocalDate from, LocalDate to);
+}
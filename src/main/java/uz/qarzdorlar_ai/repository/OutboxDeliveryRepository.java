@@ -0,0 +1,26 @@
+package uz.qarzdorlar_ai.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import uz.qarzdorlar_ai.model.OutboxDelivery;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface OutboxDeliveryRepository extends JpaRepository<OutboxDelivery, Long> {
+
+    List<OutboxDelivery> findAllByEventIdIn(Collection<Long> eventIds);
+
+    boolean existsByEventIdAndConsumer(Long eventId, String consumer);
+
+    /**
+     * Eventi purge qilingan belgilarni o'chiradi.
+     */
+    @Modifying
+    @Query(value = """
+                DELETE FROM outbox_delivery d
+                WHERE NOT EXISTS (SELECT 1 FROM outbox_event e WHERE e.id = d.event_id)
+            """, nativeQuery = true)
+    int deleteOrphans();
+}
@@ -2,9 +2,27 @@ package uz.qarzdorlar_ai.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import uz.qarzdorlar_ai.model.Product;
 
-public interface ProductRepository extends JpaRepository<Product, Long> , JpaSpecificationExecutor<Product> {
+import java.util.List;
 
-    boolean existsByRawData(String rawData);
-}
\ No newline at end of file
+public interface ProductRepository extends JpaRepository<Product, Long> , JpaSpecificationExecutor<Product>, ProductRepositoryCustom {
+
+    /**
+     * md5 sharti idx_product_live_raw_data_md5 partial indeksidan o'qish uchun,
+     * raw_data tengligi esa md5 to'qnashuvidan himoya qiladi.
+     */
+    @Query(value = """
+                SELECT EXISTS (SELECT 1 FROM product p
+                               WHERE md5(p.raw_data) = md5(:rawData)
+                                 AND p.raw_data = :rawData
+                                 AND p.deleted = false)
+            """, nativeQuery = true)
+    boolean existsByRawData(@Param("rawData") String rawData);
+
+    // ProductSearchIndexService: butun katalog bitta so'rovda (brand / category bilan), yaratilish tartibida
+    @Query("SELECT p FROM Product p LEFT JOIN FETCH p.brand LEFT JOIN FETCH p.category ORDER BY p.createdAt, p.id")
+    List<Product> findAllForSearchIndex();
+}
@@ -0,0 +1,16 @@
+package uz.qarzdorlar_ai.repository;
+
+import jakarta.persistence.Tuple;
+import org.springframework.data.jpa.domain.Specification;
+import uz.qarzdorlar_ai.model.Product;
+
+import java.util.List;
+
+public interface ProductRepositoryCustom {
+
+    /**
+     * Specification ga mos productlar (brandId, brandName, categoryId, categoryName, ram, storage, touchScreen, backlit)
+     * kombinatsiyasi bo'yicha guruhlanib, har biri uchun count. Barcha facetlar shu bitta so'rovdan yig'iladi.
+     */
+    List<Tuple> findFacetRows(Specification<Product> specification);
+}
@@ -0,0 +1,53 @@
+package uz.qarzdorlar_ai.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.*;
+import org.springframework.data.jpa.domain.Specification;
+import uz.qarzdorlar_ai.model.Brand;
+import uz.qarzdorlar_ai.model.Category;
+import uz.qarzdorlar_ai.model.Product;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class ProductRepositoryCustomImpl implements ProductRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Tuple> findFacetRows(Specification<Product> specification) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Product> root = query.from(Product.class);
+
+        Join<Product, Brand> brand = root.join(Product.Fields.brand, JoinType.LEFT);
+        Join<Product, Category> category = root.join(Product.Fields.category, JoinType.LEFT);
+
+        Map<String, Expression<?>> keys = new LinkedHashMap<>();
+        keys.put("brandId", brand.get("id"));
+        keys.put("brandName", brand.get(Brand.Fields.name));
+        keys.put("categoryId", category.get("id"));
+        keys.put("categoryName", category.get(Category.Fields.name));
+        keys.put("ram", root.get(Product.Fields.ram));
+        keys.put("storage", root.get(Product.Fields.storage));
+        keys.put("touchScreen", root.get(Product.Fields.touchScreen));
+        keys.put("backlit", root.get(Product.Fields.backlit));
+
+        List<Selection<?>> selections = new ArrayList<>();
+        keys.forEach((alias, expression) -> selections.add(expression.alias(alias)));
+        selections.add(cb.count(root).alias("total"));
+
+        Predicate predicate = specification.toPredicate(root, query, cb);
+        query.multiselect(selections).groupBy(new ArrayList<>(keys.values()));
+        if (predicate != null) {
+            query.where(predicate);
+        }
+
+        return entityManager.createQuery(query).getResultList();
+    }
+}
@@ -0,0 +1,15 @@
+package uz.qarzdorlar_ai.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import uz.qarzdorlar_ai.model.TransactionIdempotencyKey;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface TransactionIdempotencyKeyRepository extends JpaRepository<TransactionIdempotencyKey, Long> {
+
+    Optional<TransactionIdempotencyKey> findByIdempotencyKey(String idempotencyKey);
+
+    List<TransactionIdempotencyKey> findAllByIdempotencyKeyIn(Collection<String> idempotencyKeys);
+}
@@ -3,13 +3,24 @@ package uz.qarzdorlar_ai.repository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import uz.qarzdorlar_ai.model.Transaction;
+import uz.qarzdorlar_ai.payload.projection.TransactionHeaderView;
+import uz.qarzdorlar_ai.payload.projection.TransactionItemView;
+import uz.qarzdorlar_ai.payload.projection.TransactionStatementView;
 
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface TransactionRepository extends JpaRepository<Transaction, Long> {
+public interface TransactionRepository extends JpaRepository<Transaction, Long>, JpaSpecificationExecutor<Transaction> {
 
     @Query("""
                 SELECT t
@@ -22,6 +33,44 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
             Pageable pageable
     );
 
+    /**
+     * Keyset pagination: {@code (created_at, id)} bo'yicha cursor dan keyingi {@code limit} ta qator.
+     * OR o'rniga ikki tarmoqli UNION - har bir tarmoq o'zining
+     * {@code (client_id | receiver_client_id, created_at, id)} indeksidan o'qiydi. Count so'rovi yo'q.
+     */
+    @Query(value = """
+                SELECT x.* FROM (
+                    (SELECT t.* FROM transaction t
+                     WHERE t.client_id = :clientId AND t.deleted = false
+                       AND (t.created_at, t.id) > (:createdAt, :id)
+                     ORDER BY t.created_at, t.id
+                     LIMIT :limit)
+                    UNION
+                    (SELECT t.* FROM transaction t
+                     WHERE t.receiver_client_id = :clientId AND t.deleted = false
+                       AND (t.created_at, t.id) > (:createdAt, :id)
+                     ORDER BY t.created_at, t.id
+                     LIMIT :limit)
+                ) x
+                ORDER BY x.created_at, x.id
+                LIMIT :limit
+            """, nativeQuery = true)
+    List<Transaction> findClientPageAfter(@Param("clientId") Long clientId,
+                                          @Param("createdAt") Timestamp createdAt,
+                                          @Param("id") Long id,
+                                          @Param("limit") int limit);
+
+    @Query(value = """
+                SELECT t.* FROM transaction t
+                WHERE t.deleted = false
+                  AND (t.created_at, t.id) > (:createdAt, :id)
+                ORDER BY t.created_at, t.id
+                LIMIT :limit
+            """, nativeQuery = true)
+    List<Transaction> findPageAfter(@Param("createdAt") Timestamp createdAt,
+                                    @Param("id") Long id,
+                                    @Param("limit") int limit);
+
     @Query("SELECT t FROM Transaction t " +
             "LEFT JOIN FETCH t.items " +
             "JOIN FETCH t.client " +
@@ -29,5 +78,56 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
             "WHERE t.id = :id")
     Optional<Transaction> findByIdWithDetails(@Param("id") Long id);
 
+    /**
+     * Sahifadagi tranzaksiyalar uchun client / receiver / xodim ma'lumotlari - bitta so'rov.
+     */
+    @Query("""
+                SELECT t.id AS transactionId,
+                       c.id AS clientId, c.fullName AS clientFullName, c.currencyCode AS clientCurrency,
+                       r.id AS receiverId, r.fullName AS receiverFullName, r.currencyCode AS receiverCurrency,
+                       p.firstName AS createdByFirstName, p.lastName AS createdByLastName
+                FROM Transaction t
+                LEFT JOIN t.client c
+                LEFT JOIN t.receiverClient r
+                LEFT JOIN t.createdBy u
+                LEFT JOIN u.userProfile p
+                WHERE t.id IN :ids
+            """)
+    List<TransactionHeaderView> findHeaderViews(@Param("ids") Collection<Long> ids);
 
-}
\ No newline at end of file
+    /**
+     * Sahifadagi tranzaksiyalarning barcha itemlari product nomi bilan - bitta so'rov.
+     */
+    @Query("""
+                SELECT i.transaction.id AS transactionId,
+                       pr.id AS productId, pr.name AS productName,
+                       i.quantity AS quantity, i.unitPrice AS unitPrice, i.totalPrice AS totalPrice
+                FROM TransactionItem i
+                LEFT JOIN i.product pr
+                WHERE i.transaction.id IN :ids
+                ORDER BY i.id
+            """)
+    List<TransactionItemView> findItemViews(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Client statement eksporti uchun forward-only stream. Faqat ochiq tranzaksiya ichida o'qiladi,
+     * PostgreSQL driver fetch size tufayli qatorlarni bo'lib-bo'lib oladi.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+                SELECT t.id AS id, t.createdAt AS createdAt, t.type AS type, t.status AS status,
+                       t.transactionCurrency AS transactionCurrency, t.amount AS amount,
+                       t.rateToUsd AS rateToUsd, t.usdAmount AS usdAmount, t.feeAmount AS feeAmount,
+                       t.client.id AS clientId, t.balanceEffect AS balanceEffect,
+                       t.receiverClient.id AS receiverId, t.receiverBalanceEffect AS receiverBalanceEffect,
+                       t.description AS description
+                FROM Transaction t
+                WHERE t.client.id = :clientId
+                   OR t.receiverClient.id = :clientId
+                ORDER BY t.createdAt, t.id
+            """)
+    Stream<TransactionStatementView> streamStatementByClientId(@Param("clientId") Long clientId);
+}
@@ -0,0 +1,82 @@
+package uz.qarzdorlar_ai.scheduling;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.util.HtmlUtils;
+import uz.qarzdorlar_ai.config.properties.BalanceReconciliationProperties;
+import uz.qarzdorlar_ai.healthInfoBot.HealthBot;
+import uz.qarzdorlar_ai.mapper.SendMsg;
+import uz.qarzdorlar_ai.payload.BalanceDriftDTO;
+import uz.qarzdorlar_ai.payload.BalanceReconciliationReportDTO;
+import uz.qarzdorlar_ai.service.transactions.embedded.BalanceReconciliationService;
+
+/**
+ * Client balanslarini tranzaksiyalar bilan solishtiradi va drift topilsa health botga xabar beradi.
+ * Incremental run tez-tez (faqat o'zgargan clientlar), to'liq run kuniga bir marta.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BalanceReconciliationJob {
+
+    @Value("${telegram.health.develop-chat-id}")
+    private Long developChatId;
+
+    private final BalanceReconciliationService balanceReconciliationService;
+    private final BalanceReconciliationProperties balanceReconciliationProperties;
+    private final HealthBot healthBot;
+    private final SendMsg sendMsg;
+
+    @Scheduled(initialDelay = 60_000, fixedDelayString = "${application.balance-reconciliation.incremental-delay-ms:600000}")
+    public void reconcileChanged() {
+        run(false);
+    }
+
+    @Scheduled(cron = "${application.balance-reconciliation.full-cron:0 0 4 * * *}")
+    public void reconcileAll() {
+        run(true);
+    }
+
+    private void run(boolean full) {
+        if (!balanceReconciliationProperties.isEnabled()) {
+            return;
+        }
+        try {
+            balanceReconciliationService.reconcile(full).ifPresent(report -> {
+                log.info("Balance reconciliation ({}): checked={}, drifted={}, partitions={}, duration={} ms",
+                        report.isFull() ? "full" : "incremental", report.getCheckedClients(),
+                        report.getDrifts().size(),
+                        report.getPartitions(), report.getDurationMs());
+                if (!report.getDrifts().isEmpty()) {
+                    healthBot.healthExecute(sendMsg.sendMessage(developChatId, driftMessage(report)));
+                }
+            });
+        } catch (Exception e) {
+            log.error("Balance reconciliation failed. Reason: {}", e.getMessage());
+        }
+    }
+
+    private String driftMessage(BalanceReconciliationReportDTO report) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("⚖️ <b>BALANCE RECONCILIATION</b>\n\n");
+        sb.append("┣ 🔍 Mode: <code>").append(report.isFull() ? "full" : "incremental").append("</code>\n");
+        sb.append("┣ 👥 Checked: <code>").append(report.getCheckedClients()).append("</code>\n");
+        sb.append("┗ 🚨 Drifted: <b><code>").append(report.getDrifts().size()).append("</code></b>\n\n");
+
+        int limit = Math.min(balanceReconciliationProperties.getReportLimit(), report.getDrifts().size());
+        for (BalanceDriftDTO drift : report.getDrifts().subList(0, limit)) {
+            sb.append("• #").append(drift.getClientId()).append(' ')
+                    .append(HtmlUtils.htmlEscape(String.valueOf(drift.getFullName())))
+                    .append(": expected <code>").append(drift.getExpectedBalance().toPlainString())
+                    .append("</code>, actual <code>").append(drift.getActualBalance().toPlainString())
+                    .append("</code>, drift <b><code>").append(drift.getDrift().toPlainString()).append("</code></b>\n");
+        }
+        if (report.getDrifts().size() > limit) {
+            sb.append("… +").append(report.getDrifts().size() - limit).append(" more\n");
+        }
+        return sb.toString();
+    }
+}
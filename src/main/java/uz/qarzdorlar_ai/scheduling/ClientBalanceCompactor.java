@@ -0,0 +1,43 @@
+package uz.qarzdorlar_ai.scheduling;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import uz.qarzdorlar_ai.config.properties.BalanceLedgerProperties;
+import uz.qarzdorlar_ai.service.transactions.embedded.ClientBalanceLedgerService;
+
+/**
+ * {@code client_balance_delta} dagi deltalarni {@code client.current_balance} ga yig'ib boradi.
+ * Ledger o'chirilgan bo'lsa ham ishlaydi - oldin yozilib qolgan deltalar yo'qolib ketmasligi uchun.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ClientBalanceCompactor {
+
+    private final ClientBalanceLedgerService clientBalanceLedgerService;
+    private final BalanceLedgerProperties balanceLedgerProperties;
+
+    @Scheduled(initialDelay = 10_000, fixedDelayString = "${application.balance-ledger.compaction-delay-ms:5000}")
+    public void compact() {
+        int batches = 0;
+        int clients = 0;
+        try {
+            while (batches < balanceLedgerProperties.getMaxBatchesPerRun()) {
+                int updated = clientBalanceLedgerService.compactBatch();
+                if (updated == 0) {
+                    break;
+                }
+                clients += updated;
+                batches++;
+            }
+        } catch (Exception e) {
+            log.error("Balance compaction failed after {} batches. Reason: {}", batches, e.getMessage());
+        }
+
+        if (batches > 0) {
+            log.debug("Balance compaction: {} batches, {} client updates", batches, clients);
+        }
+    }
+}
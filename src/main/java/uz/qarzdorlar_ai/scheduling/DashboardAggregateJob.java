@@ -0,0 +1,50 @@
+package uz.qarzdorlar_ai.scheduling;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import uz.qarzdorlar_ai.service.DashboardService;
+
+import java.time.Duration;
+
+/**
+ * Dashboard agregatlari hali qurilmagan bo'lsa (birinchi deploy) ularni quradi
+ * va eski "qo'llangan event" yozuvlarini tozalaydi.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DashboardAggregateJob {
+
+    private final DashboardService dashboardService;
+
+    @Value("${application.outbox.retention-days:7}")
+    private long retentionDays;
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildIfEmpty() {
+        try {
+            if (dashboardService.isEmpty()) {
+                log.info("Dashboard aggregates are empty, running initial rebuild");
+                dashboardService.rebuild();
+            }
+        } catch (Exception e) {
+            log.error("Initial dashboard rebuild failed. Reason: {}", e.getMessage());
+        }
+    }
+
+    // Outbox SENT eventlarni shu muddatdan keyin o'chiradi, undan keyin qayta yetkazish bo'lmaydi
+    @Scheduled(cron = "${application.dashboard.purge-cron:0 45 3 * * *}")
+    public void purgeAppliedEvents() {
+        int deleted = dashboardService.purgeAppliedEvents(Duration.ofDays(retentionDays));
+        if (deleted > 0) {
+            log.info("Dashboard purge: {} applied event markers removed", deleted);
+        }
+    }
+}
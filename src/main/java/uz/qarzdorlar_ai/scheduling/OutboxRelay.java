@@ -0,0 +1,171 @@
+package uz.qarzdorlar_ai.scheduling;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import uz.qarzdorlar_ai.model.OutboxEvent;
+import uz.qarzdorlar_ai.service.outbox.OutboxEventConsumer;
+import uz.qarzdorlar_ai.service.outbox.OutboxService;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * {@code outbox_event} jadvalini batchlab o'qib, har bir eventni mos consumerlarga parallel yetkazadi.
+ * Batchdagi barcha eventlar birdaniga yuboriladi va javoblar bitta umumiy muddatda (lease ning yarmi) kutiladi.
+ * Event barcha consumerlar muvaffaqiyatli tugatgandagina SENT bo'ladi, aks holda backoff bilan qayta uriniladi.
+ * Qayta urinishda event faqat hali yetkazilmagan ({@code outbox_delivery} da belgisi yo'q) consumerlarga yuboriladi.
+ */
+@Slf4j
+@Service
+public class OutboxRelay {
+
+    private final OutboxService outboxService;
+    private final List<OutboxEventConsumer> consumers;
+    private final int batchSize;
+    private final Duration lease;
+    private final Duration retention;
+    private final ExecutorService executor;
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet(); // "eventId:consumer"
+
+    public OutboxRelay(OutboxService outboxService,
+                       List<OutboxEventConsumer> consumers,
+                       @Value("${application.outbox.batch-size:100}") int batchSize,
+                       @Value("${application.outbox.lease-seconds:60}") long leaseSeconds,
+                       @Value("${application.outbox.consumer-threads:4}") int consumerThreads,
+                       @Value("${application.outbox.retention-days:7}") long retentionDays) {
+        this.outboxService = outboxService;
+        this.consumers = consumers;
+        this.batchSize = batchSize;
+        this.lease = Duration.ofSeconds(leaseSeconds);
+        this.retention = Duration.ofDays(retentionDays);
+        this.executor = Executors.newFixedThreadPool(consumerThreads, runnable -> {
+            Thread thread = new Thread(runnable, "outbox-consumer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Scheduled(initialDelay = 10_000, fixedDelayString = "${application.outbox.relay-delay-ms:1000}")
+    public void relay() {
+        List<OutboxEvent> events;
+        Map<Long, Set<String>> delivered;
+        try {
+            events = outboxService.claimBatch(batchSize, lease);
+            delivered = outboxService.findDeliveredConsumers(events.stream().map(OutboxEvent::getId).toList());
+        } catch (Exception e) {
+            log.error("Outbox claim failed: {}", e.getMessage());
+            return;
+        }
+        // Butun batch bitta lease bilan claim qilingan - javoblar bitta umumiy muddatda kutiladi,
+        // aks holda keyingi eventlarning lease i tugab, boshqa instance ularni qayta yuboradi
+        long deadline = System.nanoTime() + lease.toNanos() / 2;
+
+        List<Dispatch> dispatches = new ArrayList<>(events.size());
+        for (OutboxEvent event : events) {
+            dispatches.add(dispatch(event, delivered.getOrDefault(event.getId(), Set.of())));
+        }
+
+        try {
+            CompletableFuture.allOf(dispatches.stream()
+                            .flatMap(dispatch -> dispatch.futures().values().stream())
+                            .toArray(CompletableFuture[]::new))
+                    .get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (ExecutionException | TimeoutException e) {
+            // har bir consumerning natijasi pastda alohida ko'riladi
+        }
+
+        for (Dispatch dispatch : dispatches) {
+            complete(dispatch);
+        }
+    }
+
+    /**
+     * Eventni hali yetkazilmagan consumerlarga yuboradi (kutmaydi).
+     */
+    private Dispatch dispatch(OutboxEvent event, Set<String> done) {
+        Map<String, CompletableFuture<Void>> futures = new LinkedHashMap<>();
+        List<String> stillRunning = new ArrayList<>();
+
+        for (OutboxEventConsumer consumer : consumers) {
+            String name = consumer.name();
+            if (!consumer.supports(event.getEventType()) || done.contains(name)) {
+                continue;
+            }
+            // Oldingi urinishda timeout bo'lgan, lekin hali ishlayotgan consumer qayta chaqirilmaydi
+            String inFlightKey = event.getId() + ":" + name;
+            if (!inFlight.add(inFlightKey)) {
+                stillRunning.add(name);
+                continue;
+            }
+            futures.put(name, CompletableFuture.runAsync(() -> {
+                try {
+                    consumer.consume(event);
+                } catch (Exception e) {
+                    throw new CompletionException(e);
+                }
+                // Muvaffaqiyat darhol yoziladi - kechikib tugagan consumer ham qayta yuborilmaydi
+                outboxService.markDelivered(event.getId(), name);
+            }, executor).whenComplete((ignored, error) -> inFlight.remove(inFlightKey)));
+        }
+        return new Dispatch(event, futures, stillRunning);
+    }
+
+    private void complete(Dispatch dispatch) {
+        OutboxEvent event = dispatch.event();
+        List<String> failures = new ArrayList<>();
+        dispatch.stillRunning().forEach(name -> failures.add(name + ": still running"));
+        dispatch.futures().forEach((name, future) -> {
+            if (!future.isDone()) {
+                failures.add(name + ": timed out");
+            } else if (future.isCompletedExceptionally()) {
+                failures.add(name + ": " + rootCause(future));
+            }
+        });
+
+        if (failures.isEmpty()) {
+            outboxService.markSent(event.getId());
+        } else {
+            String error = String.join("; ", failures);
+            log.warn("Outbox event {} ({}) delivery failed: {}", event.getId(), event.getEventType(), error);
+            outboxService.markFailed(event.getId(), error);
+        }
+    }
+
+    private String rootCause(CompletableFuture<Void> future) {
+        try {
+            future.join();
+            return "unknown";
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            if (cause instanceof CompletionException && cause.getCause() != null) {
+                cause = cause.getCause();
+            }
+            return cause.toString();
+        } catch (CancellationException e) {
+            return e.toString();
+        }
+    }
+
+    @Scheduled(cron = "${application.outbox.purge-cron:0 30 3 * * *}")
+    public void purgeSent() {
+        int deleted = outboxService.purgeSent(retention);
+        if (deleted > 0) {
+            log.info("Outbox purge: {} sent events removed", deleted);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private record Dispatch(OutboxEvent event, Map<String, CompletableFuture<Void>> futures, List<String> stillRunning) {
+    }
+}
@@ -0,0 +1,36 @@
+package uz.qarzdorlar_ai.scheduling;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import uz.qarzdorlar_ai.config.properties.SoftDeleteArchiveProperties;
+import uz.qarzdorlar_ai.enums.ArchivedEntity;
+import uz.qarzdorlar_ai.service.SoftDeleteArchiveService;
+
+import java.util.Map;
+
+/**
+ * Retention muddatidan oshgan soft-deleted qatorlarni tungi oynada arxiv jadvallariga ko'chiradi.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SoftDeleteArchiveJob {
+
+    private final SoftDeleteArchiveService softDeleteArchiveService;
+    private final SoftDeleteArchiveProperties properties;
+
+    @Scheduled(cron = "${application.soft-delete-archive.cron:0 0 1 * * *}")
+    public void archive() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+
+        Map<ArchivedEntity, Integer> moved = softDeleteArchiveService.archive();
+        int total = moved.values().stream().mapToInt(Integer::intValue).sum();
+        if (total > 0) {
+            log.info("Soft-delete archive: {} rows moved {}", total, moved);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package uz.qarzdorlar_ai.scheduling;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import uz.qarzdorlar_ai.config.properties.TransactionPartitionProperties;
+import uz.qarzdorlar_ai.service.transactions.embedded.TransactionPartitionService;
+
+/**
+ * Yoqilgan bo'lsa startda va har kuni kelgusi oylar uchun partitionlarni oldindan yaratadi.
+ * Jadvallarni partitioned ga o'tkazish bu yerda emas - {@code TransactionPartitionMigration} da.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TransactionPartitionJob {
+
+    private final TransactionPartitionService transactionPartitionService;
+    private final TransactionPartitionProperties properties;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${application.transaction-partition.maintenance-cron:0 30 2 * * *}")
+    public void ensureFuturePartitions() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        int created = transactionPartitionService.ensureFuturePartitions();
+        if (created > 0) {
+            log.info("Transaction partitions: {} new monthly partitions created", created);
+        }
+    }
+}
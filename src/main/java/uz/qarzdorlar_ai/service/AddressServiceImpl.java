@@ -5,7 +5,6 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
-import uz.qarzdorlar_ai.enums.Role;
 import uz.qarzdorlar_ai.exception.AccessDeniedException;
 import uz.qarzdorlar_ai.exception.EntityNotFoundException;
 import uz.qarzdorlar_ai.mapper.AddressMapper;
@@ -18,9 +17,7 @@ import uz.qarzdorlar_ai.payload.AddressUpdateDTO;
 import uz.qarzdorlar_ai.payload.PageDTO;
 import uz.qarzdorlar_ai.repository.AddressRepository;
 import uz.qarzdorlar_ai.repository.ClientRepository;
-import uz.qarzdorlar_ai.repository.UserRepository;
 
-import java.util.EnumSet;
 import java.util.List;
 
 @Service
@@ -29,19 +26,11 @@ public class AddressServiceImpl implements AddressService {
 
     private final AddressRepository addressRepository;
     private final AddressMapper addressMapper;
-    private final UserRepository userRepository;
-
-    private static final EnumSet<Role> ALLOWED_ROLES = EnumSet.of(Role.ADMIN, Role.DEVELOPER, Role.STAFF, Role.STAFF_PLUS);
     private final ClientRepository clientRepository;
 
     @Override
     public AddressDTO createAddress(AddressCreateDTO dto, User user) {
 
-        User createdByUser = userRepository.findByUsername(user.getUsername())
-                .orElseThrow(() ->
-                        new EntityNotFoundException("User not found with username : " + user.getUsername())
-                );
-
         Address address = new Address();
         address.setRegion(dto.getRegion());
         address.setDistrict(dto.getDistrict());
@@ -50,7 +39,7 @@ public class AddressServiceImpl implements AddressService {
         address.setLongitude(address.getLongitude());
         address.setLandmark(address.getLandmark());
 
-        address.setCreatedBy(createdByUser);
+        address.setCreatedBy(user);
 
         Address save = addressRepository.save(address);
 
@@ -60,20 +49,13 @@ public class AddressServiceImpl implements AddressService {
     @Override
     public AddressDTO getByIdAddress(Long id, User user) {
 
-        User currentUser = userRepository.findByUsername(user.getUsername())
-                .orElseThrow(() ->
-                        new EntityNotFoundException("User not found with username : " + user.getUsername())
-                );
-
-        Role role = currentUser.getRole();
-
         Address address;
 
-        if (ALLOWED_ROLES.contains(role)) {
+        if (user.getRole().isStaff()) {
             address = addressRepository.findById(id)
                     .orElseThrow(() -> new EntityNotFoundException("Address not found with id : " + id));
         } else {
-            address = addressRepository.findByIdAndCreatedBy(id, currentUser)
+            address = addressRepository.findByIdAndCreatedBy(id, user)
                     .orElseThrow(() -> new EntityNotFoundException("Address not found with id : " + id));
         }
 
@@ -87,17 +69,12 @@ public class AddressServiceImpl implements AddressService {
         Sort sort = Sort.by(Address.Fields.region);
         PageRequest pageRequest = PageRequest.of(page, size, sort);
 
-        User currentUser = userRepository.findByUsername(user.getUsername())
-                .orElseThrow(() ->
-                        new EntityNotFoundException("User not found with username : " + user.getUsername())
-                );
-
         Page<Address> addressPage;
 
-        if (ALLOWED_ROLES.contains(currentUser.getRole())) {
+        if (user.getRole().isStaff()) {
             addressPage = addressRepository.findAll(pageRequest);
         } else {
-            addressPage = addressRepository.findAllByCreatedBy(currentUser, pageRequest);
+            addressPage = addressRepository.findAllByCreatedBy(user, pageRequest);
         }
 
         List<AddressDTO> dtos = addressPage.stream()
@@ -112,18 +89,13 @@ public class AddressServiceImpl implements AddressService {
     @Override
     public AddressDTO updateAddress(Long id, AddressUpdateDTO addressUpdateDTO, User user) {
 
-        User currentUser = userRepository.findByUsername(user.getUsername())
-                .orElseThrow(() ->
-                        new EntityNotFoundException("User not found with username: " + user.getUsername())
-                );
-
         Address address;
 
-        if (ALLOWED_ROLES.contains(currentUser.getRole())) {
+        if (user.getRole().isStaff()) {
             address = addressRepository.findById(id)
                     .orElseThrow(() -> new EntityNotFoundException("Address not found with id: " + id));
         } else {
-            address = addressRepository.findByIdAndCreatedBy(id, currentUser)
+            address = addressRepository.findByIdAndCreatedBy(id, user)
                     .orElseThrow(() -> new EntityNotFoundException("Address not found or you are not allowed to update this address"));
         }
 
@@ -155,18 +127,13 @@ public class AddressServiceImpl implements AddressService {
     @Override
     public void deleteAddress(Long id, User user) {
 
-        User currentUser = userRepository.findByUsername(user.getUsername())
-                .orElseThrow(() ->
-                        new EntityNotFoundException("User not found with username: " + user.getUsername())
-                );
-
         Address address;
 
-        if (ALLOWED_ROLES.contains(currentUser.getRole())) {
+        if (user.getRole().isStaff()) {
             address = addressRepository.findById(id)
                     .orElseThrow(() -> new EntityNotFoundException("Address not found with id: " + id));
         } else {
-            address = addressRepository.findByIdAndCreatedBy(id, currentUser)
+            address = addressRepository.findByIdAndCreatedBy(id, user)
                     .orElseThrow(() -> new AccessDeniedException("You are not allowed to delete this address or it does not exist"));
         }
 
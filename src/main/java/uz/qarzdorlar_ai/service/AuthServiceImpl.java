@@ -7,6 +7,7 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import uz.qarzdorlar_ai.config.properties.JwtProperties;
 import uz.qarzdorlar_ai.config.security.JwtService;
+import uz.qarzdorlar_ai.config.security.TokenVersionCache;
 import uz.qarzdorlar_ai.exception.BadCredentialsException;
 import uz.qarzdorlar_ai.exception.DataConflictException;
 import uz.qarzdorlar_ai.exception.EntityNotFoundException;
@@ -32,6 +33,7 @@ public class AuthServiceImpl implements AuthService {
     private final JwtService jwtService;
     private final JwtProperties jwtProperties;
     private final UserProfileRepository userProfileRepository;
+    private final TokenVersionCache tokenVersionCache;
 
 
     @Override
@@ -49,6 +51,7 @@ public class AuthServiceImpl implements AuthService {
             throw new BadCredentialsException("User password incorrected");
         }
 
+        tokenVersionCache.register(user.getId(), user.getTokenVersion());
         String accessToken = jwtService.generateAccessToken(user);
         String refreshToken = jwtService.generateRefreshToken(user);
 
@@ -97,6 +100,7 @@ public class AuthServiceImpl implements AuthService {
         userProfile.setUser(user);
 
         userRepository.save(user);
+        tokenVersionCache.register(user.getId(), user.getTokenVersion());
 
 
         return new RegistrationResponseDTO(
@@ -5,6 +5,8 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Transactional;
+import uz.qarzdorlar_ai.enums.OutboxEventType;
 import uz.qarzdorlar_ai.model.Client;
 import uz.qarzdorlar_ai.payload.PageDTO;
 import uz.qarzdorlar_ai.payload.ClientDTO;
@@ -14,6 +16,12 @@ import uz.qarzdorlar_ai.payload.ClientCreateDTO;
 import uz.qarzdorlar_ai.repository.ClientRepository;
 import uz.qarzdorlar_ai.exception.DataConflictException;
 import uz.qarzdorlar_ai.exception.EntityNotFoundException;
+import uz.qarzdorlar_ai.service.outbox.OutboxService;
+import uz.qarzdorlar_ai.service.transactions.embedded.ClientBalanceLedgerService;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
@@ -21,8 +29,11 @@ public class ClientServiceImpl implements ClientService {
 
     private final ClientMapper clientMapper;
     private final ClientRepository clientRepository;
+    private final ClientBalanceLedgerService clientBalanceLedgerService;
+    private final OutboxService outboxService;
 
     @Override
+    @Transactional
     public ClientDTO createClient(ClientCreateDTO clientCreateDTO) {
 
         String fullName = clientCreateDTO.getFullName();
@@ -39,12 +50,17 @@ public class ClientServiceImpl implements ClientService {
         client.setPhoneNumber(phoneNumber);
         client.setType(clientCreateDTO.getType());
         client.setCurrencyCode(clientCreateDTO.getCurrencyCode());
-//        client.setInitialBalance(clientCreateDTO.getInitialBalance());
-        client.setCurrentBalance(clientCreateDTO.getInitialBalance());
+        // reconciliation va statement uchun boshlang'ich nuqta; berilmasa 0
+        BigDecimal initialBalance = clientCreateDTO.getInitialBalance() != null
+                ? clientCreateDTO.getInitialBalance()
+                : BigDecimal.ZERO;
+        client.setInitialBalance(initialBalance);
+        client.setCurrentBalance(initialBalance);
         client.setAddress(clientCreateDTO.getAddress());
         client.setComment(clientCreateDTO.getComment());
 
         clientRepository.save(client);
+        outboxService.publishClientEvent(OutboxEventType.CLIENT_CREATED, client.getId());
 
         return clientMapper.toDTO(client);
     }
@@ -57,7 +73,11 @@ public class ClientServiceImpl implements ClientService {
                         new EntityNotFoundException("Client not found with id : " + id)
                 );
 
-        return clientMapper.toDTO(client);
+        ClientDTO clientDTO = clientMapper.toDTO(client);
+        // compact qilingan balans + hali qo'shilmagan deltalar
+        clientDTO.setCurrentBalance(clientBalanceLedgerService.getEffectiveBalance(id));
+
+        return clientDTO;
     }
 
     @Override
@@ -68,13 +88,18 @@ public class ClientServiceImpl implements ClientService {
 
         Page<Client> clientPage = clientRepository.findAll(pageRequest);
 
-        return new PageDTO<>(
-                clientPage.getContent().stream().map(clientMapper::toDTO).toList(),
-                clientPage
+        List<ClientDTO> clientDTOS = clientPage.getContent().stream().map(clientMapper::toDTO).toList();
+
+        Map<Long, BigDecimal> balances = clientBalanceLedgerService.getEffectiveBalances(
+                clientDTOS.stream().map(ClientDTO::getId).toList()
         );
+        clientDTOS.forEach(dto -> dto.setCurrentBalance(balances.getOrDefault(dto.getId(), dto.getCurrentBalance())));
+
+        return new PageDTO<>(clientDTOS, clientPage);
     }
 
     @Override
+    @Transactional
     public ClientDTO updateClient(Long id, ClientUpdateDTO dto) {
 
         Client client = clientRepository.findById(id)
@@ -117,11 +142,17 @@ public class ClientServiceImpl implements ClientService {
         }
 
         clientRepository.save(client);
-        return clientMapper.toDTO(client);
+        outboxService.publishClientEvent(OutboxEventType.CLIENT_UPDATED, client.getId());
+
+        ClientDTO clientDTO = clientMapper.toDTO(client);
+        // getByIdClient bilan bir xil: compact qilingan balans + hali qo'shilmagan deltalar
+        clientDTO.setCurrentBalance(clientBalanceLedgerService.getEffectiveBalance(id));
+        return clientDTO;
     }
 
 
     @Override
+    @Transactional
     public String deleteClient(Long id) {
 
         Client client = clientRepository.findById(id)
@@ -130,6 +161,7 @@ public class ClientServiceImpl implements ClientService {
                 );
 
         clientRepository.delete(client);
+        outboxService.publishClientEvent(OutboxEventType.CLIENT_DELETED, id);
 
         return "Client deleted successfully with client id : " + id;
     }
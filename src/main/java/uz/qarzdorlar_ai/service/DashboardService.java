@@ -0,0 +1,22 @@
+package uz.qarzdorlar_ai.service;
+
+import uz.qarzdorlar_ai.enums.OutboxEventType;
+import uz.qarzdorlar_ai.payload.DashboardDTO;
+import uz.qarzdorlar_ai.payload.TransactionEventPayload;
+
+import java.time.Duration;
+
+public interface DashboardService {
+
+    DashboardDTO getDashboard();
+
+    DashboardDTO rebuild();
+
+    boolean isEmpty();
+
+    void applyTransactionEvent(Long eventId, OutboxEventType eventType, TransactionEventPayload payload);
+
+    void syncClient(Long clientId);
+
+    int purgeAppliedEvents(Duration retention);
+}
@@ -0,0 +1,262 @@
+package uz.qarzdorlar_ai.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+import uz.qarzdorlar_ai.enums.ClientType;
+import uz.qarzdorlar_ai.enums.CurrencyCode;
+import uz.qarzdorlar_ai.enums.OutboxEventType;
+import uz.qarzdorlar_ai.model.DashboardAggregate;
+import uz.qarzdorlar_ai.model.DashboardClientBalance;
+import uz.qarzdorlar_ai.payload.DashboardBucketDTO;
+import uz.qarzdorlar_ai.payload.DashboardDTO;
+import uz.qarzdorlar_ai.payload.DashboardDebtorDTO;
+import uz.qarzdorlar_ai.payload.TransactionEventPayload;
+import uz.qarzdorlar_ai.payload.projection.DashboardClientSeedView;
+import uz.qarzdorlar_ai.repository.DashboardAggregateRepository;
+import uz.qarzdorlar_ai.repository.DashboardAppliedEventRepository;
+import uz.qarzdorlar_ai.repository.DashboardClientBalanceRepository;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * Dashboard agregatlari outbox eventlaridan faqat delta bilan yangilanadi:
+ * client balansi {@code b -> b + d} bo'lganda uning bo'limidagi debitorlik/kreditorlik
+ * eski va yangi balans farqicha o'zgaradi. O'qish doimiy vaqtda - bo'limlar soni cheklangan,
+ * top qarzdorlar esa index bo'yicha olinadi.
+ */
+@Slf4j
+@Service
+public class DashboardServiceImpl implements DashboardService {
+
+    private final DashboardClientBalanceRepository dashboardClientBalanceRepository;
+    private final DashboardAggregateRepository dashboardAggregateRepository;
+    private final DashboardAppliedEventRepository dashboardAppliedEventRepository;
+    private final int topDebtorsLimit;
+
+    public DashboardServiceImpl(DashboardClientBalanceRepository dashboardClientBalanceRepository,
+                                DashboardAggregateRepository dashboardAggregateRepository,
+                                DashboardAppliedEventRepository dashboardAppliedEventRepository,
+                                @Value("${application.dashboard.top-debtors:20}") int topDebtorsLimit) {
+        this.dashboardClientBalanceRepository = dashboardClientBalanceRepository;
+        this.dashboardAggregateRepository = dashboardAggregateRepository;
+        this.dashboardAppliedEventRepository = dashboardAppliedEventRepository;
+        this.topDebtorsLimit = topDebtorsLimit;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public DashboardDTO getDashboard() {
+        List<DashboardAggregate> rows = dashboardAggregateRepository.findAll(
+                Sort.by(DashboardAggregate.Fields.currencyCode, DashboardAggregate.Fields.clientType));
+
+        List<DashboardBucketDTO> byCurrencyAndType = new ArrayList<>();
+        Map<CurrencyCode, DashboardBucketDTO> byCurrency = new EnumMap<>(CurrencyCode.class);
+        for (DashboardAggregate row : rows) {
+            byCurrencyAndType.add(new DashboardBucketDTO(row.getCurrencyCode(), row.getClientType(),
+                    row.getReceivables(), row.getPayables(), row.getDebtorCount(), row.getCreditorCount()));
+
+            DashboardBucketDTO total = byCurrency.computeIfAbsent(row.getCurrencyCode(),
+                    currency -> new DashboardBucketDTO(currency, null, BigDecimal.ZERO, BigDecimal.ZERO, 0, 0));
+            total.setReceivables(total.getReceivables().add(row.getReceivables()));
+            total.setPayables(total.getPayables().add(row.getPayables()));
+            total.setDebtorCount(total.getDebtorCount() + row.getDebtorCount());
+            total.setCreditorCount(total.getCreditorCount() + row.getCreditorCount());
+        }
+
+        Map<CurrencyCode, List<DashboardDebtorDTO>> topDebtors = new EnumMap<>(CurrencyCode.class);
+        for (CurrencyCode currencyCode : byCurrency.keySet()) {
+            topDebtors.put(currencyCode,
+                    dashboardClientBalanceRepository.findTopDebtors(currencyCode, PageRequest.of(0, topDebtorsLimit)));
+        }
+
+        return new DashboardDTO(byCurrencyAndType, new ArrayList<>(byCurrency.values()), topDebtors);
+    }
+
+    /**
+     * Jadvallarni effektiv balanslardan qayta quradi. Lock va REPEATABLE READ tufayli
+     * balanslar va "hali yetkazilmagan eventlar" bitta snapshotdan olinadi: snapshotga ta'siri kirgan
+     * eventlar qo'llangan deb belgilanadi, keyin kelganlari esa odatdagidek delta bo'lib qo'shiladi.
+     */
+    @Override
+    @Transactional(isolation = Isolation.REPEATABLE_READ)
+    public DashboardDTO rebuild() {
+        long startTime = System.currentTimeMillis();
+
+        dashboardClientBalanceRepository.lockForRebuild();
+        int skippedEvents = dashboardAppliedEventRepository.markUndeliveredTransactionEventsApplied();
+        dashboardAggregateRepository.deleteAllRows();
+        dashboardClientBalanceRepository.deleteAllRows();
+        int clients = dashboardClientBalanceRepository.insertFromClients();
+        int buckets = dashboardAggregateRepository.insertFromClientBalances();
+
+        log.info("Dashboard rebuilt: clients={}, buckets={}, undelivered events absorbed={}, duration={} ms",
+                clients, buckets, skippedEvents, System.currentTimeMillis() - startTime);
+        return getDashboard();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public boolean isEmpty() {
+        return dashboardClientBalanceRepository.count() == 0;
+    }
+
+    @Override
+    @Transactional
+    public void applyTransactionEvent(Long eventId, OutboxEventType eventType, TransactionEventPayload payload) {
+        // id tartibida lock - bir vaqtda ikki transfer qarama-qarshi tartibda lock olmaydi
+        Map<Long, BigDecimal> deltas = new TreeMap<>();
+        deltas.merge(payload.getClientId(),
+                delta(eventType, payload.getBalanceEffect(), payload.getPreviousBalanceEffect()), BigDecimal::add);
+        if (payload.getReceiverClientId() != null) {
+            deltas.merge(payload.getReceiverClientId(),
+                    delta(eventType, payload.getReceiverBalanceEffect(), payload.getPreviousReceiverBalanceEffect()),
+                    BigDecimal::add);
+        }
+
+        // Avval client qatorlari lock qilinadi: rebuild ishlayotgan bo'lsa shu yerda kutamiz
+        Map<Long, DashboardClientBalance> rows = new LinkedHashMap<>();
+        for (Long clientId : deltas.keySet()) {
+            DashboardClientBalance row = lockOrSeed(clientId);
+            if (row != null) {
+                rows.put(clientId, row);
+            }
+        }
+
+        if (dashboardAppliedEventRepository.markApplied(eventId) == 0) {
+            log.debug("Dashboard: event {} already applied", eventId);
+            return;
+        }
+
+        rows.forEach((clientId, row) -> {
+            BigDecimal oldBalance = row.getBalance();
+            BigDecimal newBalance = oldBalance.add(deltas.get(clientId));
+            row.setBalance(newBalance);
+            if (row.isActive()) {
+                addDifference(row.getCurrencyCode(), row.getClientType(), oldBalance, newBalance);
+            }
+        });
+    }
+
+    /**
+     * Clientning turi yoki o'chirilgani o'zgarsa uning balansi bir bo'limdan boshqasiga ko'chadi.
+     * Joriy holat bilan solishtirib ishlaydi, shuning uchun qayta chaqirilsa ham natija o'zgarmaydi.
+     */
+    @Override
+    @Transactional
+    public void syncClient(Long clientId) {
+        Optional<DashboardClientBalance> locked = dashboardClientBalanceRepository.findByIdForUpdate(clientId);
+        if (locked.isEmpty()) {
+            lockOrSeed(clientId); // yangi client: joriy holati bilan qo'shiladi
+            return;
+        }
+
+        DashboardClientSeedView seed = dashboardClientBalanceRepository.findSeed(clientId).orElse(null);
+        if (seed == null) {
+            return;
+        }
+
+        DashboardClientBalance row = locked.get();
+        CurrencyCode currencyCode = currencyOf(seed);
+        ClientType clientType = clientTypeOf(seed);
+        boolean active = !Boolean.TRUE.equals(seed.getDeleted());
+        if (row.getCurrencyCode() == currencyCode && row.getClientType() == clientType && row.isActive() == active) {
+            return;
+        }
+
+        if (row.isActive()) {
+            addDifference(row.getCurrencyCode(), row.getClientType(), row.getBalance(), BigDecimal.ZERO);
+        }
+        row.setCurrencyCode(currencyCode);
+        row.setClientType(clientType);
+        row.setActive(active);
+        if (active) {
+            addDifference(currencyCode, clientType, BigDecimal.ZERO, row.getBalance());
+        }
+    }
+
+    @Override
+    @Transactional
+    public int purgeAppliedEvents(Duration retention) {
+        return dashboardAppliedEventRepository.deleteAppliedBefore(
+                new Timestamp(System.currentTimeMillis() - retention.toMillis()));
+    }
+
+    /**
+     * Client qatorini lock qiladi. Dashboard da hali yo'q client boshlang'ich balansi bilan qo'shiladi -
+     * undan keyingi barcha tranzaksiyalar event bo'lib keladi.
+     */
+    private DashboardClientBalance lockOrSeed(Long clientId) {
+        Optional<DashboardClientBalance> locked = dashboardClientBalanceRepository.findByIdForUpdate(clientId);
+        if (locked.isPresent()) {
+            return locked.get();
+        }
+
+        DashboardClientSeedView seed = dashboardClientBalanceRepository.findSeed(clientId).orElse(null);
+        if (seed == null) {
+            return null;
+        }
+
+        // Parallel seed bo'lsa primary key xato beradi, event esa outbox orqali qayta uriniladi
+        DashboardClientBalance row = dashboardClientBalanceRepository.saveAndFlush(new DashboardClientBalance(
+                clientId,
+                currencyOf(seed),
+                clientTypeOf(seed),
+                seed.getInitialBalance() != null ? seed.getInitialBalance() : BigDecimal.ZERO,
+                !Boolean.TRUE.equals(seed.getDeleted())
+        ));
+        if (row.isActive()) {
+            addDifference(row.getCurrencyCode(), row.getClientType(), BigDecimal.ZERO, row.getBalance());
+        }
+        return row;
+    }
+
+    private void addDifference(CurrencyCode currencyCode, ClientType clientType,
+                               BigDecimal oldBalance, BigDecimal newBalance) {
+        BigDecimal receivables = debt(newBalance).subtract(debt(oldBalance));
+        BigDecimal payables = credit(newBalance).subtract(credit(oldBalance));
+        long debtors = (newBalance.signum() < 0 ? 1 : 0) - (oldBalance.signum() < 0 ? 1 : 0);
+        long creditors = (newBalance.signum() > 0 ? 1 : 0) - (oldBalance.signum() > 0 ? 1 : 0);
+
+        if (receivables.signum() == 0 && payables.signum() == 0 && debtors == 0 && creditors == 0) {
+            return;
+        }
+        dashboardAggregateRepository.addContribution(currencyCode.name(), clientType.name(),
+                receivables, payables, debtors, creditors);
+    }
+
+    private static BigDecimal delta(OutboxEventType eventType, BigDecimal effect, BigDecimal previousEffect) {
+        BigDecimal current = effect != null ? effect : BigDecimal.ZERO;
+        BigDecimal previous = previousEffect != null ? previousEffect : BigDecimal.ZERO;
+        return switch (eventType) {
+            case TRANSACTION_CREATED -> current;
+            case TRANSACTION_UPDATED -> current.subtract(previous);
+            case TRANSACTION_DELETED -> previous.negate();
+            default -> throw new IllegalArgumentException("Not a transaction event: " + eventType);
+        };
+    }
+
+    // Manfiy balans - client bizdan qarzdor
+    private static BigDecimal debt(BigDecimal balance) {
+        return balance.signum() < 0 ? balance.negate() : BigDecimal.ZERO;
+    }
+
+    private static BigDecimal credit(BigDecimal balance) {
+        return balance.signum() > 0 ? balance : BigDecimal.ZERO;
+    }
+
+    private static CurrencyCode currencyOf(DashboardClientSeedView seed) {
+        return seed.getCurrencyCode() != null ? CurrencyCode.valueOf(seed.getCurrencyCode()) : CurrencyCode.USD;
+    }
+
+    private static ClientType clientTypeOf(DashboardClientSeedView seed) {
+        return seed.getClientType() != null ? ClientType.valueOf(seed.getClientType()) : ClientType.CLIENT;
+    }
+}
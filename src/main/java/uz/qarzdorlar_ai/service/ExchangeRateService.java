@@ -0,0 +1,19 @@
+package uz.qarzdorlar_ai.service;
+
+import uz.qarzdorlar_ai.enums.CurrencyCode;
+import uz.qarzdorlar_ai.payload.ExchangeRateBulkResultDTO;
+import uz.qarzdorlar_ai.payload.ExchangeRateDTO;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+public interface ExchangeRateService {
+
+    Optional<BigDecimal> findEffectiveRate(CurrencyCode currencyCode, LocalDate date);
+
+    ExchangeRateDTO getEffectiveRate(CurrencyCode currencyCode, LocalDate date);
+
+    ExchangeRateBulkResultDTO loadRates(List<ExchangeRateDTO> rates);
+}
@@ -0,0 +1,148 @@
+package uz.qarzdorlar_ai.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import uz.qarzdorlar_ai.enums.CurrencyCode;
+import uz.qarzdorlar_ai.exception.BadRequestException;
+import uz.qarzdorlar_ai.exception.EntityNotFoundException;
+import uz.qarzdorlar_ai.model.ExchangeRate;
+import uz.qarzdorlar_ai.payload.ExchangeRateBulkResultDTO;
+import uz.qarzdorlar_ai.payload.ExchangeRateDTO;
+import uz.qarzdorlar_ai.repository.ExchangeRateRepository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Kurslar jadvali va uning ustidagi LRU cache. Kalit - (valyuta, so'ralgan sana),
+ * qiymat - o'sha sanada amal qilgan kurs (yoki yo'qligi). Bazaga faqat cache miss bo'lganda boriladi.
+ * Yangi kurslar yuklanganda cache to'liq tozalanadi: oldingi sanaga yozilgan kurs
+ * keyingi sanalarning effektiv kursini ham o'zgartirishi mumkin.
+ */
+@Slf4j
+@Service
+public class ExchangeRateServiceImpl implements ExchangeRateService {
+
+    private final ExchangeRateRepository exchangeRateRepository;
+    private final Map<RateKey, Optional<ExchangeRateDTO>> effectiveRates;
+
+    public ExchangeRateServiceImpl(ExchangeRateRepository exchangeRateRepository,
+                                   @Value("${application.exchange-rate.cache-size:5000}") int cacheSize) {
+        this.exchangeRateRepository = exchangeRateRepository;
+        this.effectiveRates = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<RateKey, Optional<ExchangeRateDTO>> eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+
+    @Override
+    public Optional<BigDecimal> findEffectiveRate(CurrencyCode currencyCode, LocalDate date) {
+        if (currencyCode == CurrencyCode.USD) {
+            return Optional.of(BigDecimal.ONE);
+        }
+        return lookup(currencyCode, date).map(ExchangeRateDTO::rateToUsd);
+    }
+
+    @Override
+    public ExchangeRateDTO getEffectiveRate(CurrencyCode currencyCode, LocalDate date) {
+        if (currencyCode == CurrencyCode.USD) {
+            return new ExchangeRateDTO(CurrencyCode.USD, date, BigDecimal.ONE);
+        }
+        return lookup(currencyCode, date)
+                .orElseThrow(() -> new EntityNotFoundException(
+                        "Exchange rate not found for " + currencyCode + " on or before " + date));
+    }
+
+    @Override
+    @Transactional
+    public ExchangeRateBulkResultDTO loadRates(List<ExchangeRateDTO> rates) {
+        if (rates == null || rates.isEmpty()) {
+            throw new BadRequestException("Kurslar ro'yxati bo'sh");
+        }
+
+        // Bir xil (valyuta, sana) bir necha marta kelsa oxirgisi olinadi
+        Map<RateKey, BigDecimal> incoming = new LinkedHashMap<>();
+        LocalDate from = null;
+        LocalDate to = null;
+        for (ExchangeRateDTO rate : rates) {
+            if (rate == null || rate.currencyCode() == null || rate.rateDate() == null || rate.rateToUsd() == null) {
+                throw new BadRequestException("currencyCode, rateDate va rateToUsd kiritilishi shart");
+            }
+            if (rate.rateToUsd().signum() <= 0) {
+                throw new BadRequestException("Kurs 0 dan katta bo'lishi shart: " + rate.currencyCode() + " " + rate.rateDate());
+            }
+            if (rate.currencyCode() == CurrencyCode.USD) {
+                throw new BadRequestException("USD kursi doim 1, uni yuklash shart emas");
+            }
+            incoming.put(new RateKey(rate.currencyCode(), rate.rateDate()), rate.rateToUsd());
+            from = from == null || rate.rateDate().isBefore(from) ? rate.rateDate() : from;
+            to = to == null || rate.rateDate().isAfter(to) ? rate.rateDate() : to;
+        }
+
+        Set<CurrencyCode> currencies = EnumSet.noneOf(CurrencyCode.class);
+        incoming.keySet().forEach(key -> currencies.add(key.currencyCode()));
+
+        Map<RateKey, ExchangeRate> existing = new HashMap<>();
+        for (ExchangeRate rate : exchangeRateRepository.findAllByCurrencyCodeInAndRateDateBetween(currencies, from, to)) {
+            existing.put(new RateKey(rate.getCurrencyCode(), rate.getRateDate()), rate);
+        }
+
+        List<ExchangeRate> toSave = new ArrayList<>();
+        int inserted = 0;
+        int updated = 0;
+        for (Map.Entry<RateKey, BigDecimal> entry : incoming.entrySet()) {
+            ExchangeRate rate = existing.get(entry.getKey());
+            if (rate == null) {
+                rate = new ExchangeRate(entry.getKey().currencyCode(), entry.getKey().date(), entry.getValue());
+                inserted++;
+            } else if (rate.getRateToUsd().compareTo(entry.getValue()) != 0) {
+                rate.setRateToUsd(entry.getValue());
+                updated++;
+            } else {
+                continue;
+            }
+            toSave.add(rate);
+        }
+        exchangeRateRepository.saveAll(toSave);
+
+        // Cache faqat commitdan keyin tozalanadi, aks holda parallel o'qish eski kursni qayta yozib qo'yadi
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    effectiveRates.clear();
+                }
+            });
+        } else {
+            effectiveRates.clear();
+        }
+
+        log.info("Exchange rates loaded: inserted={}, updated={}, unchanged={}",
+                inserted, updated, incoming.size() - inserted - updated);
+        return new ExchangeRateBulkResultDTO(inserted, updated);
+    }
+
+    private Optional<ExchangeRateDTO> lookup(CurrencyCode currencyCode, LocalDate date) {
+        RateKey key = new RateKey(currencyCode, date);
+        Optional<ExchangeRateDTO> cached = effectiveRates.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        Optional<ExchangeRateDTO> rate = exchangeRateRepository
+                .findFirstByCurrencyCodeAndRateDateLessThanEqualOrderByRateDateDesc(currencyCode, date)
+                .map(r -> new ExchangeRateDTO(r.getCurrencyCode(), r.getRateDate(), r.getRateToUsd()));
+        effectiveRates.put(key, rate);
+        return rate;
+    }
+
+    private record RateKey(CurrencyCode currencyCode, LocalDate date) {
+    }
+}
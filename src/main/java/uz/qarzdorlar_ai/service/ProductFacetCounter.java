@@ -0,0 +1,58 @@
+package uz.qarzdorlar_ai.service;
+
+import uz.qarzdorlar_ai.payload.FacetCountDTO;
+import uz.qarzdorlar_ai.payload.ProductFacetsDTO;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Facet countlarni yig'adi. Manba - DB dagi grouped so'rov qatorlari (count > 1 bo'lishi mumkin)
+ * yoki in-memory indeksdagi doclar (count = 1). null qiymatlar hisobga olinmaydi.
+ */
+final class ProductFacetCounter {
+
+    private final Map<Long, FacetCountDTO> brands = new HashMap<>();
+    private final Map<Long, FacetCountDTO> categories = new HashMap<>();
+    private final Map<String, FacetCountDTO> rams = new HashMap<>();
+    private final Map<String, FacetCountDTO> storages = new HashMap<>();
+    private final Map<Boolean, FacetCountDTO> touchScreen = new HashMap<>();
+    private final Map<Boolean, FacetCountDTO> backlit = new HashMap<>();
+
+    void add(Long brandId, String brandName, Long categoryId, String categoryName,
+             String ram, String storage, Boolean touch, Boolean backlight, long count) {
+        increment(brands, brandId, brandId, brandName, count);
+        increment(categories, categoryId, categoryId, categoryName, count);
+        increment(rams, ram, null, ram, count);
+        increment(storages, storage, null, storage, count);
+        increment(touchScreen, touch, null, String.valueOf(touch), count);
+        increment(backlit, backlight, null, String.valueOf(backlight), count);
+    }
+
+    ProductFacetsDTO toDTO() {
+        return new ProductFacetsDTO(
+                sorted(brands),
+                sorted(categories),
+                sorted(rams),
+                sorted(storages),
+                sorted(touchScreen),
+                sorted(backlit)
+        );
+    }
+
+    private static <K> void increment(Map<K, FacetCountDTO> facet, K key, Long id, String value, long count) {
+        if (key != null) {
+            FacetCountDTO facetCount = facet.computeIfAbsent(key, k -> new FacetCountDTO(id, value, 0));
+            facetCount.setCount(facetCount.getCount() + count);
+        }
+    }
+
+    private static List<FacetCountDTO> sorted(Map<?, FacetCountDTO> facet) {
+        return facet.values().stream()
+                .sorted(Comparator.comparingLong(FacetCountDTO::getCount).reversed()
+                        .thenComparing(FacetCountDTO::getValue, Comparator.nullsLast(Comparator.naturalOrder())))
+                .toList();
+    }
+}
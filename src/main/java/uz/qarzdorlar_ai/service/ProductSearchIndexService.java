@@ -0,0 +1,25 @@
+package uz.qarzdorlar_ai.service;
+
+import uz.qarzdorlar_ai.model.Product;
+import uz.qarzdorlar_ai.payload.PageDTO;
+import uz.qarzdorlar_ai.payload.ProductDTO;
+import uz.qarzdorlar_ai.payload.ProductFilterDTO;
+
+public interface ProductSearchIndexService {
+
+    void rebuild();
+
+    boolean isReady();
+
+    /**
+     * Tranzaksiya ichida chaqirilsa o'zgarish commit dan keyin qo'llanadi.
+     */
+    void index(Product product);
+
+    void remove(Long productId);
+
+    /**
+     * @param withFacets true bo'lsa barcha mos doclar bo'yicha facet countlar ham shu o'tishda hisoblanadi
+     */
+    PageDTO<ProductDTO> search(ProductFilterDTO filter, int page, int size, boolean withFacets);
+}
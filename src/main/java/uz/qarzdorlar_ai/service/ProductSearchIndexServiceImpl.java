@@ -0,0 +1,398 @@
+package uz.qarzdorlar_ai.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import uz.qarzdorlar_ai.config.properties.ProductSearchIndexProperties;
+import uz.qarzdorlar_ai.mapper.ProductMapper;
+import uz.qarzdorlar_ai.model.Product;
+import uz.qarzdorlar_ai.payload.PageDTO;
+import uz.qarzdorlar_ai.payload.ProductDTO;
+import uz.qarzdorlar_ai.payload.ProductFilterDTO;
+import uz.qarzdorlar_ai.payload.ProductSearchPageDTO;
+import uz.qarzdorlar_ai.repository.ProductRepository;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Product katalogi uchun in-process inverted index: token prefiksi -> docId lar ({@code int[]} posting list, o'sish tartibida).
+ * Tokenlar: name, cpu, gpu, ram, storage, modelCode, brand va category nomlari. So'rovdagi har bir so'z prefiks
+ * sifatida qidiriladi va natijalar kesishadi (AND), keyin brand / category / narx filtrlari qo'llanadi.
+ * <p>
+ * docId lar faqat o'sadi: o'zgargan product yangi docId oladi, eskisi o'chirilgan deb belgilanadi.
+ * O'chirilganlar {@link #rebuild()} da (startup va application.product-search-index.rebuild-cron) tozalanadi.
+ * Qayta qurish paytida kelgan o'zgarishlar yozib boriladi va yangi indeksga ham qo'llanadi.
+ */
+@Slf4j
+@Service
+public class ProductSearchIndexServiceImpl implements ProductSearchIndexService {
+
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int[] NO_DOCS = new int[0];
+
+    private final ProductRepository productRepository;
+    private final ProductMapper productMapper;
+    private final ProductSearchIndexProperties properties;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Segment segment;                  // lock bilan himoyalangan
+    private List<Consumer<Segment>> pending;  // qayta qurish paytidagi o'zgarishlar, lock bilan himoyalangan
+    private volatile boolean ready;
+
+    public ProductSearchIndexServiceImpl(ProductRepository productRepository,
+                                         ProductMapper productMapper,
+                                         ProductSearchIndexProperties properties) {
+        this.productRepository = productRepository;
+        this.productMapper = productMapper;
+        this.properties = properties;
+        this.segment = new Segment(properties.getMaxPrefixLength());
+    }
+
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${application.product-search-index.rebuild-cron:0 0 * * * *}")
+    public synchronized void rebuild() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            pending = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        try {
+            rebuild(productRepository.findAllForSearchIndex());
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                pending = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.error("FAILED to rebuild product search index. Reason: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Berilgan productlardan yangi indeks quradi va joriysini almashtiradi (benchmark ham shuni ishlatadi).
+     */
+    public void rebuild(List<Product> products) {
+        long start = System.currentTimeMillis();
+
+        Segment rebuilt = new Segment(properties.getMaxPrefixLength());
+        for (Product product : products) {
+            if (!product.isDeleted()) {
+                rebuilt.put(toDocument(product));
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (pending != null) {
+                pending.forEach(change -> change.accept(rebuilt));
+                pending = null;
+            }
+            segment = rebuilt;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        log.info("Product search index built: {} products, {} keys in {} ms",
+                rebuilt.docByProductId.size(), rebuilt.postings.size(), System.currentTimeMillis() - start);
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready && properties.isEnabled();
+    }
+
+    @Override
+    public void index(Product product) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        // Entity hali sessiyada - brand / category nomlari shu yerda o'qiladi
+        Document document = toDocument(product);
+        afterCommit(() -> apply(current -> current.put(document)));
+    }
+
+    @Override
+    public void remove(Long productId) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        afterCommit(() -> apply(current -> current.remove(productId)));
+    }
+
+    @Override
+    public PageDTO<ProductDTO> search(ProductFilterDTO filter, int page, int size, boolean withFacets) {
+        String[] queryTokens = tokenize(filter.getFilter());
+        List<ProductDTO> content = new ArrayList<>(size);
+        ProductFacetCounter facets = withFacets ? new ProductFacetCounter() : null;
+        long offset = (long) page * size;
+        long total = 0;
+
+        lock.readLock().lock();
+        try {
+            Segment current = segment;
+            int[] candidates = current.match(queryTokens);
+            int count = candidates != null ? candidates.length : current.size;
+
+            // Eng oxirgi indekslangan (yangi yoki o'zgargan) productlar birinchi
+            for (int i = count - 1; i >= 0; i--) {
+                Document document = current.documents[candidates != null ? candidates[i] : i];
+                if (document == null || !matches(document, filter, queryTokens, current.maxPrefixLength)) {
+                    continue;
+                }
+                if (total >= offset && content.size() < size) {
+                    content.add(document.dto());
+                }
+                if (facets != null) {
+                    ProductDTO dto = document.dto();
+                    facets.add(document.brandId(), dto.getBrandName(), document.categoryId(), dto.getCategoryName(),
+                            dto.getRam(), dto.getStorage(), dto.getTouchScreen(), dto.getBacklit(), 1);
+                }
+                total++;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        PageImpl<ProductDTO> result = new PageImpl<>(content, PageRequest.of(page, size), total);
+        return facets != null ? new ProductSearchPageDTO(content, result, facets.toDTO()) : new PageDTO<>(content, result);
+    }
+
+    private void apply(Consumer<Segment> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(segment);
+            if (pending != null) {
+                pending.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Rollback bo'lgan o'zgarish indeksga tushmasligi uchun
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private Document toDocument(Product product) {
+        ProductDTO dto = productMapper.toDTO(product);
+        dto.setRawData(null); // qidiruv natijasida kerak emas, xotirani band qilmasin
+
+        return new Document(
+                product.getId(),
+                dto,
+                product.getBrand() != null ? product.getBrand().getId() : null,
+                product.getCategory() != null ? product.getCategory().getId() : null,
+                tokenize(product.getName(), product.getCpu(), product.getGpu(), product.getRam(), product.getStorage(),
+                        product.getModelCode(), dto.getBrandName(), dto.getCategoryName())
+        );
+    }
+
+    private static boolean matches(Document document, ProductFilterDTO filter, String[] queryTokens, int maxPrefixLength) {
+        if (filter.getBrandId() != null && !filter.getBrandId().equals(document.brandId())) {
+            return false;
+        }
+        if (filter.getCategoryId() != null && !filter.getCategoryId().equals(document.categoryId())) {
+            return false;
+        }
+
+        BigDecimal price = document.dto().getPrice();
+        if (filter.getMinPriceUsd() != null && (price == null || price.compareTo(filter.getMinPriceUsd()) < 0)) {
+            return false;
+        }
+        if (filter.getMaxPriceUsd() != null && (price == null || price.compareTo(filter.getMaxPriceUsd()) > 0)) {
+            return false;
+        }
+        if (filter.getTouchScreen() != null && !filter.getTouchScreen().equals(document.dto().getTouchScreen())) {
+            return false;
+        }
+        if (filter.getBacklit() != null && !filter.getBacklit().equals(document.dto().getBacklit())) {
+            return false;
+        }
+
+        // maxPrefixLength dan uzun so'zlar indeksda qisqartirilgan - to'liq prefiksni shu yerda tekshiramiz
+        for (String queryToken : queryTokens) {
+            if (queryToken.length() > maxPrefixLength
+                    && Arrays.stream(document.tokens()).noneMatch(token -> token.startsWith(queryToken))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String[] tokenize(String... texts) {
+        Set<String> tokens = new LinkedHashSet<>();
+        for (String text : texts) {
+            if (text == null) {
+                continue;
+            }
+            for (String token : TOKEN_SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+                if (!token.isEmpty()) {
+                    tokens.add(token);
+                }
+            }
+        }
+        return tokens.toArray(new String[0]);
+    }
+
+    private record Document(Long productId, ProductDTO dto, Long brandId, Long categoryId, String[] tokens) {
+    }
+
+    /**
+     * Indeksning o'zi. Sinxronizatsiya tashqarida (lock), shu sababli ichki tuzilmalar oddiy kolleksiyalar.
+     * Package-private: kesishma va gallop unit testlari uchun.
+     */
+    static final class Segment {
+
+        private final int maxPrefixLength;
+        private final Map<String, IntList> postings = new HashMap<>();
+        private final Map<Long, Integer> docByProductId = new HashMap<>();
+        private Document[] documents = new Document[256]; // o'chirilgan doc - null
+        private int size;
+
+        private Segment(int maxPrefixLength) {
+            this.maxPrefixLength = maxPrefixLength;
+        }
+
+        private void put(Document document) {
+            remove(document.productId());
+
+            int docId = size++;
+            if (docId == documents.length) {
+                documents = Arrays.copyOf(documents, docId * 2);
+            }
+            documents[docId] = document;
+            docByProductId.put(document.productId(), docId);
+
+            // Bitta doc bitta kalitga bir marta tushadi - posting list tartibli va takrorsiz qoladi
+            Set<String> keys = new HashSet<>();
+            for (String token : document.tokens()) {
+                for (int length = 1; length <= Math.min(token.length(), maxPrefixLength); length++) {
+                    keys.add(token.substring(0, length));
+                }
+            }
+            for (String key : keys) {
+                postings.computeIfAbsent(key, k -> new IntList()).add(docId);
+            }
+        }
+
+        private void remove(Long productId) {
+            Integer docId = docByProductId.remove(productId);
+            if (docId != null) {
+                documents[docId] = null;
+            }
+        }
+
+        /**
+         * @return so'rovdagi barcha tokenlarga mos docId lar (o'sish tartibida), tokenlar bo'lmasa null - barcha doclar
+         */
+        private int[] match(String[] queryTokens) {
+            if (queryTokens.length == 0) {
+                return null;
+            }
+
+            IntList[] lists = new IntList[queryTokens.length];
+            for (int i = 0; i < queryTokens.length; i++) {
+                String token = queryTokens[i];
+                IntList list = postings.get(token.length() > maxPrefixLength ? token.substring(0, maxPrefixLength) : token);
+                if (list == null) {
+                    return NO_DOCS;
+                }
+                lists[i] = list;
+            }
+
+            // Eng qisqa ro'yxatdan boshlab kesishtiramiz
+            Arrays.sort(lists, Comparator.comparingInt(list -> list.size));
+            int[] result = Arrays.copyOf(lists[0].values, lists[0].size);
+            int resultSize = result.length;
+            for (int i = 1; i < lists.length && resultSize > 0; i++) {
+                resultSize = intersect(result, resultSize, lists[i]);
+            }
+            return resultSize == result.length ? result : Arrays.copyOf(result, resultSize);
+        }
+
+        // result ning boshiga kesishmani yozadi, yangi uzunlikni qaytaradi
+        static int intersect(int[] result, int resultSize, IntList other) {
+            int size = 0;
+            int position = 0;
+            for (int i = 0; i < resultSize; i++) {
+                int value = result[i];
+                position = gallop(other.values, position, other.size, value);
+                if (position == other.size) {
+                    break;
+                }
+                if (other.values[position] == value) {
+                    result[size++] = value;
+                }
+            }
+            return size;
+        }
+
+        // [from, to) oralig'ida target dan katta yoki teng birinchi element indeksi (exponential + binary search)
+        static int gallop(int[] values, int from, int to, int target) {
+            if (from >= to || values[from] >= target) {
+                return from;
+            }
+            int low = from;
+            int step = 1;
+            int high = from + 1;
+            while (high < to && values[high] < target) {
+                low = high;
+                step <<= 1;
+                high = from + step;
+            }
+            int index = Arrays.binarySearch(values, low + 1, Math.min(high, to), target);
+            return index >= 0 ? index : -index - 1;
+        }
+    }
+
+    static final class IntList {
+
+        private int[] values = new int[4];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+}
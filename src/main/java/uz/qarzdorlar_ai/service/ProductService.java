@@ -17,5 +17,14 @@ public interface ProductService {
 
     String deleteProduct(Long id);
 
-    PageDTO<ProductDTO> getSearchProducts(ProductFilterDTO productFilterDTO, Integer page, Integer size);
+    /**
+     * @param facets true bo'lsa javob {@link ProductSearchPageDTO} - brand, category, ram, storage, touchScreen,
+     *               backlit bo'yicha countlar bilan (bitta grouped so'rov)
+     */
+    PageDTO<ProductDTO> getSearchProducts(ProductFilterDTO productFilterDTO, Integer page, Integer size, boolean facets);
+
+    /**
+     * In-memory indeks orqali: filter so'zlari (prefiks, AND), brandId, categoryId, narx, touchScreen, backlit.
+     */
+    PageDTO<ProductDTO> quickSearch(ProductFilterDTO productFilterDTO, Integer page, Integer size, boolean facets);
 }
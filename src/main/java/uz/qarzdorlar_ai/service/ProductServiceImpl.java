@@ -1,6 +1,7 @@
 package uz.qarzdorlar_ai.service;
 
 import lombok.RequiredArgsConstructor;
+import jakarta.persistence.Tuple;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
@@ -29,6 +30,7 @@ public class ProductServiceImpl implements ProductService {
     private final ProductMapper productMapper;
     private final BrandRepository brandRepository;
     private final CategoryRepository categoryRepository;
+    private final ProductSearchIndexService productSearchIndexService;
 
     @Override
     @Transactional
@@ -49,6 +51,7 @@ public class ProductServiceImpl implements ProductService {
         productMapper.setFieldProduct(product, productCreateDTO);
 
         productRepository.save(product);
+        productSearchIndexService.index(product);
 
         return productMapper.toDTO(product);
 
@@ -108,6 +111,7 @@ public class ProductServiceImpl implements ProductService {
         productMapper.setFieldProduct(product, productUpdateDTO);
 
         productRepository.save(product);
+        productSearchIndexService.index(product);
 
         return productMapper.toDTO(product);
 
@@ -121,16 +125,19 @@ public class ProductServiceImpl implements ProductService {
                 .orElseThrow(() -> new EntityNotFoundException("Product not found with id : " + id));
 
         productRepository.delete(product);
+        productSearchIndexService.remove(product.getId());
 
         return "Product deleted successfully. Deleted product with id : " + product.getId();
     }
 
     @Override
     @Transactional(readOnly = true)
-    public PageDTO<ProductDTO> getSearchProducts(ProductFilterDTO productFilterDTO, Integer page, Integer size) {
-        // 1. Sortirovkani (masalan, yaratilgan vaqti bo'yicha) sozlash
-        Sort sort = Sort.by(Sort.Direction.DESC, "createdAt");
-        PageRequest pageRequest = PageRequest.of(page, size, sort);
+    public PageDTO<ProductDTO> getSearchProducts(ProductFilterDTO productFilterDTO, Integer page, Integer size, boolean facets) {
+        // 1. Sortirovkani (masalan, yaratilgan vaqti bo'yicha) sozlash.
+        // Erkin matn qidiruvida tartibni (relevance) ProductSpecification o'zi beradi
+        PageRequest pageRequest = ProductSpecification.hasFilter(productFilterDTO)
+                ? PageRequest.of(page, size)
+                : PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt"));
 
         // 2. Specification orqali qidiruvni amalga oshirish
         Specification<Product> spec = ProductSpecification.build(productFilterDTO);
@@ -139,10 +146,36 @@ public class ProductServiceImpl implements ProductService {
         // 3. DTOga o'girish
         List<ProductDTO> productDTOList = productMapper.toDTO(productsPage.getContent());
 
-        // 4. Siz so'ragan PageDTO formatida qaytarish
+        // 4. Facetlar: barcha kombinatsiyalar bitta GROUP BY so'rovda, har bir facet Java da yig'iladi
+        if (facets) {
+            ProductFacetCounter counter = new ProductFacetCounter();
+            for (Tuple row : productRepository.findFacetRows(spec)) {
+                counter.add(
+                        row.get("brandId", Long.class), row.get("brandName", String.class),
+                        row.get("categoryId", Long.class), row.get("categoryName", String.class),
+                        row.get("ram", String.class), row.get("storage", String.class),
+                        row.get("touchScreen", Boolean.class), row.get("backlit", Boolean.class),
+                        row.get("total", Long.class)
+                );
+            }
+            return new ProductSearchPageDTO(productDTOList, productsPage, counter.toDTO());
+        }
+
+        // 5. Siz so'ragan PageDTO formatida qaytarish
         return new PageDTO<>(
                 productDTOList,
                 productsPage
         );
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PageDTO<ProductDTO> quickSearch(ProductFilterDTO productFilterDTO, Integer page, Integer size, boolean facets) {
+        // Indeks hali qurilmagan (startup) yoki o'chirilgan bo'lsa - bazadan
+        if (!productSearchIndexService.isReady()) {
+            return getSearchProducts(productFilterDTO, page, size, facets);
+        }
+        // Facetlar ham indeksdan - natija bilan bir xil mos kelish qoidasi bo'yicha
+        return productSearchIndexService.search(productFilterDTO, page, size, facets);
+    }
 }
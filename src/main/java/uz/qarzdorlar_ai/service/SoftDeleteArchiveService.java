@@ -0,0 +1,26 @@
+package uz.qarzdorlar_ai.service;
+
+import uz.qarzdorlar_ai.enums.ArchivedEntity;
+
+import java.util.Map;
+
+public interface SoftDeleteArchiveService {
+
+    /**
+     * Retention dan oldin o'chirilgan qatorlarni arxiv jadvallariga ko'chiradi.
+     *
+     * @return jadval bo'yicha ko'chirilgan qatorlar soni
+     */
+    Map<ArchivedEntity, Integer> archive();
+
+    /**
+     * Arxivdagi qatorni (TRANSACTION bo'lsa itemlari bilan) asosiy jadvalga soft-deleted holida qaytaradi.
+     */
+    String restore(ArchivedEntity entity, Long id);
+
+    /**
+     * O'chirilgan qatorni (arxivda bo'lsa avval qaytarib) tiriltiradi. TRANSACTION birga o'chirilgan itemlari bilan
+     * qaytadi va balans ta'siri qayta qo'llanadi; TRANSACTION_ITEM alohida tiriltirilmaydi.
+     */
+    String undelete(ArchivedEntity entity, Long id);
+}
@@ -0,0 +1,352 @@
+package uz.qarzdorlar_ai.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import uz.qarzdorlar_ai.config.properties.SoftDeleteArchiveProperties;
+import uz.qarzdorlar_ai.enums.ArchivedEntity;
+import uz.qarzdorlar_ai.enums.OutboxEventType;
+import uz.qarzdorlar_ai.exception.BadRequestException;
+import uz.qarzdorlar_ai.exception.EntityNotFoundException;
+import uz.qarzdorlar_ai.model.Product;
+import uz.qarzdorlar_ai.model.Transaction;
+import uz.qarzdorlar_ai.repository.ProductRepository;
+import uz.qarzdorlar_ai.repository.TransactionRepository;
+import uz.qarzdorlar_ai.service.outbox.OutboxService;
+import uz.qarzdorlar_ai.service.transactions.embedded.TransactionHelperService;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Soft-delete qilingan qatorlarni {@code <archiveSchema>.<jadval>} mirror jadvallariga ko'chiradi.
+ * Har bir batch bitta {@code DELETE ... RETURNING} + {@code INSERT} statement - alohida tranzaksiya kerak emas.
+ * O'chirilgan vaqt - {@code deleted_at} (@SQLDelete to'ldiradi). Ustun paydo bo'lishidan oldin o'chirilgan qatorlarda
+ * u bo'sh - har run boshida {@code updated_at} dan to'ldiriladi. {@code updated_at} sharti faqat yaqinda arxivdan
+ * qaytarilgan qatorlarni darhol qayta ko'chirmaslik uchun.
+ * <p>
+ * Hali boshqa jadval tomonidan ishlatilayotgan qatorlar (itemi qolgan tranzaksiya, itemlarda turgan product,
+ * tranzaksiyasi yoki kutilayotgan deltasi bor client) ko'chirilmaydi.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SoftDeleteArchiveServiceImpl implements SoftDeleteArchiveService {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SoftDeleteArchiveProperties properties;
+    private final TransactionRepository transactionRepository;
+    private final ProductRepository productRepository;
+    private final TransactionHelperService transactionHelperService;
+    private final ProductSearchIndexService productSearchIndexService;
+    private final OutboxService outboxService;
+
+    @Override
+    public Map<ArchivedEntity, Integer> archive() {
+        Timestamp cutoff = Timestamp.from(Instant.now().minus(Duration.ofDays(properties.getRetentionDays())));
+        Map<ArchivedEntity, Integer> result = new EnumMap<>(ArchivedEntity.class);
+
+        // Enum tartibi muhim: itemlar tranzaksiyalardan, tranzaksiyalar clientlardan oldin
+        for (ArchivedEntity entity : ArchivedEntity.values()) {
+            String table = tableName(entity);
+            ensureArchiveTable(table);
+            backfillDeletedAt(table);
+
+            String columns = columnList(columns(table));
+            String sql = """
+                    WITH moved AS (
+                        DELETE FROM %1$s WHERE id IN (
+                            SELECT h.id FROM %1$s h
+                            WHERE h.deleted = true AND h.deleted_at < ? AND h.updated_at < ? %2$s
+                            LIMIT ?
+                            FOR UPDATE SKIP LOCKED)
+                        RETURNING *)
+                    INSERT INTO %3$s (%4$s, archived_at)
+                    SELECT %4$s, now() FROM moved
+                    """.formatted(table, referenceGuard(entity), archiveTable(table), columns);
+
+            int total = 0;
+            for (int batch = 0; batch < properties.getMaxBatchesPerRun(); batch++) {
+                if (!insideWindow()) {
+                    log.info("Soft-delete archive: outside of the {}-{}h window, stopping", properties.getWindowStartHour(), properties.getWindowEndHour());
+                    result.put(entity, total);
+                    return result;
+                }
+
+                int moved;
+                try {
+                    moved = jdbcTemplate.update(sql, cutoff, cutoff, properties.getBatchSize());
+                } catch (Exception e) {
+                    log.error("FAILED to archive '{}' batch. Reason: {}", table, e.getMessage());
+                    break;
+                }
+                total += moved;
+                if (moved < properties.getBatchSize() || !pause()) {
+                    break;
+                }
+            }
+            result.put(entity, total);
+        }
+        return result;
+    }
+
+    @Override
+    @Transactional
+    public String restore(ArchivedEntity entity, Long id) {
+        String table = tableName(entity);
+        ensureArchiveTable(table);
+
+        try {
+            int restored = moveBack(table, "id = ?", id);
+            if (restored == 0) {
+                throw new EntityNotFoundException("Archived " + entity + " not found with id : " + id);
+            }
+
+            int items = 0;
+            if (entity == ArchivedEntity.TRANSACTION) {
+                ensureArchiveTable(tableName(ArchivedEntity.TRANSACTION_ITEM));
+                items = moveBack(tableName(ArchivedEntity.TRANSACTION_ITEM), "transaction_id = ?", id);
+            }
+
+            return "Archived " + entity + " restored (still soft-deleted) with id : " + id
+                    + (entity == ArchivedEntity.TRANSACTION ? ", items restored : " + items : "");
+        } catch (DataIntegrityViolationException e) {
+            throw new BadRequestException("Cannot restore " + entity + " with id : " + id
+                    + ", it references archived or conflicting rows. Restore them first");
+        }
+    }
+
+    @Override
+    @Transactional
+    public String undelete(ArchivedEntity entity, Long id) {
+        if (entity == ArchivedEntity.TRANSACTION_ITEM) {
+            // Alohida item tiriltirilsa tranzaksiya summasi va balans ta'siri bilan mos kelmay qoladi
+            throw new BadRequestException("Transaction items are undeleted together with their transaction, item id : " + id);
+        }
+        String table = tableName(entity);
+        ensureArchiveTable(table);
+
+        try {
+            // Arxivda bo'lsa avval asosiy jadvalga qaytariladi
+            if (moveBack(table, "id = ?", id) > 0 && entity == ArchivedEntity.TRANSACTION) {
+                ensureArchiveTable(tableName(ArchivedEntity.TRANSACTION_ITEM));
+                moveBack(tableName(ArchivedEntity.TRANSACTION_ITEM), "transaction_id = ?", id);
+            }
+        } catch (DataIntegrityViolationException e) {
+            throw new BadRequestException("Cannot restore " + entity + " with id : " + id
+                    + ", it references archived or conflicting rows. Restore them first");
+        }
+
+        return switch (entity) {
+            case TRANSACTION -> undeleteTransaction(id);
+            case PRODUCT -> undeleteProduct(id);
+            case CLIENT -> undeleteClient(id);
+            case TRANSACTION_ITEM -> throw new IllegalStateException("unreachable");
+        };
+    }
+
+    /**
+     * Tranzaksiya bilan birga (bir xil deleted_at - bitta DB tranzaksiyasidagi now()) o'chirilgan itemlar qaytadi,
+     * undan oldin tahrirda olib tashlanganlari o'chirilganicha qoladi. Balans ta'siri deleteTransaction da
+     * qaytarilgan - qayta qo'llanadi.
+     */
+    private String undeleteTransaction(Long id) {
+        List<Timestamp> deletedAt = jdbcTemplate.queryForList(
+                "SELECT COALESCE(deleted_at, updated_at) FROM transaction WHERE id = ? AND deleted = true FOR UPDATE",
+                Timestamp.class, id);
+        if (deletedAt.isEmpty()) {
+            throw new EntityNotFoundException("Deleted TRANSACTION not found with id : " + id);
+        }
+
+        Integer deletedClients = jdbcTemplate.queryForObject("""
+                SELECT COUNT(*) FROM transaction t
+                JOIN client c ON c.id = t.client_id OR c.id = t.receiver_client_id
+                WHERE t.id = ? AND c.deleted = true
+                """, Integer.class, id);
+        if (deletedClients != null && deletedClients > 0) {
+            throw new BadRequestException("Cannot undelete TRANSACTION with id : " + id
+                    + ", its client is deleted. Undelete the client first");
+        }
+
+        int items = jdbcTemplate.update("""
+                UPDATE transaction_item SET deleted = false, deleted_at = NULL, updated_at = now()
+                WHERE transaction_id = ? AND deleted = true AND COALESCE(deleted_at, updated_at) = ?
+                """, id, deletedAt.get(0));
+        // updated_at: balance reconciliation clientni qayta tekshiradi; version: eski nusxadagi tahrir rad etiladi
+        jdbcTemplate.update("""
+                UPDATE transaction SET deleted = false, deleted_at = NULL, updated_at = now(), version = COALESCE(version, 0) + 1
+                WHERE id = ?
+                """, id);
+
+        Transaction transaction = transactionRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Transaction not found with id : " + id));
+        transactionHelperService.updateClientBalance(transaction);
+        // Dashboard uchun avvalgi ta'sir nol - to'liq ta'sir qo'shiladi (CREATED emas: telegram xabari qayta ketmaydi)
+        outboxService.publishTransactionEvent(OutboxEventType.TRANSACTION_UPDATED, transaction, BigDecimal.ZERO, BigDecimal.ZERO);
+
+        return "TRANSACTION undeleted with id : " + id + ", items undeleted : " + items;
+    }
+
+    private String undeleteProduct(Long id) {
+        flipDeleted(ArchivedEntity.PRODUCT, id);
+
+        Product product = productRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Product not found with id : " + id));
+        productSearchIndexService.index(product);
+
+        return "PRODUCT undeleted with id : " + id;
+    }
+
+    private String undeleteClient(Long id) {
+        flipDeleted(ArchivedEntity.CLIENT, id);
+        outboxService.publishClientEvent(OutboxEventType.CLIENT_UPDATED, id);
+
+        return "CLIENT undeleted with id : " + id;
+    }
+
+    private void flipDeleted(ArchivedEntity entity, Long id) {
+        int updated = jdbcTemplate.update("UPDATE " + tableName(entity)
+                + " SET deleted = false, deleted_at = NULL, updated_at = now() WHERE id = ? AND deleted = true", id);
+        if (updated == 0) {
+            throw new EntityNotFoundException("Deleted " + entity + " not found with id : " + id);
+        }
+    }
+
+    // updated_at = now(): qaytarilgan qator keyingi run da darhol qayta arxivlanmaydi; deleted_at o'zgarmaydi
+    private int moveBack(String table, String condition, Long id) {
+        List<String> columns = columns(table);
+        String selectList = columns.stream()
+                .map(column -> column.equals("updated_at") ? "now()" : quote(column))
+                .collect(Collectors.joining(", "));
+
+        return jdbcTemplate.update("""
+                WITH moved AS (DELETE FROM %s WHERE %s RETURNING *)
+                INSERT INTO %s (%s)
+                SELECT %s FROM moved
+                """.formatted(archiveTable(table), condition, table, columnList(columns), selectList), id);
+    }
+
+    /**
+     * deleted_at ustunidan oldin o'chirilgan qatorlar: eng yaqin ma'lum vaqt - @SQLDelete yangilagan updated_at.
+     * Partial indeks (deleted_at) WHERE deleted = true bo'sh qatorlarni to'g'ridan-to'g'ri topadi - to'ldirib
+     * bo'lingandan keyin bu so'rov hech narsa o'qimaydi.
+     */
+    private void backfillDeletedAt(String table) {
+        int filled;
+        do {
+            filled = jdbcTemplate.update("""
+                    UPDATE %1$s SET deleted_at = COALESCE(updated_at, created_at, now())
+                    WHERE id IN (SELECT id FROM %1$s WHERE deleted = true AND deleted_at IS NULL
+                                 LIMIT ? FOR UPDATE SKIP LOCKED)
+                    """.formatted(table), properties.getBatchSize());
+            if (filled > 0) {
+                log.info("Soft-delete archive: backfilled deleted_at of {} '{}' rows", filled, table);
+            }
+        } while (filled == properties.getBatchSize());
+    }
+
+    /**
+     * Mirror jadval asosiy jadval ustunlaridan yaratiladi; ddl-auto keyinchalik qo'shgan ustunlar ham qo'shib boriladi.
+     * Constraint / FK ko'chirilmaydi - arxivdagi qator o'chirilgan bog'liq qatorlarga ishora qilishi mumkin.
+     */
+    private void ensureArchiveTable(String table) {
+        String schema = archiveSchema();
+        String archiveTable = archiveTable(table);
+
+        jdbcTemplate.execute("CREATE SCHEMA IF NOT EXISTS " + schema);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + archiveTable + " (LIKE " + table + " INCLUDING DEFAULTS)");
+        jdbcTemplate.queryForList("""
+                        SELECT 'ALTER TABLE ' || ? || ' ADD COLUMN IF NOT EXISTS ' || quote_ident(a.attname) || ' '
+                                   || format_type(a.atttypid, a.atttypmod)
+                        FROM pg_attribute a
+                        WHERE a.attrelid = to_regclass(?) AND a.attnum > 0 AND NOT a.attisdropped
+                        """, String.class, archiveTable, table)
+                .forEach(jdbcTemplate::execute);
+        jdbcTemplate.execute("ALTER TABLE " + archiveTable + " ADD COLUMN IF NOT EXISTS archived_at timestamp");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_archive_" + table + "_id ON " + archiveTable + " (id)");
+        if (table.equals(tableName(ArchivedEntity.TRANSACTION_ITEM))) {
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_archive_" + table + "_transaction ON " + archiveTable + " (transaction_id)");
+        }
+    }
+
+    private String referenceGuard(ArchivedEntity entity) {
+        return switch (entity) {
+            case TRANSACTION_ITEM -> "";
+            case TRANSACTION -> "AND NOT EXISTS (SELECT 1 FROM transaction_item i WHERE i.transaction_id = h.id)";
+            case PRODUCT -> "AND NOT EXISTS (SELECT 1 FROM transaction_item i WHERE i.product_id = h.id)";
+            case CLIENT -> """
+                    AND NOT EXISTS (SELECT 1 FROM transaction t WHERE t.client_id = h.id)
+                    AND NOT EXISTS (SELECT 1 FROM transaction t WHERE t.receiver_client_id = h.id)
+                    AND NOT EXISTS (SELECT 1 FROM client_balance_delta d WHERE d.client_id = h.id)
+                    """;
+        };
+    }
+
+    private String tableName(ArchivedEntity entity) {
+        return switch (entity) {
+            case TRANSACTION_ITEM -> "transaction_item";
+            case TRANSACTION -> "transaction";
+            case PRODUCT -> "product";
+            case CLIENT -> "client";
+        };
+    }
+
+    private List<String> columns(String table) {
+        return jdbcTemplate.queryForList("""
+                SELECT a.attname FROM pg_attribute a
+                WHERE a.attrelid = to_regclass(?) AND a.attnum > 0 AND NOT a.attisdropped
+                ORDER BY a.attnum
+                """, String.class, table);
+    }
+
+    private String columnList(List<String> columns) {
+        return columns.stream().map(this::quote).collect(Collectors.joining(", "));
+    }
+
+    private String quote(String identifier) {
+        return "\"" + identifier + "\"";
+    }
+
+    private String archiveTable(String table) {
+        return archiveSchema() + "." + table;
+    }
+
+    private String archiveSchema() {
+        String schema = properties.getArchiveSchema();
+        if (schema == null || !schema.matches("[a-z_][a-z0-9_]*")) {
+            throw new BadRequestException("Invalid archive schema name: " + schema);
+        }
+        return schema;
+    }
+
+    // Kunduzgi yozuv trafigi bilan raqobatlashmaslik uchun faqat tungi oynada ishlaydi
+    private boolean insideWindow() {
+        int hour = LocalTime.now().getHour();
+        int start = properties.getWindowStartHour();
+        int end = properties.getWindowEndHour();
+        if (start == end) {
+            return true; // oyna cheklanmagan
+        }
+        return start <= end ? hour >= start && hour < end : hour >= start || hour < end;
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(properties.getPauseBetweenBatchesMs());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -17,6 +17,8 @@ public interface UserService extends UserDetailsService {
 
     void deleteUser(Long id, User user);
 
+    void revokeTokens(Long id);
+
     PageDTO<UserDTO> getSearch(UserFilterDTO userFilterDTO, Integer page, Integer size);
 
 }
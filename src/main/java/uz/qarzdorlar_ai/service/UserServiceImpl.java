@@ -9,7 +9,8 @@ import org.springframework.data.domain.Sort;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
-import uz.qarzdorlar_ai.enums.Role;
+import org.springframework.transaction.annotation.Transactional;
+import uz.qarzdorlar_ai.config.security.TokenVersionCache;
 import uz.qarzdorlar_ai.exception.AccessDeniedException;
 import uz.qarzdorlar_ai.exception.EntityNotFoundException;
 import uz.qarzdorlar_ai.mapper.UserMapper;
@@ -21,7 +22,6 @@ import uz.qarzdorlar_ai.payload.user.UserDTO;
 import uz.qarzdorlar_ai.repository.UserRepository;
 import uz.qarzdorlar_ai.specification.UserSpecification;
 
-import java.util.EnumSet;
 import java.util.List;
 
 @Slf4j
@@ -31,7 +31,7 @@ public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
     private final UserMapper userMapper;
-    private static final EnumSet<Role> ALLOWED_ROLES = EnumSet.of(Role.ADMIN, Role.DEVELOPER, Role.STAFF_PLUS);
+    private final TokenVersionCache tokenVersionCache;
 
 
     @Override
@@ -42,12 +42,7 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public UserDTO getMe(User user) {
-        User currentUser = userRepository.findByUsername(user.getUsername())
-                .orElseThrow(() ->
-                        new EntityNotFoundException("User not found with username: " + user.getUsername())
-                );
-
-        return userMapper.toDTO(currentUser);
+        return userMapper.toDTO(user);
     }
 
     private User getUser(String username) {
@@ -60,12 +55,7 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public UserDTO updateDTO(User user, ProfileUpdateDTO dto) {
-        User currentUser = userRepository.findByUsername(user.getUsername())
-                .orElseThrow(() ->
-                        new EntityNotFoundException("User not found with username: " + user.getUsername())
-                );
-
-        UserProfile profile = currentUser.getUserProfile();
+        UserProfile profile = user.getUserProfile();
 
         profile.setFirstName(dto.getFirstName());
         profile.setLastName(dto.getLastName());
@@ -73,7 +63,6 @@ public class UserServiceImpl implements UserService {
         profile.setEmail(dto.getEmail());
         profile.setEmailEnabled(false);
 
-        user.setUserProfile(profile);
         userRepository.save(user);
 
         return userMapper.toDTO(user);
@@ -95,20 +84,29 @@ public class UserServiceImpl implements UserService {
     @Override
     public void deleteUser(Long id, User user) {
 
-        User currentUser = userRepository.findByUsername(user.getUsername())
-                .orElseThrow(() ->
-                        new EntityNotFoundException("User not found with username: " + user.getUsername())
-                );
-
         User userToDelete = userRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("User not found with id: " + id));
 
-        if (!currentUser.getId().equals(userToDelete.getId()) // agar o‘zini o‘chirayotgan bo‘lmasa
-                && !ALLOWED_ROLES.contains(currentUser.getRole())) { // allowed role bo‘lmasa
+        if (!user.getId().equals(userToDelete.getId()) // agar o‘zini o‘chirayotgan bo‘lmasa
+                && !user.getRole().canManageUsers()) { // allowed role bo‘lmasa
             throw new AccessDeniedException("You are not allowed to delete other users");
         }
 
         userRepository.delete(userToDelete);
+        tokenVersionCache.evict(userToDelete.getId());
+    }
+
+    @Override
+    @Transactional
+    public void revokeTokens(Long id) {
+        if (userRepository.incrementTokenVersion(id) == 0) {
+            throw new EntityNotFoundException("User not found with id: " + id);
+        }
+
+        long tokenVersion = userRepository.findTokenVersionById(id)
+                .orElseThrow(() -> new EntityNotFoundException("User not found with id: " + id));
+        tokenVersionCache.register(id, tokenVersion);
+        log.info("Tokens of user {} revoked, token version is now {}", id, tokenVersion);
     }
 
     @Override
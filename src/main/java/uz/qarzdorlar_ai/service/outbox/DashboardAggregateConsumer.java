@@ -0,0 +1,37 @@
+package uz.qarzdorlar_ai.service.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import uz.qarzdorlar_ai.enums.OutboxEventType;
+import uz.qarzdorlar_ai.model.OutboxEvent;
+import uz.qarzdorlar_ai.payload.TransactionEventPayload;
+import uz.qarzdorlar_ai.service.DashboardService;
+
+/**
+ * Tranzaksiya va client eventlarini dashboard agregatlariga qo'llaydi.
+ */
+@Component
+@RequiredArgsConstructor
+public class DashboardAggregateConsumer implements OutboxEventConsumer {
+
+    private final ObjectMapper objectMapper;
+    private final DashboardService dashboardService;
+
+    @Override
+    public boolean supports(OutboxEventType eventType) {
+        return true;
+    }
+
+    @Override
+    public void consume(OutboxEvent event) throws Exception {
+        switch (event.getEventType()) {
+            case TRANSACTION_CREATED, TRANSACTION_UPDATED, TRANSACTION_DELETED -> dashboardService.applyTransactionEvent(
+                    event.getId(),
+                    event.getEventType(),
+                    objectMapper.readValue(event.getPayload(), TransactionEventPayload.class)
+            );
+            case CLIENT_CREATED, CLIENT_UPDATED, CLIENT_DELETED -> dashboardService.syncClient(event.getAggregateId());
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package uz.qarzdorlar_ai.service.outbox;
+
+import org.springframework.util.ClassUtils;
+import uz.qarzdorlar_ai.enums.OutboxEventType;
+import uz.qarzdorlar_ai.model.OutboxEvent;
+
+/**
+ * Outbox eventlarini qabul qiluvchi. Yangi side effect qo'shish uchun shu interfeysni implement qilgan bean yetarli.
+ * Har bir consumerning muvaffaqiyati {@code outbox_delivery} da {@link #name()} bo'yicha belgilanadi:
+ * qayta urinishda event faqat xato bergan consumerlarga yuboriladi. Yetkazish baribir at-least-once
+ * (belgi yozilishidan oldin o'chib qolish mumkin), shuning uchun {@link #consume} imkon qadar idempotent bo'lishi kerak.
+ */
+public interface OutboxEventConsumer {
+
+    boolean supports(OutboxEventType eventType);
+
+    /**
+     * Yetkazish belgisidagi barqaror nom. Nomni o'zgartirish eski eventlar uchun consumerni "yangi" qiladi.
+     */
+    default String name() {
+        return ClassUtils.getUserClass(this).getSimpleName();
+    }
+
+    void consume(OutboxEvent event) throws Exception;
+}
@@ -0,0 +1,40 @@
+package uz.qarzdorlar_ai.service.outbox;
+
+import uz.qarzdorlar_ai.enums.OutboxEventType;
+import uz.qarzdorlar_ai.model.OutboxEvent;
+import uz.qarzdorlar_ai.model.Transaction;
+import uz.qarzdorlar_ai.payload.OutboxStatsDTO;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public interface OutboxService {
+
+    void publishTransactionEvent(OutboxEventType eventType, Transaction tx,
+                                 BigDecimal previousBalanceEffect, BigDecimal previousReceiverBalanceEffect);
+
+    void publishTransactionEvents(OutboxEventType eventType, List<Transaction> transactions);
+
+    void publishClientEvent(OutboxEventType eventType, Long clientId);
+
+    List<OutboxEvent> claimBatch(int limit, Duration lease);
+
+    /**
+     * @return eventId -> uni allaqachon muvaffaqiyatli qayta ishlagan consumerlar nomi
+     */
+    Map<Long, Set<String>> findDeliveredConsumers(Collection<Long> eventIds);
+
+    void markDelivered(Long eventId, String consumer);
+
+    void markSent(Long eventId);
+
+    void markFailed(Long eventId, String error);
+
+    int purgeSent(Duration retention);
+
+    OutboxStatsDTO getStats();
+}
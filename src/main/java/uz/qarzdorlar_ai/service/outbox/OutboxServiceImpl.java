@@ -0,0 +1,215 @@
+package uz.qarzdorlar_ai.service.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import uz.qarzdorlar_ai.enums.OutboxEventType;
+import uz.qarzdorlar_ai.enums.OutboxStatus;
+import uz.qarzdorlar_ai.model.OutboxDelivery;
+import uz.qarzdorlar_ai.model.OutboxEvent;
+import uz.qarzdorlar_ai.model.Transaction;
+import uz.qarzdorlar_ai.payload.OutboxStatsDTO;
+import uz.qarzdorlar_ai.payload.TransactionEventPayload;
+import uz.qarzdorlar_ai.repository.OutboxDeliveryRepository;
+import uz.qarzdorlar_ai.repository.OutboxEventRepository;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+@Service
+public class OutboxServiceImpl implements OutboxService {
+
+    private static final long MAX_BACKOFF_MS = Duration.ofHours(1).toMillis();
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxDeliveryRepository outboxDeliveryRepository;
+    private final ObjectMapper objectMapper;
+    private final int maxAttempts;
+    private final long baseBackoffMs;
+
+    private final AtomicLong dispatched = new AtomicLong();
+    private final AtomicLong failedAttempts = new AtomicLong();
+
+    public OutboxServiceImpl(OutboxEventRepository outboxEventRepository,
+                             OutboxDeliveryRepository outboxDeliveryRepository,
+                             ObjectMapper objectMapper,
+                             @Value("${application.outbox.max-attempts:10}") int maxAttempts,
+                             @Value("${application.outbox.base-backoff-ms:2000}") long baseBackoffMs) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.outboxDeliveryRepository = outboxDeliveryRepository;
+        this.objectMapper = objectMapper;
+        this.maxAttempts = maxAttempts;
+        this.baseBackoffMs = baseBackoffMs;
+    }
+
+    /**
+     * Chaqiruvchining DB tranzaksiyasiga qo'shiladi: tranzaksiya rollback bo'lsa event ham yo'q.
+     */
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publishTransactionEvent(OutboxEventType eventType, Transaction tx,
+                                        BigDecimal previousBalanceEffect, BigDecimal previousReceiverBalanceEffect) {
+        outboxEventRepository.save(toEvent(eventType, tx, previousBalanceEffect, previousReceiverBalanceEffect));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publishTransactionEvents(OutboxEventType eventType, List<Transaction> transactions) {
+        List<OutboxEvent> events = new ArrayList<>();
+        for (Transaction tx : transactions) {
+            events.add(toEvent(eventType, tx, null, null));
+        }
+        outboxEventRepository.saveAll(events);
+    }
+
+    /**
+     * Client eventida faqat id yuboriladi - consumerlar clientning joriy holatini o'zlari o'qiydi.
+     */
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publishClientEvent(OutboxEventType eventType, Long clientId) {
+        OutboxEvent event = new OutboxEvent();
+        event.setEventType(eventType);
+        event.setAggregateId(clientId);
+        event.setNextAttemptAt(new Timestamp(System.currentTimeMillis()));
+        event.setPayload("{\"clientId\":" + clientId + "}");
+        outboxEventRepository.save(event);
+    }
+
+    /**
+     * Eventlarni {@code lease} muddatiga band qiladi. Relay o'lib qolsa, lease tugagach event yana olinadi.
+     */
+    @Override
+    @Transactional
+    public List<OutboxEvent> claimBatch(int limit, Duration lease) {
+        List<OutboxEvent> events = outboxEventRepository.lockNextBatch(limit);
+        Timestamp leaseUntil = new Timestamp(System.currentTimeMillis() + lease.toMillis());
+        for (OutboxEvent event : events) {
+            event.setNextAttemptAt(leaseUntil);
+        }
+        return events;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Long, Set<String>> findDeliveredConsumers(Collection<Long> eventIds) {
+        if (eventIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        Map<Long, Set<String>> delivered = new HashMap<>();
+        for (OutboxDelivery delivery : outboxDeliveryRepository.findAllByEventIdIn(eventIds)) {
+            delivered.computeIfAbsent(delivery.getEventId(), id -> new HashSet<>()).add(delivery.getConsumer());
+        }
+        return delivered;
+    }
+
+    /**
+     * Consumer tugashi bilan alohida tranzaksiyada yoziladi: event keyin xato bilan qaytsa ham
+     * bu consumer qayta chaqirilmaydi.
+     */
+    @Override
+    @Transactional
+    public void markDelivered(Long eventId, String consumer) {
+        if (!outboxDeliveryRepository.existsByEventIdAndConsumer(eventId, consumer)) {
+            outboxDeliveryRepository.save(new OutboxDelivery(eventId, consumer));
+        }
+    }
+
+    @Override
+    @Transactional
+    public void markSent(Long eventId) {
+        outboxEventRepository.findById(eventId).ifPresent(event -> {
+            event.setStatus(OutboxStatus.SENT);
+            event.setProcessedAt(new Timestamp(System.currentTimeMillis()));
+            event.setLastError(null);
+            dispatched.incrementAndGet();
+        });
+    }
+
+    @Override
+    @Transactional
+    public void markFailed(Long eventId, String error) {
+        outboxEventRepository.findById(eventId).ifPresent(event -> {
+            int attempts = event.getAttempts() + 1;
+            event.setAttempts(attempts);
+            event.setLastError(error);
+            failedAttempts.incrementAndGet();
+
+            if (attempts >= maxAttempts) {
+                event.setStatus(OutboxStatus.FAILED);
+                log.error("Outbox event {} ({}) moved to FAILED after {} attempts: {}",
+                        eventId, event.getEventType(), attempts, error);
+                return;
+            }
+
+            // Exponential backoff: 2s, 4s, 8s ... maksimal 1 soat
+            long backoff = Math.min(baseBackoffMs << Math.min(attempts - 1, 20), MAX_BACKOFF_MS);
+            event.setNextAttemptAt(new Timestamp(System.currentTimeMillis() + backoff));
+        });
+    }
+
+    @Override
+    @Transactional
+    public int purgeSent(Duration retention) {
+        Timestamp before = new Timestamp(System.currentTimeMillis() - retention.toMillis());
+        int deleted = outboxEventRepository.deleteProcessedBefore(OutboxStatus.SENT, before);
+        if (deleted > 0) {
+            outboxDeliveryRepository.deleteOrphans();
+        }
+        return deleted;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public OutboxStatsDTO getStats() {
+        long pending = outboxEventRepository.countByStatus(OutboxStatus.PENDING);
+        long failed = outboxEventRepository.countByStatus(OutboxStatus.FAILED);
+
+        Timestamp oldest = outboxEventRepository.findFirstByStatusOrderByIdAsc(OutboxStatus.PENDING)
+                .map(OutboxEvent::getCreatedAt)
+                .orElse(null);
+        long lagSeconds = oldest == null ? 0 : Math.max(0, (System.currentTimeMillis() - oldest.getTime()) / 1000);
+
+        return new OutboxStatsDTO(pending, failed, oldest, lagSeconds, dispatched.get(), failedAttempts.get());
+    }
+
+    private OutboxEvent toEvent(OutboxEventType eventType, Transaction tx,
+                                BigDecimal previousBalanceEffect, BigDecimal previousReceiverBalanceEffect) {
+
+        TransactionEventPayload payload = new TransactionEventPayload();
+        payload.setTransactionId(tx.getId());
+        payload.setType(tx.getType());
+        payload.setTransactionCurrency(tx.getTransactionCurrency());
+        payload.setAmount(tx.getAmount());
+        payload.setUsdAmount(tx.getUsdAmount());
+        payload.setCreatedAt(tx.getCreatedAt());
+        payload.setClientId(tx.getClient().getId());
+        payload.setBalanceEffect(tx.getBalanceEffect());
+        payload.setPreviousBalanceEffect(previousBalanceEffect);
+        if (tx.getReceiverClient() != null) {
+            payload.setReceiverClientId(tx.getReceiverClient().getId());
+            payload.setReceiverBalanceEffect(tx.getReceiverBalanceEffect());
+            payload.setPreviousReceiverBalanceEffect(previousReceiverBalanceEffect);
+        }
+
+        OutboxEvent event = new OutboxEvent();
+        event.setEventType(eventType);
+        event.setAggregateId(tx.getId());
+        event.setNextAttemptAt(new Timestamp(System.currentTimeMillis()));
+        try {
+            event.setPayload(objectMapper.writeValueAsString(payload));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Outbox payload could not be serialized", e);
+        }
+        return event;
+    }
+}
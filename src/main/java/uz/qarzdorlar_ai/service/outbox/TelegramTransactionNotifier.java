@@ -0,0 +1,51 @@
+package uz.qarzdorlar_ai.service.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import uz.qarzdorlar_ai.controller.bot.DebtAiBot;
+import uz.qarzdorlar_ai.enums.OutboxEventType;
+import uz.qarzdorlar_ai.mapper.SendMsg;
+import uz.qarzdorlar_ai.model.Client;
+import uz.qarzdorlar_ai.model.OutboxEvent;
+import uz.qarzdorlar_ai.payload.TransactionEventPayload;
+import uz.qarzdorlar_ai.repository.ClientRepository;
+
+/**
+ * Yangi tranzaksiya haqida telegramga ulangan clientga xabar yuboradi.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TelegramTransactionNotifier implements OutboxEventConsumer {
+
+    private final ObjectMapper objectMapper;
+    private final ClientRepository clientRepository;
+    private final DebtAiBot debtAiBot;
+    private final SendMsg sendMsg;
+
+    @Override
+    public boolean supports(OutboxEventType eventType) {
+        return eventType == OutboxEventType.TRANSACTION_CREATED;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void consume(OutboxEvent event) throws Exception {
+        TransactionEventPayload payload = objectMapper.readValue(event.getPayload(), TransactionEventPayload.class);
+
+        Client client = clientRepository.findById(payload.getClientId()).orElse(null);
+        if (client == null || client.getTelegramUser() == null) {
+            return; // clientda telegram yo'q - yuboradigan joy yo'q
+        }
+
+        String text = "Yangi tranzaksiya #" + payload.getTransactionId() + "\n" +
+                "Turi: " + payload.getType() + "\n" +
+                "Summa: " + payload.getAmount().toPlainString() + " " + payload.getTransactionCurrency() + "\n" +
+                "Balansga ta'siri: " + payload.getBalanceEffect().toPlainString() + " " + client.getCurrencyCode();
+
+        debtAiBot.execute(sendMsg.sendMessage(client.getTelegramUser().getChatId(), text));
+    }
+}
@@ -12,12 +12,17 @@ import uz.qarzdorlar_ai.payload.TransactionCreateDTO;
 import uz.qarzdorlar_ai.payload.TransactionItemCreateDTO;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.sql.Timestamp;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.UUID;
 
 @Service
 @Slf4j
@@ -40,9 +45,15 @@ public class TransactionImportService {
         }
 
         List<TransactionCreateDTO> dtos = new ArrayList<>();
+        Map<String, Integer> occurrences = new HashMap<>();
         for (int i = 0; i < lists.size(); i++) {
+            // Kalit mapping dan oldin: xato qatorlar ham hisobga kiradi, keyingi kalitlar siljimaydi
+            String idempotencyKey = rowIdempotencyKey(lists.get(i), occurrences);
             try {
-                dtos.add(mapRowToDto(lists.get(i)));
+                TransactionCreateDTO dto = mapRowToDto(lists.get(i));
+                // Importni qayta ishga tushirganda bir xil qator ikki marta yozilmasligi uchun
+                dto.setIdempotencyKey(idempotencyKey);
+                dtos.add(dto);
             } catch (Exception e) {
                 log.error("Xatolik qatorda {}: {}", (i + 2), e.getMessage());
             }
@@ -111,6 +122,24 @@ public class TransactionImportService {
         return dto;
     }
 
+    // Faqat qator mazmunidan: yuqoriga qator qo'shilsa yoki o'chirilsa ham kalit o'zgarmaydi.
+    // Mazmuni aynan bir xil qatorlar (masalan, bir kunda ikkita bir xil to'lov) tartib raqami bilan ajratiladi
+    private String rowIdempotencyKey(List<Object> row, Map<String, Integer> occurrences) {
+        // Oxiridagi bo'sh kataklar Sheets API javobida bo'lishi ham, bo'lmasligi ham mumkin
+        int length = row.size();
+        while (length > 0 && getVal(row, length - 1) == null) {
+            length--;
+        }
+        StringJoiner content = new StringJoiner("\u001F");
+        for (int i = 0; i < length; i++) {
+            String value = getVal(row, i);
+            content.add(value != null ? value : "");
+        }
+        String contentHash = UUID.nameUUIDFromBytes(content.toString().getBytes(StandardCharsets.UTF_8)).toString();
+        int occurrence = occurrences.merge(contentHash, 1, Integer::sum);
+        return "sheet-tr-" + contentHash + "-" + occurrence;
+    }
+
     // --- TOZALOVCHI VA PARSE QILUVCHI METODLAR ---
 
     private String getVal(List<Object> row, int index) {
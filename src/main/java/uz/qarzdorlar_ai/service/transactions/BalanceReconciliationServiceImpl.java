@@ -0,0 +1,135 @@
+package uz.qarzdorlar_ai.service.transactions;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import uz.qarzdorlar_ai.config.properties.BalanceReconciliationProperties;
+import uz.qarzdorlar_ai.payload.BalanceDriftDTO;
+import uz.qarzdorlar_ai.payload.BalanceReconciliationReportDTO;
+import uz.qarzdorlar_ai.payload.projection.ClientBalanceCheckView;
+import uz.qarzdorlar_ai.repository.ClientRepository;
+import uz.qarzdorlar_ai.service.transactions.embedded.BalanceReconciliationService;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Har bir client uchun {@code initialBalance + SUM(balanceEffect) + SUM(receiverBalanceEffect)}
+ * ni effektiv balans bilan solishtiradi. {@code initialBalance} saqlanmagan eski clientlar startda
+ * {@code ClientInitialBalanceBackfill} bilan to'ldiriladi - hisobot va statement ({@code TransactionStatementServiceImpl})
+ * bir xil boshlang'ich nuqtadan hisoblaydi. Clientlar {@code partitionSize} lik bo'laklarga bo'linib,
+ * alohida thread poolda parallel tekshiriladi.
+ * <p>
+ * High-water mark: muvaffaqiyatli rundan keyin uning boshlanish vaqti (commit kechikishi uchun
+ * {@code watermarkOverlapMs} zaxira bilan) saqlanadi, keyingi incremental run faqat shundan keyin
+ * tranzaksiyasi yoki o'zi o'zgargan clientlarni tekshiradi. Xotirada turadi - restartdan keyingi
+ * birinchi run to'liq bo'ladi.
+ */
+@Slf4j
+@Service
+public class BalanceReconciliationServiceImpl implements BalanceReconciliationService {
+
+    private final ClientRepository clientRepository;
+    private final BalanceReconciliationProperties properties;
+    private final ExecutorService executor;
+
+    private final AtomicReference<Timestamp> highWaterMark = new AtomicReference<>();
+    private final ReentrantLock runLock = new ReentrantLock(); // incremental va full bir vaqtda yurmaydi
+
+    public BalanceReconciliationServiceImpl(ClientRepository clientRepository,
+                                            BalanceReconciliationProperties properties) {
+        this.clientRepository = clientRepository;
+        this.properties = properties;
+        this.executor = Executors.newFixedThreadPool(properties.getWorkerThreads(), runnable -> {
+            Thread thread = new Thread(runnable, "balance-reconciliation");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public Optional<BalanceReconciliationReportDTO> reconcile(boolean full) {
+        if (!runLock.tryLock()) {
+            log.info("Balance reconciliation skipped: previous run is still in progress");
+            return Optional.empty();
+        }
+        try {
+            long startTime = System.currentTimeMillis();
+            Timestamp since = full ? null : highWaterMark.get();
+            Timestamp nextMark = new Timestamp(startTime - properties.getWatermarkOverlapMs());
+
+            List<Long> clientIds = since == null
+                    ? clientRepository.findAllActiveIds()
+                    : clientRepository.findClientIdsChangedSince(since);
+
+            List<Future<PartitionResult>> futures = new ArrayList<>();
+            int partitionSize = Math.max(1, properties.getPartitionSize());
+            for (int from = 0; from < clientIds.size(); from += partitionSize) {
+                List<Long> partition = clientIds.subList(from, Math.min(from + partitionSize, clientIds.size()));
+                futures.add(executor.submit(() -> checkPartition(partition)));
+            }
+
+            int checked = 0;
+            List<BalanceDriftDTO> drifts = new ArrayList<>();
+            for (Future<PartitionResult> future : futures) {
+                PartitionResult result = await(future);
+                checked += result.checked();
+                drifts.addAll(result.drifts());
+            }
+            drifts.sort(Comparator.comparing((BalanceDriftDTO drift) -> drift.getDrift().abs()).reversed());
+
+            // Faqat muvaffaqiyatli rundan keyin: xato bo'lsa keyingi run shu oraliqni qayta tekshiradi
+            highWaterMark.set(nextMark);
+
+            return Optional.of(new BalanceReconciliationReportDTO(since == null, since, checked,
+                    futures.size(), System.currentTimeMillis() - startTime, drifts));
+        } finally {
+            runLock.unlock();
+        }
+    }
+
+    private PartitionResult checkPartition(List<Long> clientIds) {
+        List<BalanceDriftDTO> drifts = new ArrayList<>();
+        int checked = 0;
+        for (ClientBalanceCheckView view : clientRepository.findBalanceChecks(clientIds)) {
+            checked++;
+
+            BigDecimal expected = view.getInitialBalance().add(view.getTransactionTotal());
+            BigDecimal drift = view.getActualBalance().subtract(expected);
+            if (drift.abs().compareTo(properties.getTolerance()) > 0) {
+                drifts.add(new BalanceDriftDTO(view.getClientId(), view.getFullName(),
+                        expected, view.getActualBalance(), drift));
+            }
+        }
+        return new PartitionResult(checked, drifts);
+    }
+
+    private static <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Balance reconciliation interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Balance reconciliation partition failed: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private record PartitionResult(int checked, List<BalanceDriftDTO> drifts) {
+    }
+}
@@ -0,0 +1,102 @@
+package uz.qarzdorlar_ai.service.transactions;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import uz.qarzdorlar_ai.config.properties.BalanceLedgerProperties;
+import uz.qarzdorlar_ai.model.ClientBalanceDelta;
+import uz.qarzdorlar_ai.repository.ClientBalanceDeltaRepository;
+import uz.qarzdorlar_ai.repository.ClientRepository;
+import uz.qarzdorlar_ai.service.transactions.embedded.ClientBalanceLedgerService;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+@Component
+@RequiredArgsConstructor
+public class ClientBalanceLedgerServiceImpl implements ClientBalanceLedgerService {
+
+    private final ClientRepository clientRepository;
+    private final ClientBalanceDeltaRepository clientBalanceDeltaRepository;
+    private final BalanceLedgerProperties balanceLedgerProperties;
+
+    @Override
+    @Transactional
+    public void post(Long clientId, BigDecimal amount) {
+        if (amount == null || amount.signum() == 0) {
+            return;
+        }
+
+        if (balanceLedgerProperties.isEnabled()) {
+            // client qatoriga tegmaymiz, faqat yangi delta qatori qo'shiladi
+            clientBalanceDeltaRepository.save(new ClientBalanceDelta(clientId, amount));
+        } else {
+            clientRepository.updateBalance(clientId, amount);
+        }
+    }
+
+    @Override
+    @Transactional
+    public void postAll(Map<Long, BigDecimal> deltas) {
+        // id tartibida - UPDATE yo'lida lock tartibi barqaror bo'lishi uchun
+        Map<Long, BigDecimal> sorted = new TreeMap<>();
+        deltas.forEach((clientId, amount) -> {
+            if (amount != null && amount.signum() != 0) {
+                sorted.put(clientId, amount);
+            }
+        });
+        if (sorted.isEmpty()) {
+            return;
+        }
+
+        if (balanceLedgerProperties.isEnabled()) {
+            List<ClientBalanceDelta> rows = new ArrayList<>();
+            sorted.forEach((clientId, amount) -> rows.add(new ClientBalanceDelta(clientId, amount)));
+            clientBalanceDeltaRepository.saveAll(rows);
+            return;
+        }
+
+        if (sorted.size() == 1) {
+            sorted.forEach(clientRepository::updateBalance);
+            return;
+        }
+
+        // Barcha qatorlar oldindan id tartibida lock qilinadi, keyingi UPDATE lar endi hech kimni kutmaydi
+        clientRepository.lockForBalanceUpdate(sorted.keySet());
+
+        if (sorted.size() == 2) {
+            Iterator<Map.Entry<Long, BigDecimal>> entries = sorted.entrySet().iterator();
+            Map.Entry<Long, BigDecimal> first = entries.next();
+            Map.Entry<Long, BigDecimal> second = entries.next();
+            clientRepository.updateBalancePair(first.getKey(), first.getValue(), second.getKey(), second.getValue());
+        } else {
+            sorted.forEach(clientRepository::updateBalance);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BigDecimal getEffectiveBalance(Long clientId) {
+        return clientBalanceDeltaRepository.findEffectiveBalance(clientId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Long, BigDecimal> getEffectiveBalances(Collection<Long> clientIds) {
+        if (clientIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        Map<Long, BigDecimal> balances = new HashMap<>();
+        for (Object[] row : clientBalanceDeltaRepository.findEffectiveBalances(clientIds)) {
+            balances.put(((Number) row[0]).longValue(), (BigDecimal) row[1]);
+        }
+        return balances;
+    }
+
+    @Override
+    @Transactional
+    public int compactBatch() {
+        return clientBalanceDeltaRepository.compactOldest(balanceLedgerProperties.getCompactionBatchSize());
+    }
+}
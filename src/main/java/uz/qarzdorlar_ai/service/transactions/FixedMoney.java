@@ -0,0 +1,175 @@
+package uz.qarzdorlar_ai.service.transactions;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Hisoblash yo'li uchun fixed-point pul arifmetikasi: qiymat {@code long} da, belgilangan scale bilan.
+ * Ustunlar {@code scale = 4} ({@link #SCALE}); ikki scale-4 qiymat ko'paytmasi yo'qolmasligi uchun
+ * oraliq natijalar {@link #WIDE_SCALE} da yuritiladi. Shu tufayli natija BigDecimal yo'li bilan
+ * qiymat bo'yicha aynan bir xil chiqadi (faqat ortiqcha nollar bo'lmaydi).
+ * <p>
+ * Kirishlar bir marta {@link #toScaled} bilan long ga o'tkaziladi, hisob zanjiri long da yuradi va
+ * BigDecimal faqat entity ga yozishda {@link #toBigDecimal} bilan yaratiladi. Qiymat scale ga aniq
+ * sig'masa yoki {@code long} to'lib ketsa natija {@link #ABSENT} bo'ladi (exception siz) va keyingi
+ * amallar uni o'zgarishsiz uzatadi - chaqiruvchi zanjir oxirida tekshirib, shu qadamni BigDecimal da
+ * bajaradi va natijani {@link #normalize} bilan long yo'ldagi ko'rinishga keltiradi.
+ */
+final class FixedMoney {
+
+    static final int SCALE = 4;
+    static final int WIDE_SCALE = 8;
+
+    /**
+     * Long yo'lga sig'magan qiymat belgisi. Haqiqiy natija hech qachon {@code Long.MIN_VALUE} bo'lmaydi:
+     * {@link #toScaled} ko'pi bilan 18 xonali son qaytaradi, amallar esa uni chiqarib tashlaydi.
+     */
+    static final long ABSENT = Long.MIN_VALUE;
+
+    private static final int MAX_DIGITS = 18;
+    private static final long[] POWERS_OF_TEN = {1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L,
+            10_000_000L, 100_000_000L};
+
+    private FixedMoney() {
+    }
+
+    /**
+     * {@code value * 10^scale}. Kasr qismi qolsa yoki 18 xonadan oshsa - {@link #ABSENT}.
+     */
+    static long toScaled(BigDecimal value, int scale) {
+        if (value.scale() > scale) {
+            value = value.stripTrailingZeros(); // "12650.50000" kabi ortiqcha nollar
+            if (value.scale() > scale) {
+                return ABSENT;
+            }
+        }
+        if (value.precision() - value.scale() > MAX_DIGITS - scale) {
+            return ABSENT;
+        }
+        if (value.scale() < 0) {
+            return value.movePointRight(scale).longValueExact();
+        }
+        // scale 0 dagi BigDecimal dan long yangi obyekt yaratmaydi; qolgan xonalar - long ko'paytma (sig'ishi tekshirilgan)
+        long unscaled = value.scale() == 0 ? value.longValueExact() : value.movePointRight(value.scale()).longValueExact();
+        return unscaled * POWERS_OF_TEN[scale - value.scale()];
+    }
+
+    /**
+     * Entity chegarasida BigDecimal ga qaytarish. Scale {@link #SCALE} dan kichik bo'lmaydi,
+     * undan keyingi ortiqcha nollar olib tashlanadi.
+     */
+    static BigDecimal toBigDecimal(long scaled, int scale) {
+        if (scale == WIDE_SCALE && scaled % 10_000 == 0) {
+            // ko'p uchraydigan holat: ikki scale-4 qiymat ko'paytmasi, oxirgi 4 xona nol
+            return BigDecimal.valueOf(scaled / 10_000, SCALE);
+        }
+        while (scale > SCALE && scaled % 10 == 0) {
+            scaled /= 10;
+            scale--;
+        }
+        return BigDecimal.valueOf(scaled, scale);
+    }
+
+    /**
+     * BigDecimal yo'li natijasini {@link #toBigDecimal} bilan bir xil ko'rinishga keltiradi:
+     * ortiqcha nollarsiz, scale {@link #SCALE} dan kichik emas.
+     */
+    static BigDecimal normalize(BigDecimal value) {
+        BigDecimal stripped = value.stripTrailingZeros();
+        return stripped.scale() < SCALE ? stripped.setScale(SCALE) : stripped;
+    }
+
+    /**
+     * Aniq ko'paytma, natija scale = ikkala scale yig'indisi.
+     */
+    static long multiply(long a, long b) {
+        if (a == ABSENT || b == ABSENT) {
+            return ABSENT;
+        }
+        long high = Math.multiplyHigh(a, b);
+        long low = a * b;
+        return (high == 0 && low >= 0) || (high == -1 && low < 0) ? low : ABSENT;
+    }
+
+    static long subtract(long a, long b) {
+        if (a == ABSENT || b == ABSENT) {
+            return ABSENT;
+        }
+        long difference = a - b;
+        return ((a ^ b) & (a ^ difference)) < 0 ? ABSENT : difference;
+    }
+
+    static long negate(long value) {
+        return value == ABSENT ? ABSENT : -value;
+    }
+
+    /**
+     * Butun sonli bo'lish, {@link RoundingMode#HALF_UP} (yarmi noldan uzoqqa).
+     * Natija scale = dividend scale - divisor scale: {@link #WIDE_SCALE} / {@link #SCALE} ->
+     * {@link #SCALE}, ya'ni {@code amount.divide(rate, 4, HALF_UP)}. 0 ga bo'lish ham {@link #ABSENT} -
+     * BigDecimal yo'li avvalgidek ArithmeticException tashlaydi.
+     */
+    static long divideHalfUp(long dividend, long divisor) {
+        if (dividend == ABSENT || divisor == ABSENT || divisor == 0) {
+            return ABSENT;
+        }
+        long quotient = dividend / divisor;
+        long remainder = dividend % divisor;
+        if (remainder != 0) {
+            // |remainder| < |divisor| <= Long.MAX_VALUE - to'lib ketmaydi
+            long absRemainder = Math.abs(remainder);
+            if (absRemainder >= Math.abs(divisor) - absRemainder) {
+                quotient += (dividend ^ divisor) < 0 ? -1 : 1;
+            }
+        }
+        return quotient;
+    }
+
+    /**
+     * Summalar yig'indisi. {@code long} da ({@link #WIDE_SCALE}) boshlanadi; qiymat sig'masa yoki yig'indi
+     * to'lib ketsa shu nuqtadan BigDecimal da davom etadi - oldin qo'shilganlar qayta hisoblanmaydi.
+     */
+    static final class Sum {
+
+        private long scaled;
+        private BigDecimal overflow; // null - hali long yo'lda
+
+        /**
+         * {@link #WIDE_SCALE} dagi qiymat ({@link #ABSENT} emas).
+         */
+        void addScaled(long value) {
+            if (overflow == null) {
+                long total = scaled + value;
+                if (((scaled ^ total) & (value ^ total)) >= 0 && total != ABSENT) {
+                    scaled = total;
+                    return;
+                }
+                overflow = BigDecimal.valueOf(scaled, WIDE_SCALE);
+            }
+            overflow = overflow.add(BigDecimal.valueOf(value, WIDE_SCALE));
+        }
+
+        void add(BigDecimal value) {
+            long converted = overflow == null ? toScaled(value, WIDE_SCALE) : ABSENT;
+            if (converted != ABSENT) {
+                addScaled(converted);
+                return;
+            }
+            if (overflow == null) {
+                overflow = BigDecimal.valueOf(scaled, WIDE_SCALE);
+            }
+            overflow = overflow.add(value);
+        }
+
+        /**
+         * {@link #WIDE_SCALE} dagi yig'indi; BigDecimal ga o'tgan bo'lsa {@link #ABSENT}.
+         */
+        long scaled() {
+            return overflow == null ? scaled : ABSENT;
+        }
+
+        BigDecimal value() {
+            return overflow == null ? toBigDecimal(scaled, WIDE_SCALE) : normalize(overflow);
+        }
+    }
+}
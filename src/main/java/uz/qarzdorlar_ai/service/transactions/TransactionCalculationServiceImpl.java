@@ -14,12 +14,13 @@ import uz.qarzdorlar_ai.payload.TransactionCreateDTO;
 import uz.qarzdorlar_ai.payload.TransactionItemCreateDTO;
 import uz.qarzdorlar_ai.repository.ClientRepository;
 import uz.qarzdorlar_ai.repository.ProductRepository;
+import uz.qarzdorlar_ai.service.ExchangeRateService;
 import uz.qarzdorlar_ai.service.transactions.embedded.TransactionCalculationService;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
-import java.util.ArrayList;
-import java.util.List;
+import java.time.LocalDate;
+import java.util.*;
 
 @Component
 @RequiredArgsConstructor
@@ -27,19 +28,26 @@ public class TransactionCalculationServiceImpl implements TransactionCalculation
 
     private final ProductRepository productRepository;
     private final ClientRepository clientRepository;
+    private final ExchangeRateService exchangeRateService;
 
     @Override
     public void calculateTransaction(TransactionCreateDTO dto, Transaction transaction, Client client) {
+        calculateTransaction(dto, transaction, client, null, null);
+    }
+
+    @Override
+    public void calculateTransaction(TransactionCreateDTO dto, Transaction transaction, Client client,
+                                     Map<Long, Client> clients, Map<Long, Product> products) {
 
         switch (transaction.getType()) {
-            case SALE -> calculateSaleTransaction(dto, transaction, client);
-            case PURCHASE -> calculatePurchaseTransaction(dto, transaction, client);
-            case RETURN -> calculateReturnTransaction(dto, transaction, client);
+            case SALE -> calculateSaleTransaction(dto, transaction, client, products);
+            case PURCHASE -> calculatePurchaseTransaction(dto, transaction, client, products);
+            case RETURN -> calculateReturnTransaction(dto, transaction, client, products);
 
             case CASH_IN -> calculateCashInTransaction(dto, transaction, client);
             case CASH_OUT -> calculateCashOutTransaction(dto, transaction, client);
 
-            case TRANSFER -> calculateTransferTransaction(dto, transaction, client);
+            case TRANSFER -> calculateTransferTransaction(dto, transaction, client, clients);
 
             default -> throw new BadRequestException("Unsupported transaction type: " + transaction.getType());
         }
@@ -47,189 +55,77 @@ public class TransactionCalculationServiceImpl implements TransactionCalculation
 
     }
 
-    private void calculateSaleTransaction(TransactionCreateDTO dto, Transaction transaction, Client client) {
+    private void calculateSaleTransaction(TransactionCreateDTO dto, Transaction transaction, Client client,
+                                        Map<Long, Product> products) {
 
         if (dto.getItems() == null || dto.getItems().isEmpty()) {
             throw new BadRequestException("Sotuv tranzaksiyasi uchun mahsulotlar kiritilishi shart!");
         }
 
-        BigDecimal rateToUsd = BigDecimal.ONE;
-        if (!transaction.getTransactionCurrency().equals(CurrencyCode.USD)) {
-            if (dto.getRateToUsd() == null)
-                throw new BadRequestException("Transaksiya dolorda amalga oshirilmasa rate kiritsh majburiy");
-            rateToUsd = dto.getRateToUsd(); // tr valyutasi usd bolmasa client kiritgan rate olinadi
-        }
-
-        BigDecimal clientRateToUsd = BigDecimal.ONE;
-        if (!client.getCurrencyCode().equals(CurrencyCode.USD)) {
-            if (dto.getClientRateToUsd() == null)
-                throw new BadRequestException("Client dolorda qarzdor bolmasa rate kiritsh majburiy");
-            clientRateToUsd = dto.getClientRateToUsd(); // clinet valyutasi dolor bolsa clinet kiritgan rate
-        }
-
-        List<TransactionItem> items = new ArrayList<>();
-        BigDecimal amount = BigDecimal.ZERO; // item larning umumiy summasi uchun
-        for (TransactionItemCreateDTO item : dto.getItems()) {
-
-            Long productId = item.getProductId();
-            Product product = productRepository.findById(productId)
-                    .orElseThrow(() ->
-                            new EntityNotFoundException("Product not found with id : " + productId)
-                    );
-            Integer quantity = item.getQuantity();
-            BigDecimal oneItemPrice;
-            if (item.getUnitPrice() != null) {
-                oneItemPrice = item.getUnitPrice();
-            } else {
-                oneItemPrice = product.getPriceUsd().multiply(rateToUsd);
-            }
-            BigDecimal totalPrice = oneItemPrice.multiply(BigDecimal.valueOf(quantity));
+        BigDecimal rateToUsd = resolveRate(transaction.getTransactionCurrency(), dto.getRateToUsd(), transaction,
+                "Transaksiya dolorda amalga oshirilmasa rate kiritsh majburiy");
 
-            TransactionItem transactionItem = new TransactionItem();
-            transactionItem.setProduct(product); // clinetga tanlangan product
-            transactionItem.setQuantity(quantity); // soni
-            transactionItem.setUnitPrice(oneItemPrice); // tr valyutasidagi product price
-            transactionItem.setTotalPrice(totalPrice); // itemdani soniga kopaytirdim
+        BigDecimal clientRateToUsd = resolveRate(client.getCurrencyCode(), dto.getClientRateToUsd(), transaction,
+                "Client dolorda qarzdor bolmasa rate kiritsh majburiy");
 
-            transactionItem.setTransaction(transaction);
+        FixedMoney.Sum amount = calculateItems(dto.getItems(), transaction, rateToUsd, products); // item larning umumiy summasi
 
-            items.add(transactionItem); // entity qilib listga yig`amiz
-            amount = amount.add(totalPrice); // item larni umumiy sumasini qoshamiz
-        }
-        BigDecimal usdAmount = amount.divide(rateToUsd, 4, RoundingMode.HALF_UP);
-
-        transaction.setAmount(amount); // bu yerda tr paytida itemning umumiy summasi bu valyuta tr paytidagi boladi
+        BigDecimal amountValue = amount.value();
+        transaction.setAmount(amountValue); // bu yerda tr paytida itemning umumiy summasi bu valyuta tr paytidagi boladi
         transaction.setRateToUsd(rateToUsd); // tr valyutasi USD nisbati
-        transaction.setUsdAmount(usdAmount); // itemning dolordagi qiymadi
         transaction.setClientRateSnapshot(clientRateToUsd); // clinet valyutasining dolorga nisbati
 
-        BigDecimal balanceEffect = usdAmount.multiply(clientRateToUsd);
-        transaction.setBalanceEffect(balanceEffect.negate());
-
-        transaction.setItems(items);
+        // usdAmount - itemning dolordagi qiymadi, balanceEffect = usdAmount * clientRateToUsd
+        applyEffects(transaction, amountValue, amount.scaled(), rateToUsd, null, clientRateToUsd, true, null);
     }
 
-    private void calculatePurchaseTransaction(TransactionCreateDTO dto, Transaction transaction, Client client) {
+    private void calculatePurchaseTransaction(TransactionCreateDTO dto, Transaction transaction, Client client,
+                                            Map<Long, Product> products) {
 
         if (dto.getItems() == null || dto.getItems().isEmpty()) {
             throw new BadRequestException("Purchase  tranzaksiyasi uchun mahsulotlar kiritilishi shart!");
         }
 
-        BigDecimal rateToUsd = BigDecimal.ONE;
-        if (!transaction.getTransactionCurrency().equals(CurrencyCode.USD)) {
-            if (dto.getRateToUsd() == null)
-                throw new BadRequestException("Puchase dolorda amalga oshirilmasa rate kiritsh majburiy");
-            rateToUsd = dto.getRateToUsd(); // tr valyutasi usd bolmasa client kiritgan rate olinadi
-        }
-
-        BigDecimal clientRateToUsd = BigDecimal.ONE;
-        if (!client.getCurrencyCode().equals(CurrencyCode.USD)) {
-            if (dto.getClientRateToUsd() == null)
-                throw new BadRequestException("Client dolorda qarzdor bolmasa rate kiritsh majburiy");
-            clientRateToUsd = dto.getClientRateToUsd(); // clinet valyutasi dolor bolsa clinet kiritgan rate
-        }
-
-        List<TransactionItem> items = new ArrayList<>();
-        BigDecimal amount = BigDecimal.ZERO; // item larning umumiy summasi uchun
-        for (TransactionItemCreateDTO item : dto.getItems()) {
-
-            Long productId = item.getProductId();
-            Product product = productRepository.findById(productId)
-                    .orElseThrow(() ->
-                            new EntityNotFoundException("Product not found with id : " + productId)
-                    );
-            Integer quantity = item.getQuantity();
-            BigDecimal oneItemPrice;
-            if (item.getUnitPrice() != null) {
-                oneItemPrice = item.getUnitPrice();
-            } else {
-                oneItemPrice = product.getPriceUsd().multiply(rateToUsd);
-            }
-            BigDecimal totalPrice = oneItemPrice.multiply(BigDecimal.valueOf(quantity));
-
-            TransactionItem transactionItem = new TransactionItem();
-            transactionItem.setProduct(product); // clinetga tanlangan product
-            transactionItem.setQuantity(quantity); // soni
-            transactionItem.setUnitPrice(oneItemPrice); // tr valyutasidagi product price
-            transactionItem.setTotalPrice(totalPrice); // itemdani soniga kopaytirdim
+        BigDecimal rateToUsd = resolveRate(transaction.getTransactionCurrency(), dto.getRateToUsd(), transaction,
+                "Puchase dolorda amalga oshirilmasa rate kiritsh majburiy");
 
-            transactionItem.setTransaction(transaction);
+        BigDecimal clientRateToUsd = resolveRate(client.getCurrencyCode(), dto.getClientRateToUsd(), transaction,
+                "Client dolorda qarzdor bolmasa rate kiritsh majburiy");
 
-            items.add(transactionItem); // entity qilib listga yig`amiz
-            amount = amount.add(totalPrice); // item larni umumiy sumasini qoshamiz
-        }
-        BigDecimal usdAmount = amount.divide(rateToUsd, 4, RoundingMode.HALF_UP);
+        FixedMoney.Sum amount = calculateItems(dto.getItems(), transaction, rateToUsd, products); // item larning umumiy summasi
 
-        transaction.setAmount(amount); // bu yerda tr paytida itemning umumiy summasi bu valyuta tr paytidagi boladi
+        BigDecimal amountValue = amount.value();
+        transaction.setAmount(amountValue); // bu yerda tr paytida itemning umumiy summasi bu valyuta tr paytidagi boladi
         transaction.setRateToUsd(rateToUsd); // tr valyutasi USD nisbati
-        transaction.setUsdAmount(usdAmount); // itemning dolordagi qiymadi
         transaction.setClientRateSnapshot(clientRateToUsd); // clinet valyutasining dolorga nisbati
 
-        BigDecimal balanceEffect = usdAmount.multiply(clientRateToUsd);
-        transaction.setBalanceEffect(balanceEffect);
-
-        transaction.setItems(items);
+        // usdAmount - itemning dolordagi qiymadi, balanceEffect = usdAmount * clientRateToUsd
+        applyEffects(transaction, amountValue, amount.scaled(), rateToUsd, null, clientRateToUsd, false, null);
 
     }
 
-    private void calculateReturnTransaction(TransactionCreateDTO dto, Transaction transaction, Client client) {
+    private void calculateReturnTransaction(TransactionCreateDTO dto, Transaction transaction, Client client,
+                                          Map<Long, Product> products) {
 
         if (dto.getItems() == null || dto.getItems().isEmpty()) {
             throw new BadRequestException("Sotuv tranzaksiyasi uchun mahsulotlar kiritilishi shart!");
         }
 
-        BigDecimal rateToUsd = BigDecimal.ONE;
-        if (!transaction.getTransactionCurrency().equals(CurrencyCode.USD)) {
-            if (dto.getRateToUsd() == null)
-                throw new BadRequestException("Transaksiya dolorda amalga oshirilmasa rate kiritsh majburiy");
-            rateToUsd = dto.getRateToUsd(); // tr valyutasi usd bolmasa client kiritgan rate olinadi
-        }
+        BigDecimal rateToUsd = resolveRate(transaction.getTransactionCurrency(), dto.getRateToUsd(), transaction,
+                "Transaksiya dolorda amalga oshirilmasa rate kiritsh majburiy");
 
-        BigDecimal clientRateToUsd = BigDecimal.ONE;
-        if (!client.getCurrencyCode().equals(CurrencyCode.USD)) {
-            if (dto.getClientRateToUsd() == null)
-                throw new BadRequestException("Client dolorda qarzdor bolmasa rate kiritsh majburiy");
-            clientRateToUsd = dto.getClientRateToUsd(); // clinet valyutasi dolor bolsa clinet kiritgan rate
-        }
-
-        List<TransactionItem> items = new ArrayList<>();
-        BigDecimal amount = BigDecimal.ZERO; // item larning umumiy summasi uchun
-        for (TransactionItemCreateDTO item : dto.getItems()) {
-
-            Long productId = item.getProductId();
-            Product product = productRepository.findById(productId)
-                    .orElseThrow(() ->
-                            new EntityNotFoundException("Product not found with id : " + productId)
-                    );
-            Integer quantity = item.getQuantity();
-            BigDecimal oneItemPrice;
-            if (item.getUnitPrice() != null) {
-                oneItemPrice = item.getUnitPrice();
-            } else {
-                oneItemPrice = product.getPriceUsd().multiply(rateToUsd);
-            }
-            BigDecimal totalPrice = oneItemPrice.multiply(BigDecimal.valueOf(quantity));
+        BigDecimal clientRateToUsd = resolveRate(client.getCurrencyCode(), dto.getClientRateToUsd(), transaction,
+                "Client dolorda qarzdor bolmasa rate kiritsh majburiy");
 
-            TransactionItem transactionItem = new TransactionItem();
-            transactionItem.setProduct(product); // clinetga tanlangan product
-            transactionItem.setQuantity(quantity); // soni
-            transactionItem.setUnitPrice(oneItemPrice); // tr valyutasidagi product price
-            transactionItem.setTotalPrice(totalPrice); // itemdani soniga kopaytirdim
+        FixedMoney.Sum amount = calculateItems(dto.getItems(), transaction, rateToUsd, products); // item larning umumiy summasi
 
-            items.add(transactionItem); // entity qilib listga yig`amiz
-            amount = amount.add(totalPrice); // item larni umumiy sumasini qoshamiz
-        }
-        BigDecimal usdAmount = amount.divide(rateToUsd, 4, RoundingMode.HALF_UP);
-
-        transaction.setAmount(amount); // bu yerda tr paytida itemning umumiy summasi bu valyuta tr paytidagi boladi
+        BigDecimal amountValue = amount.value();
+        transaction.setAmount(amountValue); // bu yerda tr paytida itemning umumiy summasi bu valyuta tr paytidagi boladi
         transaction.setRateToUsd(rateToUsd); // tr valyutasi USD nisbati
-        transaction.setUsdAmount(usdAmount); // itemning dolordagi qiymadi
         transaction.setClientRateSnapshot(clientRateToUsd); // clinet valyutasining dolorga nisbati
 
-        BigDecimal balanceEffect = usdAmount.multiply(clientRateToUsd);
-        transaction.setBalanceEffect(balanceEffect);
-
-        transaction.setItems(items);
+        // usdAmount - itemning dolordagi qiymadi, balanceEffect = usdAmount * clientRateToUsd
+        applyEffects(transaction, amountValue, amount.scaled(), rateToUsd, null, clientRateToUsd, false, null);
 
     }
 
@@ -239,19 +135,11 @@ public class TransactionCalculationServiceImpl implements TransactionCalculation
             throw new BadRequestException("Cash-in tranzaksiyasi uchun mahsulot kirtilmaydi");
         }
 
-        BigDecimal rateToUsd = BigDecimal.ONE;
-        if (!transaction.getTransactionCurrency().equals(CurrencyCode.USD)) {
-            if (dto.getRateToUsd() == null)
-                throw new BadRequestException("Cash-in dolorda amalga oshirilmasa rate kiritsh majburiy");
-            rateToUsd = dto.getRateToUsd(); // tr valyutasi usd bolmasa client kiritgan rate olinadi
-        }
+        BigDecimal rateToUsd = resolveRate(transaction.getTransactionCurrency(), dto.getRateToUsd(), transaction,
+                "Cash-in dolorda amalga oshirilmasa rate kiritsh majburiy");
 
-        BigDecimal clientRateToUsd = BigDecimal.ONE;
-        if (!client.getCurrencyCode().equals(CurrencyCode.USD)) {
-            if (dto.getClientRateToUsd() == null)
-                throw new BadRequestException("Client dolorda qarzdor bolmasa rate kiritsh majburiy");
-            clientRateToUsd = dto.getClientRateToUsd(); // clinet valyutasi dolor bolsa clinet kiritgan rate
-        }
+        BigDecimal clientRateToUsd = resolveRate(client.getCurrencyCode(), dto.getClientRateToUsd(), transaction,
+                "Client dolorda qarzdor bolmasa rate kiritsh majburiy");
 
         BigDecimal amount = dto.getAmount();
         if (dto.getAmount() == null || amount.compareTo(BigDecimal.ZERO) < 0) {
@@ -260,14 +148,11 @@ public class TransactionCalculationServiceImpl implements TransactionCalculation
             );
         }
 
-        BigDecimal usdAmount = amount.divide(rateToUsd, 4, RoundingMode.HALF_UP);
-
         transaction.setRateToUsd(rateToUsd);
         transaction.setAmount(amount);
-        transaction.setUsdAmount(usdAmount);
         transaction.setClientRateSnapshot(clientRateToUsd);
-        BigDecimal balanceEffect = usdAmount.multiply(clientRateToUsd);
-        transaction.setBalanceEffect(balanceEffect);
+        applyEffects(transaction, amount, FixedMoney.toScaled(amount, FixedMoney.WIDE_SCALE), rateToUsd,
+                null, clientRateToUsd, false, null);
 
 
     }
@@ -278,19 +163,11 @@ public class TransactionCalculationServiceImpl implements TransactionCalculation
             throw new BadRequestException("Cash-out tranzaksiyasi uchun mahsulot kirtilmaydi");
         }
 
-        BigDecimal rateToUsd = BigDecimal.ONE;
-        if (!transaction.getTransactionCurrency().equals(CurrencyCode.USD)) {
-            if (dto.getRateToUsd() == null)
-                throw new BadRequestException("Cash-out dolorda amalga oshirilmasa rate kiritsh majburiy");
-            rateToUsd = dto.getRateToUsd(); // tr valyutasi usd bolmasa client kiritgan rate olinadi
-        }
+        BigDecimal rateToUsd = resolveRate(transaction.getTransactionCurrency(), dto.getRateToUsd(), transaction,
+                "Cash-out dolorda amalga oshirilmasa rate kiritsh majburiy");
 
-        BigDecimal clientRateToUsd = BigDecimal.ONE;
-        if (!client.getCurrencyCode().equals(CurrencyCode.USD)) {
-            if (dto.getClientRateToUsd() == null)
-                throw new BadRequestException("Client dolorda qarzdor bolmasa rate kiritsh majburiy");
-            clientRateToUsd = dto.getClientRateToUsd(); // clinet valyutasi dolor bolsa clinet kiritgan rate
-        }
+        BigDecimal clientRateToUsd = resolveRate(client.getCurrencyCode(), dto.getClientRateToUsd(), transaction,
+                "Client dolorda qarzdor bolmasa rate kiritsh majburiy");
 
         BigDecimal amount = dto.getAmount();
         if (dto.getAmount() == null || amount.compareTo(BigDecimal.ZERO) < 0) {
@@ -298,59 +175,45 @@ public class TransactionCalculationServiceImpl implements TransactionCalculation
                     "Cash-out paytida qancha pul olinayotgani 0 dan katta bo‘lishi shart"
             );
         }
-        BigDecimal usdAmount = amount.divide(rateToUsd, 4, RoundingMode.HALF_UP);
-
-        BigDecimal feeAmount = dto.getFeeAmount();
-
-        BigDecimal clxBalance = usdAmount.subtract(feeAmount == null ? BigDecimal.ZERO : feeAmount);
-
         transaction.setRateToUsd(rateToUsd);
 
         transaction.setAmount(amount);
-        transaction.setUsdAmount(usdAmount);
         transaction.setClientRateSnapshot(clientRateToUsd);
 
-        BigDecimal balanceEffect = clxBalance.multiply(clientRateToUsd);
-
-        transaction.setBalanceEffect(balanceEffect.negate());
+        // balanceEffect = (usdAmount - feeAmount) * clientRateToUsd
+        applyEffects(transaction, amount, FixedMoney.toScaled(amount, FixedMoney.WIDE_SCALE), rateToUsd,
+                dto.getFeeAmount(), clientRateToUsd, true, null);
 
     }
 
-    private void calculateTransferTransaction(TransactionCreateDTO dto, Transaction transaction, Client client) {
+    private void calculateTransferTransaction(TransactionCreateDTO dto, Transaction transaction, Client client,
+                                              Map<Long, Client> clients) {
 
 
         if (dto.getItems() != null && dto.getItems().isEmpty()) {
             throw new BadRequestException("Transfer tranzaksiyasi uchun mahsulot kirtilmaydi");
         }
 
-        BigDecimal rateToUsd = BigDecimal.ONE;
-        if (!transaction.getTransactionCurrency().equals(CurrencyCode.USD)) {
-            if (dto.getRateToUsd() == null)
-                throw new BadRequestException("Transfer dolorda amalga oshirilmasa rate kiritsh majburiy");
-            rateToUsd = dto.getRateToUsd(); // tr valyutasi usd bolmasa client kiritgan rate olinadi
-        }
+        BigDecimal rateToUsd = resolveRate(transaction.getTransactionCurrency(), dto.getRateToUsd(), transaction,
+                "Transfer dolorda amalga oshirilmasa rate kiritsh majburiy");
 
-        BigDecimal clientRateToUsd = BigDecimal.ONE;
-        if (!client.getCurrencyCode().equals(CurrencyCode.USD)) {
-            if (dto.getClientRateToUsd() == null)
-                throw new BadRequestException("Client dolorda qarzdor bolmasa rate kiritsh majburiy");
-            clientRateToUsd = dto.getClientRateToUsd(); // clinet valyutasi dolor bolsa clinet kiritgan rate
-        }
+        BigDecimal clientRateToUsd = resolveRate(client.getCurrencyCode(), dto.getClientRateToUsd(), transaction,
+                "Client dolorda qarzdor bolmasa rate kiritsh majburiy");
 
         if (dto.getReceiverClientId() == null) {
             throw new BadRequestException("Transfer paytida Receiver bolishi shart");
         }
 
-        Client receiverClient = clientRepository.findById(dto.getReceiverClientId())
-                .orElseThrow(() ->
-                        new EntityNotFoundException("Receiver client not found with receiver id : " + dto.getReceiverClientId())
-                );
-
-        BigDecimal receiverRateUsd = BigDecimal.ONE;
-        if (!receiverClient.getCurrencyCode().equals(CurrencyCode.USD)) {
-            receiverRateUsd = dto.getReceiverRateToUsd();
+        Client receiverClient = clients != null
+                ? clients.get(dto.getReceiverClientId())
+                : clientRepository.findById(dto.getReceiverClientId()).orElse(null);
+        if (receiverClient == null) {
+            throw new EntityNotFoundException("Receiver client not found with receiver id : " + dto.getReceiverClientId());
         }
 
+        BigDecimal receiverRateUsd = resolveRate(receiverClient.getCurrencyCode(), dto.getReceiverRateToUsd(), transaction,
+                "Receiver dolorda qarzdor bolmasa rate kiritsh majburiy");
+
         BigDecimal amount = dto.getAmount();
         if (dto.getAmount() == null || amount.compareTo(BigDecimal.ZERO) < 0) {
             throw new BadRequestException(
@@ -360,18 +223,181 @@ public class TransactionCalculationServiceImpl implements TransactionCalculation
 
         transaction.setRateToUsd(rateToUsd);
         transaction.setAmount(amount);
-        BigDecimal usdAmount = amount.divide(rateToUsd, 4, RoundingMode.HALF_UP);
-        transaction.setUsdAmount(usdAmount);
         transaction.setClientRateSnapshot(clientRateToUsd);
 
-        BigDecimal clientBalanceEffect = usdAmount.multiply(clientRateToUsd);
-        transaction.setBalanceEffect(clientBalanceEffect);
-
         transaction.setReceiverClient(receiverClient);
         transaction.setReceiverRateSnapshot(receiverRateUsd);
 
-        BigDecimal receiverBalanceEffect = usdAmount.multiply(receiverRateUsd);
+        // receiverBalanceEffect = -(usdAmount * receiverRateUsd)
+        applyEffects(transaction, amount, FixedMoney.toScaled(amount, FixedMoney.WIDE_SCALE), rateToUsd,
+                null, clientRateToUsd, false, receiverRateUsd);
+    }
+
+    /**
+     * Valyutaning USD ga nisbati: USD uchun 1, keyin so'rovda kelgan rate, bo'lmasa
+     * tranzaksiya sanasida amal qilgan kurs (cache dan, miss bo'lsagina bazadan).
+     */
+    private BigDecimal resolveRate(CurrencyCode currencyCode, BigDecimal providedRate, Transaction transaction,
+                                   String missingMessage) {
+        if (currencyCode == CurrencyCode.USD) {
+            return BigDecimal.ONE;
+        }
+        if (providedRate != null) {
+            return providedRate;
+        }
+
+        // createdAt hali qo'yilmagan bo'lsa (@PrePersist dan oldin) - bugungi kurs
+        LocalDate rateDate = transaction.getCreatedAt() != null
+                ? transaction.getCreatedAt().toLocalDateTime().toLocalDate()
+                : LocalDate.now();
+
+        return exchangeRateService.findEffectiveRate(currencyCode, rateDate)
+                .orElseThrow(() -> new BadRequestException(missingMessage));
+    }
+
+    /**
+     * usdAmount = amount / rateToUsd (HALF_UP, scale 4), balanceEffect = (usdAmount - feeAmount) * clientRateToUsd
+     * ({@code debit} da manfiy), transfer da receiverBalanceEffect = -(usdAmount * receiverRateToUsd).
+     * {@code scaledAmount} - shu summaning {@link FixedMoney#WIDE_SCALE} dagi qiymati (yoki {@link FixedMoney#ABSENT}).
+     * Butun zanjir {@link FixedMoney} bilan long da yuradi, BigDecimal faqat entity ga yozishda yaratiladi.
+     * Biror qiymat scale ga sig'masa yoki long to'lib ketsa zanjir BigDecimal da qayta hisoblanadi -
+     * natija ikkala yo'lda qiymat va scale bo'yicha bir xil.
+     */
+    private void applyEffects(Transaction transaction, BigDecimal amount, long scaledAmount, BigDecimal rateToUsd,
+                              BigDecimal feeAmount, BigDecimal clientRateToUsd, boolean debit,
+                              BigDecimal receiverRateToUsd) {
+
+        long usdAmount = FixedMoney.divideHalfUp(scaledAmount, FixedMoney.toScaled(rateToUsd, FixedMoney.SCALE));
+        long clxBalance = feeAmount == null
+                ? usdAmount
+                : FixedMoney.subtract(usdAmount, FixedMoney.toScaled(feeAmount, FixedMoney.SCALE));
+        long balanceEffect = FixedMoney.multiply(clxBalance, FixedMoney.toScaled(clientRateToUsd, FixedMoney.SCALE));
+        long receiverBalanceEffect = receiverRateToUsd == null
+                ? 0
+                : FixedMoney.multiply(usdAmount, FixedMoney.toScaled(receiverRateToUsd, FixedMoney.SCALE));
+
+        if (balanceEffect != FixedMoney.ABSENT && receiverBalanceEffect != FixedMoney.ABSENT) {
+            transaction.setUsdAmount(FixedMoney.toBigDecimal(usdAmount, FixedMoney.SCALE));
+            transaction.setBalanceEffect(FixedMoney.toBigDecimal(
+                    debit ? FixedMoney.negate(balanceEffect) : balanceEffect, FixedMoney.WIDE_SCALE));
+            if (receiverRateToUsd != null) {
+                transaction.setReceiverBalanceEffect(
+                        FixedMoney.toBigDecimal(FixedMoney.negate(receiverBalanceEffect), FixedMoney.WIDE_SCALE));
+            }
+            return;
+        }
+
+        // 0 ga bo'lish shu yerda avvalgidek ArithmeticException beradi
+        BigDecimal usdAmountValue = amount.divide(rateToUsd, FixedMoney.SCALE, RoundingMode.HALF_UP);
+        BigDecimal clxBalanceValue = feeAmount == null ? usdAmountValue : usdAmountValue.subtract(feeAmount);
+        BigDecimal balanceEffectValue = FixedMoney.normalize(clxBalanceValue.multiply(clientRateToUsd));
+
+        transaction.setUsdAmount(usdAmountValue);
+        transaction.setBalanceEffect(debit ? balanceEffectValue.negate() : balanceEffectValue);
+        if (receiverRateToUsd != null) {
+            transaction.setReceiverBalanceEffect(FixedMoney.normalize(usdAmountValue.multiply(receiverRateToUsd)).negate());
+        }
+    }
+
+    /**
+     * SALE, PURCHASE va RETURN uchun umumiy item hisoblash.
+     * Barcha productlar bitta so'rov bilan olinadi (N ta item uchun N ta findById emas),
+     * topilmagan id lar esa bitta xatoda qaytariladi. Batch importda oldindan yuklangan
+     * {@code products} map beriladi va bazaga umuman murojaat qilinmaydi.
+     * Narx va summalar {@link FixedMoney} bilan long da hisoblanadi va yig'indi long holida qaytadi;
+     * item kasri juda uzun bo'lsa yoki long ga sig'masa shu itemning o'zi BigDecimal da hisoblanadi.
+     *
+     * @return itemlarning tranzaksiya valyutasidagi umumiy summasi
+     */
+    private FixedMoney.Sum calculateItems(List<TransactionItemCreateDTO> itemDTOs, Transaction transaction,
+                                          BigDecimal rateToUsd, Map<Long, Product> products) {
+
+        Map<Long, Product> productMap = loadProducts(itemDTOs, products);
+        long scaledRate = FixedMoney.toScaled(rateToUsd, FixedMoney.SCALE);
+
+        List<TransactionItem> items = new ArrayList<>(itemDTOs.size());
+        FixedMoney.Sum amount = new FixedMoney.Sum(); // item larning umumiy summasi
+        for (TransactionItemCreateDTO item : itemDTOs) {
+
+            Product product = productMap.get(item.getProductId());
+            Integer quantity = item.getQuantity();
+            BigDecimal unitPrice = item.getUnitPrice();
+
+            long scaledUnitPrice = unitPrice != null
+                    ? FixedMoney.toScaled(unitPrice, FixedMoney.WIDE_SCALE)
+                    : scaledRate == FixedMoney.ABSENT
+                    ? FixedMoney.ABSENT
+                    : FixedMoney.multiply(FixedMoney.toScaled(product.getPriceUsd(), FixedMoney.SCALE), scaledRate);
+            long scaledTotalPrice = FixedMoney.multiply(scaledUnitPrice, quantity);
+
+            BigDecimal totalPrice;
+            if (scaledTotalPrice != FixedMoney.ABSENT) {
+                if (unitPrice == null) {
+                    unitPrice = FixedMoney.toBigDecimal(scaledUnitPrice, FixedMoney.WIDE_SCALE);
+                }
+                totalPrice = FixedMoney.toBigDecimal(scaledTotalPrice, FixedMoney.WIDE_SCALE);
+                amount.addScaled(scaledTotalPrice);
+            } else {
+                if (unitPrice == null) {
+                    unitPrice = FixedMoney.normalize(product.getPriceUsd().multiply(rateToUsd));
+                }
+                totalPrice = FixedMoney.normalize(unitPrice.multiply(BigDecimal.valueOf(quantity)));
+                amount.add(totalPrice);
+            }
+
+            items.add(newItem(transaction, product, quantity, unitPrice, totalPrice));
+        }
+
+        if (transaction.getItems() != null) {
+            // update paytida managed collection almashtirilmaydi (orphanRemoval)
+            transaction.getItems().clear();
+            transaction.getItems().addAll(items);
+        } else {
+            transaction.setItems(items);
+        }
+        return amount;
+    }
+
+    private TransactionItem newItem(Transaction transaction, Product product, Integer quantity,
+                                    BigDecimal unitPrice, BigDecimal totalPrice) {
+        TransactionItem transactionItem = new TransactionItem();
+        transactionItem.setProduct(product); // clinetga tanlangan product
+        transactionItem.setQuantity(quantity); // soni
+        transactionItem.setUnitPrice(unitPrice); // tr valyutasidagi product price
+        transactionItem.setTotalPrice(totalPrice); // itemdani soniga kopaytirdim
+        transactionItem.setTransaction(transaction);
+        return transactionItem;
+    }
+
+    private Map<Long, Product> loadProducts(List<TransactionItemCreateDTO> itemDTOs, Map<Long, Product> products) {
+
+        Set<Long> productIds = new LinkedHashSet<>();
+        for (TransactionItemCreateDTO item : itemDTOs) {
+            if (item.getProductId() == null) {
+                throw new BadRequestException("Item uchun productId kiritilishi shart!");
+            }
+            productIds.add(item.getProductId());
+        }
+
+        Map<Long, Product> productMap = new HashMap<>();
+        if (products != null) {
+            for (Long productId : productIds) {
+                Product product = products.get(productId);
+                if (product != null) productMap.put(productId, product);
+            }
+        } else {
+            for (Product product : productRepository.findAllById(productIds)) {
+                productMap.put(product.getId(), product);
+            }
+        }
+
+        if (productMap.size() != productIds.size()) {
+            List<Long> missingIds = productIds.stream()
+                    .filter(id -> !productMap.containsKey(id))
+                    .toList();
+            throw new EntityNotFoundException("Products not found with ids : " + missingIds);
+        }
 
-        transaction.setReceiverBalanceEffect(receiverBalanceEffect.negate());
+        return productMap;
     }
 }
\ No newline at end of file
@@ -0,0 +1,54 @@
+package uz.qarzdorlar_ai.service.transactions;
+
+import uz.qarzdorlar_ai.exception.BadRequestException;
+import uz.qarzdorlar_ai.model.Transaction;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * {@code (createdAt, id)} juftligini frontend uchun ochiq bo'lmagan tokenga o'giradi va qaytaradi.
+ */
+final class TransactionCursor {
+
+    // Birinchi sahifa uchun: barcha qatorlardan oldin turadigan qiymat
+    static final TransactionCursor START = new TransactionCursor(Timestamp.valueOf("0001-01-01 00:00:00"), 0L);
+
+    private final Timestamp createdAt;
+    private final Long id;
+
+    private TransactionCursor(Timestamp createdAt, Long id) {
+        this.createdAt = createdAt;
+        this.id = id;
+    }
+
+    Timestamp createdAt() {
+        return createdAt;
+    }
+
+    Long id() {
+        return id;
+    }
+
+    static String encode(Transaction last) {
+        String raw = last.getCreatedAt().toInstant() + "," + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static TransactionCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return START;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(',');
+            Timestamp createdAt = Timestamp.from(Instant.parse(raw.substring(0, separator)));
+            Long id = Long.parseLong(raw.substring(separator + 1));
+            return new TransactionCursor(createdAt, id);
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Invalid cursor: " + token);
+        }
+    }
+}
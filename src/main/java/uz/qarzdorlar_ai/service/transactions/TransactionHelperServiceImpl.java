@@ -4,52 +4,70 @@ import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 import uz.qarzdorlar_ai.enums.TransactionType;
-import uz.qarzdorlar_ai.exception.BadRequestException;
-import uz.qarzdorlar_ai.model.Client;
 import uz.qarzdorlar_ai.model.Transaction;
-import uz.qarzdorlar_ai.repository.ClientRepository;
+import uz.qarzdorlar_ai.service.transactions.embedded.ClientBalanceLedgerService;
 import uz.qarzdorlar_ai.service.transactions.embedded.TransactionHelperService;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
+import java.util.Map;
+import java.util.TreeMap;
 
 @Component
 @RequiredArgsConstructor
 public class TransactionHelperServiceImpl implements TransactionHelperService {
 
-    private final ClientRepository clientRepository;
+    private final ClientBalanceLedgerService clientBalanceLedgerService;
 
     @Override
-    @Transactional
-    public void reverseClientBalance(Transaction tx) {
-        // 1. ASOSIY MIJOZ BALANSINI QAYTARISH
-        // Qoida: Bazada nima bo'lsa, shuning teskarisini (-1 ga ko'paytirilganini) yuboramiz
+    public Map<Long, BigDecimal> getBalanceEffects(Transaction tx) {
+        // Bitta client ikki marta kelsa (sender == receiver) ta'sirlar qo'shiladi
+        Map<Long, BigDecimal> effects = new TreeMap<>();
+
+        // Asosiy mijozga
         if (tx.getBalanceEffect() != null) {
-            BigDecimal reverseEffect = tx.getBalanceEffect().negate();
-            clientRepository.updateBalance(tx.getClient().getId(), reverseEffect);
+            effects.merge(tx.getClient().getId(), tx.getBalanceEffect(), BigDecimal::add);
         }
 
-        // 2. TRANSFER HOLATIDA RECEIVER BALANSINI QAYTARISH
-        // Qoida: Receiverga qo'shilgan summani endi ayirib tashlaymiz
-        if (tx.getType() == TransactionType.TRANSFER && tx.getReceiverClient() != null) {
-            if (tx.getReceiverBalanceEffect() != null) {
-                BigDecimal reverseReceiverEffect = tx.getReceiverBalanceEffect().negate();
-                clientRepository.updateBalance(tx.getReceiverClient().getId(), reverseReceiverEffect);
-            }
+        // Agar transfer bo'lsa, qabul qiluvchiga
+        if (tx.getType() == TransactionType.TRANSFER && tx.getReceiverClient() != null && tx.getReceiverBalanceEffect() != null) {
+            effects.merge(tx.getReceiverClient().getId(), tx.getReceiverBalanceEffect(), BigDecimal::add);
         }
+        return effects;
+    }
+
+    @Override
+    @Transactional
+    public void reverseClientBalance(Transaction tx) {
+        // Qoida: Bazada nima bo'lsa, shuning teskarisini (-1 ga ko'paytirilganini) yuboramiz
+        Map<Long, BigDecimal> reverse = new TreeMap<>();
+        getBalanceEffects(tx).forEach((clientId, effect) -> reverse.put(clientId, effect.negate()));
+
+        clientBalanceLedgerService.postAll(reverse);
     }
 
     @Override
     @Transactional
     public void updateClientBalance(Transaction tx) {
-        // Create vaqtida borini boricha qo'shamiz (ishoralari ichida bor)
+        // Create vaqtida borini boricha qo'shamiz (ishoralari ichida bor).
+        // TRANSFER da ikkala client bitta postAll da - lock tartibi id bo'yicha
+        clientBalanceLedgerService.postAll(getBalanceEffects(tx));
+    }
 
-        // Asosiy mijozga
-        clientRepository.updateBalance(tx.getClient().getId(), tx.getBalanceEffect());
+    @Override
+    @Transactional
+    public void replaceClientBalance(Map<Long, BigDecimal> previousEffects, Transaction tx) {
+        // Eski ta'sirni bekor qilish va yangisini qo'shish bitta net delta bo'lib ketadi:
+        // client qatorlari bir marta va bir tartibda lock qilinadi
+        Map<Long, BigDecimal> deltas = new TreeMap<>(getBalanceEffects(tx));
+        previousEffects.forEach((clientId, effect) -> deltas.merge(clientId, effect.negate(), BigDecimal::add));
 
-        // Agar transfer bo'lsa, qabul qiluvchiga
-        if (tx.getType() == TransactionType.TRANSFER && tx.getReceiverClient() != null) {
-            clientRepository.updateBalance(tx.getReceiverClient().getId(), tx.getReceiverBalanceEffect());
-        }
+        clientBalanceLedgerService.postAll(deltas);
+    }
+
+    @Override
+    @Transactional
+    public void applyBalanceDeltas(Map<Long, BigDecimal> balanceDeltas) {
+        // Batch import: har bir clientga bitta net delta
+        clientBalanceLedgerService.postAll(balanceDeltas);
     }
 }
@@ -0,0 +1,198 @@
+package uz.qarzdorlar_ai.service.transactions;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import uz.qarzdorlar_ai.exception.BadRequestException;
+import uz.qarzdorlar_ai.exception.DataConflictException;
+import uz.qarzdorlar_ai.model.TransactionIdempotencyKey;
+import uz.qarzdorlar_ai.payload.TransactionCreateDTO;
+import uz.qarzdorlar_ai.payload.TransactionItemCreateDTO;
+import uz.qarzdorlar_ai.repository.TransactionIdempotencyKeyRepository;
+import uz.qarzdorlar_ai.service.transactions.embedded.TransactionIdempotencyService;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.SQLException;
+import java.util.*;
+
+/**
+ * Idempotency-Key -> (transactionId, requestHash). Yaqinda ishlatilgan kalitlar xotiradagi LRU cacheda turadi,
+ * qolganlari {@code transaction_idempotency_key} jadvalidan olinadi.
+ * Cachega faqat commit bo'lgandan keyin yoziladi - rollback bo'lgan kalit u yerda qolib ketmaydi.
+ * 409 faqat kalitning unique constraintiga urilganda qaytariladi; boshqa integrity xatolari o'zgarishsiz ko'tariladi.
+ */
+@Slf4j
+@Component
+public class TransactionIdempotencyServiceImpl implements TransactionIdempotencyService {
+
+    private static final String UNIQUE_VIOLATION = "23505";
+
+    private final TransactionIdempotencyKeyRepository transactionIdempotencyKeyRepository;
+    private final Map<String, StoredKey> recentKeys;
+
+    public TransactionIdempotencyServiceImpl(TransactionIdempotencyKeyRepository transactionIdempotencyKeyRepository,
+                                             @Value("${application.idempotency.cache-size:10000}") int cacheSize) {
+        this.transactionIdempotencyKeyRepository = transactionIdempotencyKeyRepository;
+        this.recentKeys = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, StoredKey> eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+
+    @Override
+    public String requestHash(TransactionCreateDTO dto) {
+        // Maydonlar qat'iy tartibda; BigDecimal lar scale dan qat'i nazar bir xil ko'rinishda (8000 == 8000.00)
+        StringJoiner canonical = new StringJoiner("|");
+        canonical.add(String.valueOf(dto.getClientId()));
+        canonical.add(String.valueOf(dto.getReceiverClientId()));
+        canonical.add(String.valueOf(dto.getType()));
+        canonical.add(String.valueOf(dto.getTransactionCurrency()));
+        canonical.add(decimal(dto.getAmount()));
+        canonical.add(decimal(dto.getRateToUsd()));
+        canonical.add(decimal(dto.getClientRateToUsd()));
+        canonical.add(decimal(dto.getReceiverRateToUsd()));
+        canonical.add(decimal(dto.getFeeAmount()));
+        canonical.add(String.valueOf(dto.getDescription()));
+        canonical.add(dto.getCreatedAt() != null ? dto.getCreatedAt().toInstant().toString() : "null");
+        if (dto.getItems() != null) {
+            for (TransactionItemCreateDTO item : dto.getItems()) {
+                canonical.add(item.getProductId() + ":" + item.getQuantity() + ":" + decimal(item.getUnitPrice()));
+            }
+        }
+
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(canonical.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    @Override
+    public Optional<Long> findTransactionId(String idempotencyKey, String requestHash) {
+        validate(idempotencyKey);
+
+        StoredKey stored = recentKeys.get(idempotencyKey);
+        if (stored == null) {
+            stored = transactionIdempotencyKeyRepository.findByIdempotencyKey(idempotencyKey)
+                    .map(StoredKey::of)
+                    .orElse(null);
+            if (stored == null) {
+                return Optional.empty();
+            }
+            recentKeys.put(idempotencyKey, stored);
+        }
+
+        if (!stored.matches(requestHash)) {
+            log.warn("Idempotency-Key reused with a different payload: {}", idempotencyKey);
+            throw new DataConflictException("Idempotency-Key has already been used for a different request");
+        }
+        return Optional.of(stored.transactionId());
+    }
+
+    @Override
+    public Map<String, String> findRequestHashes(Collection<String> idempotencyKeys) {
+        Map<String, String> found = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (String key : idempotencyKeys) {
+            validate(key);
+            StoredKey cached = recentKeys.get(key);
+            if (cached != null) {
+                found.put(key, cached.requestHash());
+            } else {
+                missing.add(key);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            for (TransactionIdempotencyKey row : transactionIdempotencyKeyRepository.findAllByIdempotencyKeyIn(missing)) {
+                found.put(row.getIdempotencyKey(), row.getRequestHash());
+                recentKeys.put(row.getIdempotencyKey(), StoredKey.of(row));
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public void register(String idempotencyKey, String requestHash, Long transactionId) {
+        registerAll(List.of(new TransactionIdempotencyKey(idempotencyKey, transactionId, requestHash)));
+    }
+
+    @Override
+    public void registerAll(Collection<TransactionIdempotencyKey> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+
+        List<TransactionIdempotencyKey> rows = new ArrayList<>(keys);
+        List<String> names = rows.stream().map(TransactionIdempotencyKey::getIdempotencyKey).toList();
+
+        try {
+            // Flush shu yerda: bir xil kalit bilan parallel so'rov unique indexda to'xtaydi,
+            // balans yangilanishidan oldin. Chaqiruvchi tranzaksiyani oldin flush qilgan - bu yerda faqat kalitlar yoziladi
+            transactionIdempotencyKeyRepository.saveAllAndFlush(rows);
+        } catch (DataIntegrityViolationException e) {
+            // Boshqa constraint (FK, NOT NULL, ...) - replay emas, xato o'zicha ko'tariladi
+            if (!isDuplicateKey(e)) {
+                throw e;
+            }
+            log.warn("Duplicate Idempotency-Key rejected: {}", names);
+            throw new DataConflictException("Request with this Idempotency-Key has already been processed");
+        }
+
+        Map<String, StoredKey> committed = new HashMap<>();
+        rows.forEach(row -> committed.put(row.getIdempotencyKey(), StoredKey.of(row)));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    recentKeys.putAll(committed);
+                }
+            });
+        } else {
+            recentKeys.putAll(committed);
+        }
+    }
+
+    // PostgreSQL: unique_violation (23505), xabarda constraint nomi
+    static boolean isDuplicateKey(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException) {
+                return UNIQUE_VIOLATION.equals(sqlException.getSQLState()) && sqlException.getMessage() != null
+                        && sqlException.getMessage().contains(TransactionIdempotencyKey.UNIQUE_CONSTRAINT);
+            }
+        }
+        return false;
+    }
+
+    private String decimal(BigDecimal value) {
+        return value != null ? value.stripTrailingZeros().toPlainString() : "null";
+    }
+
+    private void validate(String idempotencyKey) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()
+                || idempotencyKey.length() > TransactionIdempotencyKey.MAX_KEY_LENGTH) {
+            throw new BadRequestException("Idempotency-Key must be 1.." + TransactionIdempotencyKey.MAX_KEY_LENGTH + " characters");
+        }
+    }
+
+    private record StoredKey(Long transactionId, String requestHash) {
+
+        static StoredKey of(TransactionIdempotencyKey row) {
+            return new StoredKey(row.getTransactionId(), row.getRequestHash());
+        }
+
+        // Hash siz saqlangan (eski) kalitlar avvalgidek faqat kalit bo'yicha qaytariladi
+        boolean matches(String hash) {
+            return this.requestHash == null || this.requestHash.equals(hash);
+        }
+    }
+}
@@ -0,0 +1,321 @@
+package uz.qarzdorlar_ai.service.transactions;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import uz.qarzdorlar_ai.config.properties.TransactionPartitionProperties;
+import uz.qarzdorlar_ai.exception.BadRequestException;
+import uz.qarzdorlar_ai.exception.EntityNotFoundException;
+import uz.qarzdorlar_ai.payload.TransactionPartitionDTO;
+import uz.qarzdorlar_ai.service.transactions.embedded.TransactionPartitionService;
+
+import java.sql.Timestamp;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * {@code transaction} va {@code transaction_item} uchun PostgreSQL declarative range partitioning (oy bo'yicha).
+ * Tranzaksiya o'z {@code created_at} i bo'yicha, item esa tranzaksiyasining vaqti
+ * ({@code transaction_created_at}) bo'yicha bo'linadi - item hech qachon tranzaksiyasidan boshqa oyga tushmaydi.
+ * Partitionlar {@code <jadval>_pYYYY_MM} deb nomlanadi, oraliqdan tashqaridagi qatorlar {@code <jadval>_default} ga tushadi.
+ * <p>
+ * Partitioned jadvalda PK partition kalitini o'z ichiga olishi shart: {@code transaction (id, created_at)},
+ * {@code transaction_item (id, transaction_created_at)}. Item FK ham shu juftlikka qo'yiladi
+ * ({@link #ITEM_TRANSACTION_FK}). Unique indekslar (partition kalitisiz) ko'chirilmaydi.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TransactionPartitionServiceImpl implements TransactionPartitionService {
+
+    private static final String TRANSACTION_TABLE = "transaction";
+    private static final String TRANSACTION_ITEM_TABLE = "transaction_item";
+    private static final List<String> PARTITIONED_TABLES = List.of(TRANSACTION_TABLE, TRANSACTION_ITEM_TABLE);
+    private static final String ITEM_TRANSACTION_FK = "fk_transaction_item_transaction";
+
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionPartitionProperties properties;
+
+    @Override
+    public boolean isPartitioned() {
+        return PARTITIONED_TABLES.stream().allMatch(this::isPartitioned);
+    }
+
+    /**
+     * Bitta DDL tranzaksiyasida: biror qadam xato bersa hammasi rollback bo'ladi va jadvallar o'zgarmaydi.
+     * Hech narsa jimgina tashlab yuborilmaydi - yetim itemlar yoki boshqa jadvallardan keladigan FK bo'lsa
+     * migratsiya to'xtaydi.
+     */
+    @Override
+    @Transactional
+    public void convertToPartitioned() {
+        YearMonth lastMonth = YearMonth.now().plusMonths(properties.getMonthsAhead());
+        boolean convertTransactions = !isPartitioned(TRANSACTION_TABLE);
+        boolean convertItems = !isPartitioned(TRANSACTION_ITEM_TABLE);
+
+        if (convertTransactions) {
+            jdbcTemplate.update("UPDATE " + TRANSACTION_TABLE + " SET created_at = COALESCE(updated_at, now()) WHERE created_at IS NULL");
+        }
+        if (convertItems) {
+            prepareItems();
+        }
+        checkNoIncomingForeignKeys();
+
+        // Eski (faqat id ga) item FK: nomi bilan olib tashlanadi, o'rniga composite FK qo'yiladi
+        for (String constraint : foreignKeysBetween(TRANSACTION_ITEM_TABLE, TRANSACTION_TABLE)) {
+            log.info("Dropping foreign key '{}' ({} -> {}), replaced by '{}'", constraint, TRANSACTION_ITEM_TABLE, TRANSACTION_TABLE, ITEM_TRANSACTION_FK);
+            jdbcTemplate.execute("ALTER TABLE " + TRANSACTION_ITEM_TABLE + " DROP CONSTRAINT " + quoteIdent(constraint));
+        }
+
+        if (convertTransactions) {
+            convert(TRANSACTION_TABLE, "created_at", lastMonth);
+        }
+        if (convertItems) {
+            convert(TRANSACTION_ITEM_TABLE, "transaction_created_at", lastMonth);
+        }
+        jdbcTemplate.execute("ALTER TABLE " + TRANSACTION_ITEM_TABLE + " ADD CONSTRAINT " + ITEM_TRANSACTION_FK
+                + " FOREIGN KEY (transaction_id, transaction_created_at) REFERENCES " + TRANSACTION_TABLE + " (id, created_at)");
+    }
+
+    @Override
+    public int ensureFuturePartitions() {
+        if (!isPartitioned()) {
+            return 0;
+        }
+
+        YearMonth current = YearMonth.now();
+        int created = 0;
+        for (String table : PARTITIONED_TABLES) {
+            for (int i = 0; i <= properties.getMonthsAhead(); i++) {
+                YearMonth month = current.plusMonths(i);
+                if (exists(partitionName(table, month))) {
+                    continue;
+                }
+                try {
+                    createPartition(table, month);
+                    created++;
+                } catch (Exception e) {
+                    // Odatda default partitionda shu oyga tegishli qator bo'lsa yuz beradi
+                    log.error("FAILED to create partition '{}'. Reason: {}", partitionName(table, month), e.getMessage());
+                }
+            }
+        }
+        return created;
+    }
+
+    @Override
+    public List<TransactionPartitionDTO> getPartitions() {
+        return jdbcTemplate.query("""
+                        SELECT parent.relname AS parent_table,
+                               child.relname AS partition_name,
+                               pg_get_expr(child.relpartbound, child.oid) AS bounds,
+                               GREATEST(child.reltuples, 0)::bigint AS estimated_rows
+                        FROM pg_inherits i
+                                 JOIN pg_class parent ON parent.oid = i.inhparent
+                                 JOIN pg_class child ON child.oid = i.inhrelid
+                        WHERE parent.oid IN (to_regclass(?), to_regclass(?))
+                        ORDER BY parent.relname, child.relname
+                        """,
+                (rs, rowNum) -> new TransactionPartitionDTO(
+                        rs.getString("parent_table"),
+                        rs.getString("partition_name"),
+                        rs.getString("bounds"),
+                        rs.getLong("estimated_rows")
+                ),
+                TRANSACTION_TABLE, TRANSACTION_ITEM_TABLE);
+    }
+
+    /**
+     * Oy partitionini detach qilib archive schema ga ko'chiradi. Arxivlangan tranzaksiyalarning balansga
+     * ta'siri client.initial_balance ga qo'shiladi (davrni yopish), shunda balance reconciliation
+     * {@code initialBalance + tranzaksiyalar} tengligini saqlaydi.
+     * <p>
+     * DETACH parent jadvalga ACCESS EXCLUSIVE lock oladi - commit gacha yozuvlar kutib turadi.
+     */
+    @Override
+    @Transactional
+    public String archivePartition(YearMonth month) {
+        if (!isPartitioned()) {
+            throw new BadRequestException("Transaction tables are not partitioned");
+        }
+        if (!month.isBefore(YearMonth.now().minusMonths(properties.getHotMonths()))) {
+            throw new BadRequestException("Only months older than " + properties.getHotMonths() + " months can be archived");
+        }
+
+        String transactionPartition = partitionName(TRANSACTION_TABLE, month);
+        if (!exists(transactionPartition)) {
+            throw new EntityNotFoundException("Partition not found: " + transactionPartition);
+        }
+
+        String schema = archiveSchema();
+        jdbcTemplate.execute("CREATE SCHEMA IF NOT EXISTS " + schema);
+
+        // 1. Avval detach - lock olingandan keyin hech kim bu oy qatorlarini o'zgartira olmaydi.
+        // Item partitioni birinchi: ajratilgandan keyin uning FK si (tranzaksiya partitioniga) olib tashlanadi,
+        // aks holda tranzaksiya partitionini detach qilib bo'lmaydi
+        String itemPartition = partitionName(TRANSACTION_ITEM_TABLE, month);
+        if (exists(itemPartition)) {
+            jdbcTemplate.execute("ALTER TABLE " + TRANSACTION_ITEM_TABLE + " DETACH PARTITION " + itemPartition);
+            for (String constraint : foreignKeysBetween(itemPartition, TRANSACTION_TABLE)) {
+                jdbcTemplate.execute("ALTER TABLE " + itemPartition + " DROP CONSTRAINT " + quoteIdent(constraint));
+            }
+        }
+        jdbcTemplate.execute("ALTER TABLE " + TRANSACTION_TABLE + " DETACH PARTITION " + transactionPartition);
+
+        // 2. Balans ta'sirini initial_balance ga o'tkazish (NULL lar startda ClientInitialBalanceBackfill da to'ldirilgan)
+        int foldedClients = jdbcTemplate.update("""
+                UPDATE client c
+                SET initial_balance = COALESCE(c.initial_balance, 0) + s.total
+                FROM (SELECT e.client_id, SUM(e.effect) AS total
+                      FROM (SELECT t.client_id, t.balance_effect AS effect
+                            FROM %1$s t
+                            WHERE t.deleted = false AND t.client_id IS NOT NULL AND t.balance_effect IS NOT NULL
+                            UNION ALL
+                            SELECT t.receiver_client_id, t.receiver_balance_effect
+                            FROM %1$s t
+                            WHERE t.deleted = false AND t.receiver_client_id IS NOT NULL AND t.receiver_balance_effect IS NOT NULL) e
+                      GROUP BY e.client_id) s
+                WHERE c.id = s.client_id
+                """.formatted(transactionPartition));
+
+        // 3. Arxiv schema ga ko'chirish (kerak bo'lsa keyin ATTACH PARTITION bilan qaytariladi)
+        for (String table : PARTITIONED_TABLES) {
+            String partition = partitionName(table, month);
+            if (exists(partition)) {
+                jdbcTemplate.execute("ALTER TABLE " + partition + " SET SCHEMA " + schema);
+            }
+        }
+
+        log.info("Partition {} archived to schema '{}', opening balances of {} clients updated", month, schema, foldedClients);
+        return "Partition " + month + " archived to schema '" + schema + "'. Opening balances updated for " + foldedClients + " clients";
+    }
+
+    /**
+     * Item partition kaliti: tranzaksiya vaqti. Yetim (tranzaksiyasi yo'q) item bo'lsa migratsiya to'xtaydi -
+     * ular uchun partition kaliti yo'q va composite FK ni buzadi.
+     */
+    private void prepareItems() {
+        jdbcTemplate.execute("ALTER TABLE " + TRANSACTION_ITEM_TABLE + " ADD COLUMN IF NOT EXISTS transaction_created_at timestamp(6)");
+
+        Integer orphans = jdbcTemplate.queryForObject("""
+                SELECT COUNT(*)
+                FROM transaction_item i
+                WHERE NOT EXISTS (SELECT 1 FROM transaction t WHERE t.id = i.transaction_id)
+                """, Integer.class);
+        if (orphans != null && orphans > 0) {
+            throw new IllegalStateException(orphans + " transaction_item rows have no parent transaction; fix or delete them before partitioning");
+        }
+
+        int backfilled = jdbcTemplate.update("""
+                UPDATE transaction_item i
+                SET transaction_created_at = t.created_at
+                FROM transaction t
+                WHERE t.id = i.transaction_id
+                  AND i.transaction_created_at IS DISTINCT FROM t.created_at
+                """);
+        log.info("transaction_item.transaction_created_at backfilled for {} rows", backfilled);
+    }
+
+    // DROP TABLE CASCADE ishlatilmaydi: boshqa jadvaldan FK bo'lsa u jimgina yo'qolmasligi uchun to'xtaymiz
+    private void checkNoIncomingForeignKeys() {
+        List<String> incoming = jdbcTemplate.queryForList("""
+                SELECT con.conrelid::regclass || '.' || con.conname
+                FROM pg_constraint con
+                WHERE con.contype = 'f'
+                  AND con.confrelid IN (to_regclass(?), to_regclass(?))
+                  AND con.conrelid NOT IN (to_regclass(?), to_regclass(?))
+                  AND NOT con.conrelid IN (SELECT inhrelid FROM pg_inherits)
+                """, String.class, TRANSACTION_TABLE, TRANSACTION_ITEM_TABLE, TRANSACTION_TABLE, TRANSACTION_ITEM_TABLE);
+        if (!incoming.isEmpty()) {
+            throw new IllegalStateException("Foreign keys from other tables reference the transaction tables: " + incoming);
+        }
+    }
+
+    private List<String> foreignKeysBetween(String table, String referencedTable) {
+        return jdbcTemplate.queryForList("""
+                SELECT con.conname
+                FROM pg_constraint con
+                WHERE con.conrelid = to_regclass(?) AND con.confrelid = to_regclass(?) AND con.contype = 'f'
+                """, String.class, table, referencedTable);
+    }
+
+    private void convert(String table, String partitionColumn, YearMonth lastMonth) {
+        String legacy = table + "_legacy";
+
+        // Rename dan oldin: indekslar (PK va unique siz) va tashqi FK lar ta'rifi
+        List<String> indexDefinitions = jdbcTemplate.queryForList("""
+                SELECT pg_get_indexdef(i.indexrelid)
+                FROM pg_index i
+                WHERE i.indrelid = to_regclass(?) AND NOT i.indisprimary AND NOT i.indisunique
+                """, String.class, table);
+        List<String> foreignKeys = jdbcTemplate.queryForList("""
+                SELECT 'ALTER TABLE ' || quote_ident(?) || ' ADD CONSTRAINT ' || quote_ident(con.conname) || ' '
+                           || pg_get_constraintdef(con.oid)
+                FROM pg_constraint con
+                WHERE con.conrelid = to_regclass(?) AND con.contype = 'f'
+                  AND con.confrelid NOT IN (to_regclass(?), to_regclass(?))
+                """, String.class, table, table, TRANSACTION_TABLE, TRANSACTION_ITEM_TABLE);
+
+        log.info("Converting '{}' to a table partitioned by {} ({} indexes, {} foreign keys)",
+                table, partitionColumn, indexDefinitions.size(), foreignKeys.size());
+
+        jdbcTemplate.execute("ALTER TABLE " + table + " RENAME TO " + legacy);
+        jdbcTemplate.execute("CREATE TABLE " + table + " (LIKE " + legacy + " INCLUDING DEFAULTS INCLUDING CONSTRAINTS)"
+                + " PARTITION BY RANGE (" + partitionColumn + ")");
+        // Legacy PK indeksi eski nomini saqlaydi, shuning uchun yangi PK ga alohida nom
+        jdbcTemplate.execute("ALTER TABLE " + table + " ADD CONSTRAINT " + table + "_part_pkey PRIMARY KEY (id, " + partitionColumn + ")");
+        jdbcTemplate.execute("CREATE TABLE " + table + "_default PARTITION OF " + table + " DEFAULT");
+
+        Timestamp minCreatedAt = jdbcTemplate.queryForObject("SELECT MIN(" + partitionColumn + ") FROM " + legacy, Timestamp.class);
+        YearMonth month = minCreatedAt != null ? YearMonth.from(minCreatedAt.toLocalDateTime()) : YearMonth.now();
+        for (; !month.isAfter(lastMonth); month = month.plusMonths(1)) {
+            createPartition(table, month);
+        }
+
+        int copied = jdbcTemplate.update("INSERT INTO " + table + " SELECT * FROM " + legacy);
+        // CASCADE siz: unga bog'liq FK qolgan bo'lsa xato beradi (yuqorida tekshirilgan)
+        jdbcTemplate.execute("DROP TABLE " + legacy);
+
+        // Parent ga yaratilgan indeks barcha partitionlarga avtomatik tarqaladi
+        foreignKeys.forEach(jdbcTemplate::execute);
+        indexDefinitions.forEach(jdbcTemplate::execute);
+
+        log.info("Table '{}' partitioned by month, {} rows copied", table, copied);
+    }
+
+    private void createPartition(String table, YearMonth month) {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + partitionName(table, month) + " PARTITION OF " + table
+                + " FOR VALUES FROM ('" + month.atDay(1) + "') TO ('" + month.plusMonths(1).atDay(1) + "')");
+    }
+
+    private boolean isPartitioned(String table) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM pg_partitioned_table WHERE partrelid = to_regclass(?))",
+                Boolean.class, table));
+    }
+
+    private boolean exists(String relation) {
+        return jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, relation);
+    }
+
+    private String quoteIdent(String identifier) {
+        return "\"" + identifier.replace("\"", "\"\"") + "\"";
+    }
+
+    private String partitionName(String table, YearMonth month) {
+        return table + "_p" + month.format(PARTITION_SUFFIX);
+    }
+
+    private String archiveSchema() {
+        String schema = properties.getArchiveSchema();
+        if (schema == null || !schema.matches("[a-z_][a-z0-9_]*")) {
+            throw new BadRequestException("Invalid archive schema name: " + schema);
+        }
+        return schema;
+    }
+}
@@ -5,29 +5,38 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import uz.qarzdorlar_ai.enums.Role;
+import uz.qarzdorlar_ai.enums.OutboxEventType;
 import uz.qarzdorlar_ai.enums.TransactionType;
+import uz.qarzdorlar_ai.exception.BadRequestException;
 import uz.qarzdorlar_ai.exception.EntityNotFoundException;
 import uz.qarzdorlar_ai.mapper.TransactionMapper;
 import uz.qarzdorlar_ai.model.Client;
+import uz.qarzdorlar_ai.model.Product;
 import uz.qarzdorlar_ai.model.Transaction;
+import uz.qarzdorlar_ai.model.TransactionIdempotencyKey;
 import uz.qarzdorlar_ai.model.TransactionItem;
 import uz.qarzdorlar_ai.model.User;
 import uz.qarzdorlar_ai.model.embedded.AbsDateEntity;
 import uz.qarzdorlar_ai.payload.*;
+import uz.qarzdorlar_ai.payload.projection.TransactionHeaderView;
+import uz.qarzdorlar_ai.payload.projection.TransactionItemView;
 import uz.qarzdorlar_ai.repository.ClientRepository;
+import uz.qarzdorlar_ai.repository.ProductRepository;
 import uz.qarzdorlar_ai.repository.TransactionRepository;
-import uz.qarzdorlar_ai.repository.UserRepository;
+import uz.qarzdorlar_ai.service.outbox.OutboxService;
 import uz.qarzdorlar_ai.service.transactions.embedded.TransactionCalculationService;
 import uz.qarzdorlar_ai.service.transactions.embedded.TransactionHelperService;
+import uz.qarzdorlar_ai.service.transactions.embedded.TransactionIdempotencyService;
 import uz.qarzdorlar_ai.service.transactions.embedded.TransactionService;
+import uz.qarzdorlar_ai.specification.TransactionSpecification;
 
-import java.util.ArrayList;
-import java.util.EnumSet;
-import java.util.List;
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -35,19 +44,33 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class TransactionServiceImpl implements TransactionService {
 
+    static final int MAX_CURSOR_PAGE_SIZE = 100; // bitta cursor sahifasidagi eng ko'p tranzaksiya
+
     private final TransactionMapper transactionMapper;
     private final ClientRepository clientRepository;
+    private final ProductRepository productRepository;
     private final TransactionRepository transactionRepository;
-    private final UserRepository userRepository;
     private final TransactionCalculationService transactionCalculationService;
     private final TransactionHelperService transactionHelperService;
-
-    private static final EnumSet<Role> ALLOWED_ROLES = EnumSet.of(Role.ADMIN, Role.DEVELOPER, Role.STAFF, Role.STAFF_PLUS);
+    private final TransactionIdempotencyService transactionIdempotencyService;
+    private final OutboxService outboxService;
 
 
     @Override
     @Transactional
     public TransactionDTO createTransaction(TransactionCreateDTO dto, User staffUser) {
+        // Takroriy so'rov: asl tranzaksiyani qaytaramiz, hech narsa yozilmaydi.
+        // Shu kalit boshqa mazmun bilan kelsa - 409
+        String idempotencyKey = dto.getIdempotencyKey();
+        String requestHash = idempotencyKey != null ? transactionIdempotencyService.requestHash(dto) : null;
+        if (idempotencyKey != null) {
+            Optional<Long> existingId = transactionIdempotencyService.findTransactionId(idempotencyKey, requestHash);
+            if (existingId.isPresent()) {
+                log.info("Idempotent replay: key={}, transactionId={}", idempotencyKey, existingId.get());
+                return getByIdTransection(existingId.get());
+            }
+        }
+
         // Asosiy validatsiyalar va entitylarni olish
         TransactionType type = dto.getType();
 
@@ -58,21 +81,15 @@ public class TransactionServiceImpl implements TransactionService {
                 );
 
 
-        // User mavjudligini va huquqini tekshirish
-        User user = userRepository.findByUsername(staffUser.getUsername())
-                .orElseThrow(() ->
-                        new EntityNotFoundException("User not found with id: " + staffUser.getId())
-                );
-
-        Role role = user.getRole();
-        if (!ALLOWED_ROLES.contains(role)) {
+        // User huquqini tekshirish (staffUser - @CurrentUser, allaqachon bazadan o'qilgan)
+        if (!staffUser.getRole().isStaff()) {
             throw new AccessDeniedException("You are not allowed to perform this action");
         }
 
         // Transaction obyektini yaratish
         Transaction transaction = new Transaction();
         transaction.setClient(client);
-        transaction.setCreatedBy(user);
+        transaction.setCreatedBy(staffUser);
         transaction.setType(type);
         transaction.setTransactionCurrency(dto.getTransactionCurrency());
         transaction.setDescription(dto.getDescription());
@@ -86,15 +103,159 @@ public class TransactionServiceImpl implements TransactionService {
         // Har bir transaction type uchun alohida logika
         transactionCalculationService.calculateTransaction(dto, transaction, client);
 
-        // Transactionni saqlash
-        Transaction savedTransaction = transactionRepository.save(transaction);
+        // Transactionni saqlash (flush - tranzaksiya xatolari kalit yozilishidan oldin, o'z nomi bilan chiqadi)
+        Transaction savedTransaction = transactionRepository.saveAndFlush(transaction);
+
+        // Kalitni balansdan oldin yozamiz: parallel dublikat shu yerda unique indexga uriladi
+        if (idempotencyKey != null) {
+            transactionIdempotencyService.register(idempotencyKey, requestHash, savedTransaction.getId());
+        }
 
         // Client balance yangilash
         transactionHelperService.updateClientBalance(savedTransaction);
 
+        // Tashqi tizimlar (telegram va h.k.) uchun event - commit bilan birga yoziladi
+        outboxService.publishTransactionEvent(OutboxEventType.TRANSACTION_CREATED, savedTransaction, null, null);
+
         return transactionMapper.toDTO(savedTransaction);
     }
 
+    @Override
+    @Transactional
+    public TransactionBatchResultDTO createTransactionBatch(List<TransactionCreateDTO> dtos, User staffUser) {
+        long startTime = System.currentTimeMillis();
+
+        if (!staffUser.getRole().isStaff()) {
+            throw new AccessDeniedException("You are not allowed to perform this action");
+        }
+
+        // 1. Batchdagi barcha client va productlarni bittadan so'rov bilan yuklab olamiz
+        Set<Long> clientIds = new HashSet<>();
+        Set<Long> productIds = new HashSet<>();
+        for (TransactionCreateDTO dto : dtos) {
+            if (dto.getClientId() != null) clientIds.add(dto.getClientId());
+            if (dto.getReceiverClientId() != null) clientIds.add(dto.getReceiverClientId());
+            if (dto.getItems() != null) {
+                for (TransactionItemCreateDTO item : dto.getItems()) {
+                    if (item.getProductId() != null) productIds.add(item.getProductId());
+                }
+            }
+        }
+
+        Map<Long, Client> clients = clientRepository.findAllById(clientIds).stream()
+                .collect(Collectors.toMap(Client::getId, Function.identity()));
+        Map<Long, Product> products = productRepository.findAllById(productIds).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+        // Oldin ishlatilgan Idempotency-Key lar (bazadan yoki shu batchning o'zidan) qayta yozilmaydi.
+        // Kalit -> birinchi so'rov hashi: mazmuni boshqa bo'lsa dublikat emas, xato qatori
+        List<String> keys = dtos.stream()
+                .map(TransactionCreateDTO::getIdempotencyKey)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        Map<String, String> usedKeys = keys.isEmpty()
+                ? new HashMap<>()
+                : new HashMap<>(transactionIdempotencyService.findRequestHashes(keys));
+
+        // 2. Har bir qatorni bazaga yozishdan oldin tekshirib, hisoblab chiqamiz
+        List<Transaction> transactions = new ArrayList<>();
+        List<TransactionIdempotencyKey> transactionKeys = new ArrayList<>();
+        List<TransactionBatchErrorDTO> errors = new ArrayList<>();
+        int duplicateCount = 0;
+        for (int i = 0; i < dtos.size(); i++) {
+            TransactionCreateDTO dto = dtos.get(i);
+            String key = dto.getIdempotencyKey();
+            String requestHash = key != null ? transactionIdempotencyService.requestHash(dto) : null;
+            if (key != null && usedKeys.containsKey(key)) {
+                String storedHash = usedKeys.get(key);
+                if (storedHash == null || storedHash.equals(requestHash)) {
+                    duplicateCount++;
+                } else {
+                    errors.add(new TransactionBatchErrorDTO(i + 1, dto.getClientId(), dto.getType(),
+                            "Idempotency-Key has already been used for a different request"));
+                }
+                continue;
+            }
+            try {
+                Transaction transaction = buildBatchTransaction(dto, staffUser, clients, products);
+                transactions.add(transaction);
+                if (key != null) {
+                    usedKeys.put(key, requestHash);
+                    transactionKeys.add(new TransactionIdempotencyKey(key, null, requestHash));
+                } else {
+                    transactionKeys.add(null);
+                }
+            } catch (RuntimeException e) {
+                errors.add(new TransactionBatchErrorDTO(i + 1, dto.getClientId(), dto.getType(), e.getMessage()));
+            }
+        }
+
+        // 3. Insertlar hibernate.jdbc.batch_size bo'yicha guruhlanib ketadi; kalitlardan oldin flush
+        transactionRepository.saveAllAndFlush(transactions);
+
+        List<TransactionIdempotencyKey> usedKeyRows = new ArrayList<>();
+        for (int i = 0; i < transactions.size(); i++) {
+            TransactionIdempotencyKey keyRow = transactionKeys.get(i);
+            if (keyRow != null) {
+                keyRow.setTransactionId(transactions.get(i).getId());
+                usedKeyRows.add(keyRow);
+            }
+        }
+        transactionIdempotencyService.registerAll(usedKeyRows);
+
+        // 4. Har bir client balansiga bitta net delta (id tartibida)
+        Map<Long, BigDecimal> balanceDeltas = new TreeMap<>();
+        for (Transaction tx : transactions) {
+            balanceDeltas.merge(tx.getClient().getId(), tx.getBalanceEffect(), BigDecimal::add);
+            if (tx.getType() == TransactionType.TRANSFER && tx.getReceiverClient() != null) {
+                balanceDeltas.merge(tx.getReceiverClient().getId(), tx.getReceiverBalanceEffect(), BigDecimal::add);
+            }
+        }
+        transactionHelperService.applyBalanceDeltas(balanceDeltas);
+
+        outboxService.publishTransactionEvents(OutboxEventType.TRANSACTION_CREATED, transactions);
+
+        long duration = System.currentTimeMillis() - startTime;
+        log.info("Batch import: total={}, success={}, failed={}, duplicates={}, clients={}, duration={} ms",
+                dtos.size(), transactions.size(), errors.size(), duplicateCount, balanceDeltas.size(), duration);
+
+        return new TransactionBatchResultDTO(dtos.size(), transactions.size(), errors.size(), duplicateCount, duration, errors);
+    }
+
+    private Transaction buildBatchTransaction(TransactionCreateDTO dto, User user,
+                                              Map<Long, Client> clients, Map<Long, Product> products) {
+
+        if (dto.getClientId() == null) {
+            throw new BadRequestException("clientId kiritilishi shart");
+        }
+        if (dto.getType() == null) {
+            throw new BadRequestException("type kiritilishi shart");
+        }
+        if (dto.getTransactionCurrency() == null) {
+            throw new BadRequestException("transactionCurrency kiritilishi shart");
+        }
+
+        Client client = clients.get(dto.getClientId());
+        if (client == null) {
+            throw new EntityNotFoundException("Client not found with id: " + dto.getClientId());
+        }
+
+        Transaction transaction = new Transaction();
+        transaction.setClient(client);
+        transaction.setCreatedBy(user);
+        transaction.setType(dto.getType());
+        transaction.setTransactionCurrency(dto.getTransactionCurrency());
+        transaction.setDescription(dto.getDescription());
+        if (dto.getCreatedAt() != null) {
+            transaction.setCreatedAt(dto.getCreatedAt());
+        }
+
+        transactionCalculationService.calculateTransaction(dto, transaction, client, clients, products);
+
+        return transaction;
+    }
+
     @Override
     @Transactional
     public TransactionDTO updateTransaction(Long id, TransactionUpdateDTO dto, User staffUser) {
@@ -102,8 +263,12 @@ public class TransactionServiceImpl implements TransactionService {
         Transaction tx = transactionRepository.findByIdWithDetails(id)
                 .orElseThrow(() -> new EntityNotFoundException("Tranzaksiya topilmadi ID: " + id));
 
-        // 2. REVERSE: Bazadagi hozirgi ta'sirni bekor qilish (Mijoz balansini joyiga qaytarish)
-        transactionHelperService.reverseClientBalance(tx);
+        // Eventda eski va yangi ta'sir farqi kerak bo'ladi
+        BigDecimal previousBalanceEffect = tx.getBalanceEffect();
+        BigDecimal previousReceiverBalanceEffect = tx.getReceiverBalanceEffect();
+
+        // 2. REVERSE: Bazadagi hozirgi ta'sir eslab qolinadi, 7-qadamda yangisi bilan birga bekor qilinadi
+        Map<Long, BigDecimal> previousEffects = transactionHelperService.getBalanceEffects(tx);
 
         // 3. CLEAR ITEMS: Eski mahsulotlarni o'chirish (orphanRemoval ishlaydi)
         tx.getItems().clear();
@@ -121,12 +286,15 @@ public class TransactionServiceImpl implements TransactionService {
         // Tranzaksiya statusini update qilish mumkin bo'lsa:
         // tx.setStatus(TransactionStatus.COMPLETED);
 
-        // 7. APPLY NEW BALANCE: Yangi hisoblangan raqamlarni mijoz balansiga qo'shish
-        transactionHelperService.updateClientBalance(tx);
+        // 7. APPLY NEW BALANCE: (yangi - eski) farqni mijozlar balansiga bitta posting bilan qo'shish
+        transactionHelperService.replaceClientBalance(previousEffects, tx);
 
         // 8. SAVE: Hammasini bitta atomar tranzaksiyada saqlash
         Transaction updatedTx = transactionRepository.save(tx);
 
+        outboxService.publishTransactionEvent(OutboxEventType.TRANSACTION_UPDATED, updatedTx,
+                previousBalanceEffect, previousReceiverBalanceEffect);
+
         return transactionMapper.toDTO(updatedTx);
     }
 
@@ -189,11 +357,7 @@ public class TransactionServiceImpl implements TransactionService {
                 .orElseThrow(() -> new EntityNotFoundException("Transaction not found with id: " + id));
 
         // User huquqini tekshirish
-        User user = userRepository.findByUsername(staffUser.getUsername())
-                .orElseThrow(() -> new EntityNotFoundException("User not found with id: " + staffUser.getId()));
-
-        Role role = user.getRole();
-        if (!ALLOWED_ROLES.contains(role)) {
+        if (!staffUser.getRole().isStaff()) {
             throw new AccessDeniedException("You are not allowed to perform this action");
         }
 
@@ -204,6 +368,8 @@ public class TransactionServiceImpl implements TransactionService {
         // Transaction ni soft delete qilish
         // @SQLDelete annotation tufayli deleted = true bo'ladi
         transactionRepository.delete(transaction);
+        outboxService.publishTransactionEvent(OutboxEventType.TRANSACTION_DELETED, transaction,
+                transaction.getBalanceEffect(), transaction.getReceiverBalanceEffect());
         log.info("Transaction {} deleted by user {}", id, staffUser.getUsername());
     }
 
@@ -225,10 +391,11 @@ public class TransactionServiceImpl implements TransactionService {
 
         Page<Transaction> transactionPage = transactionRepository.findAll(pageRequest);
 
-        return new PageDTO<>(transactionPage.getContent().stream().map(transactionMapper::toDTO).toList(), transactionPage);
+        return new PageDTO<>(toListDTOs(transactionPage.getContent()), transactionPage);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public PageDTO<TransactionDTO> getAllTransactionByClientId(Long clientId, Integer page, Integer size) {
 
         Sort sort = Sort.by(AbsDateEntity.Fields.createdAt);
@@ -237,9 +404,97 @@ public class TransactionServiceImpl implements TransactionService {
         Page<Transaction> transactions = transactionRepository.findAllByClientOrReceiver(clientId, pageRequest);
 
         return new PageDTO<>(
-                transactions.getContent().stream().map(transactionMapper::toDTO).toList(),
+                toListDTOs(transactions.getContent()),
                 transactions
         );
 
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PageDTO<TransactionDTO> searchTransactions(TransactionFilterDTO filter, Integer page, Integer size) {
+
+        if (filter.getFromDate() != null && filter.getToDate() != null && filter.getFromDate().isAfter(filter.getToDate())) {
+            throw new BadRequestException("fromDate must not be after toDate");
+        }
+        if (filter.getMinAmount() != null && filter.getMaxAmount() != null && filter.getMinAmount().compareTo(filter.getMaxAmount()) > 0) {
+            throw new BadRequestException("minAmount must not be greater than maxAmount");
+        }
+        if (filter.getMinUsdAmount() != null && filter.getMaxUsdAmount() != null && filter.getMinUsdAmount().compareTo(filter.getMaxUsdAmount()) > 0) {
+            throw new BadRequestException("minUsdAmount must not be greater than maxUsdAmount");
+        }
+
+        // (created_at, id) tartibi composite indekslarning oxirgi ustunlariga mos
+        Sort sort = Sort.by(Sort.Direction.DESC, AbsDateEntity.Fields.createdAt, "id");
+        PageRequest pageRequest = PageRequest.of(page, size, sort);
+
+        Specification<Transaction> spec = TransactionSpecification.build(filter);
+        Page<Transaction> transactions = transactionRepository.findAll(spec, pageRequest);
+
+        return new PageDTO<>(toListDTOs(transactions.getContent()), transactions);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDTO<TransactionDTO> getTransactionsAfter(String cursor, Integer size) {
+
+        validateCursorPageSize(size);
+        TransactionCursor after = TransactionCursor.decode(cursor);
+
+        // size + 1 ta olamiz: ortiqchasi bo'lsa keyingi sahifa bor
+        List<Transaction> transactions = transactionRepository.findPageAfter(after.createdAt(), after.id(), size + 1);
+
+        return toCursorPage(transactions, size);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDTO<TransactionDTO> getTransactionsByClientIdAfter(Long clientId, String cursor, Integer size) {
+
+        validateCursorPageSize(size);
+        TransactionCursor after = TransactionCursor.decode(cursor);
+
+        List<Transaction> transactions = transactionRepository.findClientPageAfter(clientId, after.createdAt(), after.id(), size + 1);
+
+        return toCursorPage(transactions, size);
+    }
+
+    // size + 1 LIMIT ga ketadi: null, 0 yoki manfiy qiymat va cheksiz katta sahifa so'rovgacha yetib bormasligi kerak
+    private void validateCursorPageSize(Integer size) {
+        if (size == null || size < 1 || size > MAX_CURSOR_PAGE_SIZE) {
+            throw new BadRequestException("size must be between 1 and " + MAX_CURSOR_PAGE_SIZE);
+        }
+    }
+
+    private CursorPageDTO<TransactionDTO> toCursorPage(List<Transaction> transactions, int size) {
+
+        boolean hasNext = transactions.size() > size;
+        List<Transaction> page = hasNext ? transactions.subList(0, size) : transactions;
+
+        String nextCursor = hasNext ? TransactionCursor.encode(page.get(page.size() - 1)) : null;
+
+        return new CursorPageDTO<>(toListDTOs(page), page.size(), nextCursor, hasNext);
+    }
+
+    /**
+     * Ro'yxat uchun fetch plan: sahifa qanchalik katta bo'lmasin, ustiga faqat 2 ta so'rov
+     * (ishtirokchilar va itemlar). Lazy client / receiverClient / createdBy / product lar ochilmaydi.
+     */
+    private List<TransactionDTO> toListDTOs(List<Transaction> transactions) {
+        if (transactions.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<Long> ids = transactions.stream().map(Transaction::getId).toList();
+
+        Map<Long, TransactionHeaderView> headers = transactionRepository.findHeaderViews(ids).stream()
+                .collect(Collectors.toMap(TransactionHeaderView::getTransactionId, Function.identity()));
+
+        Map<Long, List<TransactionItemView>> items = transactionRepository.findItemViews(ids).stream()
+                .collect(Collectors.groupingBy(TransactionItemView::getTransactionId));
+
+        return transactions.stream()
+                .map(tx -> transactionMapper.toDTO(tx, headers.get(tx.getId()), items.get(tx.getId())))
+                .toList();
+    }
 }
@@ -0,0 +1,140 @@
+package uz.qarzdorlar_ai.service.transactions;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import uz.qarzdorlar_ai.enums.StatementExportFormat;
+import uz.qarzdorlar_ai.exception.EntityNotFoundException;
+import uz.qarzdorlar_ai.model.Client;
+import uz.qarzdorlar_ai.payload.ClientStatementRowDTO;
+import uz.qarzdorlar_ai.payload.projection.TransactionStatementView;
+import uz.qarzdorlar_ai.repository.ClientRepository;
+import uz.qarzdorlar_ai.repository.TransactionRepository;
+import uz.qarzdorlar_ai.service.transactions.embedded.TransactionStatementService;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+@Service
+@RequiredArgsConstructor
+public class TransactionStatementServiceImpl implements TransactionStatementService {
+
+    private static final String CSV_HEADER = "transactionId,createdAt,type,status,transactionCurrency,amount," +
+            "rateToUsd,usdAmount,feeAmount,balanceEffect,runningBalance,description";
+
+    // Ikkala format uchun yagona vaqt ko'rinishi: 2024-05-01T09:30:00Z
+    private static final DateTimeFormatter CREATED_AT_FORMAT = DateTimeFormatter.ISO_INSTANT;
+
+    private final ClientRepository clientRepository;
+    private final TransactionRepository transactionRepository;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Clientning butun tarixini response ga qatorma-qator yozadi.
+     * Xotirada bitta qator va yig'ilayotgan balansdan boshqa narsa saqlanmaydi.
+     * Format controllerda {@link StatementExportFormat#from(String)} orqali tekshirilgan bo'ladi.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void exportClientStatement(Long clientId, StatementExportFormat format, OutputStream outputStream,
+                                      Runnable beforeWrite) throws IOException {
+
+        boolean csv = format == StatementExportFormat.CSV;
+
+        Client client = clientRepository.findById(clientId)
+                .orElseThrow(() -> new EntityNotFoundException("Client not found with id : " + clientId));
+
+        BigDecimal runningBalance = client.getInitialBalance() != null ? client.getInitialBalance() : BigDecimal.ZERO;
+
+        beforeWrite.run();
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        if (csv) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+
+        try (Stream<TransactionStatementView> rows = transactionRepository.streamStatementByClientId(clientId)) {
+            Iterator<TransactionStatementView> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                TransactionStatementView row = iterator.next();
+
+                BigDecimal effect = effectFor(clientId, row);
+                runningBalance = runningBalance.add(effect);
+
+                ClientStatementRowDTO dto = toRow(row, effect, runningBalance);
+                if (csv) {
+                    writeCsv(writer, dto);
+                } else {
+                    writer.write(objectMapper.writeValueAsString(dto));
+                    writer.write('\n');
+                }
+            }
+        }
+
+        writer.flush();
+    }
+
+    // Client yuboruvchi ham, qabul qiluvchi ham bo'lishi mumkin (TRANSFER)
+    private BigDecimal effectFor(Long clientId, TransactionStatementView row) {
+        BigDecimal effect = BigDecimal.ZERO;
+        if (Objects.equals(row.getClientId(), clientId) && row.getBalanceEffect() != null) {
+            effect = effect.add(row.getBalanceEffect());
+        }
+        if (Objects.equals(row.getReceiverId(), clientId) && row.getReceiverBalanceEffect() != null) {
+            effect = effect.add(row.getReceiverBalanceEffect());
+        }
+        return effect;
+    }
+
+    private ClientStatementRowDTO toRow(TransactionStatementView row, BigDecimal effect, BigDecimal runningBalance) {
+        ClientStatementRowDTO dto = new ClientStatementRowDTO();
+        dto.setTransactionId(row.getId());
+        dto.setCreatedAt(row.getCreatedAt() != null ? CREATED_AT_FORMAT.format(row.getCreatedAt().toInstant()) : null);
+        dto.setType(row.getType());
+        dto.setStatus(row.getStatus());
+        dto.setTransactionCurrency(row.getTransactionCurrency());
+        dto.setAmount(row.getAmount());
+        dto.setRateToUsd(row.getRateToUsd());
+        dto.setUsdAmount(row.getUsdAmount());
+        dto.setFeeAmount(row.getFeeAmount());
+        dto.setBalanceEffect(effect);
+        dto.setRunningBalance(runningBalance);
+        dto.setDescription(row.getDescription());
+        return dto;
+    }
+
+    private void writeCsv(Writer writer, ClientStatementRowDTO dto) throws IOException {
+        writer.write(String.join(",",
+                csvValue(dto.getTransactionId()),
+                csvValue(dto.getCreatedAt()),
+                csvValue(dto.getType()),
+                csvValue(dto.getStatus()),
+                csvValue(dto.getTransactionCurrency()),
+                csvValue(dto.getAmount()),
+                csvValue(dto.getRateToUsd()),
+                csvValue(dto.getUsdAmount()),
+                csvValue(dto.getFeeAmount()),
+                csvValue(dto.getBalanceEffect()),
+                csvValue(dto.getRunningBalance()),
+                csvValue(dto.getDescription())
+        ));
+        writer.write('\n');
+    }
+
+    private String csvValue(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value instanceof BigDecimal decimal ? decimal.toPlainString() : value.toString();
+        if (text.contains(",") || text.contains("\"") || text.contains("\n") || text.contains("\r")) {
+            return "\"" + text.replace("\"", "\"\"") + "\"";
+        }
+        return text;
+    }
+}
@@ -0,0 +1,14 @@
+package uz.qarzdorlar_ai.service.transactions.embedded;
+
+import uz.qarzdorlar_ai.payload.BalanceReconciliationReportDTO;
+
+import java.util.Optional;
+
+public interface BalanceReconciliationService {
+
+    /**
+     * @param full true - barcha clientlar, false - oxirgi muvaffaqiyatli rundan keyin o'zgarganlar
+     * @return bo'sh - boshqa run ishlayotgani uchun o'tkazib yuborildi
+     */
+    Optional<BalanceReconciliationReportDTO> reconcile(boolean full);
+}
@@ -0,0 +1,18 @@
+package uz.qarzdorlar_ai.service.transactions.embedded;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Map;
+
+public interface ClientBalanceLedgerService {
+
+    void post(Long clientId, BigDecimal amount);
+
+    void postAll(Map<Long, BigDecimal> deltas);
+
+    BigDecimal getEffectiveBalance(Long clientId);
+
+    Map<Long, BigDecimal> getEffectiveBalances(Collection<Long> clientIds);
+
+    int compactBatch();
+}
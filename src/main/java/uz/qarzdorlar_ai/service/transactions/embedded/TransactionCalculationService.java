@@ -1,11 +1,20 @@
 package uz.qarzdorlar_ai.service.transactions.embedded;
 
 import uz.qarzdorlar_ai.model.Client;
+import uz.qarzdorlar_ai.model.Product;
 import uz.qarzdorlar_ai.model.Transaction;
 import uz.qarzdorlar_ai.payload.TransactionCreateDTO;
 
+import java.util.Map;
+
 public interface TransactionCalculationService {
 
     void calculateTransaction(TransactionCreateDTO dto, Transaction transaction, Client client);
 
+    /**
+     * Batch import uchun: receiver clientlar va productlar oldindan yuklangan map lardan olinadi.
+     */
+    void calculateTransaction(TransactionCreateDTO dto, Transaction transaction, Client client,
+                              Map<Long, Client> clients, Map<Long, Product> products);
+
 }
@@ -2,8 +2,20 @@ package uz.qarzdorlar_ai.service.transactions.embedded;
 
 import uz.qarzdorlar_ai.model.Transaction;
 
+import java.math.BigDecimal;
+import java.util.Map;
+
 public interface TransactionHelperService {
+    /**
+     * @return clientId -> balansga ta'sir (TRANSFER da sender va receiver), id tartibida
+     */
+    Map<Long, BigDecimal> getBalanceEffects(Transaction tx);
+
     void updateClientBalance(Transaction savedTransaction);
 
+    void replaceClientBalance(Map<Long, BigDecimal> previousEffects, Transaction tx);
+
     void reverseClientBalance(Transaction tx);
+
+    void applyBalanceDeltas(Map<Long, BigDecimal> balanceDeltas);
 }
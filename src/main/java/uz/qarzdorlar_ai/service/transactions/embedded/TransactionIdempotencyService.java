@@ -0,0 +1,30 @@
+package uz.qarzdorlar_ai.service.transactions.embedded;
+
+import uz.qarzdorlar_ai.model.TransactionIdempotencyKey;
+import uz.qarzdorlar_ai.payload.TransactionCreateDTO;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+
+public interface TransactionIdempotencyService {
+
+    /**
+     * So'rov mazmunining hashi (idempotencyKey ning o'zi kirmaydi).
+     */
+    String requestHash(TransactionCreateDTO dto);
+
+    /**
+     * @throws uz.qarzdorlar_ai.exception.DataConflictException kalit boshqa mazmundagi so'rov uchun ishlatilgan bo'lsa
+     */
+    Optional<Long> findTransactionId(String idempotencyKey, String requestHash);
+
+    /**
+     * @return ishlatilgan kalit -> saqlangan requestHash (eski qatorlarda null)
+     */
+    Map<String, String> findRequestHashes(Collection<String> idempotencyKeys);
+
+    void register(String idempotencyKey, String requestHash, Long transactionId);
+
+    void registerAll(Collection<TransactionIdempotencyKey> keys);
+}
@@ -0,0 +1,26 @@
+package uz.qarzdorlar_ai.service.transactions.embedded;
+
+import uz.qarzdorlar_ai.payload.TransactionPartitionDTO;
+
+import java.time.YearMonth;
+import java.util.List;
+
+public interface TransactionPartitionService {
+
+    boolean isPartitioned();
+
+    /**
+     * Oddiy {@code transaction} / {@code transaction_item} jadvallarini created_at oyi bo'yicha
+     * range partitioned jadvalga o'tkazadi. Allaqachon o'tkazilgan jadval o'tkazib yuboriladi.
+     */
+    void convertToPartitioned();
+
+    /**
+     * @return yangi yaratilgan partitionlar soni
+     */
+    int ensureFuturePartitions();
+
+    List<TransactionPartitionDTO> getPartitions();
+
+    String archivePartition(YearMonth month);
+}
@@ -1,15 +1,22 @@
 package uz.qarzdorlar_ai.service.transactions.embedded;
 
 import uz.qarzdorlar_ai.model.User;
+import uz.qarzdorlar_ai.payload.CursorPageDTO;
 import uz.qarzdorlar_ai.payload.PageDTO;
+import uz.qarzdorlar_ai.payload.TransactionBatchResultDTO;
 import uz.qarzdorlar_ai.payload.TransactionCreateDTO;
 import uz.qarzdorlar_ai.payload.TransactionDTO;
+import uz.qarzdorlar_ai.payload.TransactionFilterDTO;
 import uz.qarzdorlar_ai.payload.TransactionUpdateDTO;
 
+import java.util.List;
+
 public interface TransactionService {
 
     TransactionDTO createTransaction(TransactionCreateDTO dto, User staffUser);
 
+    TransactionBatchResultDTO createTransactionBatch(List<TransactionCreateDTO> dtos, User staffUser);
+
     TransactionDTO updateTransaction(Long id, TransactionUpdateDTO dto, User staffUser);
 
     void deleteTransaction(Long id, User staffUser);
@@ -20,4 +27,10 @@ public interface TransactionService {
 
     PageDTO<TransactionDTO> getAllTransactionByClientId(Long clientId, Integer page, Integer size);
 
+    PageDTO<TransactionDTO> searchTransactions(TransactionFilterDTO filter, Integer page, Integer size);
+
+    CursorPageDTO<TransactionDTO> getTransactionsAfter(String cursor, Integer size);
+
+    CursorPageDTO<TransactionDTO> getTransactionsByClientIdAfter(Long clientId, String cursor, Integer size);
+
 }
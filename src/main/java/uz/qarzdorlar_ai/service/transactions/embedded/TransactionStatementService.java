@@ -0,0 +1,16 @@
+package uz.qarzdorlar_ai.service.transactions.embedded;
+
+import uz.qarzdorlar_ai.enums.StatementExportFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface TransactionStatementService {
+
+    /**
+     * @param beforeWrite client topilgandan keyin, birinchi bayt yozilishidan oldin chaqiriladi (response headerlari uchun)
+     */
+    void exportClientStatement(Long clientId, StatementExportFormat format, OutputStream outputStream,
+                               Runnable beforeWrite) throws IOException;
+
+}
@@ -3,8 +3,8 @@ package uz.qarzdorlar_ai.specification;
 import org.springframework.data.jpa.domain.Specification;
 import jakarta.persistence.criteria.*;
 import uz.qarzdorlar_ai.model.Brand;
-import uz.qarzdorlar_ai.model.Category;
 import uz.qarzdorlar_ai.model.Product;
+import uz.qarzdorlar_ai.model.embedded.AbsDateEntity;
 import uz.qarzdorlar_ai.payload.ProductFilterDTO;
 
 import java.util.ArrayList;
@@ -16,24 +16,24 @@ public class ProductSpecification {
         return (Root<Product> root, CriteriaQuery<?> query, CriteriaBuilder cb) -> {
             List<Predicate> predicates = new ArrayList<>();
 
-            // 1. Umumiy "filter" (Global search across multiple columns)
-            if (criteria.getFilter() != null && !criteria.getFilter().isBlank()) {
-                String pattern = "%" + criteria.getFilter().toLowerCase() + "%";
-                
-                // Joinlar orqali brand va category nomidan ham qidirish
-                Join<Product, Brand> brandJoin = root.join(Product.Fields.brand, JoinType.LEFT);
-                Join<Product, Category> categoryJoin = root.join(Product.Fields.category, JoinType.LEFT);
+            // 1. Umumiy "filter": search_text (name, cpu, gpu, ram, storage, modelCode, brand, category) bo'yicha.
+            // Full-text (so'zlar) yoki substring (trigram indeks) - ikkalasi ham GIN indeksdan o'qiladi
+            if (hasFilter(criteria)) {
+                String text = criteria.getFilter().trim().toLowerCase();
+                Expression<String> searchText = root.get(Product.Fields.searchText);
 
                 predicates.add(cb.or(
-                        cb.like(cb.lower(root.get(Product.Fields.name)), pattern),
-                        cb.like(cb.lower(root.get(Product.Fields.cpu)), pattern),
-                        cb.like(cb.lower(root.get(Product.Fields.gpu)), pattern),
-                        cb.like(cb.lower(root.get(Product.Fields.ram)), pattern),
-                        cb.like(cb.lower(root.get(Product.Fields.storage)), pattern),
-                        cb.like(cb.lower(root.get(Product.Fields.modelCode)), pattern),
-                        cb.like(cb.lower(brandJoin.get(Brand.Fields.name)), pattern),
-                        cb.like(cb.lower(categoryJoin.get(Category.Fields.name)), pattern)
+                        cb.isTrue(cb.function("fts_match", Boolean.class, searchText, cb.literal(text))),
+                        cb.like(searchText, "%" + text + "%")
                 ));
+
+                // Relevance bo'yicha tartib faqat entity so'rovida (count va facet so'rovlarida order kerak emas)
+                if (Product.class.equals(query.getResultType())) {
+                    query.orderBy(
+                            cb.desc(cb.function("fts_rank", Float.class, searchText, cb.literal(text))),
+                            cb.desc(root.get(AbsDateEntity.Fields.createdAt))
+                    );
+                }
             }
 
             // 2. Specific text fields
@@ -79,6 +79,10 @@ public class ProductSpecification {
         };
     }
 
+    public static boolean hasFilter(ProductFilterDTO criteria) {
+        return criteria.getFilter() != null && !criteria.getFilter().isBlank();
+    }
+
     private static void addLikePredicate(List<Predicate> predicates, CriteriaBuilder cb, Expression<String> expression, String value) {
         if (value != null && !value.isBlank()) {
             predicates.add(cb.like(cb.lower(expression), "%" + value.toLowerCase() + "%"));
@@ -0,0 +1,74 @@
+package uz.qarzdorlar_ai.specification;
+
+import org.springframework.data.jpa.domain.Specification;
+import jakarta.persistence.criteria.*;
+import uz.qarzdorlar_ai.model.Transaction;
+import uz.qarzdorlar_ai.model.embedded.AbsDateEntity;
+import uz.qarzdorlar_ai.payload.TransactionFilterDTO;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+public class TransactionSpecification {
+
+    public static Specification<Transaction> build(TransactionFilterDTO criteria) {
+        return (Root<Transaction> root, CriteriaQuery<?> query, CriteriaBuilder cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+
+            // 1. Enum filters (type, status, currency)
+            if (criteria.getType() != null) {
+                predicates.add(cb.equal(root.get(Transaction.Fields.type), criteria.getType()));
+            }
+            if (criteria.getStatus() != null) {
+                predicates.add(cb.equal(root.get(Transaction.Fields.status), criteria.getStatus()));
+            }
+            if (criteria.getTransactionCurrency() != null) {
+                predicates.add(cb.equal(root.get(Transaction.Fields.transactionCurrency), criteria.getTransactionCurrency()));
+            }
+
+            // 2. Relations (IDs) - join qilmaymiz, FK ustunining o'zi solishtiriladi
+            if (criteria.getClientId() != null) {
+                predicates.add(cb.or(
+                        cb.equal(root.get(Transaction.Fields.client).get("id"), criteria.getClientId()),
+                        cb.equal(root.get(Transaction.Fields.receiverClient).get("id"), criteria.getClientId())
+                ));
+            }
+            if (criteria.getCreatedById() != null) {
+                predicates.add(cb.equal(root.get(Transaction.Fields.createdBy).get("id"), criteria.getCreatedById()));
+            }
+
+            // 3. Date range: [fromDate 00:00, toDate + 1 kun 00:00) - indeksga mos yarim ochiq oraliq
+            Path<Timestamp> createdAt = root.get(AbsDateEntity.Fields.createdAt);
+            if (criteria.getFromDate() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(createdAt, Timestamp.valueOf(criteria.getFromDate().atStartOfDay())));
+            }
+            if (criteria.getToDate() != null) {
+                predicates.add(cb.lessThan(createdAt, Timestamp.valueOf(criteria.getToDate().plusDays(1).atStartOfDay())));
+            }
+
+            // 4. Amount ranges
+            addRangePredicate(predicates, cb, root.get(Transaction.Fields.amount), criteria.getMinAmount(), criteria.getMaxAmount());
+            addRangePredicate(predicates, cb, root.get(Transaction.Fields.usdAmount), criteria.getMinUsdAmount(), criteria.getMaxUsdAmount());
+
+            // 5. Text search
+            if (criteria.getDescription() != null && !criteria.getDescription().isBlank()) {
+                predicates.add(cb.like(cb.lower(root.get(Transaction.Fields.description)),
+                        "%" + criteria.getDescription().toLowerCase() + "%"));
+            }
+
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    private static void addRangePredicate(List<Predicate> predicates, CriteriaBuilder cb, Expression<BigDecimal> expression,
+                                          BigDecimal min, BigDecimal max) {
+        if (min != null) {
+            predicates.add(cb.greaterThanOrEqualTo(expression, min));
+        }
+        if (max != null) {
+            predicates.add(cb.lessThanOrEqualTo(expression, max));
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package uz.qarzdorlar_ai;
+
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.core.annotation.AliasFor;
+import org.springframework.test.context.TestPropertySource;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Haqiqiy PostgreSQL dagi {@link DataJpaTest}: TEST_DB_URL, TEST_DB_USERNAME, TEST_DB_PASSWORD dan ulanadi,
+ * embedded baza bilan almashtirilmaydi va TEST_DB_URL berilmasa test o'tkazib yuboriladi.
+ * Testga xos Hibernate sozlamalari {@link #properties()} da; parallel testlar Hikari pool hajmini
+ * o'zining {@code @DynamicPropertySource} ida beradi.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Inherited
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.datasource.url=${TEST_DB_URL}",
+        "spring.datasource.username=${TEST_DB_USERNAME}",
+        "spring.datasource.password=${TEST_DB_PASSWORD}"
+})
+@EnabledIfEnvironmentVariable(named = "TEST_DB_URL", matches = ".+")
+public @interface PostgresDataJpaTest {
+
+    @AliasFor(annotation = DataJpaTest.class)
+    String[] properties() default {};
+}
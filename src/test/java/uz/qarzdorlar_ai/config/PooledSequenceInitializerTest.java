@@ -0,0 +1,88 @@
+package uz.qarzdorlar_ai.config;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import uz.qarzdorlar_ai.PostgresDataJpaTest;
+import uz.qarzdorlar_ai.model.Product;
+import uz.qarzdorlar_ai.repository.ProductRepository;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * IDENTITY davridan qolgan (sequence dan katta id li) qator bor jadvalda sequence tekislangandan keyin
+ * 10 000 ta batch insert: id lar takrorlanmasligi, qo'shilish tartibida o'sishi, eski qator bilan to'qnashmasligi
+ * va insertlar batch / pooled sequence bilan ketishi (statement soni qatorlar sonidan ancha kam) tekshiriladi.
+ * Test tranzaksiyasi rollback bo'ladi, sequence esa faqat oldinga suriladi.
+ * PostgreSQL kerak ({@link PostgresDataJpaTest}).
+ */
+@PostgresDataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.jdbc.batch_size=50"
+})
+class PooledSequenceInitializerTest {
+
+    private static final int ROWS = 10_000;
+
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void batchedInsertsGetUniqueIncreasingIdsAfterAlignment() {
+        Long legacyId = jdbcTemplate.queryForObject(
+                "SELECT GREATEST((SELECT COALESCE(MAX(id), 0) FROM product), nextval('product_seq')) + 1000", Long.class);
+        jdbcTemplate.update("INSERT INTO product (id, name, raw_data, deleted) VALUES (?, 'legacy', ?, false)",
+                legacyId, "sequence-test-legacy-" + UUID.randomUUID());
+
+        new PooledSequenceInitializer(dataSource).afterPropertiesSet();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<Long> ids = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            ids.add(productRepository.save(newProduct(i)).getId());
+        }
+        entityManager.flush(); // to'qnashuv bo'lsa shu yerda PK xatosi
+
+        assertEquals(ROWS, new HashSet<>(ids).size(), "ids must be unique");
+        for (int i = 1; i < ids.size(); i++) {
+            assertTrue(ids.get(i) > ids.get(i - 1), "ids must increase in insert order at " + i);
+        }
+        assertFalse(ids.contains(legacyId));
+        assertTrue(ids.get(ROWS - 1) > legacyId, "sequence must continue above the legacy row");
+
+        // IDENTITY bo'lsa har qator uchun alohida INSERT bo'lardi
+        long statements = statistics.getPrepareStatementCount();
+        assertTrue(statements < ROWS / 10, "inserts are not batched: " + statements + " statements for " + ROWS + " rows");
+    }
+
+    private Product newProduct(int i) {
+        Product product = new Product();
+        product.setName("sequence-test-" + i);
+        product.setPriceUsd(BigDecimal.ONE);
+        product.setRawData("sequence-test-" + UUID.randomUUID());
+        return product;
+    }
+}
@@ -0,0 +1,114 @@
+package uz.qarzdorlar_ai.config.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+import uz.qarzdorlar_ai.enums.Role;
+import uz.qarzdorlar_ai.model.User;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Token versiyasi cache dagi bilan mos kelgandagina autentifikatsiya qilinadi; qolgan hollarda so'rov
+ * anonim davom etadi, yaroqsiz token esa exception resolver ga beriladi.
+ */
+class JwtAuthenticationFilterTest {
+
+    private JwtService jwtService;
+    private TokenVersionCache tokenVersionCache;
+    private HandlerExceptionResolver handlerExceptionResolver;
+    private JwtAuthenticationFilter filter;
+    private User principal;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = mock(JwtService.class);
+        tokenVersionCache = mock(TokenVersionCache.class);
+        handlerExceptionResolver = mock(HandlerExceptionResolver.class);
+        filter = new JwtAuthenticationFilter(jwtService, tokenVersionCache, handlerExceptionResolver);
+
+        principal = new User();
+        principal.setId(1L);
+        principal.setUsername("admin");
+        principal.setRole(Role.ADMIN);
+        principal.setTokenVersion(2);
+        Claims claims = mock(Claims.class);
+        when(jwtService.parseClaims("token")).thenReturn(claims);
+        when(jwtService.toPrincipal(claims)).thenReturn(principal);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void currentTokenVersionIsAuthenticated() throws Exception {
+        when(tokenVersionCache.isCurrent(1L, 2)).thenReturn(true);
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(bearer("token"), new MockHttpServletResponse(), chain);
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertNotNull(authentication);
+        assertSame(principal, authentication.getPrincipal());
+        assertNotNull(chain.getRequest());
+    }
+
+    @Test
+    void revokedTokenContinuesUnauthenticated() throws Exception {
+        when(tokenVersionCache.isCurrent(1L, 2)).thenReturn(false);
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(bearer("token"), new MockHttpServletResponse(), chain);
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        assertNotNull(chain.getRequest());
+    }
+
+    @Test
+    void requestWithoutBearerIsNotParsed() throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(new MockHttpServletRequest(), new MockHttpServletResponse(), chain);
+
+        verifyNoInteractions(jwtService, tokenVersionCache);
+        assertNotNull(chain.getRequest());
+    }
+
+    @Test
+    void invalidTokenIsHandedToExceptionResolver() throws Exception {
+        ExpiredJwtException expired = new ExpiredJwtException(null, null, "expired");
+        when(jwtService.parseClaims("expired")).thenThrow(expired);
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletRequest request = bearer("expired");
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        verify(handlerExceptionResolver).resolveException(eq(request), any(), eq(null), eq(expired));
+        verifyNoInteractions(tokenVersionCache);
+        assertNull(chain.getRequest());
+    }
+
+    private MockHttpServletRequest bearer(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+}
@@ -0,0 +1,156 @@
+package uz.qarzdorlar_ai.config.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+import uz.qarzdorlar_ai.config.properties.RateLimitProperties;
+import uz.qarzdorlar_ai.exception.TooManyRequestsException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isA;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Token bucket hisobi (aniq vaqt bilan), bucket map ning maxBuckets chegarasi va idle eviction.
+ */
+class RateLimitFilterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private RateLimitProperties.Group group;
+
+    @BeforeEach
+    void setUp() {
+        group = new RateLimitProperties.Group();
+        group.setName("auth");
+        group.setPatterns(List.of("/api/auth/**"));
+        group.setCapacity(3);
+        group.setRefillTokens(1);
+        group.setRefillPeriod(Duration.ofSeconds(1));
+    }
+
+    @Test
+    void burstUpToCapacityThenWaitForRefill() {
+        RateLimitFilter.TokenBucket bucket = new RateLimitFilter.TokenBucket(3, 0);
+
+        assertEquals(2, bucket.tryConsume(group, 0).remaining());
+        assertEquals(1, bucket.tryConsume(group, 0).remaining());
+        RateLimitFilter.Probe last = bucket.tryConsume(group, 0);
+        assertTrue(last.consumed());
+        assertEquals(0, last.remaining());
+        assertEquals(3 * SECOND, last.nanosToFull());
+
+        RateLimitFilter.Probe rejected = bucket.tryConsume(group, 0);
+        assertFalse(rejected.consumed());
+        assertEquals(SECOND, rejected.nanosToWait());
+
+        // Yarim token to'lgan - hali yetmaydi, kutish ham yarmiga qisqaradi
+        RateLimitFilter.Probe halfway = bucket.tryConsume(group, SECOND / 2);
+        assertFalse(halfway.consumed());
+        assertEquals(SECOND / 2, halfway.nanosToWait());
+
+        assertTrue(bucket.tryConsume(group, SECOND).consumed());
+        assertFalse(bucket.tryConsume(group, SECOND).consumed());
+    }
+
+    @Test
+    void refillIsCappedAtCapacity() {
+        RateLimitFilter.TokenBucket bucket = new RateLimitFilter.TokenBucket(3, 0);
+        bucket.tryConsume(group, 0);
+
+        RateLimitFilter.Probe probe = bucket.tryConsume(group, 100 * SECOND);
+
+        assertTrue(probe.consumed());
+        assertEquals(2, probe.remaining());
+        assertEquals(SECOND, probe.nanosToFull());
+    }
+
+    @Test
+    void rejectedProbeDoesNotSpendTokens() {
+        RateLimitFilter.TokenBucket bucket = new RateLimitFilter.TokenBucket(1, 0);
+        bucket.tryConsume(group, 0);
+
+        for (int i = 0; i < 5; i++) {
+            assertFalse(bucket.tryConsume(group, SECOND / 10).consumed());
+        }
+
+        assertTrue(bucket.tryConsume(group, SECOND).consumed());
+    }
+
+    @Test
+    void leastRecentlyUsedBucketIsDroppedAboveMaxBuckets() throws Exception {
+        HandlerExceptionResolver resolver = mock(HandlerExceptionResolver.class);
+        RateLimitFilter filter = filter(2, Duration.ofMinutes(10), resolver);
+
+        assertNotNull(request(filter, "10.0.0.1"));
+        assertNull(request(filter, "10.0.0.1"));
+        request(filter, "10.0.0.2");
+        request(filter, "10.0.0.3");
+
+        // 10.0.0.1 bucket i chiqarilgan - yangi, to'la bucket bilan boshlanadi
+        assertNotNull(request(filter, "10.0.0.1"));
+        verify(resolver, times(1)).resolveException(any(), any(), any(), isA(TooManyRequestsException.class));
+    }
+
+    @Test
+    void overflowTrimsToNinetyPercentOfMaxBuckets() throws Exception {
+        RateLimitFilter filter = filter(20, Duration.ofMinutes(10), mock(HandlerExceptionResolver.class));
+
+        for (int i = 1; i <= 21; i++) {
+            assertNotNull(request(filter, "10.0.0." + i));
+        }
+
+        // 21 > 20: eng eski 3 tasi chiqarilgan (18 qoladi), qolganlarining token i sarflangan
+        for (int i = 4; i <= 21; i++) {
+            assertNull(request(filter, "10.0.0." + i), "10.0.0." + i + " should keep its bucket");
+        }
+        for (int i = 1; i <= 3; i++) {
+            assertNotNull(request(filter, "10.0.0." + i), "10.0.0." + i + " should start with a fresh bucket");
+        }
+    }
+
+    @Test
+    void idleBucketsAreEvicted() throws Exception {
+        RateLimitFilter filter = filter(100, Duration.ZERO, mock(HandlerExceptionResolver.class));
+        assertNotNull(request(filter, "10.0.0.1"));
+        assertNull(request(filter, "10.0.0.1"));
+
+        Thread.sleep(1);
+        filter.evictIdleBuckets();
+
+        assertNotNull(request(filter, "10.0.0.1"));
+    }
+
+    private RateLimitFilter filter(int maxBuckets, Duration idleTimeout, HandlerExceptionResolver resolver) {
+        group.setCapacity(1);
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setMaxBuckets(maxBuckets);
+        properties.setIdleTimeout(idleTimeout);
+        properties.setGroups(List.of(group));
+        return new RateLimitFilter(properties, resolver);
+    }
+
+    // null - so'rov rad etildi (zanjirga o'tmadi)
+    private Object request(RateLimitFilter filter, String remoteAddr) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/login");
+        request.setServletPath("/api/auth/login");
+        request.setRemoteAddr(remoteAddr);
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+        return chain.getRequest();
+    }
+}
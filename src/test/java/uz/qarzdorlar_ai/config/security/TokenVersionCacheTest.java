@@ -0,0 +1,113 @@
+package uz.qarzdorlar_ai.config.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import uz.qarzdorlar_ai.repository.UserRepository;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Cache miss bazadan o'qiladi (bir marta), o'chirilgan user eslab qolinadi, tranzaksiya ichidagi revoke faqat
+ * commit dan keyin ko'rinadi.
+ */
+class TokenVersionCacheTest {
+
+    private UserRepository userRepository;
+    private TokenVersionCache cache;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        when(userRepository.findAllTokenVersions()).thenReturn(List.<Object[]>of(new Object[]{1L, 2L}));
+        cache = new TokenVersionCache(userRepository);
+        cache.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void loadedVersionIsCheckedWithoutDatabase() {
+        assertTrue(cache.isCurrent(1L, 2));
+        assertFalse(cache.isCurrent(1L, 1));
+        verify(userRepository, never()).findTokenVersionById(anyLong());
+    }
+
+    @Test
+    void userCreatedOnAnotherInstanceIsLoadedOnMiss() {
+        when(userRepository.findTokenVersionById(7L)).thenReturn(Optional.of(0L));
+
+        assertTrue(cache.isCurrent(7L, 0));
+        assertTrue(cache.isCurrent(7L, 0));
+
+        verify(userRepository, times(1)).findTokenVersionById(7L);
+    }
+
+    @Test
+    void deletedUserIsRejectedWithoutRepeatedLookups() {
+        when(userRepository.findTokenVersionById(8L)).thenReturn(Optional.empty());
+
+        assertFalse(cache.isCurrent(8L, 0));
+        assertFalse(cache.isCurrent(8L, 5));
+
+        verify(userRepository, times(1)).findTokenVersionById(8L);
+    }
+
+    @Test
+    void evictedUserIsRejected() {
+        cache.evict(1L);
+
+        assertFalse(cache.isCurrent(1L, 2));
+        assertFalse(cache.isCurrent(1L, 3));
+        verify(userRepository, never()).findTokenVersionById(anyLong());
+    }
+
+    @Test
+    void newerVersionFromAnotherInstanceRevokesOlderTokens() {
+        assertTrue(cache.isCurrent(1L, 3));
+
+        assertFalse(cache.isCurrent(1L, 2));
+    }
+
+    @Test
+    void revokeInsideTransactionAppliesAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        cache.register(1L, 3);
+
+        // commit dan oldin eski token hali ishlaydi
+        assertTrue(cache.isCurrent(1L, 2));
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        assertFalse(cache.isCurrent(1L, 2));
+        assertTrue(cache.isCurrent(1L, 3));
+    }
+
+    @Test
+    void rolledBackRevokeIsNotApplied() {
+        TransactionSynchronizationManager.initSynchronization();
+        cache.register(1L, 3);
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        TransactionSynchronizationManager.clearSynchronization();
+
+        assertTrue(cache.isCurrent(1L, 2));
+    }
+}
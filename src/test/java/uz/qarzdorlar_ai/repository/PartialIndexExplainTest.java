@@ -0,0 +1,253 @@
+package uz.qarzdorlar_ai.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import uz.qarzdorlar_ai.PostgresDataJpaTest;
+import uz.qarzdorlar_ai.config.PartialIndexInitializer;
+import uz.qarzdorlar_ai.config.ProductSearchInitializer;
+import uz.qarzdorlar_ai.enums.CurrencyCode;
+import uz.qarzdorlar_ai.enums.TransactionType;
+import uz.qarzdorlar_ai.payload.ProductFilterDTO;
+import uz.qarzdorlar_ai.payload.TransactionFilterDTO;
+import uz.qarzdorlar_ai.specification.ProductSpecification;
+import uz.qarzdorlar_ai.specification.TransactionSpecification;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Repository metodlari haqiqatda yuboradigan SQL ({@link StatementInspector} ushlaydi, @SQLRestriction sharti bilan)
+ * uchun EXPLAIN rejasida kutilgan partial indeks ishlatilishi va Seq Scan yo'qligi tekshiriladi.
+ * Parametrlar {@code PREPARE} / {@code EXPLAIN EXECUTE} bilan generic planda (qiymatdan qat'i nazar) baholanadi.
+ * {@code enable_seqscan = off} bo'lganda ham Seq Scan tanlansa - so'rovga mos indeks yo'q degani,
+ * shuning uchun test bo'sh bazada ham ishlaydi.
+ * PostgreSQL kerak ({@link PostgresDataJpaTest}).
+ */
+@PostgresDataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "uz.qarzdorlar_ai.repository.PartialIndexExplainTest$CapturingInspector")
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // CREATE INDEX CONCURRENTLY tranzaksiyadan tashqarida
+class PartialIndexExplainTest {
+
+    private static final Timestamp CURSOR = Timestamp.valueOf("2024-01-01 00:00:00");
+
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private ClientRepository clientRepository;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private BrandRepository brandRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    private SingleConnectionDataSource explainDataSource;
+    private JdbcTemplate explainJdbcTemplate;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        // Idempotent: mavjud (valid) indekslar qayta qurilmaydi
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        new PartialIndexInitializer(jdbcTemplate).run();
+        new ProductSearchInitializer(jdbcTemplate).run();
+
+        explainDataSource = new SingleConnectionDataSource(dataSource.getConnection(), true);
+        explainJdbcTemplate = new JdbcTemplate(explainDataSource);
+        explainJdbcTemplate.execute("SET enable_seqscan = off");
+        explainJdbcTemplate.execute("SET plan_cache_mode = force_generic_plan");
+    }
+
+    @AfterEach
+    void tearDown() {
+        explainJdbcTemplate.execute("DEALLOCATE ALL");
+        explainDataSource.destroy();
+    }
+
+    static Stream<Arguments> repositoryCalls() {
+        return Stream.of(
+                // ClientRepository
+                call("findAllActiveIds", List.of("idx_client_live_id"),
+                        test -> test.clientRepository.findAllActiveIds()),
+                call("findBalanceChecks", List.of("idx_transaction_live_client", "idx_transaction_live_receiver"),
+                        test -> test.clientRepository.findBalanceChecks(List.of(1L, 2L, 3L))),
+
+                // ProductRepository / ProductSpecification (ProductServiceImpl dagi sahifalash bilan)
+                call("existsByRawData", List.of("idx_product_live_raw_data_md5"),
+                        test -> test.productRepository.existsByRawData("x")),
+                call("productSearchByBrand", List.of("idx_product_live_brand"),
+                        test -> test.productRepository.findAll(ProductSpecification.build(productFilter(1L, null, null)),
+                                PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "createdAt")))),
+                call("productSearchByCategory", List.of("idx_product_live_category"),
+                        test -> test.productRepository.findAll(ProductSpecification.build(productFilter(null, 1L, null)),
+                                PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "createdAt")))),
+                call("productFreeTextSearch", List.of("idx_product_live_search_fts", "idx_product_live_search_trgm"),
+                        test -> test.productRepository.findAll(ProductSpecification.build(productFilter(null, null, "hp omnistudio")),
+                                PageRequest.of(0, 10))),
+
+                // BrandRepository / CategoryRepository (brand.name - unique constraint indeksi)
+                call("brandFindByName", List.of(),
+                        test -> test.brandRepository.findByName("HP")),
+                call("categoryFindByName", List.of("idx_category_live_name"),
+                        test -> test.categoryRepository.findByName("Laptop")),
+
+                // UserRepository (username unique constraint indeksi ham mos - qaysi biri tanlanishi bo'sh jadvalda tasodifiy)
+                call("findByUsername", List.of(),
+                        test -> test.userRepository.findByUsername("admin")),
+                call("findAllowedUserByUsername", List.of(),
+                        test -> test.userRepository.findAllowedUserByUsername("admin")),
+
+                // TransactionRepository
+                call("findAllByClientOrReceiver", List.of("idx_transaction_live_client", "idx_transaction_live_receiver"),
+                        test -> test.transactionRepository.findAllByClientOrReceiver(1L,
+                                PageRequest.of(0, 10, Sort.by("createdAt")))),
+                // UNION: har bir tarmoq o'z indeksidan
+                call("findClientPageAfter", List.of("idx_transaction_live_client", "idx_transaction_live_receiver"),
+                        test -> test.transactionRepository.findClientPageAfter(1L, CURSOR, 0L, 11)),
+                call("findPageAfter", List.of("idx_transaction_live_created"),
+                        test -> test.transactionRepository.findPageAfter(CURSOR, 0L, 11)),
+                call("findItemViews", List.of("idx_transaction_item_live_transaction"),
+                        test -> test.transactionRepository.findItemViews(List.of(1L, 2L, 3L))),
+
+                // TransactionSpecification (TransactionServiceImpl.search dagi tartib bilan)
+                call("searchByTypeAndCurrency", List.of("idx_transaction_live_type"),
+                        test -> test.searchTransactions(transactionFilter(filter -> {
+                            filter.setType(TransactionType.TRANSFER);
+                            filter.setTransactionCurrency(CurrencyCode.AED);
+                            filter.setFromDate(LocalDate.of(2024, 1, 1));
+                            filter.setToDate(LocalDate.of(2024, 1, 31));
+                        }))),
+                call("searchByCurrency", List.of("idx_transaction_live_currency"),
+                        test -> test.searchTransactions(transactionFilter(filter ->
+                                filter.setTransactionCurrency(CurrencyCode.AED)))),
+                call("searchByCreator", List.of("idx_transaction_live_creator"),
+                        test -> test.searchTransactions(transactionFilter(filter -> {
+                            filter.setCreatedById(1L);
+                            filter.setFromDate(LocalDate.of(2024, 1, 1));
+                        }))),
+                call("searchByUsdAmount", List.of("idx_transaction_live_usd_amount"),
+                        test -> test.searchTransactions(transactionFilter(filter -> {
+                            filter.setMinUsdAmount(new BigDecimal("1000"));
+                            filter.setMaxUsdAmount(new BigDecimal("5000"));
+                        }))),
+                call("searchByAmount", List.of("idx_transaction_live_amount"),
+                        test -> test.searchTransactions(transactionFilter(filter -> {
+                            filter.setMinAmount(new BigDecimal("1000"));
+                            filter.setMaxAmount(new BigDecimal("5000"));
+                        }))),
+                call("searchByDescription", List.of("idx_transaction_live_description_trgm"),
+                        test -> test.searchTransactions(transactionFilter(filter ->
+                                filter.setDescription("omnistudio"))))
+        );
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("repositoryCalls")
+    void generatedQueryUsesPartialIndex(String name, List<String> expectedIndexes, RepositoryCall repositoryCall) {
+        CapturingInspector.STATEMENTS.clear();
+        repositoryCall.run(this);
+        List<String> queries = new ArrayList<>(CapturingInspector.STATEMENTS);
+        assertFalse(queries.isEmpty(), name + " issued no SQL");
+
+        String plan = queries.stream().map(this::explain).collect(Collectors.joining("\n"));
+        String details = "\nSQL:\n" + String.join("\n", queries) + "\nPlan:\n" + plan;
+
+        assertFalse(plan.contains("Seq Scan"), name + " falls back to a sequential scan" + details);
+        for (String index : expectedIndexes) {
+            assertTrue(plan.contains(index), name + " does not use " + index + details);
+        }
+    }
+
+    private void searchTransactions(TransactionFilterDTO filter) {
+        transactionRepository.findAll(TransactionSpecification.build(filter),
+                PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "createdAt", "id")));
+    }
+
+    // '?' -> $1..$n, PREPARE va NULL argumentlar bilan EXPLAIN EXECUTE (generic plan)
+    private String explain(String sql) {
+        StringBuilder numbered = new StringBuilder();
+        int parameters = 0;
+        boolean inLiteral = false;
+        for (char ch : sql.toCharArray()) {
+            if (ch == '\'') {
+                inLiteral = !inLiteral;
+            }
+            if (ch == '?' && !inLiteral) {
+                numbered.append('$').append(++parameters);
+            } else {
+                numbered.append(ch);
+            }
+        }
+
+        explainJdbcTemplate.execute("DEALLOCATE ALL");
+        explainJdbcTemplate.execute("PREPARE explained AS " + numbered);
+        String arguments = parameters == 0 ? "" : "(" + String.join(", ", Collections.nCopies(parameters, "NULL")) + ")";
+        return String.join("\n", explainJdbcTemplate.queryForList("EXPLAIN EXECUTE explained" + arguments, String.class));
+    }
+
+    private static Arguments call(String name, List<String> expectedIndexes, RepositoryCall repositoryCall) {
+        return Arguments.of(name, expectedIndexes, repositoryCall);
+    }
+
+    private static ProductFilterDTO productFilter(Long brandId, Long categoryId, String text) {
+        ProductFilterDTO filter = new ProductFilterDTO();
+        filter.setBrandId(brandId);
+        filter.setCategoryId(categoryId);
+        filter.setFilter(text);
+        return filter;
+    }
+
+    private static TransactionFilterDTO transactionFilter(Consumer<TransactionFilterDTO> customizer) {
+        TransactionFilterDTO filter = new TransactionFilterDTO();
+        customizer.accept(filter);
+        return filter;
+    }
+
+    @FunctionalInterface
+    interface RepositoryCall {
+        void run(PartialIndexExplainTest test);
+    }
+
+    /**
+     * Hibernate yuborgan SELECT larni yig'adi (DDL va boshqa statementlar kerak emas).
+     */
+    public static class CapturingInspector implements StatementInspector {
+
+        static final List<String> STATEMENTS = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public String inspect(String sql) {
+            String head = sql.stripLeading().toLowerCase();
+            if (head.startsWith("select") || head.startsWith("with") || head.startsWith("(")) {
+                STATEMENTS.add(sql);
+            }
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package uz.qarzdorlar_ai.scheduling;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import uz.qarzdorlar_ai.enums.OutboxEventType;
+import uz.qarzdorlar_ai.model.OutboxEvent;
+import uz.qarzdorlar_ai.service.outbox.OutboxEventConsumer;
+import uz.qarzdorlar_ai.service.outbox.OutboxService;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Relay: claim, consumerlar bo'yicha yetkazish belgisi va faqat xato bergan consumerlarni qayta chaqirish.
+ * Backoff hisobi {@code OutboxServiceImplTest} da.
+ */
+class OutboxRelayTest {
+
+    private static final long EVENT_ID = 1L;
+
+    private OutboxService outboxService;
+    private List<OutboxEventConsumer> consumers;
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        outboxService = mock(OutboxService.class);
+        consumers = new ArrayList<>();
+        // lease 1 s -> consumer javobi 500 ms kutiladi
+        relay = new OutboxRelay(outboxService, consumers, 10, 1, 4, 7);
+        when(outboxService.claimBatch(anyInt(), any(Duration.class))).thenReturn(List.of(event()));
+        when(outboxService.findDeliveredConsumers(any())).thenReturn(Map.of());
+    }
+
+    @AfterEach
+    void tearDown() {
+        relay.shutdown();
+    }
+
+    @Test
+    void claimFailureDispatchesNothing() {
+        TestConsumer consumer = add(new TestConsumer("dashboard"));
+        when(outboxService.claimBatch(anyInt(), any(Duration.class))).thenThrow(new IllegalStateException("db down"));
+
+        relay.relay();
+
+        assertEquals(0, consumer.calls.get());
+        verify(outboxService, never()).markSent(anyLong());
+        verify(outboxService, never()).markFailed(anyLong(), anyString());
+    }
+
+    @Test
+    void eventIsSentWhenEverySupportingConsumerSucceeds() {
+        TestConsumer dashboard = add(new TestConsumer("dashboard"));
+        TestConsumer telegram = add(new TestConsumer("telegram"));
+        TestConsumer clientsOnly = add(new TestConsumer("clients", OutboxEventType.CLIENT_CREATED));
+
+        relay.relay();
+
+        assertEquals(1, dashboard.calls.get());
+        assertEquals(1, telegram.calls.get());
+        assertEquals(0, clientsOnly.calls.get());
+        verify(outboxService).markDelivered(EVENT_ID, "dashboard");
+        verify(outboxService).markDelivered(EVENT_ID, "telegram");
+        verify(outboxService).markSent(EVENT_ID);
+        verify(outboxService, never()).markFailed(anyLong(), anyString());
+    }
+
+    @Test
+    void retryRedeliversOnlyToFailedConsumers() {
+        TestConsumer dashboard = add(new TestConsumer("dashboard"));
+        TestConsumer telegram = add(new TestConsumer("telegram"));
+        telegram.failuresLeft.set(1);
+
+        relay.relay();
+
+        verify(outboxService).markDelivered(EVENT_ID, "dashboard");
+        verify(outboxService, never()).markDelivered(EVENT_ID, "telegram");
+        verify(outboxService).markFailed(eq(EVENT_ID), contains("telegram"));
+        verify(outboxService, never()).markSent(anyLong());
+
+        // Keyingi urinish: dashboard belgisi bazada bor
+        when(outboxService.findDeliveredConsumers(any())).thenReturn(Map.of(EVENT_ID, Set.of("dashboard")));
+        relay.relay();
+
+        assertEquals(1, dashboard.calls.get(), "delivered consumer must not be called again");
+        assertEquals(2, telegram.calls.get());
+        verify(outboxService).markDelivered(EVENT_ID, "telegram");
+        verify(outboxService).markSent(EVENT_ID);
+    }
+
+    @Test
+    void timedOutConsumerIsNotDispatchedAgainWhileStillRunning() {
+        TestConsumer slow = add(new TestConsumer("slow"));
+        slow.release = new CountDownLatch(1);
+
+        relay.relay();
+        verify(outboxService).markFailed(eq(EVENT_ID), contains("slow: timed out"));
+
+        relay.relay();
+        verify(outboxService).markFailed(eq(EVENT_ID), contains("slow: still running"));
+        assertEquals(1, slow.calls.get());
+
+        // Kechikib tugasa ham belgi yoziladi - keyingi urinish uni chaqirmaydi
+        slow.release.countDown();
+        verify(outboxService, timeout(2000)).markDelivered(EVENT_ID, "slow");
+        verify(outboxService, never()).markSent(anyLong());
+    }
+
+    @Test
+    void slowConsumersShareOneDeadlinePerBatch() {
+        TestConsumer slow = add(new TestConsumer("slow"));
+        slow.release = new CountDownLatch(1);
+        List<OutboxEvent> batch = List.of(event(1L), event(2L), event(3L));
+        when(outboxService.claimBatch(anyInt(), any(Duration.class))).thenReturn(batch);
+
+        long started = System.nanoTime();
+        relay.relay();
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+
+        // har bir event alohida kutilganda 3 * 500 ms - lease (1 s) dan oshib ketardi
+        assertTrue(elapsedMs < 1000, "relay took " + elapsedMs + " ms");
+        assertEquals(3, slow.calls.get());
+        for (OutboxEvent event : batch) {
+            verify(outboxService).markFailed(eq(event.getId()), contains("slow: timed out"));
+        }
+        slow.release.countDown();
+    }
+
+    private TestConsumer add(TestConsumer consumer) {
+        consumers.add(consumer);
+        return consumer;
+    }
+
+    private OutboxEvent event() {
+        return event(EVENT_ID);
+    }
+
+    private OutboxEvent event(Long id) {
+        OutboxEvent event = new OutboxEvent();
+        event.setId(id);
+        event.setEventType(OutboxEventType.TRANSACTION_CREATED);
+        event.setAggregateId(10L);
+        event.setPayload("{}");
+        return event;
+    }
+
+    private static class TestConsumer implements OutboxEventConsumer {
+
+        private final String name;
+        private final OutboxEventType supported;
+        private final AtomicInteger calls = new AtomicInteger();
+        private final AtomicInteger failuresLeft = new AtomicInteger();
+        private CountDownLatch release;
+
+        TestConsumer(String name) {
+            this(name, null);
+        }
+
+        TestConsumer(String name, OutboxEventType supported) {
+            this.name = name;
+            this.supported = supported;
+        }
+
+        @Override
+        public String name() {
+            return name;
+        }
+
+        @Override
+        public boolean supports(OutboxEventType eventType) {
+            return supported == null || supported == eventType;
+        }
+
+        @Override
+        public void consume(OutboxEvent event) throws Exception {
+            calls.incrementAndGet();
+            if (release != null) {
+                release.await();
+            }
+            if (failuresLeft.getAndUpdate(left -> Math.max(0, left - 1)) > 0) {
+                throw new IllegalStateException(name + " unavailable");
+            }
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package uz.qarzdorlar_ai.service;
+
+import org.junit.jupiter.api.Test;
+import uz.qarzdorlar_ai.payload.FacetCountDTO;
+import uz.qarzdorlar_ai.payload.ProductFacetsDTO;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * findFacetRows dagi 8 ustunli GROUP BY qatorlari (brand, category, ram, storage, touchScreen, backlit + count)
+ * har bir facet bo'yicha to'g'ri yig'ilishi: natija har bir productni alohida (count = 1) qo'shish bilan bir xil,
+ * null qiymatlar tushib qoladi, tartib - count kamayishi, teng bo'lsa qiymat bo'yicha.
+ */
+class ProductFacetCounterTest {
+
+    private static final String[] BRANDS = {"HP", "Lenovo", "Acer"};
+    private static final String[] CATEGORIES = {"Laptop", "AIO"};
+    private static final String[] RAMS = {"8GB DDR4", "16GB DDR5", null};
+    private static final String[] STORAGES = {"512GB SSD", "1TB SSD", null};
+    private static final Boolean[] FLAGS = {true, false, null};
+
+    @Test
+    void groupedRowsRollUpLikeIndividualProducts() {
+        Random random = new Random(11L);
+        List<Row> products = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            int brand = random.nextInt(BRANDS.length + 1) - 1; // -1: brand yo'q
+            int category = random.nextInt(CATEGORIES.length);
+            products.add(new Row(
+                    brand < 0 ? null : (long) brand + 1, brand < 0 ? null : BRANDS[brand],
+                    (long) category + 1, CATEGORIES[category],
+                    RAMS[random.nextInt(RAMS.length)], STORAGES[random.nextInt(STORAGES.length)],
+                    FLAGS[random.nextInt(FLAGS.length)], FLAGS[random.nextInt(FLAGS.length)], 1));
+        }
+
+        // GROUP BY: bir xil 6 ustunli kombinatsiya bitta qatorga, count bilan
+        Map<Row, Long> grouped = new HashMap<>();
+        products.forEach(product -> grouped.merge(product.withCount(0), 1L, Long::sum));
+
+        ProductFacetCounter fromRows = new ProductFacetCounter();
+        grouped.forEach((row, count) -> row.withCount(count).addTo(fromRows));
+        ProductFacetCounter fromProducts = new ProductFacetCounter();
+        products.forEach(product -> product.addTo(fromProducts));
+
+        ProductFacetsDTO expected = fromProducts.toDTO();
+        ProductFacetsDTO actual = fromRows.toDTO();
+        assertEquals(expected, actual);
+
+        // Har bir facet yig'indisi - shu ustuni null bo'lmagan productlar soni
+        assertEquals(count(products, Row::brandId), total(actual.getBrands()));
+        assertEquals(products.size(), total(actual.getCategories()));
+        assertEquals(count(products, Row::ram), total(actual.getRams()));
+        assertEquals(count(products, Row::storage), total(actual.getStorages()));
+        assertEquals(count(products, Row::touch), total(actual.getTouchScreen()));
+        assertEquals(count(products, Row::backlight), total(actual.getBacklit()));
+    }
+
+    @Test
+    void countsAreSummedPerFacetAndSorted() {
+        ProductFacetCounter counter = new ProductFacetCounter();
+        new Row(1L, "HP", 1L, "Laptop", "16GB DDR5", "1TB SSD", true, false, 3).addTo(counter);
+        new Row(2L, "Lenovo", 1L, "Laptop", "16GB DDR5", "512GB SSD", false, false, 2).addTo(counter);
+        new Row(1L, "HP", 2L, "AIO", "8GB DDR4", null, null, true, 2).addTo(counter);
+        new Row(null, null, 2L, "AIO", null, "512GB SSD", false, null, 4).addTo(counter);
+
+        ProductFacetsDTO facets = counter.toDTO();
+
+        assertEquals(List.of(new FacetCountDTO(1L, "HP", 5), new FacetCountDTO(2L, "Lenovo", 2)), facets.getBrands());
+        assertEquals(List.of(new FacetCountDTO(2L, "AIO", 6), new FacetCountDTO(1L, "Laptop", 5)), facets.getCategories());
+        assertEquals(List.of(new FacetCountDTO(null, "16GB DDR5", 5), new FacetCountDTO(null, "8GB DDR4", 2)), facets.getRams());
+        assertEquals(List.of(new FacetCountDTO(null, "512GB SSD", 6), new FacetCountDTO(null, "1TB SSD", 3)), facets.getStorages());
+        assertEquals(List.of(new FacetCountDTO(null, "false", 6), new FacetCountDTO(null, "true", 3)), facets.getTouchScreen());
+        assertEquals(List.of(new FacetCountDTO(null, "false", 5), new FacetCountDTO(null, "true", 2)), facets.getBacklit());
+    }
+
+    @Test
+    void equalCountsAreOrderedByValue() {
+        ProductFacetCounter counter = new ProductFacetCounter();
+        new Row(2L, "Lenovo", 1L, "Laptop", "8GB DDR4", null, null, null, 2).addTo(counter);
+        new Row(1L, "HP", 1L, "Laptop", "16GB DDR5", null, null, null, 2).addTo(counter);
+
+        ProductFacetsDTO facets = counter.toDTO();
+
+        assertEquals(List.of(new FacetCountDTO(1L, "HP", 2), new FacetCountDTO(2L, "Lenovo", 2)), facets.getBrands());
+        assertEquals(List.of(new FacetCountDTO(null, "16GB DDR5", 2), new FacetCountDTO(null, "8GB DDR4", 2)), facets.getRams());
+    }
+
+    @Test
+    void emptyResultHasEmptyFacets() {
+        ProductFacetsDTO facets = new ProductFacetCounter().toDTO();
+
+        assertEquals(new ProductFacetsDTO(List.of(), List.of(), List.of(), List.of(), List.of(), List.of()), facets);
+    }
+
+    private static long count(List<Row> products, Function<Row, Object> column) {
+        return products.stream().filter(product -> column.apply(product) != null).count();
+    }
+
+    private static long total(List<FacetCountDTO> facet) {
+        return facet.stream().mapToLong(FacetCountDTO::getCount).sum();
+    }
+
+    private record Row(Long brandId, String brandName, Long categoryId, String categoryName,
+                       String ram, String storage, Boolean touch, Boolean backlight, long count) {
+
+        Row withCount(long count) {
+            return new Row(brandId, brandName, categoryId, categoryName, ram, storage, touch, backlight, count);
+        }
+
+        void addTo(ProductFacetCounter counter) {
+            counter.add(brandId, brandName, categoryId, categoryName, ram, storage, touch, backlight, count);
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package uz.qarzdorlar_ai.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import uz.qarzdorlar_ai.config.properties.ProductSearchIndexProperties;
+import uz.qarzdorlar_ai.mapper.ProductMapperImpl;
+import uz.qarzdorlar_ai.model.Brand;
+import uz.qarzdorlar_ai.model.Category;
+import uz.qarzdorlar_ai.model.Product;
+import uz.qarzdorlar_ai.payload.ProductDTO;
+import uz.qarzdorlar_ai.payload.ProductFilterDTO;
+import uz.qarzdorlar_ai.repository.ProductRepository;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Posting list kesishmasi (gallop bilan) oddiy to'plam kesishmasi bilan solishtiriladi; prefiks kengaytmasi,
+ * maxPrefixLength dan uzun so'zlar va o'chirish public search orqali tekshiriladi.
+ */
+class ProductSearchIndexServiceImplTest {
+
+    private final Random random = new Random(7L);
+    private ProductSearchIndexServiceImpl index;
+    private Brand lenovo;
+    private Brand hp;
+    private Category laptop;
+
+    @BeforeEach
+    void setUp() {
+        ProductSearchIndexProperties properties = new ProductSearchIndexProperties();
+        properties.setMaxPrefixLength(5);
+        index = new ProductSearchIndexServiceImpl(mock(ProductRepository.class), new ProductMapperImpl(), properties);
+
+        lenovo = brand(1L, "Lenovo");
+        hp = brand(2L, "HP");
+        laptop = new Category("Laptop");
+        laptop.setId(1L);
+    }
+
+    @Test
+    void gallopReturnsFirstIndexNotLessThanTarget() {
+        for (int sample = 0; sample < 500; sample++) {
+            int[] values = sortedUnique(random.nextInt(200), 1000);
+            int from = values.length == 0 ? 0 : random.nextInt(values.length + 1);
+            int target = random.nextInt(1100) - 50;
+
+            int expected = from;
+            while (expected < values.length && values[expected] < target) {
+                expected++;
+            }
+            assertEquals(expected, ProductSearchIndexServiceImpl.Segment.gallop(values, from, values.length, target),
+                    "sample " + sample + ": target " + target + " from " + from + " in " + Arrays.toString(values));
+        }
+    }
+
+    @Test
+    void gallopRespectsUpperBound() {
+        int[] values = {1, 3, 5, 7, 9, 11};
+
+        assertEquals(3, ProductSearchIndexServiceImpl.Segment.gallop(values, 0, 3, 100));
+        assertEquals(2, ProductSearchIndexServiceImpl.Segment.gallop(values, 2, 6, 4));
+        assertEquals(5, ProductSearchIndexServiceImpl.Segment.gallop(values, 0, 6, 11));
+    }
+
+    @Test
+    void intersectionMatchesSetIntersection() {
+        for (int sample = 0; sample < 500; sample++) {
+            int[] left = sortedUnique(random.nextInt(100), 300);
+            int[] right = sortedUnique(random.nextInt(300), 300);
+            ProductSearchIndexServiceImpl.IntList other = new ProductSearchIndexServiceImpl.IntList();
+            for (int value : right) {
+                other.add(value);
+            }
+
+            TreeSet<Integer> expected = new TreeSet<>();
+            Arrays.stream(left).forEach(expected::add);
+            expected.retainAll(Arrays.stream(right).boxed().toList());
+
+            int[] result = left.clone();
+            int size = ProductSearchIndexServiceImpl.Segment.intersect(result, result.length, other);
+
+            assertArrayEquals(expected.stream().mapToInt(Integer::intValue).toArray(), Arrays.copyOf(result, size),
+                    "sample " + sample);
+        }
+    }
+
+    @Test
+    void everyQueryWordMatchesAsPrefix() {
+        index.rebuild(List.of(
+                product(1L, lenovo, "Lenovo ThinkPad X1", "Intel Core i7-1365U"),
+                product(2L, hp, "HP ProBook 450", "Intel Core i5-1335U"),
+                product(3L, lenovo, "Lenovo IdeaPad 5", "AMD Ryzen 7 7735HS")));
+
+        assertEquals(List.of("Lenovo IdeaPad 5", "Lenovo ThinkPad X1"), names("len"));
+        assertEquals(List.of("Lenovo ThinkPad X1"), names("thinkp LEN"));
+        assertEquals(List.of("HP ProBook 450", "Lenovo ThinkPad X1"), names("intel core"));
+        assertEquals(List.of("Lenovo ThinkPad X1"), names("i7"));
+        assertEquals(List.of(), names("i7 hp"));
+        assertEquals(List.of(), names("macbook"));
+        // Laptop - category nomi
+        assertEquals(3, names("lapt").size());
+    }
+
+    @Test
+    void wordsLongerThanIndexedPrefixAreCheckedInFull() {
+        // maxPrefixLength = 5: "think" kaliti ikkalasida bor, to'liq so'z faqat bittasida
+        index.rebuild(List.of(
+                product(1L, lenovo, "Lenovo ThinkPad E14", null),
+                product(2L, lenovo, "Lenovo ThinkBook 14", null)));
+
+        assertEquals(List.of("Lenovo ThinkBook 14", "Lenovo ThinkPad E14"), names("think"));
+        assertEquals(List.of("Lenovo ThinkPad E14"), names("thinkpad"));
+        assertEquals(List.of(), names("thinkpads"));
+    }
+
+    @Test
+    void removedAndReindexedProductsAreNotDuplicated() {
+        index.rebuild(List.of(
+                product(1L, lenovo, "Lenovo ThinkPad X1", null),
+                product(2L, hp, "HP ProBook 450", null)));
+
+        index.remove(2L);
+        index.index(product(1L, lenovo, "Lenovo Yoga Slim", null));
+
+        assertEquals(List.of("Lenovo Yoga Slim"), names("lenovo"));
+        assertEquals(List.of(), names("thinkpad"));
+        assertEquals(List.of(), names("hp"));
+    }
+
+    private List<String> names(String query) {
+        ProductFilterDTO filter = new ProductFilterDTO();
+        filter.setFilter(query);
+        return index.search(filter, 0, 50, false).getContent().stream()
+                .map(ProductDTO::getName)
+                .sorted()
+                .toList();
+    }
+
+    private int[] sortedUnique(int count, int bound) {
+        TreeSet<Integer> values = new TreeSet<>();
+        while (values.size() < Math.min(count, bound)) {
+            values.add(random.nextInt(bound));
+        }
+        return values.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private Product product(Long id, Brand brand, String name, String cpu) {
+        Product product = new Product();
+        product.setId(id);
+        product.setBrand(brand);
+        product.setCategory(laptop);
+        product.setName(name);
+        product.setCpu(cpu);
+        product.setRawData("test-" + id);
+        return product;
+    }
+
+    private Brand brand(Long id, String name) {
+        Brand brand = new Brand(name);
+        brand.setId(id);
+        return brand;
+    }
+}
@@ -0,0 +1,211 @@
+package uz.qarzdorlar_ai.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import uz.qarzdorlar_ai.PostgresDataJpaTest;
+import uz.qarzdorlar_ai.config.properties.SoftDeleteArchiveProperties;
+import uz.qarzdorlar_ai.enums.ArchivedEntity;
+import uz.qarzdorlar_ai.enums.OutboxEventType;
+import uz.qarzdorlar_ai.exception.BadRequestException;
+import uz.qarzdorlar_ai.model.Transaction;
+import uz.qarzdorlar_ai.repository.ProductRepository;
+import uz.qarzdorlar_ai.repository.TransactionRepository;
+import uz.qarzdorlar_ai.service.outbox.OutboxService;
+import uz.qarzdorlar_ai.service.transactions.embedded.TransactionHelperService;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Retention deleted_at bo'yicha hisoblanadi (keyinroq o'zgargan updated_at emas), ustundan oldingi qatorlar
+ * to'ldiriladi, arxivdan qaytarilgan qator soft-deleted qoladi va keyingi run da qayta ko'chirilmaydi,
+ * undelete esa tranzaksiyani birga o'chirilgan itemlari va balans ta'siri bilan tiriltiradi.
+ * Jadvallar alohida schema da (LIKE public.*). PostgreSQL kerak ({@link PostgresDataJpaTest}).
+ */
+@PostgresDataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SoftDeleteArchiveServiceImplTest {
+
+    private static final String SCHEMA = "soft_delete_test";
+    private static final String ARCHIVE_SCHEMA = "soft_delete_test_archive";
+
+    @Autowired
+    private DataSource dataSource;
+
+    private SingleConnectionDataSource scratchDataSource;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private TransactionRepository transactionRepository;
+    private TransactionHelperService transactionHelperService;
+    private OutboxService outboxService;
+    private SoftDeleteArchiveServiceImpl archiveService;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        scratchDataSource = new SingleConnectionDataSource(dataSource.getConnection(), true);
+        jdbcTemplate = new JdbcTemplate(scratchDataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(scratchDataSource));
+
+        dropSchemas();
+        jdbcTemplate.execute("CREATE SCHEMA " + SCHEMA);
+        jdbcTemplate.execute("SET search_path TO " + SCHEMA);
+        for (String table : new String[]{"client", "transaction", "transaction_item", "product", "client_balance_delta"}) {
+            jdbcTemplate.execute("CREATE TABLE " + table + " (LIKE public." + table + " INCLUDING ALL)");
+        }
+        jdbcTemplate.update("INSERT INTO client (id, full_name, phone_number, type, initial_balance, deleted) "
+                + "VALUES (1, 'archive-test', '+998000000002', 'CLIENT', 0, false)");
+
+        SoftDeleteArchiveProperties properties = new SoftDeleteArchiveProperties();
+        properties.setRetentionDays(90);
+        properties.setBatchSize(1);
+        properties.setPauseBetweenBatchesMs(0);
+        properties.setWindowStartHour(0);
+        properties.setWindowEndHour(0);
+        properties.setArchiveSchema(ARCHIVE_SCHEMA);
+
+        transactionRepository = mock(TransactionRepository.class);
+        transactionHelperService = mock(TransactionHelperService.class);
+        outboxService = mock(OutboxService.class);
+        archiveService = new SoftDeleteArchiveServiceImpl(jdbcTemplate, properties, transactionRepository,
+                mock(ProductRepository.class), transactionHelperService, mock(ProductSearchIndexService.class), outboxService);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("SET search_path TO public");
+        dropSchemas();
+        scratchDataSource.destroy();
+    }
+
+    @Test
+    void retentionCountsFromDeletionTimeAndBackfillsOldRows() {
+        deletedTransaction(1, "200 days", "200 days");
+        deletedItem(1, 1, "200 days");
+        // O'chirilganiga 10 kun, updated_at esa eski - arxivlanmaydi
+        deletedTransaction(2, "10 days", "200 days");
+        // deleted_at ustunidan oldin o'chirilgan
+        deletedTransaction(3, null, "200 days");
+
+        Map<ArchivedEntity, Integer> moved = archiveService.archive();
+
+        assertEquals(1, moved.get(ArchivedEntity.TRANSACTION_ITEM));
+        assertEquals(2, moved.get(ArchivedEntity.TRANSACTION));
+        assertEquals(1, count("transaction"));
+        assertEquals(2, count(ARCHIVE_SCHEMA + ".transaction WHERE id IN (1, 3) AND deleted_at IS NOT NULL AND archived_at IS NOT NULL"));
+        assertEquals(1, count("transaction WHERE id = 2"));
+    }
+
+    @Test
+    void restoredRowStaysSoftDeletedAndIsNotArchivedAgain() {
+        deletedTransaction(1, "200 days", "200 days");
+        deletedItem(1, 1, "200 days");
+        archiveService.archive();
+
+        String result = transactionTemplate.execute(status -> archiveService.restore(ArchivedEntity.TRANSACTION, 1L));
+
+        assertTrue(result.contains("items restored : 1"));
+        assertEquals(1, count("transaction WHERE id = 1 AND deleted = true AND deleted_at < now() - interval '199 days'"));
+        assertEquals(1, count("transaction_item WHERE id = 1 AND deleted = true"));
+        assertEquals(0, count(ARCHIVE_SCHEMA + ".transaction"));
+
+        Map<ArchivedEntity, Integer> moved = archiveService.archive();
+
+        assertEquals(0, moved.get(ArchivedEntity.TRANSACTION_ITEM));
+        assertEquals(0, moved.get(ArchivedEntity.TRANSACTION));
+    }
+
+    @Test
+    void undeleteRevivesArchivedTransactionWithItsItemsAndBalance() {
+        deletedTransaction(1, "200 days", "200 days");
+        // Tranzaksiya bilan birga o'chirilgan item va undan oldin tahrirda olib tashlangani
+        jdbcTemplate.update("INSERT INTO transaction_item (id, transaction_id, quantity, created_at, deleted, deleted_at, updated_at) "
+                + "SELECT 1, 1, 1, created_at, true, deleted_at, updated_at FROM transaction WHERE id = 1");
+        deletedItem(2, 1, "250 days");
+        archiveService.archive();
+        Transaction transaction = new Transaction();
+        transaction.setId(1L);
+        when(transactionRepository.findById(1L)).thenReturn(Optional.of(transaction));
+
+        String result = transactionTemplate.execute(status -> archiveService.undelete(ArchivedEntity.TRANSACTION, 1L));
+
+        assertTrue(result.contains("items undeleted : 1"));
+        assertEquals(1, count("transaction WHERE id = 1 AND deleted = false AND deleted_at IS NULL"));
+        assertEquals(1, count("transaction_item WHERE id = 1 AND deleted = false"));
+        assertEquals(1, count("transaction_item WHERE id = 2 AND deleted = true"));
+        verify(transactionHelperService).updateClientBalance(transaction);
+        verify(outboxService).publishTransactionEvent(OutboxEventType.TRANSACTION_UPDATED, transaction, BigDecimal.ZERO, BigDecimal.ZERO);
+    }
+
+    @Test
+    void transactionOfDeletedClientIsNotUndeleted() {
+        jdbcTemplate.update("UPDATE client SET deleted = true, deleted_at = now() WHERE id = 1");
+        deletedTransaction(1, "1 day", "1 day");
+
+        assertThrows(BadRequestException.class,
+                () -> transactionTemplate.execute(status -> archiveService.undelete(ArchivedEntity.TRANSACTION, 1L)));
+
+        assertEquals(1, count("transaction WHERE id = 1 AND deleted = true"));
+        verify(transactionHelperService, never()).updateClientBalance(any());
+    }
+
+    @Test
+    void clientUndeleteClearsDeletionAndSyncsDashboard() {
+        jdbcTemplate.update("UPDATE client SET deleted = true, deleted_at = now() WHERE id = 1");
+
+        transactionTemplate.execute(status -> archiveService.undelete(ArchivedEntity.CLIENT, 1L));
+
+        assertEquals(1, count("client WHERE id = 1 AND deleted = false AND deleted_at IS NULL"));
+        verify(outboxService).publishClientEvent(OutboxEventType.CLIENT_UPDATED, 1L);
+    }
+
+    @Test
+    void itemIsNotUndeletedWithoutItsTransaction() {
+        deletedItem(1, 1, "1 day");
+
+        assertThrows(BadRequestException.class, () -> archiveService.undelete(ArchivedEntity.TRANSACTION_ITEM, 1L));
+
+        assertEquals(1, count("transaction_item WHERE id = 1 AND deleted = true"));
+    }
+
+    // deletedAgo == null: deleted_at ustunidan oldin o'chirilgan qator
+    private void deletedTransaction(long id, String deletedAgo, String updatedAgo) {
+        jdbcTemplate.update("INSERT INTO transaction (id, client_id, type, balance_effect, created_at, deleted, deleted_at, updated_at, version) "
+                        + "VALUES (?, 1, 'SALE', 10, now() - interval '300 days', true, now() - ?::interval, now() - ?::interval, 0)",
+                id, deletedAgo, updatedAgo);
+    }
+
+    private void deletedItem(long id, long transactionId, String deletedAgo) {
+        jdbcTemplate.update("INSERT INTO transaction_item (id, transaction_id, quantity, created_at, deleted, deleted_at, updated_at) "
+                        + "VALUES (?, ?, 1, now() - interval '300 days', true, now() - ?::interval, now() - ?::interval)",
+                id, transactionId, deletedAgo, deletedAgo);
+    }
+
+    private int count(String tableAndCondition) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + tableAndCondition, Integer.class);
+    }
+
+    private void dropSchemas() {
+        jdbcTemplate.execute("DROP SCHEMA IF EXISTS " + ARCHIVE_SCHEMA + " CASCADE");
+        jdbcTemplate.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+    }
+}
@@ -0,0 +1,123 @@
+package uz.qarzdorlar_ai.service.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import uz.qarzdorlar_ai.enums.OutboxEventType;
+import uz.qarzdorlar_ai.enums.OutboxStatus;
+import uz.qarzdorlar_ai.model.OutboxDelivery;
+import uz.qarzdorlar_ai.model.OutboxEvent;
+import uz.qarzdorlar_ai.repository.OutboxDeliveryRepository;
+import uz.qarzdorlar_ai.repository.OutboxEventRepository;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Outbox claim lease i, exponential backoff va FAILED ga o'tish.
+ */
+class OutboxServiceImplTest {
+
+    private static final int MAX_ATTEMPTS = 5;
+    private static final long BASE_BACKOFF_MS = 2000;
+
+    private OutboxEventRepository outboxEventRepository;
+    private OutboxDeliveryRepository outboxDeliveryRepository;
+    private OutboxServiceImpl outboxService;
+
+    @BeforeEach
+    void setUp() {
+        outboxEventRepository = mock(OutboxEventRepository.class);
+        outboxDeliveryRepository = mock(OutboxDeliveryRepository.class);
+        outboxService = new OutboxServiceImpl(outboxEventRepository, outboxDeliveryRepository, new ObjectMapper(),
+                MAX_ATTEMPTS, BASE_BACKOFF_MS);
+    }
+
+    @Test
+    void claimLeasesEventsUntilLeaseExpires() {
+        OutboxEvent event = event(0);
+        when(outboxEventRepository.lockNextBatch(10)).thenReturn(List.of(event));
+
+        long before = System.currentTimeMillis();
+        List<OutboxEvent> claimed = outboxService.claimBatch(10, Duration.ofSeconds(60));
+
+        assertEquals(List.of(event), claimed);
+        assertDelay(event.getNextAttemptAt(), before, 60_000);
+        assertEquals(OutboxStatus.PENDING, event.getStatus());
+    }
+
+    @Test
+    void failedAttemptsBackOffExponentially() {
+        for (int attempts = 0; attempts < MAX_ATTEMPTS - 1; attempts++) {
+            OutboxEvent event = event(attempts);
+            when(outboxEventRepository.findById(1L)).thenReturn(Optional.of(event));
+
+            long before = System.currentTimeMillis();
+            outboxService.markFailed(1L, "telegram: timed out");
+
+            assertEquals(attempts + 1, event.getAttempts());
+            assertEquals(OutboxStatus.PENDING, event.getStatus());
+            assertEquals("telegram: timed out", event.getLastError());
+            // 2s, 4s, 8s, 16s
+            assertDelay(event.getNextAttemptAt(), before, BASE_BACKOFF_MS << attempts);
+        }
+    }
+
+    @Test
+    void eventMovesToFailedAfterMaxAttempts() {
+        OutboxEvent event = event(MAX_ATTEMPTS - 1);
+        when(outboxEventRepository.findById(1L)).thenReturn(Optional.of(event));
+
+        outboxService.markFailed(1L, "boom");
+
+        assertEquals(MAX_ATTEMPTS, event.getAttempts());
+        assertEquals(OutboxStatus.FAILED, event.getStatus());
+    }
+
+    @Test
+    void deliveryIsRecordedOncePerConsumer() {
+        when(outboxDeliveryRepository.existsByEventIdAndConsumer(1L, "telegram")).thenReturn(false, true);
+
+        outboxService.markDelivered(1L, "telegram");
+        outboxService.markDelivered(1L, "telegram");
+
+        verify(outboxDeliveryRepository).save(any(OutboxDelivery.class));
+    }
+
+    @Test
+    void purgeKeepsDeliveriesWhenNothingWasDeleted() {
+        when(outboxEventRepository.deleteProcessedBefore(any(), any())).thenReturn(0);
+
+        outboxService.purgeSent(Duration.ofDays(7));
+
+        verify(outboxDeliveryRepository, never()).deleteOrphans();
+    }
+
+    // before + delay <= actual <= hozir + delay
+    private void assertDelay(Timestamp actual, long before, long delayMs) {
+        long after = System.currentTimeMillis();
+        assertTrue(actual.getTime() >= before + delayMs, "next attempt too early: " + actual);
+        assertTrue(actual.getTime() <= after + delayMs, "next attempt too late: " + actual);
+    }
+
+    private OutboxEvent event(int attempts) {
+        OutboxEvent event = new OutboxEvent();
+        event.setId(1L);
+        event.setEventType(OutboxEventType.TRANSACTION_CREATED);
+        event.setAggregateId(10L);
+        event.setPayload("{}");
+        event.setAttempts(attempts);
+        event.setNextAttemptAt(new Timestamp(0));
+        return event;
+    }
+}
@@ -0,0 +1,201 @@
+package uz.qarzdorlar_ai.service.transactions;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import uz.qarzdorlar_ai.PostgresDataJpaTest;
+import uz.qarzdorlar_ai.config.properties.BalanceLedgerProperties;
+import uz.qarzdorlar_ai.enums.ClientType;
+import uz.qarzdorlar_ai.mapper.ClientMapperImpl;
+import uz.qarzdorlar_ai.model.Client;
+import uz.qarzdorlar_ai.payload.ClientDTO;
+import uz.qarzdorlar_ai.payload.ClientUpdateDTO;
+import uz.qarzdorlar_ai.repository.ClientBalanceDeltaRepository;
+import uz.qarzdorlar_ai.repository.ClientRepository;
+import uz.qarzdorlar_ai.service.ClientServiceImpl;
+import uz.qarzdorlar_ai.service.outbox.OutboxService;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Ledger yoqilgan yo'lda bitta clientga ko'p threaddan parallel postinglar, shu paytda compaction va
+ * client profilini tahrirlash (updateClient) ham ishlab turadi. Birorta ham posting yo'qolmasligi
+ * yoki ikki marta qo'shilmasligi, updateClient balansni eski qiymat bilan qayta yozmasligi
+ * va har doim effektiv balansni qaytarishi kerak.
+ * PostgreSQL kerak ({@link PostgresDataJpaTest}).
+ */
+@PostgresDataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ClientBalanceLedgerStressTest {
+
+    private static final int THREADS = 16;
+    private static final int POSTINGS_PER_THREAD = 200;
+    private static final BigDecimal CREDIT = new BigDecimal("3.2500");
+    private static final BigDecimal DEBIT = new BigDecimal("-1.1250");
+
+    // parallel threadlar uchun pool kattaroq
+    @DynamicPropertySource
+    static void connectionPool(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.hikari.maximum-pool-size", () -> THREADS + 4);
+    }
+
+    @Autowired
+    private ClientRepository clientRepository;
+    @Autowired
+    private ClientBalanceDeltaRepository clientBalanceDeltaRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private ClientBalanceLedgerServiceImpl clientBalanceLedgerService;
+    private ClientServiceImpl clientService;
+    private TransactionTemplate transactionTemplate;
+    private Client client;
+
+    @BeforeEach
+    void setUp() {
+        BalanceLedgerProperties properties = new BalanceLedgerProperties();
+        properties.setEnabled(true);
+        properties.setCompactionBatchSize(100);
+
+        // Proxy siz: har bir chaqiruv servisdagi @Transactional kabi alohida tranzaksiyada (transactionTemplate)
+        clientBalanceLedgerService = new ClientBalanceLedgerServiceImpl(clientRepository, clientBalanceDeltaRepository, properties);
+        clientService = new ClientServiceImpl(new ClientMapperImpl(), clientRepository, clientBalanceLedgerService, mock(OutboxService.class));
+        transactionTemplate = new TransactionTemplate(transactionManager);
+
+        client = clientRepository.save(newClient());
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM client_balance_delta WHERE client_id = ?", client.getId());
+        jdbcTemplate.update("DELETE FROM client WHERE id = ?", client.getId());
+    }
+
+    @Test
+    void concurrentPostingsSurviveCompactionAndProfileUpdates() throws InterruptedException {
+        Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        AtomicBoolean posting = new AtomicBoolean(true);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch posters = new CountDownLatch(THREADS);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS + 2);
+
+        for (int t = 0; t < THREADS; t++) {
+            BigDecimal amount = t % 2 == 0 ? CREDIT : DEBIT;
+            executor.submit(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < POSTINGS_PER_THREAD; i++) {
+                        transactionTemplate.executeWithoutResult(status -> clientBalanceLedgerService.post(client.getId(), amount));
+                    }
+                } catch (Throwable e) {
+                    failures.add(e);
+                } finally {
+                    posters.countDown();
+                }
+            });
+        }
+
+        // ClientBalanceCompactor o'rnida
+        executor.submit(() -> {
+            try {
+                start.await();
+                while (posting.get()) {
+                    transactionTemplate.execute(status -> clientBalanceLedgerService.compactBatch());
+                }
+            } catch (Throwable e) {
+                failures.add(e);
+            }
+        });
+
+        // Profil tahrirlari: client qatori compactor bilan bir vaqtda UPDATE qilinadi
+        executor.submit(() -> {
+            try {
+                start.await();
+                int round = 0;
+                while (posting.get()) {
+                    ClientUpdateDTO update = new ClientUpdateDTO();
+                    update.setComment("stress-" + round++);
+                    ClientDTO dto = transactionTemplate.execute(status -> clientService.updateClient(client.getId(), update));
+                    if (dto == null || dto.getCurrentBalance() == null) {
+                        throw new AssertionError("updateClient returned no balance");
+                    }
+                }
+            } catch (Throwable e) {
+                failures.add(e);
+            }
+        });
+
+        start.countDown();
+        assertTrue(posters.await(2, TimeUnit.MINUTES), "postings did not finish in time");
+        posting.set(false);
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES), "compactor / updater did not stop in time");
+
+        List<String> messages = new ArrayList<>();
+        failures.forEach(e -> messages.add(e.getClass().getSimpleName() + ": " + e.getMessage()));
+        assertTrue(failures.isEmpty(), "failed operations: " + messages);
+
+        int postingsPerSign = THREADS / 2 * POSTINGS_PER_THREAD;
+        BigDecimal expected = CREDIT.add(DEBIT).multiply(BigDecimal.valueOf(postingsPerSign));
+
+        // Compaction oxirigacha yetmagan bo'lsa ham effektiv balans aniq
+        assertEquals(0, expected.compareTo(clientBalanceLedgerService.getEffectiveBalance(client.getId())), "effective balance");
+
+        ClientUpdateDTO update = new ClientUpdateDTO();
+        update.setComment("final");
+        ClientDTO dto = transactionTemplate.execute(status -> clientService.updateClient(client.getId(), update));
+        assertEquals(0, expected.compareTo(dto.getCurrentBalance()), "updateClient must return the effective balance");
+
+        // qolgan deltalarni yig'ib tugatamiz
+        Integer updated;
+        do {
+            updated = transactionTemplate.execute(status -> clientBalanceLedgerService.compactBatch());
+        } while (updated != null && updated > 0);
+        assertEquals(0, expected.compareTo(storedBalance()), "compacted balance");
+        assertEquals(0, pendingDeltas(), "all deltas must be compacted");
+    }
+
+    private BigDecimal storedBalance() {
+        return jdbcTemplate.queryForObject("SELECT COALESCE(current_balance, 0) FROM client WHERE id = ?",
+                BigDecimal.class, client.getId());
+    }
+
+    private int pendingDeltas() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM client_balance_delta WHERE client_id = ?",
+                Integer.class, client.getId());
+    }
+
+    private Client newClient() {
+        String suffix = UUID.randomUUID().toString();
+        Client client = new Client();
+        client.setFullName("ledger-stress-" + suffix);
+        client.setPhoneNumber(suffix);
+        client.setType(ClientType.CLIENT);
+        client.setCurrentBalance(BigDecimal.ZERO);
+        return client;
+    }
+}
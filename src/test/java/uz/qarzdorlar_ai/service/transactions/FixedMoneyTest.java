@@ -0,0 +1,122 @@
+package uz.qarzdorlar_ai.service.transactions;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+/**
+ * {@link FixedMoney} natijalari BigDecimal yo'li bilan bir xil ekanini tasodifiy qiymatlarda tekshiradi.
+ */
+class FixedMoneyTest {
+
+    private static final int SAMPLES = 200_000;
+    private static final int[] WIDE_OR_NARROW = {FixedMoney.SCALE, FixedMoney.WIDE_SCALE};
+
+    private final Random random = new Random(20240901L);
+
+    @Test
+    void divideMatchesBigDecimal() {
+        for (int i = 0; i < SAMPLES; i++) {
+            // WIDE_SCALE da long ga sig'adigan summalar (< 10^10)
+            BigDecimal amount = randomMoney(WIDE_OR_NARROW[random.nextInt(2)], 10_000_000_000L);
+            BigDecimal rate = randomRate();
+
+            assertSame(amount.divide(rate, 4, RoundingMode.HALF_UP), divide(amount, rate), amount + " / " + rate);
+        }
+    }
+
+    @Test
+    void multiplyMatchesBigDecimal() {
+        for (int i = 0; i < SAMPLES; i++) {
+            // ko'paytma long ga sig'adi: usdAmount * 10^4 < 10^10, rate * 10^4 < 2 * 10^8
+            BigDecimal usdAmount = randomMoney(4, 1_000_000L);
+            BigDecimal rate = BigDecimal.valueOf(1 + Math.floorMod(random.nextLong(), 200_000_000L), FixedMoney.SCALE);
+
+            long scaledProduct = FixedMoney.multiply(
+                    FixedMoney.toScaled(usdAmount, FixedMoney.SCALE), FixedMoney.toScaled(rate, FixedMoney.SCALE));
+            BigDecimal product = FixedMoney.toBigDecimal(scaledProduct, FixedMoney.WIDE_SCALE);
+            assertEquals(FixedMoney.normalize(usdAmount.multiply(rate)), product, usdAmount + " * " + rate);
+        }
+    }
+
+    @Test
+    void halfwayValuesRoundAwayFromZero() {
+        assertSame(new BigDecimal("0.0001"), divide(new BigDecimal("0.0001"), new BigDecimal("2")), "0.0001 / 2");
+        assertSame(new BigDecimal("-0.0001"), divide(new BigDecimal("-0.0001"), new BigDecimal("2")), "-0.0001 / 2");
+        assertSame(new BigDecimal("-0.0001"), divide(new BigDecimal("0.0001"), new BigDecimal("-2")), "0.0001 / -2");
+        assertSame(new BigDecimal("0.0000"), divide(new BigDecimal("0.0001"), new BigDecimal("3")), "0.0001 / 3");
+    }
+
+    @Test
+    void valuesThatDoNotFitAreAbsent() {
+        // kasr 4 xonadan uzun; ortiqcha nollar esa xalaqit bermaydi
+        assertEquals(FixedMoney.ABSENT, FixedMoney.toScaled(new BigDecimal("3.672512345"), FixedMoney.SCALE));
+        assertEquals(36_725L, FixedMoney.toScaled(new BigDecimal("3.67250000"), FixedMoney.SCALE));
+        assertEquals(1_500_000_000L, FixedMoney.toScaled(new BigDecimal("1.5E+5"), FixedMoney.SCALE));
+        assertEquals(-12_650_500_000_000L, FixedMoney.toScaled(new BigDecimal("-126505"), FixedMoney.WIDE_SCALE));
+
+        // long ga sig'maydi
+        assertEquals(FixedMoney.ABSENT, FixedMoney.toScaled(new BigDecimal("98765432109876543.21"), FixedMoney.WIDE_SCALE));
+        assertEquals(FixedMoney.ABSENT, FixedMoney.multiply(Long.MAX_VALUE / 2, 3));
+        assertEquals(FixedMoney.ABSENT, FixedMoney.multiply(Long.MAX_VALUE / 2, -3));
+        assertEquals(FixedMoney.ABSENT, FixedMoney.subtract(Long.MIN_VALUE + 2, 5));
+
+        // ABSENT zanjir bo'ylab uzatiladi
+        assertEquals(FixedMoney.ABSENT, FixedMoney.multiply(FixedMoney.ABSENT, 1));
+        assertEquals(FixedMoney.ABSENT, FixedMoney.subtract(1, FixedMoney.ABSENT));
+        assertEquals(FixedMoney.ABSENT, FixedMoney.divideHalfUp(FixedMoney.ABSENT, 1));
+        assertEquals(FixedMoney.ABSENT, FixedMoney.negate(FixedMoney.ABSENT));
+    }
+
+    @Test
+    void sumContinuesInBigDecimalAfterOverflow() {
+        FixedMoney.Sum sum = new FixedMoney.Sum();
+        sum.addScaled(Long.MAX_VALUE - 1);
+        sum.add(new BigDecimal("0.00000002"));
+        sum.add(new BigDecimal("1.5"));
+
+        BigDecimal expected = BigDecimal.valueOf(Long.MAX_VALUE - 1, FixedMoney.WIDE_SCALE)
+                .add(new BigDecimal("0.00000002")).add(new BigDecimal("1.5"));
+        assertEquals(FixedMoney.normalize(expected), sum.value());
+        assertEquals(FixedMoney.ABSENT, sum.scaled());
+
+        FixedMoney.Sum exact = new FixedMoney.Sum();
+        exact.add(new BigDecimal("1500000.00"));
+        exact.addScaled(25);
+        assertEquals(150_000_000_000_025L, exact.scaled());
+        assertEquals(new BigDecimal("1500000.00000025"), exact.value());
+    }
+
+    @Test
+    void divisionByZeroIsLeftToBigDecimal() {
+        assertEquals(FixedMoney.ABSENT, FixedMoney.divideHalfUp(1_000_000L, 0));
+    }
+
+    // amount.divide(rate, 4, HALF_UP) ning long yo'li - engine dagi usdAmount bilan bir xil
+    private static BigDecimal divide(BigDecimal amount, BigDecimal rate) {
+        long usdAmount = FixedMoney.divideHalfUp(FixedMoney.toScaled(amount, FixedMoney.WIDE_SCALE),
+                FixedMoney.toScaled(rate, FixedMoney.SCALE));
+        assertNotEquals(FixedMoney.ABSENT, usdAmount, amount + " / " + rate);
+        return FixedMoney.toBigDecimal(usdAmount, FixedMoney.SCALE);
+    }
+
+    private BigDecimal randomMoney(int maxScale, long bound) {
+        long unscaled = random.nextLong() % bound;
+        return BigDecimal.valueOf(unscaled, random.nextInt(maxScale + 1));
+    }
+
+    private BigDecimal randomRate() {
+        // 0.0001 .. ~20000, real kurslar oralig'i (USD=1, AED=3.6725, UZS=12650.5)
+        long unscaled = 1 + Math.floorMod(random.nextLong(), 200_000_000L);
+        return BigDecimal.valueOf(unscaled, random.nextInt(FixedMoney.SCALE + 1));
+    }
+
+    private static void assertSame(BigDecimal expected, BigDecimal actual, String message) {
+        assertEquals(0, expected.compareTo(actual), () -> message + ": expected " + expected + " but was " + actual);
+    }
+}
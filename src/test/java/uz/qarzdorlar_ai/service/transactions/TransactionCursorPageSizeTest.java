@@ -0,0 +1,77 @@
+package uz.qarzdorlar_ai.service.transactions;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import uz.qarzdorlar_ai.exception.BadRequestException;
+import uz.qarzdorlar_ai.mapper.TransactionMapper;
+import uz.qarzdorlar_ai.payload.CursorPageDTO;
+import uz.qarzdorlar_ai.payload.TransactionDTO;
+import uz.qarzdorlar_ai.repository.ClientRepository;
+import uz.qarzdorlar_ai.repository.ProductRepository;
+import uz.qarzdorlar_ai.repository.TransactionRepository;
+import uz.qarzdorlar_ai.service.outbox.OutboxService;
+import uz.qarzdorlar_ai.service.transactions.embedded.TransactionCalculationService;
+import uz.qarzdorlar_ai.service.transactions.embedded.TransactionHelperService;
+import uz.qarzdorlar_ai.service.transactions.embedded.TransactionIdempotencyService;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Cursor sahifa hajmi 1..MAX_CURSOR_PAGE_SIZE oralig'idan tashqarida bo'lsa so'rov bazaga yetib bormaydi.
+ */
+class TransactionCursorPageSizeTest {
+
+    private TransactionRepository transactionRepository;
+    private TransactionServiceImpl transactionService;
+
+    @BeforeEach
+    void setUp() {
+        transactionRepository = mock(TransactionRepository.class);
+        transactionService = new TransactionServiceImpl(
+                mock(TransactionMapper.class),
+                mock(ClientRepository.class),
+                mock(ProductRepository.class),
+                transactionRepository,
+                mock(TransactionCalculationService.class),
+                mock(TransactionHelperService.class),
+                mock(TransactionIdempotencyService.class),
+                mock(OutboxService.class)
+        );
+    }
+
+    @Test
+    void rejectsSizesOutsideTheAllowedRange() {
+        for (Integer size : Arrays.asList(null, -1, 0, TransactionServiceImpl.MAX_CURSOR_PAGE_SIZE + 1, Integer.MAX_VALUE)) {
+            assertThrows(BadRequestException.class, () -> transactionService.getTransactionsAfter(null, size), "size " + size);
+            assertThrows(BadRequestException.class, () -> transactionService.getTransactionsByClientIdAfter(1L, null, size), "size " + size);
+        }
+        verifyNoInteractions(transactionRepository);
+    }
+
+    @Test
+    void acceptsBoundarySizes() {
+        when(transactionRepository.findPageAfter(any(), anyLong(), anyInt())).thenReturn(List.of());
+        when(transactionRepository.findClientPageAfter(anyLong(), any(), anyLong(), anyInt())).thenReturn(List.of());
+
+        CursorPageDTO<TransactionDTO> first = transactionService.getTransactionsAfter(null, 1);
+        CursorPageDTO<TransactionDTO> last = transactionService.getTransactionsByClientIdAfter(1L, null, TransactionServiceImpl.MAX_CURSOR_PAGE_SIZE);
+
+        assertFalse(first.isHasNext());
+        assertEquals(0, last.getContent().size());
+        verify(transactionRepository).findPageAfter(any(), anyLong(), eq(2));
+        verify(transactionRepository).findClientPageAfter(eq(1L), any(), anyLong(), eq(TransactionServiceImpl.MAX_CURSOR_PAGE_SIZE + 1));
+    }
+}
@@ -0,0 +1,110 @@
+package uz.qarzdorlar_ai.service.transactions;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import uz.qarzdorlar_ai.enums.CurrencyCode;
+import uz.qarzdorlar_ai.enums.TransactionType;
+import uz.qarzdorlar_ai.exception.DataConflictException;
+import uz.qarzdorlar_ai.model.TransactionIdempotencyKey;
+import uz.qarzdorlar_ai.payload.TransactionCreateDTO;
+import uz.qarzdorlar_ai.repository.TransactionIdempotencyKeyRepository;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Idempotency-Key qayta kelganda so'rov mazmuni ham tekshiriladi; 409 faqat kalit constraintiga urilganda.
+ */
+class TransactionIdempotencyServiceImplTest {
+
+    private TransactionIdempotencyKeyRepository repository;
+    private TransactionIdempotencyServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(TransactionIdempotencyKeyRepository.class);
+        service = new TransactionIdempotencyServiceImpl(repository, 100);
+    }
+
+    @Test
+    void hashIgnoresKeyAndDecimalScale() {
+        TransactionCreateDTO first = payment("8000", "key-1");
+        TransactionCreateDTO second = payment("8000.00", "key-2");
+
+        assertEquals(service.requestHash(first), service.requestHash(second));
+        assertNotEquals(service.requestHash(first), service.requestHash(payment("8000.01", "key-1")));
+    }
+
+    @Test
+    void replayWithSamePayloadReturnsOriginalTransaction() {
+        TransactionCreateDTO dto = payment("100", "key-1");
+        String hash = service.requestHash(dto);
+        when(repository.findByIdempotencyKey("key-1")).thenReturn(Optional.of(new TransactionIdempotencyKey("key-1", 42L, hash)));
+
+        assertEquals(Optional.of(42L), service.findTransactionId("key-1", hash));
+    }
+
+    @Test
+    void replayWithDifferentPayloadIsRejected() {
+        String original = service.requestHash(payment("100", "key-1"));
+        when(repository.findByIdempotencyKey("key-1")).thenReturn(Optional.of(new TransactionIdempotencyKey("key-1", 42L, original)));
+
+        String changed = service.requestHash(payment("250", "key-1"));
+        assertThrows(DataConflictException.class, () -> service.findTransactionId("key-1", changed));
+        // cachedan o'qilganda ham
+        assertThrows(DataConflictException.class, () -> service.findTransactionId("key-1", changed));
+    }
+
+    @Test
+    void legacyKeysWithoutHashAreStillReplayed() {
+        when(repository.findByIdempotencyKey("old")).thenReturn(Optional.of(new TransactionIdempotencyKey("old", 7L, null)));
+
+        assertEquals(Optional.of(7L), service.findTransactionId("old", service.requestHash(payment("1", "old"))));
+    }
+
+    @Test
+    void onlyIdempotencyKeyViolationIsReportedAsReplay() {
+        when(repository.saveAllAndFlush(anyList())).thenThrow(violation("23505",
+                "duplicate key value violates unique constraint \"" + TransactionIdempotencyKey.UNIQUE_CONSTRAINT + "\""));
+
+        assertThrows(DataConflictException.class, () -> service.register("key-1", "hash", 42L));
+    }
+
+    @Test
+    void otherIntegrityViolationsAreRethrown() {
+        DataIntegrityViolationException foreignKey = violation("23503",
+                "insert or update on table \"transaction_idempotency_key\" violates foreign key constraint \"fk_x\"");
+        when(repository.saveAllAndFlush(anyList())).thenThrow(foreignKey);
+
+        assertSame(foreignKey, assertThrows(DataIntegrityViolationException.class,
+                () -> service.register("key-1", "hash", 42L)));
+        // boshqa unique constraint ham replay emas
+        assertFalse(TransactionIdempotencyServiceImpl.isDuplicateKey(
+                violation("23505", "duplicate key value violates unique constraint \"uk_other\"")));
+    }
+
+    private DataIntegrityViolationException violation(String sqlState, String message) {
+        return new DataIntegrityViolationException("could not execute statement", new SQLException(message, sqlState));
+    }
+
+    private TransactionCreateDTO payment(String amount, String key) {
+        TransactionCreateDTO dto = new TransactionCreateDTO();
+        dto.setClientId(1L);
+        dto.setType(TransactionType.CASH_IN);
+        dto.setTransactionCurrency(CurrencyCode.USD);
+        dto.setAmount(new BigDecimal(amount));
+        dto.setIdempotencyKey(key);
+        return dto;
+    }
+}
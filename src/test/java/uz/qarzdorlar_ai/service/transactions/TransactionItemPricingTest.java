@@ -0,0 +1,208 @@
+package uz.qarzdorlar_ai.service.transactions;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import uz.qarzdorlar_ai.enums.CurrencyCode;
+import uz.qarzdorlar_ai.enums.TransactionType;
+import uz.qarzdorlar_ai.model.Client;
+import uz.qarzdorlar_ai.model.Product;
+import uz.qarzdorlar_ai.model.Transaction;
+import uz.qarzdorlar_ai.model.TransactionItem;
+import uz.qarzdorlar_ai.payload.TransactionCreateDTO;
+import uz.qarzdorlar_ai.payload.TransactionItemCreateDTO;
+import uz.qarzdorlar_ai.repository.ClientRepository;
+import uz.qarzdorlar_ai.repository.ProductRepository;
+import uz.qarzdorlar_ai.service.ExchangeRateService;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+
+/**
+ * SALE item hisobini va CASH_OUT / TRANSFER balans ta'sirlarini oddiy BigDecimal arifmetikasi bilan
+ * solishtiradi. Kiritmalar ikkala yo'lni ham qamraydi: long ({@link FixedMoney}) ga sig'adigan qiymatlar va
+ * sig'maydiganlari (kasri 4 xonadan uzun kurs, juda katta narx, yarim yo'lda to'lib ketadigan yig'indi).
+ * Summalar, item narxlari, USD summa (HALF_UP) va balans ta'sirlari qiymat ham, scale ham bo'yicha bir xil
+ * bo'lishi kerak.
+ */
+class TransactionItemPricingTest {
+
+    private static final int SAMPLES = 2_000;
+
+    private final Random random = new Random(20241018L);
+    private TransactionCalculationServiceImpl engine;
+
+    @BeforeEach
+    void setUp() {
+        // products map va kurslar DTO da beriladi - repository va kurs servisi chaqirilmaydi
+        engine = new TransactionCalculationServiceImpl(
+                mock(ProductRepository.class), mock(ClientRepository.class), mock(ExchangeRateService.class));
+    }
+
+    @Test
+    void fixedAndBigDecimalPathsProduceIdenticalResults() {
+        for (int sample = 0; sample < SAMPLES; sample++) {
+            Map<Long, Product> products = new HashMap<>();
+            List<TransactionItemCreateDTO> items = new ArrayList<>();
+            int itemCount = 1 + random.nextInt(20);
+            for (long id = 1; id <= itemCount; id++) {
+                products.put(id, product(id, BigDecimal.valueOf(1 + random.nextInt(50_000_000), random.nextInt(5))));
+                // ba'zi itemlarda narx qo'lda beriladi
+                BigDecimal unitPrice = random.nextInt(4) == 0 ? BigDecimal.valueOf(random.nextInt(90_000_000), random.nextInt(5)) : null;
+                items.add(new TransactionItemCreateDTO(id, 1 + random.nextInt(500), unitPrice));
+            }
+            // scale 5..7 - kurs long yo'lga sig'maydi
+            BigDecimal rate = BigDecimal.valueOf(1 + random.nextInt(200_000_000), random.nextInt(8));
+
+            assertMatchesBigDecimal(items, products, rate, "sample " + sample);
+        }
+    }
+
+    @Test
+    void sumThatOverflowsLongMidwayMatchesBigDecimal() {
+        // har bir item long ga sig'adi (5e10 * 10^8), ikkinchisidan keyin yig'indi sig'maydi
+        Map<Long, Product> products = new HashMap<>();
+        List<TransactionItemCreateDTO> items = new ArrayList<>();
+        for (long id = 1; id <= 3; id++) {
+            products.put(id, product(id, new BigDecimal("50000000000.1234")));
+            items.add(new TransactionItemCreateDTO(id, 1, null));
+        }
+
+        Transaction transaction = sale(items, products, BigDecimal.ONE);
+
+        assertEquals(new BigDecimal("150000000000.3702"), transaction.getAmount());
+        assertMatchesBigDecimal(items, products, BigDecimal.ONE, "overflow");
+    }
+
+    @Test
+    void resultsMatchPlainBigDecimalArithmetic() {
+        Map<Long, Product> products = Map.of(
+                1L, product(1L, new BigDecimal("250.07")),
+                2L, product(2L, new BigDecimal("19.9999")));
+        List<TransactionItemCreateDTO> items = List.of(
+                new TransactionItemCreateDTO(1L, 3, null),
+                new TransactionItemCreateDTO(2L, 7, new BigDecimal("253000.5")));
+        BigDecimal rate = new BigDecimal("12650.5");
+
+        Transaction transaction = sale(items, products, rate);
+
+        BigDecimal first = new BigDecimal("250.07").multiply(rate).multiply(BigDecimal.valueOf(3));
+        BigDecimal second = new BigDecimal("253000.5").multiply(BigDecimal.valueOf(7));
+        assertEquals(FixedMoney.normalize(first.add(second)), transaction.getAmount());
+        assertEquals(new BigDecimal("3163510.5350"), transaction.getItems().get(0).getUnitPrice());
+        assertEquals(new BigDecimal("253000.5"), transaction.getItems().get(1).getUnitPrice());
+    }
+
+    @Test
+    void cashOutAndTransferEffectsMatchBigDecimal() {
+        for (int sample = 0; sample < SAMPLES; sample++) {
+            // scale 5..7 kurs, 10^10 dan katta summa yoki to'lib ketadigan ko'paytma - BigDecimal yo'li
+            BigDecimal amount = BigDecimal.valueOf(Math.floorMod(random.nextLong(), random.nextInt(10) == 0
+                    ? Long.MAX_VALUE : 10_000_000_000L), random.nextInt(3));
+            BigDecimal rate = BigDecimal.valueOf(1 + random.nextInt(200_000_000), random.nextInt(8));
+            BigDecimal clientRate = BigDecimal.valueOf(1 + random.nextInt(200_000_000), random.nextInt(6));
+            BigDecimal receiverRate = BigDecimal.valueOf(1 + random.nextInt(200_000_000), random.nextInt(6));
+            BigDecimal fee = BigDecimal.valueOf(random.nextInt(1_000_000), random.nextInt(6));
+            String message = "sample " + sample + ": " + amount + " / " + rate;
+
+            BigDecimal usdAmount = amount.divide(rate, 4, RoundingMode.HALF_UP);
+
+            Transaction cashOut = cash(TransactionType.CASH_OUT, amount, rate, clientRate, fee, null);
+            assertEquals(usdAmount, cashOut.getUsdAmount(), message + ": usdAmount");
+            assertEquals(FixedMoney.normalize(usdAmount.subtract(fee).multiply(clientRate)).negate(),
+                    cashOut.getBalanceEffect(), message + ": cash-out balanceEffect");
+
+            Transaction transfer = cash(TransactionType.TRANSFER, amount, rate, clientRate, null, receiverRate);
+            assertEquals(usdAmount, transfer.getUsdAmount(), message + ": usdAmount");
+            assertEquals(FixedMoney.normalize(usdAmount.multiply(clientRate)), transfer.getBalanceEffect(),
+                    message + ": transfer balanceEffect");
+            assertEquals(FixedMoney.normalize(usdAmount.multiply(receiverRate)).negate(),
+                    transfer.getReceiverBalanceEffect(), message + ": receiverBalanceEffect");
+        }
+    }
+
+    private void assertMatchesBigDecimal(List<TransactionItemCreateDTO> items, Map<Long, Product> products,
+                                         BigDecimal rate, String message) {
+        Transaction transaction = sale(items, products, rate);
+
+        BigDecimal amount = BigDecimal.ZERO;
+        for (int i = 0; i < items.size(); i++) {
+            TransactionItemCreateDTO item = items.get(i);
+            BigDecimal unitPrice = item.getUnitPrice() != null
+                    ? item.getUnitPrice()
+                    : FixedMoney.normalize(products.get(item.getProductId()).getPriceUsd().multiply(rate));
+            BigDecimal totalPrice = unitPrice.multiply(BigDecimal.valueOf(item.getQuantity()));
+            amount = amount.add(totalPrice);
+
+            TransactionItem actual = transaction.getItems().get(i);
+            assertEquals(unitPrice, actual.getUnitPrice(), message + ": unitPrice of item " + i);
+            assertEquals(FixedMoney.normalize(totalPrice), actual.getTotalPrice(), message + ": totalPrice of item " + i);
+        }
+
+        assertEquals(FixedMoney.normalize(amount), transaction.getAmount(), message + ": amount");
+        assertEquals(transaction.getAmount().divide(rate, 4, RoundingMode.HALF_UP), transaction.getUsdAmount(), message + ": usdAmount");
+    }
+
+    private Transaction sale(List<TransactionItemCreateDTO> items, Map<Long, Product> products, BigDecimal rate) {
+        TransactionCreateDTO dto = new TransactionCreateDTO();
+        dto.setType(TransactionType.SALE);
+        dto.setTransactionCurrency(CurrencyCode.UZS);
+        dto.setRateToUsd(rate);
+        dto.setClientRateToUsd(rate);
+        dto.setItems(items);
+
+        Client client = new Client();
+        client.setId(1L);
+        client.setCurrencyCode(CurrencyCode.UZS);
+
+        Transaction transaction = new Transaction();
+        transaction.setClient(client);
+        transaction.setType(TransactionType.SALE);
+        transaction.setTransactionCurrency(CurrencyCode.UZS);
+
+        engine.calculateTransaction(dto, transaction, client, Map.of(1L, client), products);
+        return transaction;
+    }
+
+    private Transaction cash(TransactionType type, BigDecimal amount, BigDecimal rate, BigDecimal clientRate,
+                             BigDecimal fee, BigDecimal receiverRate) {
+        TransactionCreateDTO dto = new TransactionCreateDTO();
+        dto.setType(type);
+        dto.setTransactionCurrency(CurrencyCode.UZS);
+        dto.setRateToUsd(rate);
+        dto.setClientRateToUsd(clientRate);
+        dto.setAmount(amount);
+        dto.setFeeAmount(fee);
+        dto.setReceiverClientId(2L);
+        dto.setReceiverRateToUsd(receiverRate);
+
+        Client client = new Client();
+        client.setId(1L);
+        client.setCurrencyCode(CurrencyCode.UZS);
+        Client receiver = new Client();
+        receiver.setId(2L);
+        receiver.setCurrencyCode(CurrencyCode.AED);
+
+        Transaction transaction = new Transaction();
+        transaction.setClient(client);
+        transaction.setType(type);
+        transaction.setTransactionCurrency(CurrencyCode.UZS);
+
+        engine.calculateTransaction(dto, transaction, client, Map.of(1L, client, 2L, receiver), null);
+        return transaction;
+    }
+
+    private Product product(Long id, BigDecimal priceUsd) {
+        Product product = new Product();
+        product.setId(id);
+        product.setPriceUsd(priceUsd);
+        return product;
+    }
+}
@@ -0,0 +1,126 @@
+package uz.qarzdorlar_ai.service.transactions;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import uz.qarzdorlar_ai.PostgresDataJpaTest;
+import uz.qarzdorlar_ai.enums.CurrencyCode;
+import uz.qarzdorlar_ai.enums.TransactionType;
+import uz.qarzdorlar_ai.exception.EntityNotFoundException;
+import uz.qarzdorlar_ai.model.Client;
+import uz.qarzdorlar_ai.model.Product;
+import uz.qarzdorlar_ai.model.Transaction;
+import uz.qarzdorlar_ai.payload.TransactionCreateDTO;
+import uz.qarzdorlar_ai.payload.TransactionItemCreateDTO;
+import uz.qarzdorlar_ai.repository.ClientRepository;
+import uz.qarzdorlar_ai.repository.ProductRepository;
+import uz.qarzdorlar_ai.service.ExchangeRateService;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+
+/**
+ * SALE itemlari uchun productlar item sonidan qat'i nazar bitta so'rov bilan olinishini tekshiradi
+ * (Hibernate Statistics dagi prepared statement soni). Test tranzaksiyasi oxirida rollback bo'ladi.
+ * PostgreSQL kerak ({@link PostgresDataJpaTest}).
+ */
+@PostgresDataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class TransactionItemProductLookupTest {
+
+    private static final int ITEMS = 25;
+
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private ClientRepository clientRepository;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private TransactionCalculationServiceImpl transactionCalculationService;
+    private Statistics statistics;
+    private List<Long> productIds;
+
+    @BeforeEach
+    void setUp() {
+        // USD tranzaksiya - kurs so'ralmaydi
+        transactionCalculationService = new TransactionCalculationServiceImpl(
+                productRepository, clientRepository, mock(ExchangeRateService.class));
+
+        productIds = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            productIds.add(productRepository.save(newProduct()).getId());
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void saleItemsResolveProductsWithOneQuery() {
+        Transaction transaction = newSale();
+
+        transactionCalculationService.calculateTransaction(saleOf(productIds), transaction, usdClient());
+
+        assertEquals(ITEMS, transaction.getItems().size());
+        assertEquals(1, statistics.getPrepareStatementCount(),
+                "products of " + ITEMS + " items must be loaded with a single query");
+    }
+
+    @Test
+    void missingProductsAreReportedAfterTheSameSingleQuery() {
+        List<Long> ids = new ArrayList<>(productIds);
+        ids.add(-1L);
+        ids.add(-2L);
+
+        assertThrows(EntityNotFoundException.class,
+                () -> transactionCalculationService.calculateTransaction(saleOf(ids), newSale(), usdClient()));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    private TransactionCreateDTO saleOf(List<Long> ids) {
+        List<TransactionItemCreateDTO> items = new ArrayList<>();
+        for (Long id : ids) {
+            items.add(new TransactionItemCreateDTO(id, 2, null));
+        }
+        TransactionCreateDTO dto = new TransactionCreateDTO();
+        dto.setType(TransactionType.SALE);
+        dto.setTransactionCurrency(CurrencyCode.USD);
+        dto.setItems(items);
+        return dto;
+    }
+
+    private Transaction newSale() {
+        Transaction transaction = new Transaction();
+        transaction.setType(TransactionType.SALE);
+        transaction.setTransactionCurrency(CurrencyCode.USD);
+        return transaction;
+    }
+
+    private Client usdClient() {
+        Client client = new Client();
+        client.setCurrencyCode(CurrencyCode.USD);
+        return client;
+    }
+
+    private Product newProduct() {
+        Product product = new Product();
+        product.setName("lookup-test");
+        product.setPriceUsd(new BigDecimal("125.5000"));
+        product.setRawData("lookup-test-" + UUID.randomUUID());
+        return product;
+    }
+}
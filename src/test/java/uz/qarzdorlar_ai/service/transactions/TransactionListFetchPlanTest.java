@@ -0,0 +1,172 @@
+package uz.qarzdorlar_ai.service.transactions;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import uz.qarzdorlar_ai.PostgresDataJpaTest;
+import uz.qarzdorlar_ai.enums.ClientType;
+import uz.qarzdorlar_ai.enums.CurrencyCode;
+import uz.qarzdorlar_ai.enums.TransactionType;
+import uz.qarzdorlar_ai.mapper.TransactionMapperImpl;
+import uz.qarzdorlar_ai.model.Client;
+import uz.qarzdorlar_ai.model.Product;
+import uz.qarzdorlar_ai.model.Transaction;
+import uz.qarzdorlar_ai.model.TransactionItem;
+import uz.qarzdorlar_ai.payload.CursorPageDTO;
+import uz.qarzdorlar_ai.payload.PageDTO;
+import uz.qarzdorlar_ai.repository.ClientRepository;
+import uz.qarzdorlar_ai.repository.ProductRepository;
+import uz.qarzdorlar_ai.repository.TransactionRepository;
+import uz.qarzdorlar_ai.service.outbox.OutboxService;
+import uz.qarzdorlar_ai.service.transactions.embedded.TransactionCalculationService;
+import uz.qarzdorlar_ai.service.transactions.embedded.TransactionHelperService;
+import uz.qarzdorlar_ai.service.transactions.embedded.TransactionIdempotencyService;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Tranzaksiya ro'yxatlari sahifa hajmidan qat'i nazar o'zgarmas sondagi so'rov bilan qurilishini tekshiradi:
+ * lazy client / receiverClient / createdBy / items / product ochilsa statement soni sahifa bilan o'sadi.
+ * PostgreSQL kerak ({@link PostgresDataJpaTest}).
+ */
+@PostgresDataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class TransactionListFetchPlanTest {
+
+    private static final int TRANSACTIONS = 25;
+    private static final int SMALL_PAGE = 5;
+    private static final int LARGE_PAGE = 20;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+    @Autowired
+    private ClientRepository clientRepository;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private TransactionServiceImpl transactionService;
+    private Statistics statistics;
+    private Client client;
+
+    @BeforeEach
+    void setUp() {
+        // Ro'yxat metodlari faqat repository va mapper ni ishlatadi
+        transactionService = new TransactionServiceImpl(
+                new TransactionMapperImpl(),
+                clientRepository,
+                productRepository,
+                transactionRepository,
+                mock(TransactionCalculationService.class),
+                mock(TransactionHelperService.class),
+                mock(TransactionIdempotencyService.class),
+                mock(OutboxService.class)
+        );
+
+        client = clientRepository.save(newClient());
+        Client receiver = clientRepository.save(newClient());
+        List<Product> products = List.of(productRepository.save(newProduct()), productRepository.save(newProduct()));
+        for (int i = 0; i < TRANSACTIONS; i++) {
+            transactionRepository.save(newTransaction(i % 2 == 0 ? client : receiver, i % 2 == 0 ? receiver : client, products));
+        }
+        entityManager.flush();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void allTransactionsPage() {
+        assertConstantStatements(size -> transactionService.getByAllTransection(0, size));
+    }
+
+    @Test
+    void clientTransactionsPage() {
+        assertConstantStatements(size -> transactionService.getAllTransactionByClientId(client.getId(), 0, size));
+    }
+
+    @Test
+    void clientTransactionsCursorPage() {
+        assertConstantStatements(size -> transactionService.getTransactionsByClientIdAfter(client.getId(), null, size));
+    }
+
+    private void assertConstantStatements(PageLoader loader) {
+        long small = countStatements(() -> loader.load(SMALL_PAGE));
+        long large = countStatements(() -> loader.load(LARGE_PAGE));
+
+        assertEquals(small, large, "statement count grows with page size (N+1)");
+        // sahifa (+ count) + header lar + itemlar
+        assertTrue(large <= 4, "expected at most 4 statements per page, got " + large);
+    }
+
+    private long countStatements(Supplier<?> call) {
+        entityManager.clear();
+        statistics.clear();
+
+        Object page = call.get();
+        int rows = page instanceof PageDTO<?> p ? p.getContent().size() : ((CursorPageDTO<?>) page).getContent().size();
+        assertTrue(rows > 0, "page must not be empty");
+
+        return statistics.getPrepareStatementCount();
+    }
+
+    private Transaction newTransaction(Client sender, Client receiver, List<Product> products) {
+        Transaction transaction = new Transaction();
+        transaction.setType(TransactionType.TRANSFER);
+        transaction.setTransactionCurrency(CurrencyCode.USD);
+        transaction.setClient(sender);
+        transaction.setReceiverClient(receiver);
+        transaction.setAmount(BigDecimal.TEN);
+        transaction.setBalanceEffect(BigDecimal.TEN);
+        transaction.setReceiverBalanceEffect(BigDecimal.TEN.negate());
+
+        List<TransactionItem> items = new ArrayList<>();
+        for (Product product : products) {
+            TransactionItem item = new TransactionItem();
+            item.setTransaction(transaction);
+            item.setProduct(product);
+            item.setQuantity(1);
+            item.setUnitPrice(BigDecimal.ONE);
+            item.setTotalPrice(BigDecimal.ONE);
+            items.add(item);
+        }
+        transaction.setItems(items);
+        return transaction;
+    }
+
+    private Client newClient() {
+        String suffix = UUID.randomUUID().toString();
+        Client client = new Client();
+        client.setFullName("fetch-plan-" + suffix);
+        client.setPhoneNumber(suffix);
+        client.setType(ClientType.CLIENT);
+        client.setCurrentBalance(BigDecimal.ZERO);
+        return client;
+    }
+
+    private Product newProduct() {
+        Product product = new Product();
+        product.setName("fetch-plan-test");
+        product.setPriceUsd(BigDecimal.ONE);
+        product.setRawData("fetch-plan-" + UUID.randomUUID());
+        return product;
+    }
+
+    @FunctionalInterface
+    private interface PageLoader {
+        Object load(int size);
+    }
+}
@@ -0,0 +1,157 @@
+package uz.qarzdorlar_ai.service.transactions;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import uz.qarzdorlar_ai.PostgresDataJpaTest;
+import uz.qarzdorlar_ai.config.properties.TransactionPartitionProperties;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.time.YearMonth;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Hibernate yaratgan jadvallar nusxasi (alohida schema da, eski FK bilan, transaction_created_at siz) partitioned ga
+ * o'tkaziladi va bir oy arxivlanadi. Oy chegarasida yaratilgan item tranzaksiyasi bilan bir partitionda qolishi,
+ * eski FK o'rniga composite FK qo'yilishi va yetim item bo'lsa migratsiya hech narsani o'zgartirmasligi tekshiriladi.
+ * PostgreSQL kerak ({@link PostgresDataJpaTest}).
+ */
+@PostgresDataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TransactionPartitionServiceImplTest {
+
+    private static final String SCHEMA = "partition_test";
+    private static final String ARCHIVE_SCHEMA = "partition_test_archive";
+
+    @Autowired
+    private DataSource dataSource;
+
+    private SingleConnectionDataSource scratchDataSource;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private TransactionPartitionServiceImpl partitionService;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        // search_path shu connectionda: servis SQL i o'zgarishsiz test schema dagi jadvallarga tushadi
+        scratchDataSource = new SingleConnectionDataSource(dataSource.getConnection(), true);
+        jdbcTemplate = new JdbcTemplate(scratchDataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(scratchDataSource));
+
+        dropSchemas();
+        jdbcTemplate.execute("CREATE SCHEMA " + SCHEMA);
+        jdbcTemplate.execute("SET search_path TO " + SCHEMA);
+        jdbcTemplate.execute("CREATE TABLE client (LIKE public.client INCLUDING ALL)");
+        jdbcTemplate.execute("CREATE TABLE transaction (LIKE public.transaction INCLUDING ALL)");
+        jdbcTemplate.execute("CREATE TABLE transaction_item (LIKE public.transaction_item INCLUDING ALL)");
+        // Partitioning dan oldingi holat: kalit ustuni yo'q, FK faqat id ga
+        jdbcTemplate.execute("ALTER TABLE transaction_item DROP COLUMN transaction_created_at");
+        jdbcTemplate.execute("ALTER TABLE transaction_item ADD CONSTRAINT fk_legacy_item_transaction "
+                + "FOREIGN KEY (transaction_id) REFERENCES transaction (id)");
+
+        jdbcTemplate.update("INSERT INTO client (id, full_name, phone_number, type, initial_balance, deleted) "
+                + "VALUES (1, 'partition-test', '+998000000001', 'CLIENT', 100, false)");
+        insertTransaction(1, "2020-01-31 23:59:59", "-10");
+        insertTransaction(2, "2020-02-15 12:00:00", "5");
+        // Tranzaksiyasidan keyin, keyingi oyda yozilgan item
+        insertItem(1, 1, "2020-02-01 00:00:01");
+        insertItem(2, 2, "2020-02-15 12:00:00");
+
+        TransactionPartitionProperties properties = new TransactionPartitionProperties();
+        properties.setMonthsAhead(0);
+        properties.setHotMonths(1);
+        properties.setArchiveSchema(ARCHIVE_SCHEMA);
+        partitionService = new TransactionPartitionServiceImpl(jdbcTemplate, properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("SET search_path TO public");
+        dropSchemas();
+        scratchDataSource.destroy();
+    }
+
+    @Test
+    void convertsTablesAndArchivesAMonth() {
+        transactionTemplate.executeWithoutResult(status -> partitionService.convertToPartitioned());
+
+        assertTrue(partitionService.isPartitioned());
+        assertFalse(exists("transaction_legacy"));
+        assertFalse(exists("transaction_item_legacy"));
+        assertEquals(2, count("transaction"));
+        assertEquals(2, count("transaction_item"));
+        // Item tranzaksiyasining oyida
+        assertEquals("transaction_item_p2020_01", jdbcTemplate.queryForObject(
+                "SELECT tableoid::regclass::text FROM transaction_item WHERE id = 1", String.class));
+        assertEquals(Boolean.TRUE, jdbcTemplate.queryForObject("""
+                SELECT EXISTS (SELECT 1 FROM pg_constraint
+                               WHERE conrelid = 'transaction_item'::regclass AND conname = 'fk_transaction_item_transaction'
+                                 AND confrelid = 'transaction'::regclass AND contype = 'f')
+                """, Boolean.class));
+        // transaction 1 ning created_at i boshqa - composite FK rad etadi
+        assertThrows(RuntimeException.class, () -> jdbcTemplate.update(
+                "INSERT INTO transaction_item (id, transaction_id, transaction_created_at, quantity, deleted) "
+                        + "VALUES (3, 1, '2020-02-01 00:00:01', 1, false)"));
+
+        transactionTemplate.executeWithoutResult(status -> partitionService.archivePartition(YearMonth.of(2020, 1)));
+
+        assertTrue(exists(ARCHIVE_SCHEMA + ".transaction_p2020_01"));
+        assertTrue(exists(ARCHIVE_SCHEMA + ".transaction_item_p2020_01"));
+        assertEquals(1, count("transaction"));
+        assertEquals(1, count("transaction_item"));
+        assertEquals(1, count(ARCHIVE_SCHEMA + ".transaction_item_p2020_01"));
+        // Arxivlangan oy ta'siri boshlang'ich balansga o'tdi: 100 + (-10)
+        assertEquals(0, new BigDecimal("90").compareTo(
+                jdbcTemplate.queryForObject("SELECT initial_balance FROM client WHERE id = 1", BigDecimal.class)));
+    }
+
+    @Test
+    void orphanItemsAbortTheMigrationWithoutChanges() {
+        jdbcTemplate.execute("ALTER TABLE transaction_item DROP CONSTRAINT fk_legacy_item_transaction");
+        insertItem(3, 99, "2020-02-15 12:00:00");
+
+        assertThrows(IllegalStateException.class,
+                () -> transactionTemplate.executeWithoutResult(status -> partitionService.convertToPartitioned()));
+
+        assertFalse(partitionService.isPartitioned());
+        assertFalse(exists("transaction_legacy"));
+        assertEquals(2, count("transaction"));
+        assertEquals(3, count("transaction_item"));
+    }
+
+    private void insertTransaction(long id, String createdAt, String balanceEffect) {
+        jdbcTemplate.update("INSERT INTO transaction (id, client_id, type, balance_effect, created_at, deleted) "
+                + "VALUES (?, 1, 'SALE', ?, ?::timestamp, false)", id, new BigDecimal(balanceEffect), createdAt);
+    }
+
+    private void insertItem(long id, long transactionId, String createdAt) {
+        jdbcTemplate.update("INSERT INTO transaction_item (id, transaction_id, quantity, created_at, deleted) "
+                + "VALUES (?, ?, 1, ?::timestamp, false)", id, transactionId, createdAt);
+    }
+
+    private boolean exists(String relation) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, relation));
+    }
+
+    private int count(String table) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Integer.class);
+    }
+
+    private void dropSchemas() {
+        jdbcTemplate.execute("DROP SCHEMA IF EXISTS " + ARCHIVE_SCHEMA + " CASCADE");
+        jdbcTemplate.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+    }
+}
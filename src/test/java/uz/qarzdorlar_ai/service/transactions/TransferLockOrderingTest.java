@@ -0,0 +1,150 @@
+package uz.qarzdorlar_ai.service.transactions;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import uz.qarzdorlar_ai.PostgresDataJpaTest;
+import uz.qarzdorlar_ai.config.properties.BalanceLedgerProperties;
+import uz.qarzdorlar_ai.enums.ClientType;
+import uz.qarzdorlar_ai.enums.TransactionType;
+import uz.qarzdorlar_ai.model.Client;
+import uz.qarzdorlar_ai.model.Transaction;
+import uz.qarzdorlar_ai.repository.ClientBalanceDeltaRepository;
+import uz.qarzdorlar_ai.repository.ClientRepository;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Ledger o'chirilgan (to'g'ridan-to'g'ri UPDATE client) yo'lda A -> B va B -> A transferlarini ko'p threaddan
+ * bir vaqtda yuboradi: birorta ham deadlock bo'lmasligi va yakuniy balanslar to'g'ri chiqishi kerak.
+ * PostgreSQL kerak ({@link PostgresDataJpaTest}).
+ */
+@PostgresDataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TransferLockOrderingTest {
+
+    private static final int THREADS = 16;
+    private static final int TRANSFERS_PER_THREAD = 50;
+    private static final BigDecimal A_TO_B = new BigDecimal("1.5000");
+    private static final BigDecimal B_TO_A = new BigDecimal("2.2500");
+
+    // parallel threadlar uchun pool kattaroq
+    @DynamicPropertySource
+    static void connectionPool(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.hikari.maximum-pool-size", () -> THREADS + 2);
+    }
+
+    @Autowired
+    private ClientRepository clientRepository;
+    @Autowired
+    private ClientBalanceDeltaRepository clientBalanceDeltaRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private TransactionHelperServiceImpl transactionHelperService;
+    private TransactionTemplate transactionTemplate;
+    private Client first;
+    private Client second;
+
+    @BeforeEach
+    void setUp() {
+        BalanceLedgerProperties properties = new BalanceLedgerProperties();
+        properties.setEnabled(false);
+
+        // Proxy siz: har bir transfer TransactionServiceImpl dagidek bitta tranzaksiyada (transactionTemplate)
+        transactionHelperService = new TransactionHelperServiceImpl(
+                new ClientBalanceLedgerServiceImpl(clientRepository, clientBalanceDeltaRepository, properties));
+        transactionTemplate = new TransactionTemplate(transactionManager);
+
+        first = clientRepository.save(newClient());
+        second = clientRepository.save(newClient());
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM client WHERE id IN (?, ?)", first.getId(), second.getId());
+    }
+
+    @Test
+    void oppositeTransfersDoNotDeadlock() throws InterruptedException {
+        Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+        for (int t = 0; t < THREADS; t++) {
+            boolean forward = t % 2 == 0;
+            executor.submit(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < TRANSFERS_PER_THREAD; i++) {
+                        Transaction transfer = forward ? transfer(first, second, A_TO_B) : transfer(second, first, B_TO_A);
+                        transactionTemplate.executeWithoutResult(status -> transactionHelperService.updateClientBalance(transfer));
+                    }
+                } catch (Throwable e) {
+                    failures.add(e);
+                }
+            });
+        }
+
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(2, TimeUnit.MINUTES), "transfers did not finish in time");
+
+        List<String> messages = new ArrayList<>();
+        failures.forEach(e -> messages.add(e.getClass().getSimpleName() + ": " + e.getMessage()));
+        assertTrue(failures.isEmpty(), "failed transfers (deadlocks?): " + messages);
+
+        int transfersPerDirection = THREADS / 2 * TRANSFERS_PER_THREAD;
+        BigDecimal firstExpected = B_TO_A.subtract(A_TO_B).multiply(BigDecimal.valueOf(transfersPerDirection));
+
+        assertEquals(0, firstExpected.compareTo(balanceOf(first)), "first client balance");
+        assertEquals(0, firstExpected.negate().compareTo(balanceOf(second)), "second client balance");
+    }
+
+    private Transaction transfer(Client sender, Client receiver, BigDecimal amount) {
+        Transaction transaction = new Transaction();
+        transaction.setType(TransactionType.TRANSFER);
+        transaction.setClient(sender);
+        transaction.setReceiverClient(receiver);
+        transaction.setBalanceEffect(amount.negate());
+        transaction.setReceiverBalanceEffect(amount);
+        return transaction;
+    }
+
+    private BigDecimal balanceOf(Client client) {
+        return jdbcTemplate.queryForObject("SELECT COALESCE(current_balance, 0) FROM client WHERE id = ?",
+                BigDecimal.class, client.getId());
+    }
+
+    private Client newClient() {
+        String suffix = UUID.randomUUID().toString();
+        Client client = new Client();
+        client.setFullName("lock-order-" + suffix);
+        client.setPhoneNumber(suffix);
+        client.setType(ClientType.CLIENT);
+        client.setCurrentBalance(BigDecimal.ZERO);
+        return client;
+    }
+}